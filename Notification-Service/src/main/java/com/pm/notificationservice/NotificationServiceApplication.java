@@ -4,6 +4,7 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 
 @SpringBootApplication(scanBasePackages = {
@@ -13,6 +14,7 @@ import org.springframework.scheduling.annotation.EnableAsync;
 })
 @EnableFeignClients
 @EnableAsync
+@EnableScheduling
 public class NotificationServiceApplication {
 
     public static void main(String[] args) {
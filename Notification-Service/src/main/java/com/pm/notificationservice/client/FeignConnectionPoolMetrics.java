@@ -0,0 +1,42 @@
+package com.pm.notificationservice.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes usage of the pooled Feign HTTP client (leased, available, pending, max connections)
+ */
+@Component
+public class FeignConnectionPoolMetrics implements MeterBinder {
+
+    private final ObjectProvider<PoolingHttpClientConnectionManager> connectionManager;
+
+    public FeignConnectionPoolMetrics(ObjectProvider<PoolingHttpClientConnectionManager> connectionManager) {
+        this.connectionManager = connectionManager;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        PoolingHttpClientConnectionManager manager = connectionManager.getIfAvailable();
+        if (manager == null) {
+            return;
+        }
+
+        Gauge.builder("feign.http.pool.leased", manager, m -> m.getTotalStats().getLeased())
+                .description("Connections currently leased by Feign calls")
+                .register(registry);
+        Gauge.builder("feign.http.pool.available", manager, m -> m.getTotalStats().getAvailable())
+                .description("Idle keep-alive connections in the pool")
+                .register(registry);
+        Gauge.builder("feign.http.pool.pending", manager, m -> m.getTotalStats().getPending())
+                .description("Calls waiting for a pooled connection")
+                .register(registry);
+        Gauge.builder("feign.http.pool.max", manager, m -> m.getTotalStats().getMax())
+                .description("Maximum pooled connections")
+                .register(registry);
+    }
+}
@@ -0,0 +1,126 @@
+package com.pm.notificationservice.client;
+
+import com.pm.notificationservice.dto.UserContactDto;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Groups concurrent single-user lookups into User Service batch lookups
+ *
+ * The first lookup opens a short window; every lookup arriving within it joins the same
+ * POST /api/users/batch-lookup call. A batch is sent early once it reaches max-size.
+ * Each caller gets its own user, or null if User Service does not know the ID.
+ */
+@Component
+@Slf4j
+public class UserLookupBatcher implements DisposableBean {
+
+    private final UserServiceAsyncClient userServiceAsyncClient;
+    private final ScheduledExecutorService timer;
+    private final DistributionSummary batchSizeSummary;
+    private final long windowMs;
+    private final int maxSize;
+
+    private Map<String, CompletableFuture<UserContactDto>> pending = new LinkedHashMap<>();
+    private ScheduledFuture<?> scheduledFlush;
+
+    public UserLookupBatcher(UserServiceAsyncClient userServiceAsyncClient,
+                             MeterRegistry meterRegistry,
+                             @Value("${user-service.batch.window-ms:5}") long windowMs,
+                             @Value("${user-service.batch.max-size:100}") int maxSize) {
+        this.userServiceAsyncClient = userServiceAsyncClient;
+        this.windowMs = windowMs;
+        this.maxSize = maxSize;
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-lookup-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.batchSizeSummary = DistributionSummary.builder("user-service.batch.size")
+                .description("User IDs per batch lookup sent to User Service")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Look up one user as part of the next batch
+     *
+     * @return the user, or null if unknown
+     */
+    public CompletableFuture<UserContactDto> lookup(String userId) {
+        Map<String, CompletableFuture<UserContactDto>> full = null;
+        CompletableFuture<UserContactDto> future;
+        synchronized (this) {
+            future = pending.computeIfAbsent(userId, id -> new CompletableFuture<>());
+            if (pending.size() >= maxSize) {
+                full = takePending();
+            } else if (scheduledFlush == null) {
+                scheduledFlush = timer.schedule(this::flush, windowMs, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (full != null) {
+            send(full);
+        }
+        return future;
+    }
+
+    private void flush() {
+        Map<String, CompletableFuture<UserContactDto>> batch;
+        synchronized (this) {
+            batch = takePending();
+        }
+        if (!batch.isEmpty()) {
+            send(batch);
+        }
+    }
+
+    /**
+     * Called with the monitor held
+     */
+    private Map<String, CompletableFuture<UserContactDto>> takePending() {
+        Map<String, CompletableFuture<UserContactDto>> batch = pending;
+        pending = new LinkedHashMap<>();
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        return batch;
+    }
+
+    private void send(Map<String, CompletableFuture<UserContactDto>> batch) {
+        batchSizeSummary.record(batch.size());
+        List<String> ids = new ArrayList<>(batch.keySet());
+        userServiceAsyncClient.getUserContacts(ids).whenComplete((contacts, error) -> {
+            if (error != null) {
+                log.debug("Batch lookup of {} users failed: {}", ids.size(), error.toString());
+                batch.values().forEach(future -> future.completeExceptionally(error));
+                return;
+            }
+            Map<String, UserContactDto> byId = new HashMap<>();
+            if (contacts != null) {
+                contacts.forEach(contact -> byId.put(contact.getId(), contact));
+            }
+            batch.forEach((id, future) -> future.complete(byId.get(id)));
+        });
+    }
+
+    @Override
+    public void destroy() {
+        flush();
+        timer.shutdown();
+    }
+}
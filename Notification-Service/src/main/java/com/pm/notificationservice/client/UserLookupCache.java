@@ -0,0 +1,136 @@
+package com.pm.notificationservice.client;
+
+import com.pm.notificationservice.dto.UserContactDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cached, coalesced user lookups in front of User Service
+ *
+ * - Found users are cached for the TTL; unknown users for the shorter negative TTL, so a
+ *   burst for a deleted user does not reach User Service either
+ * - Concurrent misses for the same ID share one in-flight lookup (single flight), and misses
+ *   for different IDs are grouped into batch calls by {@link UserLookupBatcher}
+ * - Failures are never cached; the next lookup tries again
+ * - Entries expire after their TTL and the oldest are evicted beyond max-entries
+ */
+@Component
+public class UserLookupCache {
+
+    private final UserLookupBatcher userLookupBatcher;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final ConcurrentHashMap<String, CompletableFuture<Optional<UserContactDto>>> inFlight = new ConcurrentHashMap<>();
+
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final int maxEntries;
+
+    private final Counter hitCounter;
+    private final Counter negativeHitCounter;
+    private final Counter missCounter;
+    private final Counter coalescedCounter;
+
+    public UserLookupCache(UserLookupBatcher userLookupBatcher,
+                           MeterRegistry meterRegistry,
+                           @Value("${user-service.cache.ttl-seconds:60}") long ttlSeconds,
+                           @Value("${user-service.cache.negative-ttl-seconds:10}") long negativeTtlSeconds,
+                           @Value("${user-service.cache.max-entries:10000}") int maxEntries) {
+        this.userLookupBatcher = userLookupBatcher;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.negativeTtlNanos = TimeUnit.SECONDS.toNanos(negativeTtlSeconds);
+        this.maxEntries = maxEntries;
+
+        Gauge.builder("user-service.cache.size", entries, Map::size)
+                .description("Cached user lookups")
+                .register(meterRegistry);
+        Gauge.builder("user-service.cache.in_flight", inFlight, Map::size)
+                .description("User lookups in flight to User Service")
+                .register(meterRegistry);
+        this.hitCounter = lookupCounter(meterRegistry, "hit");
+        this.negativeHitCounter = lookupCounter(meterRegistry, "negative_hit");
+        this.missCounter = lookupCounter(meterRegistry, "miss");
+        this.coalescedCounter = lookupCounter(meterRegistry, "coalesced");
+    }
+
+    /**
+     * Look up a user, from cache when possible
+     *
+     * @return the user, or empty if User Service does not know the ID
+     */
+    public CompletableFuture<Optional<UserContactDto>> getUserById(String userId) {
+        long now = System.nanoTime();
+        Entry cached = entries.get(userId);
+        if (cached != null && cached.expiresAtNanos() - now > 0) {
+            (cached.user().isEmpty() ? negativeHitCounter : hitCounter).increment();
+            return CompletableFuture.completedFuture(cached.user());
+        }
+
+        CompletableFuture<Optional<UserContactDto>> pending = new CompletableFuture<>();
+        CompletableFuture<Optional<UserContactDto>> existing = inFlight.putIfAbsent(userId, pending);
+        if (existing != null) {
+            coalescedCounter.increment();
+            return existing;
+        }
+
+        missCounter.increment();
+        userLookupBatcher.lookup(userId).whenComplete((user, error) -> {
+            Optional<UserContactDto> result = error == null ? store(userId, Optional.ofNullable(user)) : null;
+            inFlight.remove(userId, pending);
+            if (error != null) {
+                pending.completeExceptionally(error);
+            } else {
+                pending.complete(result);
+            }
+        });
+        return pending;
+    }
+
+    /**
+     * Drop a cached user, e.g. after it was changed
+     */
+    public void invalidate(String userId) {
+        entries.remove(userId);
+    }
+
+    private Optional<UserContactDto> store(String userId, Optional<UserContactDto> user) {
+        long now = System.nanoTime();
+        long ttl = user.isEmpty() ? negativeTtlNanos : ttlNanos;
+        Entry entry = new Entry(userId, user, now + ttl);
+        entries.put(userId, entry);
+        insertionOrder.add(entry);
+        evict(now);
+        return entry.user();
+    }
+
+    private void evict(long now) {
+        Entry head;
+        while ((head = insertionOrder.peek()) != null
+                && (head.expiresAtNanos() - now <= 0 || entries.size() > maxEntries)) {
+            Entry evicted = insertionOrder.poll();
+            if (evicted != null) {
+                entries.remove(evicted.userId(), evicted);
+            }
+        }
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("user-service.cache.lookups")
+                .description("User lookups by cache outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record Entry(String userId, Optional<UserContactDto> user, long expiresAtNanos) {
+    }
+}
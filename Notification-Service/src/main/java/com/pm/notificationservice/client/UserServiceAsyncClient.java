@@ -0,0 +1,99 @@
+package com.pm.notificationservice.client;
+
+import com.pm.notificationservice.dto.UserContactDto;
+import com.pm.notificationservice.exception.FeignClientException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Asynchronous, bulkheaded access to {@link UserServiceClient}
+ *
+ * - Calls run on a small dedicated pool, never on request or dispatch threads
+ * - The pool and its queue are bounded: when User Service is slow, excess calls are
+ *   rejected immediately instead of piling up
+ * - Every call is capped by a timeout on top of the Feign read timeout
+ */
+@Component
+@Slf4j
+public class UserServiceAsyncClient implements DisposableBean {
+
+    private final UserServiceClient userServiceClient;
+    private final ExecutorService bulkhead;
+
+    @Value("${user-service.bulkhead.timeout-ms:4000}")
+    private long timeoutMs;
+
+    public UserServiceAsyncClient(UserServiceClient userServiceClient,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${user-service.bulkhead.max-concurrent-calls:20}") int maxConcurrentCalls,
+                                  @Value("${user-service.bulkhead.queue-capacity:50}") int queueCapacity) {
+        this.userServiceClient = userServiceClient;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                maxConcurrentCalls, maxConcurrentCalls,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "user-service-client-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+
+        this.bulkhead = ExecutorServiceMetrics.monitor(meterRegistry, executor, "user-service.bulkhead");
+    }
+
+    /**
+     * Async variant of {@link UserServiceClient#getUserById(String)}
+     */
+    public CompletableFuture<Map<String, Object>> getUserById(String userId) {
+        return submit("getUserById", () -> userServiceClient.getUserById(userId));
+    }
+
+    /**
+     * Async variant of {@link UserServiceClient#verifyUser(String)}
+     */
+    public CompletableFuture<Map<String, Object>> verifyUser(String userId) {
+        return submit("verifyUser", () -> userServiceClient.verifyUser(userId));
+    }
+
+    /**
+     * Async variant of {@link UserServiceClient#getUserContacts(Map)}
+     */
+    public CompletableFuture<List<UserContactDto>> getUserContacts(List<String> userIds) {
+        return submit("getUserContacts", () -> userServiceClient.getUserContacts(Map.of("ids", userIds)));
+    }
+
+    private <T> CompletableFuture<T> submit(String method, Supplier<T> call) {
+        try {
+            return CompletableFuture.supplyAsync(call, bulkhead)
+                    .orTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            log.warn("User Service bulkhead full, rejecting {}", method);
+            return CompletableFuture.failedFuture(
+                    new FeignClientException("User Service bulkhead full", 503, method, e));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        bulkhead.shutdown();
+    }
+}
@@ -1,16 +1,25 @@
 package com.pm.notificationservice.client;
 
+import com.pm.notificationservice.dto.UserContactDto;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 
+import java.util.List;
 import java.util.Map;
 
 /**
  * Feign Client for User Service integration.
  * Used to make HTTP calls to User Service endpoints.
+ * Calls go through a pooled HTTP client and a circuit breaker; see {@link UserServiceAsyncClient}
+ * for bulkheaded, non-blocking variants.
  */
-@FeignClient(name = "user-service", url = "${user-service.url:http://localhost:8081}")
+@FeignClient(name = "user-service",
+        url = "${user-service.url:http://localhost:8081}",
+        configuration = UserServiceClientConfig.class,
+        fallbackFactory = UserServiceClientFallbackFactory.class)
 public interface UserServiceClient {
 
     /**
@@ -30,5 +39,14 @@ public interface UserServiceClient {
      */
     @GetMapping("/api/users/{id}/verify")
     Map<String, Object> verifyUser(@PathVariable("id") String userId);
+
+    /**
+     * Get contact details of many users in one call
+     *
+     * @param request {"ids": [...]}
+     * @return contacts of the known users; unknown IDs are omitted
+     */
+    @PostMapping("/api/users/batch-lookup")
+    List<UserContactDto> getUserContacts(@RequestBody Map<String, List<String>> request);
 }
 
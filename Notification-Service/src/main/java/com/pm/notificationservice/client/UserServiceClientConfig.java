@@ -0,0 +1,51 @@
+package com.pm.notificationservice.client;
+
+import feign.Logger;
+import feign.RequestInterceptor;
+import feign.Retryer;
+import feign.codec.ErrorDecoder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.util.StringUtils;
+
+/**
+ * Feign configuration scoped to {@link UserServiceClient}
+ * Deliberately not a @Configuration class, so it does not leak into other Feign clients
+ */
+@Slf4j
+public class UserServiceClientConfig {
+
+    @Bean
+    public ErrorDecoder userServiceErrorDecoder() {
+        return new UserServiceErrorDecoder();
+    }
+
+    /**
+     * Authenticates every call as an internal service; User Service only answers
+     * cross-enterprise lookups for callers presenting this token. Without a configured
+     * token no header is sent, and User Service rejects those lookups.
+     */
+    @Bean
+    public RequestInterceptor userServiceTokenInterceptor(@Value("${user-service.service-token:}") String serviceToken) {
+        if (!StringUtils.hasText(serviceToken)) {
+            log.warn("user-service.service-token is not set; User Service batch lookups will be rejected");
+            return template -> { };
+        }
+        return template -> template.header("X-Service-Token", serviceToken);
+    }
+
+    @Bean
+    public Logger.Level userServiceLoggerLevel() {
+        return Logger.Level.BASIC;
+    }
+
+    /**
+     * Retries are left to the circuit breaker and callers; a blind retry would multiply load
+     * on an already struggling User Service
+     */
+    @Bean
+    public Retryer userServiceRetryer() {
+        return Retryer.NEVER_RETRY;
+    }
+}
@@ -0,0 +1,56 @@
+package com.pm.notificationservice.client;
+
+import com.pm.notificationservice.dto.UserContactDto;
+import com.pm.notificationservice.exception.FeignClientException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.openfeign.FallbackFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fallbacks for {@link UserServiceClient} when the call fails or the circuit breaker is open
+ *
+ * An unknown user (404) degrades to an empty result; anything else is reported as
+ * User Service being unavailable (503) so callers fail fast instead of waiting.
+ */
+@Component
+@Slf4j
+public class UserServiceClientFallbackFactory implements FallbackFactory<UserServiceClient> {
+
+    @Override
+    public UserServiceClient create(Throwable cause) {
+        return new UserServiceClient() {
+            @Override
+            public Map<String, Object> getUserById(String userId) {
+                return fallback("getUserById", userId, cause);
+            }
+
+            @Override
+            public Map<String, Object> verifyUser(String userId) {
+                return fallback("verifyUser", userId, cause);
+            }
+
+            @Override
+            public List<UserContactDto> getUserContacts(Map<String, List<String>> request) {
+                List<String> ids = request.getOrDefault("ids", List.of());
+                if (cause instanceof FeignClientException feignClientException && feignClientException.isNotFound()) {
+                    return List.of();
+                }
+
+                log.warn("User Service getUserContacts failed for {} users: {}", ids.size(), cause.toString());
+                throw new FeignClientException("User Service unavailable", 503, "getUserContacts", cause);
+            }
+        };
+    }
+
+    private Map<String, Object> fallback(String method, String userId, Throwable cause) {
+        if (cause instanceof FeignClientException feignClientException && feignClientException.isNotFound()) {
+            return Map.of();
+        }
+
+        log.warn("User Service {} failed for user {}: {}", method, userId, cause.toString());
+        throw new FeignClientException("User Service unavailable", 503, method, cause);
+    }
+}
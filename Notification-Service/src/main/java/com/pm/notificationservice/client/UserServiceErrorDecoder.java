@@ -0,0 +1,48 @@
+package com.pm.notificationservice.client;
+
+import com.pm.notificationservice.exception.FeignClientException;
+import feign.Response;
+import feign.codec.ErrorDecoder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Translates User Service error responses into {@link FeignClientException}
+ *
+ * - 404 is reported as not-found (callers treat it as an unknown user, not a failure)
+ * - Other statuses are surfaced with their status so the circuit breaker and callers can react
+ * - Only a bounded prefix of the error body is read
+ */
+@Slf4j
+public class UserServiceErrorDecoder implements ErrorDecoder {
+
+    private static final int MAX_BODY_BYTES = 512;
+
+    @Override
+    public Exception decode(String methodKey, Response response) {
+        int status = response.status();
+        String body = readBody(response);
+        String message = "User Service returned " + status + " for " + methodKey +
+                (body.isEmpty() ? "" : ": " + body);
+
+        if (status != 404) {
+            log.warn("User Service error: {}", message);
+        }
+        return new FeignClientException(message, status, methodKey);
+    }
+
+    private String readBody(Response response) {
+        if (response.body() == null) {
+            return "";
+        }
+        try (InputStream in = response.body().asInputStream()) {
+            byte[] bytes = in.readNBytes(MAX_BODY_BYTES);
+            return new String(bytes, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            return "";
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.pm.notificationservice.client;
+
+import com.pm.notificationservice.exception.FeignClientException;
+
+import java.util.function.Predicate;
+
+/**
+ * Circuit breaker failure predicate for User Service calls
+ * Client errors (e.g. 404 for an unknown user) are valid answers and must not open the breaker
+ */
+public class UserServiceFailurePredicate implements Predicate<Throwable> {
+
+    @Override
+    public boolean test(Throwable throwable) {
+        if (throwable instanceof FeignClientException feignClientException) {
+            return feignClientException.isServerError();
+        }
+        return true;
+    }
+}
@@ -0,0 +1,66 @@
+package com.pm.notificationservice.controller;
+
+import com.pm.notificationservice.dto.ApiResponse;
+import com.pm.notificationservice.dto.NotificationHistoryDto;
+import com.pm.notificationservice.service.job.NotificationJobStore;
+import com.pm.notificationservice.service.retry.RetryProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dead-Letter Controller
+ *
+ * Inspect notifications that exhausted their retries and replay them at a controlled rate
+ */
+@RestController
+@RequestMapping("/api/notifications/dead-letters")
+@RequiredArgsConstructor
+@Slf4j
+public class DeadLetterController {
+
+    private final NotificationJobStore jobStore;
+    private final RetryProperties retryProperties;
+
+    /**
+     * List dead-lettered notifications, newest first
+     * GET /api/notifications/dead-letters?page=0&size=50
+     */
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<NotificationHistoryDto>>> getDeadLetters(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+
+        List<NotificationHistoryDto> deadLetters = jobStore.findDeadLetters(Math.max(page, 0), Math.min(Math.max(size, 1), 500))
+                .map(NotificationHistoryDto::from)
+                .getContent();
+        return ResponseEntity.ok(ApiResponse.success("Dead-lettered notifications", deadLetters));
+    }
+
+    /**
+     * Replay dead-lettered notifications
+     * POST /api/notifications/dead-letters/replay?limit=100&ratePerSecond=10
+     *
+     * Jobs are released back to the job store spaced 1/ratePerSecond apart and picked up
+     * by the retry workers; only their failed channels are sent again.
+     */
+    @PostMapping("/replay")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> replay(
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(required = false) Double ratePerSecond) {
+
+        int batch = Math.min(Math.max(limit, 1), retryProperties.getMaxReplayBatch());
+        double rate = ratePerSecond != null && ratePerSecond > 0
+                ? Math.min(ratePerSecond, retryProperties.getReplayRatePerSecond())
+                : retryProperties.getReplayRatePerSecond();
+
+        int replayed = jobStore.replayDeadLetters(batch, rate);
+        log.info("Dead-letter replay requested: {} jobs at {}/s", replayed, rate);
+        return ResponseEntity.accepted().body(ApiResponse.success("Dead letters queued for replay",
+                Map.of("replayed", replayed, "ratePerSecond", rate)));
+    }
+}
@@ -1,20 +1,37 @@
 package com.pm.notificationservice.controller;
 
-import com.pm.notificationservice.client.UserServiceClient;
+import com.pm.notificationservice.client.UserLookupCache;
 import com.pm.notificationservice.dto.ApiResponse;
+import com.pm.notificationservice.dto.BatchNotificationResponse;
+import com.pm.notificationservice.dto.NotificationAuditDto;
 import com.pm.notificationservice.dto.NotificationRequest;
 import com.pm.notificationservice.dto.NotificationResponse;
+import com.pm.notificationservice.dto.NotificationStatusDto;
+import com.pm.notificationservice.exception.DispatchQueueFullException;
+import com.pm.notificationservice.exception.FeignClientException;
+import com.pm.notificationservice.repository.NotificationAuditLogRepository;
+import com.pm.notificationservice.service.NotificationBatchService;
 import com.pm.notificationservice.service.NotificationService;
+import com.pm.notificationservice.service.NotificationSubmitExecutor;
+import com.pm.notificationservice.service.status.NotificationStatusTracker;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import java.io.IOException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Notification Controller
@@ -29,8 +46,14 @@ import java.util.Map;
 @Validated
 public class NotificationController {
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final NotificationService notificationService;
-    private final UserServiceClient userServiceClient;
+    private final UserLookupCache userLookupCache;
+    private final NotificationBatchService notificationBatchService;
+    private final NotificationStatusTracker statusTracker;
+    private final NotificationAuditLogRepository auditLogRepository;
+    private final NotificationSubmitExecutor submitExecutor;
 
     /**
      * Send notification
@@ -48,12 +71,21 @@ public class NotificationController {
      *   }
      * }
      *
+     * Optional "sendAt" (ISO-8601 with offset) or "delaySeconds" defers delivery; such a
+     * notification is stored and can be cancelled until it is sent.
+     *
+     * Returns 202 once the notification is queued or scheduled, or 429 with Retry-After when the
+     * dispatch queue is full. With an Idempotency-Key header, a repeated request returns
+     * 200 with the original request ID and is not sent again.
+     *
      * @param request notification request
+     * @param idempotencyKey optional client key identifying retries of the same request
      * @return notification response with request ID and status
      */
     @PostMapping("/send")
     public ResponseEntity<NotificationResponse> sendNotification(
-            @Valid @RequestBody NotificationRequest request) {
+            @Valid @RequestBody NotificationRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
 
         log.info("Received notification request for event: {} | Channels: {} | Recipients: {}",
                 request.getEvent(), request.getChannels(), request.getTo().size());
@@ -65,12 +97,18 @@ public class NotificationController {
                         .body(NotificationResponse.error("", "Event type is required"));
             }
 
+            if (idempotencyKey != null) {
+                request.setIdempotencyKey(idempotencyKey);
+            }
+
             // Send notification (async)
             NotificationResponse response = notificationService.sendNotification(request);
 
             log.info("Notification request accepted with ID: {}", response.getRequestId());
-            return ResponseEntity.accepted().body(response);
+            return accepted(response);
 
+        } catch (DispatchQueueFullException e) {
+            return tooManyRequests(e);
         } catch (Exception e) {
             log.error("Error processing notification request", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -83,45 +121,157 @@ public class NotificationController {
      *
      * POST /api/notifications/send/{userId}
      *
+     * The User Service lookup runs on its own bulkhead; the servlet thread is released
+     * while it is in flight. Lookups are cached and concurrent lookups of one user share
+     * a single call. The notification is then submitted on the submit executor, not on the
+     * thread that completed the lookup.
+     *
      * @param userId user ID to validate and send to
      * @param request notification request
+     * @param idempotencyKey optional client key identifying retries of the same request
      * @return notification response
      */
     @PostMapping("/send/{userId}")
-    public ResponseEntity<NotificationResponse> sendNotificationToUser(
+    public CompletableFuture<ResponseEntity<NotificationResponse>> sendNotificationToUser(
             @PathVariable String userId,
-            @Valid @RequestBody NotificationRequest request) {
+            @Valid @RequestBody NotificationRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
 
         log.info("Received notification request for userId: {} | Event: {}", userId, request.getEvent());
+        if (idempotencyKey != null) {
+            request.setIdempotencyKey(idempotencyKey);
+        }
 
-        try {
-            // Validate user exists using FeignClient
-            Map<String, Object> user = userServiceClient.getUserById(userId);
+        return userLookupCache.getUserById(userId)
+                .thenApplyAsync(contact -> {
+                    // Validate user exists
+                    if (contact.isEmpty()) {
+                        log.warn("User not found: {}", userId);
+                        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                                .body(NotificationResponse.error("", "User not found: " + userId));
+                    }
 
-            if (user == null || user.isEmpty()) {
-                log.warn("User not found: {}", userId);
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body(NotificationResponse.error("", "User not found: " + userId));
-            }
+                    // Enrich request with user info
+                    if (request.getData() == null) {
+                        request.setData(new HashMap<>());
+                    }
+                    request.getData().put("userId", userId);
+                    request.getData().put("userName", contact.get().getName());
 
-            // Enrich request with user info
-            if (request.getData() == null) {
-                request.setData(new HashMap<>());
-            }
-            request.getData().put("userId", userId);
-            request.getData().put("userName", user.get("name"));
+                    // Send notification
+                    NotificationResponse response = notificationService.sendNotification(request);
 
-            // Send notification
-            NotificationResponse response = notificationService.sendNotification(request);
+                    log.info("Notification sent to user: {} | Request ID: {}", userId, response.getRequestId());
+                    return accepted(response);
+                }, submitExecutor)
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (cause instanceof DispatchQueueFullException queueFullException) {
+                        return tooManyRequests(queueFullException);
+                    }
+                    if (cause instanceof RejectedExecutionException) {
+                        log.warn("Submit executor full, rejecting notification for user: {}", userId);
+                        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                                .body(NotificationResponse.error("", "Notification service is busy, retry later"));
+                    }
+                    if (cause instanceof FeignClientException feignClientException) {
+                        log.warn("User lookup failed for user: {} - {}", userId, cause.getMessage());
+                        return ResponseEntity.status(feignClientException.getStatus())
+                                .body(NotificationResponse.error("", "User Service error: " + cause.getMessage()));
+                    }
+                    if (cause instanceof TimeoutException) {
+                        log.warn("User lookup timed out for user: {}", userId);
+                        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+                                .body(NotificationResponse.error("", "User Service timed out"));
+                    }
+                    log.error("Error processing notification for user: {}", userId, cause);
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(NotificationResponse.error("", "Error: " + cause.getMessage()));
+                });
+    }
 
-            log.info("Notification sent to user: {} | Request ID: {}", userId, response.getRequestId());
-            return ResponseEntity.accepted().body(response);
+    /**
+     * Send a batch of notifications
+     *
+     * POST /api/notifications/batch
+     *
+     * Body is a JSON array of notification requests, or NDJSON (application/x-ndjson)
+     * with one request per line. The body is parsed as a stream, so very large batches
+     * are never held in memory. Each item is validated and accepted or rejected on its
+     * own; the response lists a request ID or an error per item, in submission order.
+     *
+     * If the stream turns out malformed part way, the items before the fault are still
+     * accepted: the response then carries the error alongside their results.
+     *
+     * @return 202 with per-item results (and the stream error, if any, once items were accepted),
+     *         or 400 if the stream was malformed before any item was accepted
+     */
+    @PostMapping(value = "/batch", consumes = {"application/json", "application/x-ndjson"})
+    public ResponseEntity<BatchNotificationResponse> sendBatch(HttpServletRequest httpRequest) throws IOException {
+        BatchNotificationResponse response = notificationBatchService.ingest(httpRequest.getInputStream());
 
-        } catch (Exception e) {
-            log.error("Error processing notification for user: {}", userId, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(NotificationResponse.error("", "Error: " + e.getMessage()));
+        log.info("Batch notification request: {} received | {} accepted | {} rejected",
+                response.getReceived(), response.getAccepted(), response.getRejected());
+        if (response.getError() != null && response.getAccepted() == 0) {
+            return ResponseEntity.badRequest().body(response);
+        }
+        return ResponseEntity.accepted().body(response);
+    }
+
+    /**
+     * Delivery status of a notification request
+     *
+     * GET /api/notifications/{requestId}
+     *
+     * Overall status (scheduled, accepted, sending, retrying, sent, failed, dead_letter,
+     * cancelled), attempts and the status of each channel. Recent requests are answered from memory.
+     *
+     * @param requestId request ID returned when the notification was accepted
+     * @return status, or 404 if the request is unknown
+     */
+    @GetMapping("/{requestId}")
+    public ResponseEntity<ApiResponse<NotificationStatusDto>> getStatus(@PathVariable String requestId) {
+        return statusTracker.find(requestId)
+                .map(status -> ResponseEntity.ok(ApiResponse.success("Notification status", status)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.error("Notification not found: " + requestId, null)));
+    }
+
+    /**
+     * Cancel a scheduled notification, or one still waiting to be picked up
+     *
+     * DELETE /api/notifications/{requestId}
+     *
+     * @param requestId request ID returned when the notification was accepted
+     * @return 200 with the cancelled status, 409 if delivery already started, or 404 if the request is unknown
+     */
+    @DeleteMapping("/{requestId}")
+    public ResponseEntity<ApiResponse<NotificationStatusDto>> cancel(@PathVariable String requestId) {
+        if (notificationService.cancel(requestId).isPresent()) {
+            return ResponseEntity.ok(ApiResponse.success("Notification cancelled",
+                    statusTracker.find(requestId).orElse(null)));
         }
+        return statusTracker.find(requestId)
+                .map(status -> ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(ApiResponse.error("Notification can no longer be cancelled", status)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.error("Notification not found: " + requestId, null)));
+    }
+
+    /**
+     * Audit trail of a notification request, oldest first
+     *
+     * GET /api/notifications/{requestId}/audit
+     *
+     * Audit records reach the database from the local audit journal in batches, so the
+     * most recent attempts can take up to a minute to appear.
+     */
+    @GetMapping("/{requestId}/audit")
+    public ResponseEntity<ApiResponse<List<NotificationAuditDto>>> getAuditTrail(@PathVariable String requestId) {
+        List<NotificationAuditDto> records = auditLogRepository.findByRequestIdOrderByOccurredAt(requestId).stream()
+                .map(NotificationAuditDto::from)
+                .toList();
+        return ResponseEntity.ok(ApiResponse.success("Notification audit trail", records));
     }
 
     /**
@@ -142,12 +292,31 @@ public class NotificationController {
         try {
             notificationService.send(payload);
             return ResponseEntity.ok(ApiResponse.success("Notification sent", null));
+        } catch (DispatchQueueFullException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(ApiResponse.error(e.getMessage(), null));
         } catch (Exception e) {
             log.error("Error in legacy notification endpoint", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(ApiResponse.error("Error: " + e.getMessage(), null));
         }
     }
-}
 
+    /**
+     * 202 for a newly queued notification, 200 when an idempotent retry matched an earlier request
+     */
+    private ResponseEntity<NotificationResponse> accepted(NotificationResponse response) {
+        return response.isDuplicate() ? ResponseEntity.ok(response) : ResponseEntity.accepted().body(response);
+    }
 
+    /**
+     * 429 response telling the caller when to retry
+     */
+    private ResponseEntity<NotificationResponse> tooManyRequests(DispatchQueueFullException e) {
+        log.warn("Notification rejected: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(NotificationResponse.error("", e.getMessage()));
+    }
+}
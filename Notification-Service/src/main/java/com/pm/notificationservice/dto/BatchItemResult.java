@@ -0,0 +1,33 @@
+package com.pm.notificationservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one item of a batch notification request
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemResult {
+    private int index;          // position of the item in the submitted stream
+    private String requestId;   // set when the item was accepted
+    private boolean accepted;
+    private String error;       // set when the item was rejected
+    private boolean duplicate;  // idempotency key already used; requestId is the original request
+
+    public static BatchItemResult accepted(int index, String requestId) {
+        return new BatchItemResult(index, requestId, true, null, false);
+    }
+
+    public static BatchItemResult duplicate(int index, String requestId) {
+        return new BatchItemResult(index, requestId, true, null, true);
+    }
+
+    public static BatchItemResult rejected(int index, String error) {
+        return new BatchItemResult(index, null, false, error, false);
+    }
+}
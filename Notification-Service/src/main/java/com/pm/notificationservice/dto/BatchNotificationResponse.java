@@ -0,0 +1,25 @@
+package com.pm.notificationservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Response DTO for batch notification ingestion
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchNotificationResponse {
+    private int received;
+    private int accepted;
+    private int rejected;
+    private String error;       // set when the stream itself could not be read to the end
+    private LocalDateTime timestamp;
+    private List<BatchItemResult> items;
+}
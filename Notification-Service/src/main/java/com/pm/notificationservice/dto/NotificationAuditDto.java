@@ -0,0 +1,37 @@
+package com.pm.notificationservice.dto;
+
+import com.pm.notificationservice.entity.NotificationAuditLog;
+import com.pm.notificationservice.enums.AuditOutcome;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for a notification audit record
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationAuditDto {
+    private String requestId;
+    private String channel;
+    private Integer attempt;
+    private AuditOutcome outcome;
+    private String detail;
+    private LocalDateTime occurredAt;
+
+    public static NotificationAuditDto from(NotificationAuditLog record) {
+        return NotificationAuditDto.builder()
+                .requestId(record.getRequestId())
+                .channel(record.getChannel())
+                .attempt(record.getAttempt())
+                .outcome(record.getOutcome())
+                .detail(record.getDetail())
+                .occurredAt(record.getOccurredAt())
+                .build();
+    }
+}
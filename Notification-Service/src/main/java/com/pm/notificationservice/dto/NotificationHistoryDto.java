@@ -0,0 +1,47 @@
+package com.pm.notificationservice.dto;
+
+import com.pm.notificationservice.entity.NotificationHistory;
+import com.pm.notificationservice.enums.NotificationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for a notification job (without its payload)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationHistoryDto {
+    private String id;
+    private String requestId;
+    private String enterpriseId;
+    private String event;
+    private Integer recipientCount;
+    private NotificationStatus status;
+    private Integer attempts;
+    private String failedChannels;
+    private String lastError;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+
+    public static NotificationHistoryDto from(NotificationHistory job) {
+        return NotificationHistoryDto.builder()
+                .id(job.getId())
+                .requestId(job.getRequestId())
+                .enterpriseId(job.getEnterpriseId())
+                .event(job.getEvent())
+                .recipientCount(job.getRecipientCount())
+                .status(job.getStatus())
+                .attempts(job.getAttempts())
+                .failedChannels(job.getFailedChannels())
+                .lastError(job.getLastError())
+                .createdAt(job.getCreatedAt())
+                .completedAt(job.getCompletedAt())
+                .build();
+    }
+}
@@ -1,6 +1,7 @@
 package com.pm.notificationservice.dto;
 
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -19,4 +20,15 @@ public class NotificationRequest {
     private List<String> channels;    // ["email", "sms"]
     private List<String> to;          // list of email/phone
     private Map<String, Object> data; // template variables e.g. {"otp": "123456"}
+    private Map<String, Map<String, Object>> recipientData; // per-recipient variables keyed by address, override data
+    private String idempotencyKey;    // client key; a repeat within the enterprise returns the original request ID
+    private String priority;          // "critical", "normal", "bulk"; defaults from the event
+    private String sendAt;            // ISO-8601 time to send at, e.g. "2026-01-01T09:00:00Z"; omit to send now
+    private Long delaySeconds;        // alternative to sendAt: send this many seconds from now
+
+    @JsonIgnore
+    private Map<String, List<String>> channelRecipients; // retries only: recipients still owed per channel; others get all of "to"
+
+    @JsonIgnore
+    private Map<String, List<String>> rejectedRecipients; // last attempt only: recipients refused for good per channel; never retried
 }
@@ -23,6 +23,8 @@ public class NotificationResponse {
     private List<String> failedChannels; // channels that failed
     private String event;
     private int recipientCount;
+    private boolean duplicate;           // idempotency key already used; requestId is the original request
+    private LocalDateTime scheduledFor;  // send time, for a scheduled notification
 
     public static NotificationResponse success(String requestId, String event, int recipientCount) {
         return NotificationResponse.builder()
@@ -35,6 +37,31 @@ public class NotificationResponse {
                 .build();
     }
 
+    public static NotificationResponse scheduled(String requestId, String event, int recipientCount,
+                                                 LocalDateTime scheduledFor) {
+        return NotificationResponse.builder()
+                .requestId(requestId)
+                .success(true)
+                .message("Notification scheduled")
+                .timestamp(LocalDateTime.now())
+                .event(event)
+                .recipientCount(recipientCount)
+                .scheduledFor(scheduledFor)
+                .build();
+    }
+
+    public static NotificationResponse duplicate(String requestId, String event, int recipientCount) {
+        return NotificationResponse.builder()
+                .requestId(requestId)
+                .success(true)
+                .message("Duplicate request, notification already accepted")
+                .timestamp(LocalDateTime.now())
+                .event(event)
+                .recipientCount(recipientCount)
+                .duplicate(true)
+                .build();
+    }
+
     public static NotificationResponse error(String requestId, String message) {
         return NotificationResponse.builder()
                 .requestId(requestId)
@@ -0,0 +1,40 @@
+package com.pm.notificationservice.dto;
+
+import com.pm.notificationservice.enums.DeliveryStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Delivery status of a notification request, overall and per channel
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationStatusDto {
+    private String requestId;
+    private String enterpriseId;
+    private String event;
+    private Integer recipientCount;
+    private DeliveryStatus status;
+    private Integer attempts;
+    private Map<String, ChannelStatus> channels; // channel -> its own status and attempts
+    private String lastError;
+    private LocalDateTime acceptedAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime nextAttemptAt;         // set while RETRYING
+    private LocalDateTime completedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ChannelStatus {
+        private DeliveryStatus status;
+        private int attempts;
+    }
+}
@@ -0,0 +1,22 @@
+package com.pm.notificationservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Contact details of a user, as returned by User Service batch lookups
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserContactDto {
+    private String id;
+    private String email;
+    private String phoneNumber;
+    private String name;
+    private String enterpriseId;
+    private Boolean active;
+}
@@ -0,0 +1,76 @@
+package com.pm.notificationservice.entity;
+
+import com.pm.notificationservice.enums.AuditOutcome;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Audit record of a notification: acceptance, each channel attempt, retries and dead-lettering
+ *
+ * Rows are not written on the send path; they are recorded in the local audit journal
+ * and bulk-loaded from sealed journal segments. The journal position is unique, so a
+ * segment shipped twice never duplicates rows.
+ */
+@Entity
+@Table(name = "notification_audit_log",
+        indexes = {
+                @Index(name = "idx_audit_request", columnList = "request_id"),
+                @Index(name = "idx_audit_enterprise_occurred", columnList = "enterprise_id, occurred_at")
+        },
+        uniqueConstraints = @UniqueConstraint(name = "uk_audit_journal_position",
+                columnNames = {"journal_id", "journal_segment", "journal_offset"}))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationAuditLog {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @Column(name = "request_id", nullable = false, length = 36)
+    private String requestId;
+
+    @Column(name = "enterprise_id")
+    private String enterpriseId;
+
+    @Column(nullable = false, length = 50)
+    private String event;
+
+    /**
+     * Null for records about the whole request
+     */
+    @Column(length = 20)
+    private String channel;
+
+    @Column(nullable = false)
+    private Integer attempt;
+
+    @Column(nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private AuditOutcome outcome;
+
+    @Column(length = 255)
+    private String detail;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    /**
+     * Journal the record was shipped from, and its position there
+     */
+    @Column(name = "journal_id", nullable = false, length = 36)
+    private String journalId;
+
+    @Column(name = "journal_segment", nullable = false)
+    private Long journalSegment;
+
+    @Column(name = "journal_offset", nullable = false)
+    private Integer journalOffset;
+}
@@ -0,0 +1,114 @@
+package com.pm.notificationservice.entity;
+
+import com.pm.notificationservice.enums.NotificationStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persistent notification job
+ *
+ * Every accepted notification is stored here before it is acknowledged, so queued
+ * notifications survive restarts. Nodes claim due jobs with a time-limited lease.
+ */
+@Entity
+@Table(name = "notification_history", indexes = {
+        @Index(name = "idx_notification_status_next_attempt", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_notification_status_lease", columnList = "status, lease_expires_at"),
+        @Index(name = "idx_notification_enterprise", columnList = "enterprise_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationHistory {
+
+    public static final int IDEMPOTENCY_KEY_LENGTH = 200;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @Column(name = "request_id", nullable = false, unique = true, length = 36)
+    private String requestId;
+
+    /**
+     * Client-supplied idempotency key, scoped by enterprise; unique so a retried request
+     * can never create a second job
+     */
+    @Column(name = "idempotency_key", unique = true, length = IDEMPOTENCY_KEY_LENGTH)
+    private String idempotencyKey;
+
+    @Column(name = "enterprise_id")
+    private String enterpriseId;
+
+    @Column(nullable = false, length = 50)
+    private String event;
+
+    @Column(nullable = false)
+    private Integer recipientCount;
+
+    /**
+     * Full NotificationRequest as JSON
+     */
+    @Lob
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    @Builder.Default
+    private NotificationStatus status = NotificationStatus.PENDING;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "lease_owner", length = 100)
+    private String leaseOwner;
+
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
+    @Column
+    private String failedChannels;
+
+    /**
+     * Recipients still owed by the failed channels, as JSON, e.g. {"email":["a@example.com"]}
+     * A retry only sends to these; a failed channel without an entry is retried for all recipients
+     */
+    @Lob
+    @Column(name = "failed_recipients", columnDefinition = "TEXT")
+    private String failedRecipients;
+
+    /**
+     * Per-channel status and attempts, e.g. "email=SENT/1,sms=RETRYING/2"
+     * Written in batches by the status tracker, behind the job status itself
+     */
+    @Column(name = "channel_status")
+    private String channelStatus;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column
+    private LocalDateTime completedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+    }
+}
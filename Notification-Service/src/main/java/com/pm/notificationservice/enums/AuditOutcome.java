@@ -0,0 +1,32 @@
+package com.pm.notificationservice.enums;
+
+/**
+ * What an audit record reports; the code is its value in the binary audit journal
+ */
+public enum AuditOutcome {
+    ACCEPTED(1),         // request stored
+    SENT(2),             // channel delivered on an attempt
+    FAILED(3),           // channel failed on an attempt
+    RETRY_SCHEDULED(4),  // failed channels parked for another attempt
+    DEAD_LETTER(5),      // retries exhausted
+    CANCELLED(6);        // cancelled before it was sent
+
+    private final byte code;
+
+    AuditOutcome(int code) {
+        this.code = (byte) code;
+    }
+
+    public byte getCode() {
+        return code;
+    }
+
+    public static AuditOutcome fromCode(byte code) {
+        for (AuditOutcome outcome : values()) {
+            if (outcome.code == code) {
+                return outcome;
+            }
+        }
+        throw new IllegalArgumentException("Unknown audit outcome code: " + code);
+    }
+}
@@ -0,0 +1,35 @@
+package com.pm.notificationservice.enums;
+
+/**
+ * Delivery state of a notification, or of one of its channels, as reported to callers
+ */
+public enum DeliveryStatus {
+    SCHEDULED,   // waiting for its send time
+    ACCEPTED,    // stored, waiting for a worker
+    SENDING,     // a worker is delivering it
+    RETRYING,    // failed, waiting for the next attempt
+    SENT,        // delivered
+    FAILED,      // failed, not retried
+    DEAD_LETTER, // retries exhausted, can be replayed
+    CANCELLED;   // cancelled before it was sent
+
+    /**
+     * Caller-facing status of a stored job
+     */
+    public static DeliveryStatus of(NotificationStatus status) {
+        return switch (status) {
+            case SCHEDULED -> SCHEDULED;
+            case PENDING -> ACCEPTED;
+            case PROCESSING -> SENDING;
+            case RETRYING -> RETRYING;
+            case SENT -> SENT;
+            case FAILED -> FAILED;
+            case DEAD_LETTER -> DEAD_LETTER;
+            case CANCELLED -> CANCELLED;
+        };
+    }
+
+    public boolean isFinal() {
+        return this == SENT || this == FAILED || this == DEAD_LETTER || this == CANCELLED;
+    }
+}
@@ -4,18 +4,21 @@ package com.pm.notificationservice.enums;
  * Notification event types supported by the service
  */
 public enum NotificationEvent {
-    OTP("otp", "Your OTP Code"),
-    MAGIC_LINK("magic_link", "Your Login Link"),
-    WELCOME("welcome", "Welcome to the Platform"),
-    PASSWORD_RESET("password_reset", "Password Reset Request"),
-    ACCOUNT_VERIFICATION("account_verification", "Verify Your Account");
+    OTP("otp", "Your OTP Code", NotificationPriority.CRITICAL),
+    MAGIC_LINK("magic_link", "Your Login Link", NotificationPriority.CRITICAL),
+    WELCOME("welcome", "Welcome to the Platform", NotificationPriority.BULK),
+    PASSWORD_RESET("password_reset", "Password Reset Request", NotificationPriority.CRITICAL),
+    ACCOUNT_VERIFICATION("account_verification", "Verify Your Account", NotificationPriority.NORMAL),
+    ACCOUNT_DEACTIVATED("account_deactivated", "Your Account Has Been Deactivated", NotificationPriority.NORMAL);
 
     private final String value;
     private final String defaultSubject;
+    private final NotificationPriority defaultPriority;
 
-    NotificationEvent(String value, String defaultSubject) {
+    NotificationEvent(String value, String defaultSubject, NotificationPriority defaultPriority) {
         this.value = value;
         this.defaultSubject = defaultSubject;
+        this.defaultPriority = defaultPriority;
     }
 
     public String getValue() {
@@ -26,6 +29,10 @@ public enum NotificationEvent {
         return defaultSubject;
     }
 
+    public NotificationPriority getDefaultPriority() {
+        return defaultPriority;
+    }
+
     public static NotificationEvent fromValue(String value) {
         for (NotificationEvent event : values()) {
             if (event.value.equalsIgnoreCase(value)) {
@@ -0,0 +1,47 @@
+package com.pm.notificationservice.enums;
+
+/**
+ * Dispatch priority classes, highest first
+ *
+ * CRITICAL is for time-limited codes and links (OTP, magic link, password reset), NORMAL for
+ * account notices and BULK for mail that can wait (welcome campaigns, announcements).
+ */
+public enum NotificationPriority {
+    CRITICAL("critical"),
+    NORMAL("normal"),
+    BULK("bulk");
+
+    private final String value;
+
+    NotificationPriority(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public static NotificationPriority fromValue(String value) {
+        for (NotificationPriority priority : values()) {
+            if (priority.value.equalsIgnoreCase(value)) {
+                return priority;
+            }
+        }
+        throw new IllegalArgumentException("Unknown notification priority: " + value);
+    }
+
+    /**
+     * Priority of an event: the caller's override if given, else the event's default
+     * Unknown events are NORMAL
+     */
+    public static NotificationPriority resolve(String event, String override) {
+        if (override != null && !override.isBlank()) {
+            return fromValue(override.trim());
+        }
+        try {
+            return NotificationEvent.fromValue(event).getDefaultPriority();
+        } catch (IllegalArgumentException e) {
+            return NORMAL;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.pm.notificationservice.enums;
+
+/**
+ * Lifecycle of a persisted notification job
+ */
+public enum NotificationStatus {
+    SCHEDULED,   // waiting for its send time; leased while held in a node's timing wheel
+    PENDING,     // waiting to be claimed by a worker
+    PROCESSING,  // claimed by a node, lease held
+    RETRYING,    // failed channels waiting for their backoff, lease held
+    SENT,        // delivered through all channels
+    FAILED,      // permanent failure, not retried
+    DEAD_LETTER, // retries exhausted, can be replayed
+    CANCELLED    // cancelled by the caller before it was sent
+}
@@ -0,0 +1,19 @@
+package com.pm.notificationservice.exception;
+
+/**
+ * Raised when the dispatch queue cannot accept more notifications
+ * Callers should back off for {@link #getRetryAfterSeconds()} before retrying (HTTP 429)
+ */
+public class DispatchQueueFullException extends NotificationException {
+
+    private final long retryAfterSeconds;
+
+    public DispatchQueueFullException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,39 @@
+package com.pm.notificationservice.exception;
+
+/**
+ * Raised when a call to another service through Feign fails
+ * Carries the remote HTTP status (or 503 when the call never completed)
+ */
+public class FeignClientException extends RuntimeException {
+
+    private final int status;
+    private final String methodKey;
+
+    public FeignClientException(String message, int status, String methodKey) {
+        super(message);
+        this.status = status;
+        this.methodKey = methodKey;
+    }
+
+    public FeignClientException(String message, int status, String methodKey, Throwable cause) {
+        super(message, cause);
+        this.status = status;
+        this.methodKey = methodKey;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getMethodKey() {
+        return methodKey;
+    }
+
+    public boolean isNotFound() {
+        return status == 404;
+    }
+
+    public boolean isServerError() {
+        return status >= 500;
+    }
+}
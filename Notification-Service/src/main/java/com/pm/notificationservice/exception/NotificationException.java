@@ -0,0 +1,15 @@
+package com.pm.notificationservice.exception;
+
+/**
+ * Base exception for notification processing failures
+ */
+public class NotificationException extends RuntimeException {
+
+    public NotificationException(String message) {
+        super(message);
+    }
+
+    public NotificationException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,16 @@
+package com.pm.notificationservice.exception;
+
+/**
+ * Raised by a sender when the provider refused a message for good (e.g. an unknown mailbox
+ * or an SMTP 5xx reply); sending it again cannot succeed, so it is not retried
+ */
+public class PermanentDeliveryException extends NotificationException {
+
+    public PermanentDeliveryException(String message) {
+        super(message);
+    }
+
+    public PermanentDeliveryException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,29 @@
+package com.pm.notificationservice.repository;
+
+import com.pm.notificationservice.entity.NotificationAuditLog;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for NotificationAuditLog
+ */
+@Repository
+public interface NotificationAuditLogRepository extends JpaRepository<NotificationAuditLog, String> {
+
+    List<NotificationAuditLog> findByRequestIdOrderByOccurredAt(String requestId);
+
+    /**
+     * Offsets of a journal segment already loaded, within a range
+     */
+    @Query("SELECT a.journalOffset FROM NotificationAuditLog a " +
+           "WHERE a.journalId = :journalId AND a.journalSegment = :segment " +
+           "AND a.journalOffset BETWEEN :fromOffset AND :toOffset")
+    List<Integer> findLoadedOffsets(@Param("journalId") String journalId,
+                                    @Param("segment") long segment,
+                                    @Param("fromOffset") int fromOffset,
+                                    @Param("toOffset") int toOffset);
+}
@@ -0,0 +1,167 @@
+package com.pm.notificationservice.repository;
+
+import com.pm.notificationservice.entity.NotificationHistory;
+import com.pm.notificationservice.enums.NotificationStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for NotificationHistory (notification jobs)
+ */
+@Repository
+public interface NotificationHistoryRepository extends JpaRepository<NotificationHistory, String> {
+
+    /**
+     * Lock a batch of claimable jobs: due PENDING jobs and PROCESSING/RETRYING/SCHEDULED jobs whose lease expired
+     * SKIP LOCKED lets several nodes claim concurrently without picking the same job
+     */
+    @Query(value = "SELECT * FROM notification_history " +
+                   "WHERE (status = 'PENDING' AND next_attempt_at <= :now) " +
+                   "   OR (status IN ('PROCESSING', 'RETRYING', 'SCHEDULED') AND lease_expires_at < :now) " +
+                   "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<NotificationHistory> lockClaimable(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Lock scheduled jobs due before {@code until} that no node holds
+     */
+    @Query(value = "SELECT * FROM notification_history " +
+                   "WHERE status = 'SCHEDULED' AND next_attempt_at <= :until " +
+                   "AND (lease_owner IS NULL OR lease_expires_at < :now) " +
+                   "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<NotificationHistory> lockSchedulable(@Param("now") LocalDateTime now,
+                                              @Param("until") LocalDateTime until,
+                                              @Param("limit") int limit);
+
+    /**
+     * Move a scheduled job this node holds to PROCESSING once its send time has come
+     */
+    @Modifying
+    @Query("UPDATE NotificationHistory n SET n.status = com.pm.notificationservice.enums.NotificationStatus.PROCESSING, " +
+           "n.attempts = n.attempts + 1, n.leaseExpiresAt = :leaseExpiresAt " +
+           "WHERE n.id = :id AND n.leaseOwner = :owner " +
+           "AND n.status = com.pm.notificationservice.enums.NotificationStatus.SCHEDULED")
+    int beginScheduled(@Param("id") String id,
+                       @Param("owner") String owner,
+                       @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt);
+
+    /**
+     * Give every scheduled job held by a node back, so other nodes can load them
+     */
+    @Modifying
+    @Query("UPDATE NotificationHistory n SET n.leaseOwner = null, n.leaseExpiresAt = null " +
+           "WHERE n.leaseOwner = :owner " +
+           "AND n.status = com.pm.notificationservice.enums.NotificationStatus.SCHEDULED")
+    int releaseScheduled(@Param("owner") String owner);
+
+    /**
+     * Cancel a job that has not been picked up for delivery yet
+     */
+    @Modifying
+    @Query("UPDATE NotificationHistory n SET n.status = com.pm.notificationservice.enums.NotificationStatus.CANCELLED, " +
+           "n.completedAt = :completedAt, n.leaseOwner = null, n.leaseExpiresAt = null " +
+           "WHERE n.requestId = :requestId " +
+           "AND n.status IN (com.pm.notificationservice.enums.NotificationStatus.SCHEDULED, " +
+           "                 com.pm.notificationservice.enums.NotificationStatus.PENDING)")
+    int cancel(@Param("requestId") String requestId, @Param("completedAt") LocalDateTime completedAt);
+
+    /**
+     * Record the outcome of a job, only if this node still holds its lease
+     *
+     * @return 1 if updated, 0 if the lease was lost to another node
+     */
+    @Modifying
+    @Query("UPDATE NotificationHistory n SET n.status = :status, n.failedChannels = :failedChannels, " +
+           "n.failedRecipients = :failedRecipients, " +
+           "n.lastError = :lastError, n.completedAt = :completedAt, n.leaseOwner = null, n.leaseExpiresAt = null " +
+           "WHERE n.id = :id AND n.leaseOwner = :owner")
+    int complete(@Param("id") String id,
+                 @Param("owner") String owner,
+                 @Param("status") NotificationStatus status,
+                 @Param("failedChannels") String failedChannels,
+                 @Param("failedRecipients") String failedRecipients,
+                 @Param("lastError") String lastError,
+                 @Param("completedAt") LocalDateTime completedAt);
+
+    /**
+     * Park a failed job until its next attempt, keeping the lease so no other node claims it early
+     */
+    @Modifying
+    @Query("UPDATE NotificationHistory n SET n.status = com.pm.notificationservice.enums.NotificationStatus.RETRYING, " +
+           "n.failedChannels = :failedChannels, n.failedRecipients = :failedRecipients, " +
+           "n.lastError = :lastError, n.nextAttemptAt = :nextAttemptAt, n.leaseExpiresAt = :leaseExpiresAt " +
+           "WHERE n.id = :id AND n.leaseOwner = :owner")
+    int scheduleRetry(@Param("id") String id,
+                      @Param("owner") String owner,
+                      @Param("failedChannels") String failedChannels,
+                      @Param("failedRecipients") String failedRecipients,
+                      @Param("lastError") String lastError,
+                      @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                      @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt);
+
+    /**
+     * Push out the lease on a job this node is delivering
+     */
+    @Modifying
+    @Query("UPDATE NotificationHistory n SET n.leaseExpiresAt = :leaseExpiresAt " +
+           "WHERE n.id = :id AND n.leaseOwner = :owner")
+    int extendLease(@Param("id") String id,
+                    @Param("owner") String owner,
+                    @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt);
+
+    /**
+     * Move a parked job back to PROCESSING for its next attempt
+     */
+    @Modifying
+    @Query("UPDATE NotificationHistory n SET n.status = com.pm.notificationservice.enums.NotificationStatus.PROCESSING, " +
+           "n.attempts = n.attempts + 1, n.leaseExpiresAt = :leaseExpiresAt " +
+           "WHERE n.id = :id AND n.leaseOwner = :owner " +
+           "AND n.status = com.pm.notificationservice.enums.NotificationStatus.RETRYING")
+    int beginRetry(@Param("id") String id,
+                   @Param("owner") String owner,
+                   @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt);
+
+    /**
+     * Lock the oldest dead-lettered jobs for replay
+     */
+    @Query(value = "SELECT * FROM notification_history WHERE status = 'DEAD_LETTER' " +
+                   "ORDER BY completed_at LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<NotificationHistory> lockDeadLetters(@Param("limit") int limit);
+
+    /**
+     * Record per-channel delivery status
+     */
+    @Modifying
+    @Query("UPDATE NotificationHistory n SET n.channelStatus = :channelStatus WHERE n.requestId = :requestId")
+    int updateChannelStatus(@Param("requestId") String requestId, @Param("channelStatus") String channelStatus);
+
+    Optional<NotificationHistory> findByRequestId(String requestId);
+
+    Optional<NotificationHistory> findByIdempotencyKey(String idempotencyKey);
+
+    List<NotificationHistory> findByIdempotencyKeyIn(Collection<String> idempotencyKeys);
+
+    Page<NotificationHistory> findByStatusOrderByCompletedAtDesc(NotificationStatus status, Pageable pageable);
+
+    /**
+     * Give a claimed job back to the pool (e.g. the local queue was full)
+     * next_attempt_at is kept, so a job parked for retry still honours its backoff
+     */
+    @Modifying
+    @Query("UPDATE NotificationHistory n SET n.status = com.pm.notificationservice.enums.NotificationStatus.PENDING, " +
+           "n.leaseOwner = null, n.leaseExpiresAt = null " +
+           "WHERE n.id = :id AND n.leaseOwner = :owner")
+    int release(@Param("id") String id, @Param("owner") String owner);
+}
@@ -0,0 +1,105 @@
+package com.pm.notificationservice.service;
+
+import com.pm.notificationservice.dto.NotificationRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded, time-windowed set of recently seen idempotency keys
+ *
+ * Answers most duplicate checks without a database round trip. Entries expire after the
+ * window and the oldest are evicted beyond max-entries; the unique constraint on
+ * notification_history.idempotency_key is the authority once an entry is gone.
+ */
+@Component
+public class IdempotencyCache {
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final long windowNanos;
+    private final int maxEntries;
+
+    public IdempotencyCache(@Value("${notification.idempotency.window-seconds:600}") long windowSeconds,
+                            @Value("${notification.idempotency.max-entries:100000}") int maxEntries) {
+        this.windowNanos = TimeUnit.SECONDS.toNanos(windowSeconds);
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Idempotency key of a request scoped by enterprise, so tenants cannot collide
+     *
+     * @return scoped key, or null if the request has no key
+     */
+    public static String keyFor(NotificationRequest request) {
+        String key = request.getIdempotencyKey();
+        if (key == null || key.isBlank()) {
+            return null;
+        }
+        String enterpriseId = request.getEnterpriseId() != null ? request.getEnterpriseId() : "default";
+        return enterpriseId + ":" + key.trim();
+    }
+
+    /**
+     * Reserve a key for a request
+     *
+     * @return the request ID already holding the key, or null if this request now holds it
+     */
+    public String putIfAbsent(String key, String requestId) {
+        evictExpired();
+
+        long now = System.nanoTime();
+        Entry fresh = new Entry(key, requestId, now + windowNanos);
+        while (true) {
+            Entry existing = entries.putIfAbsent(key, fresh);
+            if (existing == null) {
+                insertionOrder.add(fresh);
+                return null;
+            }
+            if (existing.expiresAtNanos() - now > 0) {
+                return existing.requestId();
+            }
+            // Expired but not yet evicted: take it over
+            if (entries.replace(key, existing, fresh)) {
+                insertionOrder.add(fresh);
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Release a reservation whose request was not accepted
+     */
+    public void remove(String key, String requestId) {
+        entries.computeIfPresent(key, (k, entry) -> entry.requestId().equals(requestId) ? null : entry);
+    }
+
+    /**
+     * Remember a key resolved from the job store
+     */
+    public void remember(String key, String requestId) {
+        putIfAbsent(key, requestId);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void evictExpired() {
+        long now = System.nanoTime();
+        Entry head;
+        while ((head = insertionOrder.peek()) != null
+                && (head.expiresAtNanos() - now <= 0 || entries.size() >= maxEntries)) {
+            Entry evicted = insertionOrder.poll();
+            if (evicted != null) {
+                entries.remove(evicted.key(), evicted);
+            }
+        }
+    }
+
+    private record Entry(String key, String requestId, long expiresAtNanos) {
+    }
+}
@@ -0,0 +1,233 @@
+package com.pm.notificationservice.service;
+
+import com.pm.notificationservice.dto.BatchItemResult;
+import com.pm.notificationservice.dto.BatchNotificationResponse;
+import com.pm.notificationservice.dto.NotificationRequest;
+import com.pm.notificationservice.service.audit.AuditJournal;
+import com.pm.notificationservice.service.job.NotificationJobStore;
+import com.pm.notificationservice.service.metrics.RequestMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Ingests large batches of notifications from a stream
+ *
+ * - Accepts a JSON array or NDJSON (one request object per line) and parses it item by
+ *   item; only one item plus the current flush chunk is held in memory
+ * - Every item is validated on its own; invalid items are reported, not fatal
+ * - Valid items are persisted as PENDING jobs in chunks and picked up by the job pollers
+ *   of all nodes, so a large batch never floods one node's dispatch queue
+ * - Items with an idempotency key already used are reported as duplicates with the
+ *   original request ID and are not stored again
+ * - Items with sendAt or delaySeconds are stored as SCHEDULED and released at their send time
+ */
+@Service
+@Slf4j
+public class NotificationBatchService {
+
+    private final NotificationService notificationService;
+    private final NotificationJobStore jobStore;
+    private final IdempotencyCache idempotencyCache;
+    private final AuditJournal auditJournal;
+    private final RequestMetrics requestMetrics;
+    private final JsonMapper jsonMapper;
+    private final ObjectReader itemReader;
+
+    @Value("${notification.batch.max-items:50000}")
+    private int maxItems;
+
+    @Value("${notification.batch.flush-size:500}")
+    private int flushSize;
+
+    public NotificationBatchService(NotificationService notificationService,
+                                    NotificationJobStore jobStore,
+                                    IdempotencyCache idempotencyCache,
+                                    AuditJournal auditJournal,
+                                    RequestMetrics requestMetrics,
+                                    JsonMapper jsonMapper) {
+        this.notificationService = notificationService;
+        this.jobStore = jobStore;
+        this.idempotencyCache = idempotencyCache;
+        this.auditJournal = auditJournal;
+        this.requestMetrics = requestMetrics;
+        this.jsonMapper = jsonMapper;
+        // Items are read one at a time from a stream that continues after each of them
+        this.itemReader = jsonMapper.readerFor(JsonNode.class)
+                .without(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+    }
+
+    /**
+     * Parse and enqueue every notification in the stream
+     * Items are bound with the application's JsonMapper, the same settings as a single @RequestBody
+     */
+    public BatchNotificationResponse ingest(InputStream body) {
+        List<BatchItemResult> results = new ArrayList<>();
+        Chunk pending = new Chunk();
+        String error = null;
+        int index = 0;
+
+        try (JsonParser parser = jsonMapper.createParser(body)) {
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+
+            while (token != null && !(array && token == JsonToken.END_ARRAY)) {
+                if (index >= maxItems) {
+                    error = "Batch exceeds the maximum of " + maxItems + " notifications; remaining items ignored";
+                    break;
+                }
+
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    results.add(BatchItemResult.rejected(index, "Item is not a JSON object"));
+                } else {
+                    JsonNode node = itemReader.readValue(parser);
+                    results.add(accept(index, node, pending));
+                }
+                index++;
+
+                if (pending.requests.size() >= flushSize && !flush(pending)) {
+                    error = "Failed to store notifications; ingestion stopped at item " + index;
+                    break;
+                }
+                token = parser.nextToken();
+            }
+        } catch (JacksonException e) {
+            error = "Malformed batch at item " + index + ": " + e.getMessage();
+            log.warn("Batch ingestion stopped: {}", error);
+        }
+
+        if (!pending.requests.isEmpty() && !flush(pending) && error == null) {
+            error = "Failed to store notifications";
+        }
+
+        int accepted = (int) results.stream().filter(BatchItemResult::isAccepted).count();
+        log.info("Batch ingested: {} items, {} accepted, {} rejected", results.size(), accepted, results.size() - accepted);
+
+        return BatchNotificationResponse.builder()
+                .received(results.size())
+                .accepted(accepted)
+                .rejected(results.size() - accepted)
+                .error(error)
+                .timestamp(LocalDateTime.now())
+                .items(results)
+                .build();
+    }
+
+    private BatchItemResult accept(int index, JsonNode node, Chunk pending) {
+        NotificationRequest request;
+        try {
+            request = jsonMapper.treeToValue(node, NotificationRequest.class);
+        } catch (JacksonException e) {
+            return BatchItemResult.rejected(index, "Invalid notification: " + e.getOriginalMessage());
+        }
+
+        String validationError = notificationService.validate(request);
+        if (validationError != null) {
+            requestMetrics.invalid(request);
+            return BatchItemResult.rejected(index, validationError);
+        }
+
+        String requestId = UUID.randomUUID().toString();
+        String idempotencyKey = IdempotencyCache.keyFor(request);
+        if (idempotencyKey != null) {
+            String originalRequestId = idempotencyCache.putIfAbsent(idempotencyKey, requestId);
+            if (originalRequestId != null) {
+                requestMetrics.duplicate(request);
+                return BatchItemResult.duplicate(index, originalRequestId);
+            }
+            pending.idempotencyKeys.put(requestId, idempotencyKey);
+        }
+
+        BatchItemResult result = BatchItemResult.accepted(index, requestId);
+        LocalDateTime sendAt = notificationService.sendTimeOf(request);
+        if (sendAt != null) {
+            pending.sendTimes.put(requestId, sendAt);
+        }
+        pending.requests.put(requestId, request);
+        pending.results.put(requestId, result);
+        return result;
+    }
+
+    /**
+     * Persist the pending chunk; on failure its items are reported as rejected
+     * Keys already held by stored jobs (outside the cache window) are resolved first and
+     * their items reported as duplicates
+     */
+    private boolean flush(Chunk pending) {
+        boolean stored = true;
+        try {
+            Map<String, String> taken = jobStore.findRequestIdsByIdempotencyKeys(pending.idempotencyKeys.values());
+            if (!taken.isEmpty()) {
+                for (String requestId : List.copyOf(pending.idempotencyKeys.keySet())) {
+                    String idempotencyKey = pending.idempotencyKeys.get(requestId);
+                    String originalRequestId = taken.get(idempotencyKey);
+                    if (originalRequestId != null) {
+                        idempotencyCache.remove(idempotencyKey, requestId);
+                        idempotencyCache.remember(idempotencyKey, originalRequestId);
+                        requestMetrics.duplicate(pending.requests.get(requestId));
+                        BatchItemResult result = pending.remove(requestId);
+                        result.setRequestId(originalRequestId);
+                        result.setDuplicate(true);
+                    }
+                }
+            }
+            jobStore.createPending(pending.requests, pending.idempotencyKeys, pending.sendTimes);
+            pending.requests.forEach(auditJournal::accepted);
+            pending.requests.values().forEach(requestMetrics::accepted);
+        } catch (RuntimeException e) {
+            log.error("Failed to store batch chunk of {} notifications", pending.requests.size(), e);
+            pending.idempotencyKeys.forEach((requestId, idempotencyKey) -> idempotencyCache.remove(idempotencyKey, requestId));
+            for (BatchItemResult result : pending.results.values()) {
+                result.setAccepted(false);
+                result.setRequestId(null);
+                result.setError("Failed to store notification");
+            }
+            stored = false;
+        }
+        pending.clear();
+        return stored;
+    }
+
+    /**
+     * Accepted items waiting to be stored, keyed by request ID in submission order
+     */
+    private static final class Chunk {
+        private final Map<String, NotificationRequest> requests = new LinkedHashMap<>();
+        private final Map<String, BatchItemResult> results = new LinkedHashMap<>();
+        private final Map<String, String> idempotencyKeys = new LinkedHashMap<>();
+        private final Map<String, LocalDateTime> sendTimes = new LinkedHashMap<>();
+
+        private BatchItemResult remove(String requestId) {
+            requests.remove(requestId);
+            idempotencyKeys.remove(requestId);
+            sendTimes.remove(requestId);
+            return results.remove(requestId);
+        }
+
+        private void clear() {
+            requests.clear();
+            results.clear();
+            idempotencyKeys.clear();
+            sendTimes.clear();
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.pm.notificationservice.service;
+
+import com.pm.notificationservice.dto.NotificationRequest;
+import com.pm.notificationservice.enums.NotificationChannel;
+import com.pm.notificationservice.exception.PermanentDeliveryException;
+import com.pm.notificationservice.service.channel.ChannelExecutors;
+import com.pm.notificationservice.service.channel.EmailSender;
+import com.pm.notificationservice.service.channel.SendProgress;
+import com.pm.notificationservice.service.channel.SmsSender;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Delivers an accepted notification through its channels (email, SMS)
+ *
+ * Runs on dispatch worker threads, never on the HTTP request thread. The channels of one
+ * notification are sent concurrently, each on its own bulkhead ({@link ChannelExecutors}),
+ * so a slow SMTP server never delays SMS and the other way round.
+ *
+ * A channel fails when any of its recipients failed. The recipients it still owes are recorded
+ * on the request (channelRecipients), so the retry of that channel only sends to them.
+ * Recipients the provider refused for good are not owed; they are recorded separately
+ * (rejectedRecipients), and a channel left with only those has failed permanently.
+ *
+ * A channel's deadline grows with its recipient count. When it is missed the send is abandoned:
+ * recipients not yet handed to the provider are owed and retried, the ones already in flight
+ * have an unknown outcome and are not sent again.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationDeliveryService {
+
+    private final EmailSender emailSender;
+    private final SmsSender smsSender;
+    private final ChannelExecutors channelExecutors;
+
+    /**
+     * Deliver a notification through every requested channel
+     *
+     * Each channel is sent to the recipients it still owes (all of "to" on a first attempt).
+     * Afterwards request.channelRecipients holds, for every failed channel, the recipients
+     * that were not reached and may be retried, and request.rejectedRecipients the ones that
+     * were refused for good.
+     *
+     * @param requestId notification request ID
+     * @param request notification request
+     * @return channels that failed (empty when all succeeded)
+     */
+    public List<String> deliver(String requestId, NotificationRequest request) {
+        List<String> failedChannels = new ArrayList<>();
+        Map<String, List<String>> owed = new LinkedHashMap<>();
+        Map<String, SendProgress> progress = new LinkedHashMap<>();
+        Map<String, List<String>> failedRecipients = new ConcurrentHashMap<>();
+
+        // Start every channel on its own bulkhead
+        Map<String, CompletableFuture<Boolean>> sends = new LinkedHashMap<>();
+        for (String channel : request.getChannels()) {
+            List<String> recipients = recipientsFor(request, channel);
+            SendProgress channelProgress = new SendProgress();
+            owed.put(channel, recipients);
+            progress.put(channel, channelProgress);
+            try {
+                NotificationChannel notifChannel = NotificationChannel.fromValue(channel);
+                sends.put(channel, channelExecutors.submit(notifChannel, recipients.size(), () -> {
+                    List<String> failed = switch (notifChannel) {
+                        case EMAIL -> sendEmailNotification(requestId, request, recipients, channelProgress);
+                        case SMS -> sendSmsNotification(requestId, request, recipients, channelProgress);
+                    };
+                    failedRecipients.putIfAbsent(channel, failed);
+                    return failed.isEmpty();
+                }));
+            } catch (IllegalArgumentException e) {
+                log.warn("Unknown notification channel: {}", channel);
+                failedChannels.add(channel);
+            }
+        }
+
+        // Gather results; each send is already capped by its channel deadline
+        sends.forEach((channel, send) -> {
+            try {
+                if (!send.join()) {
+                    failedChannels.add(channel);
+                }
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                if (cause instanceof TimeoutException) {
+                    // Recorded first, so a late completion of the abandoned send cannot overwrite it
+                    List<String> notStarted = progress.get(channel).abandon(owed.get(channel));
+                    failedRecipients.put(channel, notStarted);
+                    log.error("Channel '{}' timed out for notification {}: {} recipients in flight with unknown outcome, " +
+                                    "{} not started", channel, requestId,
+                            owed.get(channel).size() - notStarted.size(), notStarted.size());
+                    if (notStarted.isEmpty()) {
+                        return;
+                    }
+                } else if (cause instanceof RejectedExecutionException) {
+                    log.error("Channel '{}' bulkhead full for notification {}", channel, requestId);
+                } else {
+                    log.error("Error sending notification via channel '{}': {}", channel, cause.getMessage());
+                }
+                failedChannels.add(channel);
+            }
+        });
+
+        Map<String, List<String>> stillOwed = new LinkedHashMap<>();
+        Map<String, List<String>> rejected = new LinkedHashMap<>();
+        for (String channel : failedChannels) {
+            List<String> failed = failedRecipients.getOrDefault(channel, owed.getOrDefault(channel, request.getTo()));
+            List<String> refused = progress.containsKey(channel) ? progress.get(channel).rejected(failed) : List.of();
+            if (refused.isEmpty()) {
+                stillOwed.put(channel, failed);
+            } else {
+                List<String> retryable = new ArrayList<>(failed);
+                retryable.removeAll(refused);
+                stillOwed.put(channel, retryable);
+                rejected.put(channel, refused);
+                log.warn("Notification {} - channel '{}' refused permanently for {}", requestId, channel, refused);
+            }
+        }
+        request.setChannelRecipients(stillOwed.isEmpty() ? null : stillOwed);
+        request.setRejectedRecipients(rejected.isEmpty() ? null : rejected);
+
+        if (!failedChannels.isEmpty()) {
+            log.warn("Notification {} - Failed channels: {}", requestId, failedChannels);
+        } else {
+            log.info("Notification {} sent successfully through all channels", requestId);
+        }
+
+        return failedChannels;
+    }
+
+    /**
+     * Longest a delivery of this request can take: the largest deadline of its channels
+     */
+    public long deadlineFor(NotificationRequest request) {
+        long deadlineMs = 0;
+        for (String channel : request.getChannels()) {
+            try {
+                NotificationChannel notifChannel = NotificationChannel.fromValue(channel);
+                deadlineMs = Math.max(deadlineMs,
+                        channelExecutors.timeoutFor(notifChannel, recipientsFor(request, channel).size()));
+            } catch (IllegalArgumentException e) {
+                // Unknown channels fail immediately
+            }
+        }
+        return deadlineMs;
+    }
+
+    /**
+     * Recipients a channel still owes: the ones recorded by a previous attempt, or all of "to"
+     */
+    private static List<String> recipientsFor(NotificationRequest request, String channel) {
+        Map<String, List<String>> channelRecipients = request.getChannelRecipients();
+        if (channelRecipients != null && channelRecipients.containsKey(channel)) {
+            return channelRecipients.get(channel);
+        }
+        return request.getTo();
+    }
+
+    /**
+     * Send email notification
+     *
+     * Several recipients, or any per-recipient data, get one personalized message each
+     * so addresses are never shared on a To: line.
+     *
+     * @return recipients that could not be reached
+     */
+    private List<String> sendEmailNotification(String requestId, NotificationRequest request, List<String> recipients,
+                                               SendProgress progress) {
+        try {
+            log.debug("Sending email notification: {}", requestId);
+
+            String event = request.getEvent();
+            Map<String, Object> data = request.getData();
+
+            if (recipients.size() > 1 || request.getRecipientData() != null) {
+                return sendEmailBatch(requestId, request, recipients, progress);
+            }
+            if (!progress.begin(recipients)) {
+                return recipients;
+            }
+
+            // Send using template
+            boolean success = emailSender.sendWithTemplate(recipients, event, data);
+
+            if (success) {
+                log.info("Email notification sent successfully: {} | Event: {} | Recipients: {}",
+                        requestId, event, recipients.size());
+            } else {
+                log.error("Failed to send email notification: {}", requestId);
+            }
+
+            return success ? List.of() : recipients;
+
+        } catch (PermanentDeliveryException e) {
+            progress.reject(recipients);
+            return recipients;
+        } catch (Exception e) {
+            log.error("Exception while sending email notification: {}", requestId, e);
+            return recipients;
+        }
+    }
+
+    /**
+     * Send one personalized email per recipient
+     */
+    private List<String> sendEmailBatch(String requestId, NotificationRequest request, List<String> recipients,
+                                        SendProgress progress) {
+        Map<String, Map<String, Object>> recipientData = new LinkedHashMap<>();
+        for (String recipient : recipients) {
+            Map<String, Object> own = request.getRecipientData() != null
+                    ? request.getRecipientData().get(recipient)
+                    : null;
+            recipientData.put(recipient, own != null ? own : Map.of());
+        }
+
+        List<String> failed = emailSender.sendBatch(request.getEvent(), request.getData(), recipientData, progress);
+        if (failed.isEmpty()) {
+            log.info("Email notification sent successfully: {} | Event: {} | Recipients: {}",
+                    requestId, request.getEvent(), recipientData.size());
+        } else {
+            log.error("Email notification {} failed for {}/{} recipients: {}",
+                    requestId, failed.size(), recipientData.size(), failed);
+        }
+        return failed;
+    }
+
+    /**
+     * Send SMS notification
+     *
+     * @return recipients that could not be reached
+     */
+    private List<String> sendSmsNotification(String requestId, NotificationRequest request, List<String> recipients,
+                                             SendProgress progress) {
+        try {
+            log.debug("Sending SMS notification: {}", requestId);
+
+            if (!smsSender.isConfigured()) {
+                log.warn("SMS service not configured. Skipping SMS for request: {}", requestId);
+                return List.of(); // Don't fail if SMS is not configured
+            }
+
+            String message = buildSmsMessage(request.getEvent(), request.getData());
+
+            List<String> failed = smsSender.sendEach(recipients, message, progress);
+
+            if (failed.isEmpty()) {
+                log.info("SMS notification sent successfully: {} | Recipients: {}",
+                        requestId, recipients.size());
+            } else {
+                log.error("SMS notification {} failed for {}/{} recipients", requestId, failed.size(), recipients.size());
+            }
+
+            return failed;
+
+        } catch (Exception e) {
+            log.error("Exception while sending SMS notification: {}", requestId, e);
+            return recipients;
+        }
+    }
+
+    /**
+     * Build SMS message based on event and data
+     */
+    private String buildSmsMessage(String eventType, Map<String, Object> data) {
+        return switch (eventType.toLowerCase()) {
+            case "otp" -> String.format(
+                    "Your OTP is: %s. Valid for 5 minutes. Do not share.",
+                    data.getOrDefault("otp", "XXXXXX"));
+            case "magic_link" -> "Click to login: " + data.getOrDefault("magicLink", "https://example.com");
+            case "welcome" -> "Welcome! Your account is ready to use.";
+            default -> "You have a new notification.";
+        };
+    }
+}
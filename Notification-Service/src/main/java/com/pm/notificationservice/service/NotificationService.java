@@ -2,20 +2,29 @@ package com.pm.notificationservice.service;
 
 import com.pm.notificationservice.dto.NotificationRequest;
 import com.pm.notificationservice.dto.NotificationResponse;
-import com.pm.notificationservice.enums.NotificationChannel;
-import com.pm.notificationservice.enums.NotificationEvent;
-import com.pm.notificationservice.service.channel.EmailSender;
-import com.pm.notificationservice.service.channel.SmsSender;
-import com.pm.notificationservice.templates.EmailTemplate;
-import com.pm.notificationservice.templates.EmailTemplateFactory;
+import com.pm.notificationservice.exception.DispatchQueueFullException;
+import com.pm.notificationservice.entity.NotificationHistory;
+import com.pm.notificationservice.enums.NotificationPriority;
+import com.pm.notificationservice.service.audit.AuditJournal;
+import com.pm.notificationservice.service.digest.NotificationDigester;
+import com.pm.notificationservice.service.dispatch.NotificationDispatcher;
+import com.pm.notificationservice.service.job.NotificationJobStore;
+import com.pm.notificationservice.service.metrics.RequestMetrics;
+import com.pm.notificationservice.service.schedule.NotificationScheduler;
+import com.pm.notificationservice.service.schedule.ScheduleProperties;
+import com.pm.notificationservice.service.status.NotificationStatusTracker;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -23,7 +32,13 @@ import java.util.UUID;
  *
  * - Handles multiple notification channels (email, SMS)
  * - Supports different event types with templates
- * - Asynchronous processing
+ * - Durable: every accepted notification is persisted as a job before it is acknowledged
+ * - Asynchronous processing through a bounded dispatch queue
+ * - Idempotent: a repeated idempotency key returns the original request ID and is never dispatched again
+ * - Scheduled delivery: a request with a send time is stored and released by the
+ *   {@link NotificationScheduler} when it is due; it can be cancelled until then
+ * - Digests: notifications of digest events are held per recipient by the
+ *   {@link NotificationDigester} and sent together as one email
  * - Error handling and resilience
  * - Decoupled from caller - Auth Service doesn't care how notifications are sent
  */
@@ -32,9 +47,19 @@ import java.util.UUID;
 @Slf4j
 public class NotificationService {
 
-    private final EmailSender emailSender;
-    private final SmsSender smsSender;
-    private final EmailTemplateFactory templateFactory;
+    static final int MAX_IDEMPOTENCY_KEY_LENGTH = 128;
+    // The scoped key "enterpriseId:key" must fit notification_history.idempotency_key
+    static final int MAX_ENTERPRISE_ID_LENGTH = NotificationHistory.IDEMPOTENCY_KEY_LENGTH - MAX_IDEMPOTENCY_KEY_LENGTH - 1;
+
+    private final NotificationDispatcher dispatcher;
+    private final NotificationJobStore jobStore;
+    private final IdempotencyCache idempotencyCache;
+    private final NotificationStatusTracker statusTracker;
+    private final AuditJournal auditJournal;
+    private final NotificationScheduler scheduler;
+    private final ScheduleProperties scheduleProperties;
+    private final NotificationDigester digester;
+    private final RequestMetrics requestMetrics;
 
     /**
      * Send notification to recipients based on request
@@ -42,141 +67,176 @@ public class NotificationService {
      *
      * @param request notification request with event, channels, recipients, and data
      * @return notification response with status
+     * @throws DispatchQueueFullException if the dispatch queue cannot accept the notification
      */
     public NotificationResponse sendNotification(NotificationRequest request) {
         String requestId = UUID.randomUUID().toString();
 
         // Validate request
-        if (request == null || request.getChannels() == null || request.getChannels().isEmpty()) {
-            log.warn("Invalid notification request: {}", requestId);
-            return NotificationResponse.error(requestId, "No notification channels specified");
-        }
-
-        if (request.getTo() == null || request.getTo().isEmpty()) {
-            log.warn("No recipients specified for notification: {}", requestId);
-            return NotificationResponse.error(requestId, "No recipients specified");
+        String error = validate(request);
+        if (error != null) {
+            log.warn("Invalid notification request: {} - {}", requestId, error);
+            requestMetrics.invalid(request);
+            return NotificationResponse.error(requestId, error);
         }
 
         log.info("Processing notification request: {} | Event: {} | Channels: {} | Recipients: {}",
                 requestId, request.getEvent(), request.getChannels(), request.getTo().size());
 
-        // Send notification asynchronously
-        sendAsync(requestId, request);
-
-        // Return immediate response (fire and forget pattern)
-        return NotificationResponse.success(requestId, request.getEvent(), request.getTo().size());
-    }
-
-    /**
-     * Async notification sending - processes in background
-     * This decouples the notification sending from the caller
-     */
-    @Async
-    protected void sendAsync(String requestId, NotificationRequest request) {
-        List<String> failedChannels = new ArrayList<>();
-
-        // Process each channel
-        for (String channel : request.getChannels()) {
-            try {
-                NotificationChannel notifChannel = NotificationChannel.fromValue(channel);
-                boolean success = switch (notifChannel) {
-                    case EMAIL -> sendEmailNotification(requestId, request);
-                    case SMS -> sendSmsNotification(requestId, request);
-                };
+        // Reserve the idempotency key; a repeat gets the original request ID back
+        String idempotencyKey = IdempotencyCache.keyFor(request);
+        if (idempotencyKey != null) {
+            String originalRequestId = idempotencyCache.putIfAbsent(idempotencyKey, requestId);
+            if (originalRequestId != null) {
+                return duplicate(originalRequestId, request);
+            }
+        }
 
-                if (!success) {
-                    failedChannels.add(channel);
-                }
+        // Persist the job, then queue it for delivery on the local dispatch workers,
+        // or hold it until its send time or for a digest
+        LocalDateTime sendAt = sendTimeOf(request);
+        boolean digest = sendAt == null && digester.isEligible(request);
+        NotificationHistory job;
+        try {
+            if (sendAt != null) {
+                boolean hold = scheduler.hasRoom() && scheduler.isWithinHorizon(sendAt);
+                job = jobStore.createScheduled(requestId, idempotencyKey, request, sendAt, hold);
+            } else if (digest) {
+                job = jobStore.createScheduled(requestId, idempotencyKey, request, digester.latestSendTime(), true);
+            } else {
+                dispatcher.checkCapacity(request);
+                job = jobStore.create(requestId, idempotencyKey, request);
+            }
+        } catch (DataIntegrityViolationException e) {
+            // Key used outside the cache window or by another node; the unique constraint decides
+            if (idempotencyKey == null) {
+                throw e;
+            }
+            idempotencyCache.remove(idempotencyKey, requestId);
+            String originalRequestId = jobStore.findRequestIdByIdempotencyKey(idempotencyKey).orElseThrow(() -> e);
+            idempotencyCache.remember(idempotencyKey, originalRequestId);
+            return duplicate(originalRequestId, request);
+        } catch (RuntimeException e) {
+            // Not accepted, so a retry with the same key must be allowed through
+            if (idempotencyKey != null) {
+                idempotencyCache.remove(idempotencyKey, requestId);
+            }
+            if (e instanceof DispatchQueueFullException) {
+                requestMetrics.throttled(request);
+            }
+            throw e;
+        }
 
-            } catch (IllegalArgumentException e) {
-                log.warn("Unknown notification channel: {}", channel);
-                failedChannels.add(channel);
-            } catch (Exception e) {
-                log.error("Error sending notification via channel '{}': {}", channel, e.getMessage());
-                failedChannels.add(channel);
+        auditJournal.accepted(requestId, request);
+        requestMetrics.accepted(request);
+        if (sendAt != null) {
+            if (job.getLeaseOwner() != null) {
+                scheduler.hold(job);
             }
+            log.info("Notification {} scheduled for {}", requestId, sendAt);
+            return NotificationResponse.scheduled(requestId, request.getEvent(), request.getTo().size(), sendAt);
         }
 
-        if (!failedChannels.isEmpty()) {
-            log.warn("Notification {} - Failed channels: {}", requestId, failedChannels);
-        } else {
-            log.info("Notification {} sent successfully through all channels", requestId);
+        statusTracker.accepted(requestId, request);
+        if (digest) {
+            digester.hold(job, request);
+            log.info("Notification {} held for a digest", requestId);
+            return NotificationResponse.success(requestId, request.getEvent(), request.getTo().size());
         }
+        if (!dispatcher.offer(job.getId(), requestId, request, job.getAttempts())) {
+            // Lost the race for the last slot; the job poller will pick it up
+            statusTracker.forget(requestId);
+            jobStore.release(job.getId());
+        }
+
+        // Return immediate response (fire and forget pattern)
+        return NotificationResponse.success(requestId, request.getEvent(), request.getTo().size());
     }
 
     /**
-     * Send email notification
+     * Cancel a notification that has not been picked up for delivery yet
+     *
+     * @return the cancelled job; empty if the request is unknown or already being delivered
      */
-    private boolean sendEmailNotification(String requestId, NotificationRequest request) {
-        try {
-            log.debug("Sending email notification: {}", requestId);
-
-            String event = request.getEvent();
-            List<String> recipients = request.getTo();
-            Map<String, Object> data = request.getData();
-
-            // Send using template
-            boolean success = emailSender.sendWithTemplate(recipients, event, data);
-
-            if (success) {
-                log.info("Email notification sent successfully: {} | Event: {} | Recipients: {}",
-                        requestId, event, recipients.size());
-            } else {
-                log.error("Failed to send email notification: {}", requestId);
-            }
-
-            return success;
+    public Optional<NotificationHistory> cancel(String requestId) {
+        Optional<NotificationHistory> cancelled = jobStore.cancel(requestId);
+        cancelled.ifPresent(job -> {
+            scheduler.cancel(requestId);
+            // A digest skips it when the digest is sent
+            statusTracker.forget(requestId);
+            auditJournal.cancelled(requestId, job.getEnterpriseId(), job.getEvent());
+            log.info("Notification {} cancelled", requestId);
+        });
+        return cancelled;
+    }
 
-        } catch (Exception e) {
-            log.error("Exception while sending email notification: {}", requestId, e);
-            return false;
+    /**
+     * Send time requested by sendAt or delaySeconds
+     *
+     * @return send time, or null to send now (none requested, or already past)
+     */
+    public LocalDateTime sendTimeOf(NotificationRequest request) {
+        LocalDateTime sendAt = null;
+        if (request.getSendAt() != null && !request.getSendAt().isBlank()) {
+            sendAt = LocalDateTime.ofInstant(OffsetDateTime.parse(request.getSendAt().trim()).toInstant(),
+                    ZoneId.systemDefault());
+        } else if (request.getDelaySeconds() != null && request.getDelaySeconds() > 0) {
+            sendAt = LocalDateTime.now().plusSeconds(request.getDelaySeconds());
         }
+        return sendAt != null && sendAt.isAfter(LocalDateTime.now()) ? sendAt : null;
+    }
+
+    private NotificationResponse duplicate(String originalRequestId, NotificationRequest request) {
+        log.info("Duplicate notification request with idempotency key {}, original request: {}",
+                request.getIdempotencyKey(), originalRequestId);
+        requestMetrics.duplicate(request);
+        return NotificationResponse.duplicate(originalRequestId, request.getEvent(), request.getTo().size());
     }
 
     /**
-     * Send SMS notification
+     * Check that a request can be delivered
+     *
+     * @return error message, or null if the request is valid
      */
-    private boolean sendSmsNotification(String requestId, NotificationRequest request) {
+    public String validate(NotificationRequest request) {
+        if (request != null && (request.getEvent() == null || request.getEvent().isEmpty())) {
+            return "Event type is required";
+        }
+        if (request == null || request.getChannels() == null || request.getChannels().isEmpty()) {
+            return "No notification channels specified";
+        }
+        if (request.getTo() == null || request.getTo().isEmpty()) {
+            return "No recipients specified";
+        }
+        if (request.getIdempotencyKey() != null && request.getIdempotencyKey().length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            return "Idempotency key must be at most " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters";
+        }
+        if (IdempotencyCache.keyFor(request) != null && request.getEnterpriseId() != null
+                && request.getEnterpriseId().length() > MAX_ENTERPRISE_ID_LENGTH) {
+            return "Enterprise ID must be at most " + MAX_ENTERPRISE_ID_LENGTH + " characters with an idempotency key";
+        }
+        if (request.getSendAt() != null && !request.getSendAt().isBlank() && request.getDelaySeconds() != null) {
+            return "Specify either sendAt or delaySeconds, not both";
+        }
+        if (request.getDelaySeconds() != null && request.getDelaySeconds() < 0) {
+            return "delaySeconds must not be negative";
+        }
         try {
-            log.debug("Sending SMS notification: {}", requestId);
-
-            if (!smsSender.isConfigured()) {
-                log.warn("SMS service not configured. Skipping SMS for request: {}", requestId);
-                return true; // Don't fail if SMS is not configured
+            LocalDateTime sendAt = sendTimeOf(request);
+            if (sendAt != null && sendAt.isAfter(LocalDateTime.now().plusDays(scheduleProperties.getMaxDelayDays()))) {
+                return "Send time must be within " + scheduleProperties.getMaxDelayDays() + " days";
             }
-
-            List<String> recipients = request.getTo();
-            String message = buildSmsMessage(request.getEvent(), request.getData());
-
-            boolean success = smsSender.send(recipients, message);
-
-            if (success) {
-                log.info("SMS notification sent successfully: {} | Recipients: {}",
-                        requestId, recipients.size());
-            } else {
-                log.error("Failed to send SMS notification: {}", requestId);
+        } catch (DateTimeParseException e) {
+            return "sendAt must be an ISO-8601 date-time with offset, e.g. 2026-01-01T09:00:00Z";
+        }
+        if (request.getPriority() != null && !request.getPriority().isBlank()) {
+            try {
+                NotificationPriority.fromValue(request.getPriority().trim());
+            } catch (IllegalArgumentException e) {
+                return e.getMessage();
             }
-
-            return success;
-
-        } catch (Exception e) {
-            log.error("Exception while sending SMS notification: {}", requestId, e);
-            return false;
         }
-    }
-
-    /**
-     * Build SMS message based on event and data
-     */
-    private String buildSmsMessage(String eventType, Map<String, Object> data) {
-        return switch (eventType.toLowerCase()) {
-            case "otp" -> String.format(
-                    "Your OTP is: %s. Valid for 5 minutes. Do not share.",
-                    data.getOrDefault("otp", "XXXXXX"));
-            case "magic_link" -> "Click to login: " + data.getOrDefault("magicLink", "https://example.com");
-            case "welcome" -> "Welcome! Your account is ready to use.";
-            default -> "You have a new notification.";
-        };
+        return null;
     }
 
     /**
@@ -191,9 +251,13 @@ public class NotificationService {
                     .channels((List<String>) payload.get("channels"))
                     .to((List<String>) payload.get("to"))
                     .data((Map<String, Object>) payload.get("data"))
+                    .idempotencyKey((String) payload.get("idempotencyKey"))
+                    .priority((String) payload.get("priority"))
                     .build();
 
             sendNotification(request);
+        } catch (DispatchQueueFullException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error processing legacy notification request", e);
         }
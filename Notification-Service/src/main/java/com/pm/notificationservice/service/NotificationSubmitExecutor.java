@@ -0,0 +1,56 @@
+package com.pm.notificationservice.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor for notification submissions that continue an asynchronous lookup
+ *
+ * Submitting persists the job, so it must not run on the User Service client or lookup
+ * batcher threads that complete the lookup. The pool and its queue are bounded; a full
+ * queue rejects the submission.
+ */
+@Component
+public class NotificationSubmitExecutor implements Executor, DisposableBean {
+
+    private final ExecutorService executor;
+
+    public NotificationSubmitExecutor(MeterRegistry meterRegistry,
+                                      @Value("${notification.submit.threads:8}") int threads,
+                                      @Value("${notification.submit.queue-capacity:200}") int queueCapacity) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                threads, threads,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "notification-submit-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        pool.allowCoreThreadTimeOut(true);
+
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "notification.submit");
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        executor.execute(command);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,298 @@
+package com.pm.notificationservice.service.audit;
+
+import com.pm.notificationservice.dto.NotificationRequest;
+import com.pm.notificationservice.enums.AuditOutcome;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Append-only local audit journal for notification events
+ *
+ * - Recording is a CAS on a lock-free ring buffer ({@link AuditRingBuffer}) with no I/O,
+ *   locking or allocation on the calling thread; if the ring is full the record is dropped
+ *   and counted, a send is never held up by auditing
+ * - A single writer thread drains the ring into a memory-mapped segment file
+ *   ({@link JournalSegment}), forces it to disk every fsync interval and rolls to a new
+ *   segment when the current one is full or older than segment-max-age
+ * - Segments below the active one are sealed; {@link AuditShipper} bulk-loads them into
+ *   notification_audit_log and deletes them after the retention period
+ * - The journal directory has a persistent journal ID, so shipped rows can be traced to
+ *   their position and a segment loaded twice never duplicates rows
+ */
+@Component
+@EnableConfigurationProperties(AuditProperties.class)
+@Slf4j
+public class AuditJournal implements SmartLifecycle {
+
+    private static final int DRAIN_BATCH = 4096;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final String JOURNAL_ID_FILE = "journal.id";
+
+    private final AuditProperties properties;
+    private final AuditRingBuffer ring;
+    private final Path directory;
+
+    private final Counter writtenCounter;
+    private final Counter droppedCounter;
+
+    private volatile String journalId;
+    private volatile long activeSequence = -1;
+    private volatile boolean running;
+    private Thread writer;
+
+    // Writer thread only
+    private JournalSegment active;
+    private long lastForceNanos;
+
+    public AuditJournal(AuditProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.ring = new AuditRingBuffer(properties.getRingSize());
+        this.directory = Paths.get(properties.getDirectory()).toAbsolutePath();
+
+        Gauge.builder("notification.audit.ring.size", ring, AuditRingBuffer::size)
+                .description("Audit records waiting for the journal writer")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("notification.audit.records")
+                .description("Audit records by outcome in the journal")
+                .tag("result", "written")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("notification.audit.records")
+                .description("Audit records by outcome in the journal")
+                .tag("result", "dropped")
+                .register(meterRegistry);
+    }
+
+    /**
+     * A request was stored
+     */
+    public void accepted(String requestId, NotificationRequest request) {
+        record(requestId, request, null, 0, AuditOutcome.ACCEPTED, null);
+    }
+
+    /**
+     * A delivery attempt finished; one record per channel sent
+     */
+    public void attempted(String requestId, NotificationRequest request, int attempt,
+                          List<String> failedChannels, String error) {
+        for (String channel : request.getChannels()) {
+            boolean failed = failedChannels.contains(channel);
+            record(requestId, request, channel, attempt,
+                    failed ? AuditOutcome.FAILED : AuditOutcome.SENT, failed ? error : null);
+        }
+    }
+
+    /**
+     * Failed channels were parked for another attempt
+     */
+    public void retryScheduled(String requestId, NotificationRequest request, int attempt,
+                               List<String> channels, long delayMs) {
+        record(requestId, request, null, attempt, AuditOutcome.RETRY_SCHEDULED,
+                "Retrying " + channels + " in " + delayMs + " ms");
+    }
+
+    /**
+     * Retries were exhausted
+     */
+    public void deadLettered(String requestId, NotificationRequest request, int attempt, String reason) {
+        record(requestId, request, null, attempt, AuditOutcome.DEAD_LETTER, reason);
+    }
+
+    /**
+     * The caller cancelled the request before it was sent
+     */
+    public void cancelled(String requestId, String enterpriseId, String event) {
+        record(requestId, enterpriseId, event, null, 0, AuditOutcome.CANCELLED, null);
+    }
+
+    private void record(String requestId, NotificationRequest request, String channel,
+                        int attempt, AuditOutcome outcome, String detail) {
+        record(requestId, request.getEnterpriseId(), request.getEvent(), channel, attempt, outcome, detail);
+    }
+
+    private void record(String requestId, String enterpriseId, String event, String channel,
+                        int attempt, AuditOutcome outcome, String detail) {
+        if (!running) {
+            return;
+        }
+        if (!ring.offer(System.currentTimeMillis(), outcome, attempt, requestId,
+                enterpriseId, event, channel, detail)) {
+            droppedCounter.increment();
+        }
+    }
+
+    /**
+     * Sealed segments, oldest first; they are no longer written
+     */
+    public List<Path> sealedSegments() throws IOException {
+        long active = activeSequence;
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                        long sequence = JournalSegment.sequenceOf(path);
+                        return sequence >= 0 && (active < 0 || sequence < active);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    public String getJournalId() {
+        return journalId;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (!properties.isEnabled() || running) {
+            return;
+        }
+        long lastSequence;
+        try {
+            Files.createDirectories(directory);
+            journalId = loadJournalId();
+            try (Stream<Path> files = Files.list(directory)) {
+                lastSequence = files.mapToLong(JournalSegment::sequenceOf).filter(sequence -> sequence >= 0).max().orElse(0);
+            }
+            // Segments left by a previous run are sealed; always start a fresh one
+            active = JournalSegment.create(directory, lastSequence + 1, properties.getSegmentSizeBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open audit journal in " + directory, e);
+        }
+        activeSequence = active.getSequence();
+        lastForceNanos = System.nanoTime();
+
+        running = true;
+        writer = new Thread(this::runWriter, "audit-journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Audit journal {} writing to {} (segment {})", journalId, directory, activeSequence);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writer = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Start before the dispatcher and retry workers and stop after them, so their last
+     * records are still written
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 8192;
+    }
+
+    private void runWriter() {
+        long fsyncNanos = TimeUnit.MILLISECONDS.toNanos(properties.getFsyncIntervalMs());
+        long maxAgeNanos = TimeUnit.MILLISECONDS.toNanos(properties.getSegmentMaxAgeMs());
+        while (running) {
+            try {
+                int drained = ring.drain(this::append, DRAIN_BATCH);
+                long now = System.nanoTime();
+                if (active != null && now - lastForceNanos >= fsyncNanos) {
+                    active.force();
+                    lastForceNanos = now;
+                }
+                if (active != null && !active.isEmpty() && active.ageNanos() >= maxAgeNanos) {
+                    roll();
+                }
+                if (drained == 0) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            } catch (RuntimeException e) {
+                log.error("Audit journal writer error", e);
+            }
+        }
+
+        // Write what is left, then seal the segment
+        ring.drain(this::append, Integer.MAX_VALUE);
+        if (active != null) {
+            try {
+                active.close();
+            } catch (IOException e) {
+                log.error("Failed to close audit journal segment {}", active.getSequence(), e);
+            }
+            active = null;
+        }
+        activeSequence = -1;
+    }
+
+    private void append(AuditRecord record) {
+        if (active == null || !active.append(record)) {
+            roll();
+            if (active == null || !active.append(record)) {
+                droppedCounter.increment();
+                return;
+            }
+        }
+        writtenCounter.increment();
+    }
+
+    /**
+     * Seal the active segment and start the next one
+     */
+    private void roll() {
+        long next = activeSequence + 1;
+        if (active != null) {
+            try {
+                active.close();
+            } catch (IOException e) {
+                log.error("Failed to close audit journal segment {}", active.getSequence(), e);
+            }
+            active = null;
+        }
+        try {
+            active = JournalSegment.create(directory, next, properties.getSegmentSizeBytes());
+            activeSequence = next;
+            lastForceNanos = System.nanoTime();
+        } catch (IOException e) {
+            log.error("Could not create audit journal segment {}, records are dropped until it can be", next, e);
+        }
+    }
+
+    private String loadJournalId() throws IOException {
+        Path idFile = directory.resolve(JOURNAL_ID_FILE);
+        if (Files.exists(idFile)) {
+            String id = Files.readString(idFile, StandardCharsets.UTF_8).trim();
+            if (!id.isEmpty()) {
+                return id;
+            }
+        }
+        String id = UUID.randomUUID().toString();
+        Files.writeString(idFile, id, StandardCharsets.UTF_8);
+        return id;
+    }
+}
@@ -0,0 +1,56 @@
+package com.pm.notificationservice.service.audit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Audit journal configuration
+ *
+ * Audit records are appended to memory-mapped segment files under {@code directory} and
+ * bulk-loaded into notification_audit_log once their segment is sealed.
+ */
+@Data
+@ConfigurationProperties(prefix = "notification.audit")
+public class AuditProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Directory holding this node's journal segments; must not be shared between nodes
+     */
+    private String directory = "data/audit-journal";
+
+    /**
+     * Records buffered between the send path and the journal writer, rounded up to a power
+     * of two; records are dropped (and counted) while it is full
+     */
+    private int ringSize = 65536;
+
+    /**
+     * Size of one segment file
+     */
+    private int segmentSizeBytes = 64 * 1024 * 1024;
+
+    /**
+     * A non-empty segment is sealed after this long even if it is not full, which bounds how
+     * far the audit table lags behind
+     */
+    private long segmentMaxAgeMs = 60000;
+
+    /**
+     * How often written records are forced to disk
+     */
+    private long fsyncIntervalMs = 1000;
+
+    private long shipIntervalMs = 5000;
+
+    /**
+     * Rows per insert transaction when loading a sealed segment
+     */
+    private int shipBatchSize = 1000;
+
+    /**
+     * Shipped segments are kept locally this long before they are deleted
+     */
+    private long retentionHours = 72;
+}
@@ -0,0 +1,42 @@
+package com.pm.notificationservice.service.audit;
+
+import com.pm.notificationservice.enums.AuditOutcome;
+
+/**
+ * One audit record; ring buffer slots are reused, decoded records carry their journal offset
+ */
+final class AuditRecord {
+
+    long timestampMillis;
+    AuditOutcome outcome;
+    int attempt;
+    String requestId;
+    String enterpriseId;
+    String event;
+    String channel;
+    String detail;
+    int offset;
+
+    void set(long timestampMillis, AuditOutcome outcome, int attempt, String requestId,
+             String enterpriseId, String event, String channel, String detail) {
+        this.timestampMillis = timestampMillis;
+        this.outcome = outcome;
+        this.attempt = attempt;
+        this.requestId = requestId;
+        this.enterpriseId = enterpriseId;
+        this.event = event;
+        this.channel = channel;
+        this.detail = detail;
+    }
+
+    /**
+     * Drop references so a drained slot does not keep request data alive
+     */
+    void clear() {
+        requestId = null;
+        enterpriseId = null;
+        event = null;
+        channel = null;
+        detail = null;
+    }
+}
@@ -0,0 +1,89 @@
+package com.pm.notificationservice.service.audit;
+
+import com.pm.notificationservice.enums.AuditOutcome;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Lock-free multi-producer, single-consumer ring of preallocated audit records
+ *
+ * A producer claims a sequence with one CAS, fills the slot in place and publishes it by
+ * writing the sequence into the slot's marker; nothing is allocated and nothing blocks.
+ * When the ring is full the record is refused. The single consumer reads published slots
+ * in sequence order and frees them by advancing the consumed sequence.
+ */
+final class AuditRingBuffer {
+
+    private final AuditRecord[] slots;
+    private final AtomicLongArray published;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong consumed = new AtomicLong();
+
+    AuditRingBuffer(int requestedSize) {
+        int size = Integer.highestOneBit(Math.max(requestedSize, 2) - 1) << 1;
+        this.slots = new AuditRecord[size];
+        this.published = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            slots[i] = new AuditRecord();
+            published.set(i, -1);
+        }
+    }
+
+    /**
+     * @return false if the ring is full
+     */
+    boolean offer(long timestampMillis, AuditOutcome outcome, int attempt, String requestId,
+                  String enterpriseId, String event, String channel, String detail) {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed.get() >= slots.length) {
+                return false;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        int index = (int) sequence & mask;
+        slots[index].set(timestampMillis, outcome, attempt, requestId, enterpriseId, event, channel, detail);
+        published.lazySet(index, sequence);
+        return true;
+    }
+
+    /**
+     * Hand up to {@code max} published records to the consumer, in order; single consumer only
+     *
+     * @return number of records drained
+     */
+    int drain(Consumer<AuditRecord> consumer, int max) {
+        long next = consumed.get();
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) next & mask;
+            if (published.get(index) != next) {
+                break;
+            }
+            consumer.accept(slots[index]);
+            slots[index].clear();
+            next++;
+            drained++;
+        }
+        if (drained > 0) {
+            consumed.lazySet(next);
+        }
+        return drained;
+    }
+
+    /**
+     * Claimed records not yet drained
+     */
+    int size() {
+        return (int) (claimed.get() - consumed.get());
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+}
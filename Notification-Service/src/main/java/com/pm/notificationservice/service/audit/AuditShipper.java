@@ -0,0 +1,170 @@
+package com.pm.notificationservice.service.audit;
+
+import com.pm.notificationservice.entity.NotificationAuditLog;
+import com.pm.notificationservice.repository.NotificationAuditLogRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Bulk-loads sealed audit journal segments into notification_audit_log
+ *
+ * - Segments are loaded in order, ship-batch-size rows per insert transaction
+ * - Progress is kept in a checkpoint file next to the segments (segment, offset), written
+ *   after every committed batch, so a restart resumes where it stopped
+ * - A batch that was committed before a crash but not checkpointed hits the unique journal
+ *   position on reload; only its missing rows are inserted then
+ * - Loaded segments are deleted once they are older than the retention period
+ */
+@Component
+@Slf4j
+public class AuditShipper {
+
+    private static final String CHECKPOINT_FILE = "shipped.checkpoint";
+
+    private final AuditJournal journal;
+    private final NotificationAuditLogRepository repository;
+    private final AuditProperties properties;
+    private final Counter shippedCounter;
+
+    public AuditShipper(AuditJournal journal,
+                        NotificationAuditLogRepository repository,
+                        AuditProperties properties,
+                        MeterRegistry meterRegistry) {
+        this.journal = journal;
+        this.repository = repository;
+        this.properties = properties;
+        this.shippedCounter = Counter.builder("notification.audit.shipped")
+                .description("Audit records loaded into notification_audit_log")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${notification.audit.ship-interval-ms:5000}")
+    public void ship() {
+        if (!journal.isRunning()) {
+            return;
+        }
+        try {
+            Checkpoint checkpoint = readCheckpoint();
+            for (Path segment : journal.sealedSegments()) {
+                long sequence = JournalSegment.sequenceOf(segment);
+                if (sequence < checkpoint.segment()) {
+                    deleteIfExpired(segment);
+                    continue;
+                }
+                int offset = sequence == checkpoint.segment() ? checkpoint.offset() : JournalSegment.HEADER_BYTES;
+                checkpoint = shipSegment(segment, sequence, offset);
+            }
+        } catch (Exception e) {
+            log.error("Failed to ship audit journal, will retry: {}", e.getMessage());
+        }
+    }
+
+    private Checkpoint shipSegment(Path segment, long sequence, int offset) throws IOException {
+        JournalSegment.Reader reader = JournalSegment.open(segment);
+        reader.seek(offset);
+        int shipped = 0;
+        while (!reader.isExhausted()) {
+            List<AuditRecord> records = reader.next(properties.getShipBatchSize());
+            if (!records.isEmpty()) {
+                load(sequence, records);
+                shipped += records.size();
+                writeCheckpoint(new Checkpoint(sequence, reader.position()));
+            }
+        }
+        Checkpoint next = new Checkpoint(sequence + 1, JournalSegment.HEADER_BYTES);
+        writeCheckpoint(next);
+        if (shipped > 0) {
+            log.debug("Shipped {} audit records from segment {}", shipped, sequence);
+        }
+        return next;
+    }
+
+    private void load(long segment, List<AuditRecord> records) {
+        List<NotificationAuditLog> rows = new ArrayList<>(records.size());
+        for (AuditRecord record : records) {
+            rows.add(toRow(segment, record));
+        }
+        try {
+            repository.saveAll(rows);
+        } catch (DataIntegrityViolationException e) {
+            // Loaded before a crash but not checkpointed: insert only what is missing
+            Set<Integer> loaded = new HashSet<>(repository.findLoadedOffsets(journal.getJournalId(), segment,
+                    records.get(0).offset, records.get(records.size() - 1).offset));
+            List<NotificationAuditLog> missing = new ArrayList<>();
+            for (NotificationAuditLog row : rows) {
+                if (!loaded.contains(row.getJournalOffset())) {
+                    row.setId(null); // assigned by the rolled-back insert
+                    missing.add(row);
+                }
+            }
+            log.info("Audit segment {} partially loaded before, loading {} of {} records",
+                    segment, missing.size(), rows.size());
+            repository.saveAll(missing);
+        }
+        shippedCounter.increment(records.size());
+    }
+
+    private NotificationAuditLog toRow(long segment, AuditRecord record) {
+        return NotificationAuditLog.builder()
+                .requestId(record.requestId)
+                .enterpriseId(record.enterpriseId)
+                .event(record.event != null ? record.event : "")
+                .channel(record.channel)
+                .attempt(record.attempt)
+                .outcome(record.outcome)
+                .detail(record.detail)
+                .occurredAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(record.timestampMillis), ZoneId.systemDefault()))
+                .journalId(journal.getJournalId())
+                .journalSegment(segment)
+                .journalOffset(record.offset)
+                .build();
+    }
+
+    private void deleteIfExpired(Path segment) throws IOException {
+        Instant cutoff = Instant.now().minus(properties.getRetentionHours(), ChronoUnit.HOURS);
+        if (Files.getLastModifiedTime(segment).toInstant().isBefore(cutoff)) {
+            Files.deleteIfExists(segment);
+            log.debug("Deleted shipped audit segment {}", segment.getFileName());
+        }
+    }
+
+    private Checkpoint readCheckpoint() throws IOException {
+        Path file = journal.getDirectory().resolve(CHECKPOINT_FILE);
+        if (!Files.exists(file)) {
+            return new Checkpoint(0, JournalSegment.HEADER_BYTES);
+        }
+        String[] parts = Files.readString(file, StandardCharsets.UTF_8).trim().split("\\s+");
+        return new Checkpoint(Long.parseLong(parts[0]), Integer.parseInt(parts[1]));
+    }
+
+    /**
+     * Replace the checkpoint atomically, so a crash leaves either the old or the new one
+     */
+    private void writeCheckpoint(Checkpoint checkpoint) throws IOException {
+        Path file = journal.getDirectory().resolve(CHECKPOINT_FILE);
+        Path temp = journal.getDirectory().resolve(CHECKPOINT_FILE + ".tmp");
+        Files.writeString(temp, checkpoint.segment() + " " + checkpoint.offset(), StandardCharsets.UTF_8);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private record Checkpoint(long segment, int offset) {
+    }
+}
@@ -0,0 +1,278 @@
+package com.pm.notificationservice.service.audit;
+
+import com.pm.notificationservice.enums.AuditOutcome;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * One memory-mapped, fixed-size audit journal file
+ *
+ * Layout: an 8 byte file header (magic, version) followed by records
+ * <pre>
+ *   int    record length in bytes, header included; 0 marks the end of the data
+ *   int    CRC32 of the rest of the record
+ *   long   timestamp, epoch millis
+ *   byte   outcome code
+ *   short  attempt
+ *   5 x    short UTF-8 byte length (-1 for null) + bytes:
+ *          request ID, enterprise ID, event, channel, detail
+ * </pre>
+ * Files are zero-filled when created, so reading stops at the first zero length. A record
+ * torn by a crash fails its CRC and ends the segment there.
+ */
+final class JournalSegment implements AutoCloseable {
+
+    static final int HEADER_BYTES = 8;
+
+    private static final int MAGIC = 0x4E414A31; // "NAJ1"
+    private static final int VERSION = 1;
+    private static final int RECORD_HEADER_BYTES = 4 + 4 + 8 + 1 + 2;
+    private static final int MAX_STRING_CHARS = 255;
+    private static final String FILE_PREFIX = "audit-";
+    private static final String FILE_SUFFIX = ".journal";
+
+    private final long sequence;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final CRC32 crc = new CRC32();
+    private final long createdAtNanos = System.nanoTime();
+    private boolean unforced;
+
+    private JournalSegment(long sequence, FileChannel channel, MappedByteBuffer buffer) {
+        this.sequence = sequence;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Create and map a new, empty segment
+     */
+    static JournalSegment create(Path directory, long sequence, int sizeBytes) throws IOException {
+        FileChannel channel = FileChannel.open(pathOf(directory, sequence),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, sizeBytes);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.position(HEADER_BYTES);
+            return new JournalSegment(sequence, channel, buffer);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    static Path pathOf(Path directory, long sequence) {
+        return directory.resolve(String.format("%s%016d%s", FILE_PREFIX, sequence, FILE_SUFFIX));
+    }
+
+    /**
+     * Sequence number of a segment file, or -1 if the file is not a segment
+     */
+    static long sequenceOf(Path path) {
+        String name = path.getFileName().toString();
+        if (!name.startsWith(FILE_PREFIX) || !name.endsWith(FILE_SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Append a record
+     *
+     * @return false if it does not fit in the space left
+     */
+    boolean append(AuditRecord record) {
+        byte[] requestId = encode(record.requestId);
+        byte[] enterpriseId = encode(record.enterpriseId);
+        byte[] event = encode(record.event);
+        byte[] channelName = encode(record.channel);
+        byte[] detail = encode(record.detail);
+        int length = RECORD_HEADER_BYTES + sizeOf(requestId) + sizeOf(enterpriseId) + sizeOf(event)
+                + sizeOf(channelName) + sizeOf(detail);
+
+        int start = buffer.position();
+        // Keep room for the zero length that ends the segment
+        if (start + length + 4 > buffer.capacity()) {
+            return false;
+        }
+
+        buffer.position(start + 8);
+        buffer.putLong(record.timestampMillis);
+        buffer.put(record.outcome.getCode());
+        buffer.putShort((short) Math.min(record.attempt, Short.MAX_VALUE));
+        put(requestId);
+        put(enterpriseId);
+        put(event);
+        put(channelName);
+        put(detail);
+
+        crc.reset();
+        crc.update(buffer.slice(start + 8, length - 8));
+        buffer.putInt(start + 4, (int) crc.getValue());
+        // Length last: a reader never sees a length before the record it covers
+        buffer.putInt(start, length);
+        unforced = true;
+        return true;
+    }
+
+    boolean isEmpty() {
+        return buffer.position() == HEADER_BYTES;
+    }
+
+    long ageNanos() {
+        return System.nanoTime() - createdAtNanos;
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Flush written records to disk
+     */
+    void force() {
+        if (unforced) {
+            buffer.force();
+            unforced = false;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    /**
+     * Sequential reader over a sealed segment
+     */
+    static Reader open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not an audit journal segment: " + path);
+            }
+            return new Reader(buffer);
+        }
+    }
+
+    private void put(byte[] bytes) {
+        if (bytes == null) {
+            buffer.putShort((short) -1);
+        } else {
+            buffer.putShort((short) bytes.length);
+            buffer.put(bytes);
+        }
+    }
+
+    private static byte[] encode(String value) {
+        if (value == null) {
+            return null;
+        }
+        String bounded = value.length() > MAX_STRING_CHARS ? value.substring(0, MAX_STRING_CHARS) : value;
+        return bounded.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int sizeOf(byte[] bytes) {
+        return 2 + (bytes != null ? bytes.length : 0);
+    }
+
+    static final class Reader {
+
+        private final ByteBuffer buffer;
+        private final CRC32 crc = new CRC32();
+        private int position = HEADER_BYTES;
+        private boolean exhausted;
+
+        private Reader(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        /**
+         * Continue from an offset reached earlier
+         */
+        void seek(int offset) {
+            position = Math.max(offset, HEADER_BYTES);
+        }
+
+        /**
+         * Offset of the next record
+         */
+        int position() {
+            return position;
+        }
+
+        boolean isExhausted() {
+            return exhausted;
+        }
+
+        /**
+         * Read up to {@code max} records; fewer means the end of the segment was reached
+         */
+        List<AuditRecord> next(int max) {
+            List<AuditRecord> records = new ArrayList<>(Math.min(max, 1024));
+            while (records.size() < max && !exhausted) {
+                AuditRecord record = readRecord();
+                if (record == null) {
+                    exhausted = true;
+                } else {
+                    records.add(record);
+                }
+            }
+            return records;
+        }
+
+        private AuditRecord readRecord() {
+            if (position + RECORD_HEADER_BYTES > buffer.capacity()) {
+                return null;
+            }
+            int length = buffer.getInt(position);
+            if (length < RECORD_HEADER_BYTES || position + length > buffer.capacity()) {
+                return null;
+            }
+            crc.reset();
+            crc.update(buffer.slice(position + 8, length - 8));
+            if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+                return null;
+            }
+
+            ByteBuffer body = buffer.slice(position + 8, length - 8);
+            AuditRecord record = new AuditRecord();
+            record.offset = position;
+            record.timestampMillis = body.getLong();
+            record.outcome = AuditOutcome.fromCode(body.get());
+            record.attempt = body.getShort();
+            record.requestId = readString(body);
+            record.enterpriseId = readString(body);
+            record.event = readString(body);
+            record.channel = readString(body);
+            record.detail = readString(body);
+            position += length;
+            return record;
+        }
+
+        private static String readString(ByteBuffer body) {
+            short length = body.getShort();
+            if (length < 0) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            body.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.pm.notificationservice.service.channel;
+
+import com.pm.notificationservice.enums.NotificationChannel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * One bounded executor (bulkhead) per notification channel
+ *
+ * - A stalled provider can only occupy its own channel's threads and queue
+ * - When a channel's bulkhead is full, sends on it fail fast and go through the retry path
+ * - Every send is capped by a deadline: the channel timeout plus a per-recipient allowance
+ * - Send latency is recorded per channel and outcome as a histogram (notification.channel.send),
+ *   from the moment a bulkhead thread starts the send; rejections and timeouts are counted
+ */
+@Component
+@EnableConfigurationProperties(ChannelProperties.class)
+@Slf4j
+public class ChannelExecutors implements DisposableBean {
+
+    private final ChannelProperties properties;
+    private final Map<NotificationChannel, ExecutorService> executors = new EnumMap<>(NotificationChannel.class);
+    private final Map<NotificationChannel, ChannelMeters> meters = new EnumMap<>(NotificationChannel.class);
+
+    public ChannelExecutors(ChannelProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        for (NotificationChannel channel : NotificationChannel.values()) {
+            ChannelProperties.Bulkhead bulkhead = properties.forChannel(channel.getValue());
+            AtomicInteger threadCount = new AtomicInteger();
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                    bulkhead.getThreads(), bulkhead.getThreads(),
+                    60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(bulkhead.getQueueCapacity()),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "channel-" + channel.getValue() + "-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    new ThreadPoolExecutor.AbortPolicy());
+            executor.allowCoreThreadTimeOut(true);
+            executors.put(channel, ExecutorServiceMetrics.monitor(meterRegistry, executor,
+                    "notification.channel." + channel.getValue()));
+            meters.put(channel, new ChannelMeters(
+                    sendTimer(meterRegistry, channel, "sent", bulkhead.getTimeoutMs()),
+                    sendTimer(meterRegistry, channel, "failed", bulkhead.getTimeoutMs()),
+                    failureCounter(meterRegistry, channel, "rejected"),
+                    failureCounter(meterRegistry, channel, "timeout")));
+        }
+    }
+
+    /**
+     * Run a send to a single recipient on the channel's bulkhead
+     */
+    public CompletableFuture<Boolean> submit(NotificationChannel channel, Supplier<Boolean> send) {
+        return submit(channel, 1, send);
+    }
+
+    /**
+     * Run a send on the channel's bulkhead
+     *
+     * @param recipients number of recipients of the send; scales its deadline
+     * @return the send result; completes exceptionally with {@link RejectedExecutionException}
+     *         when the bulkhead is full, or {@link java.util.concurrent.TimeoutException} on timeout.
+     *         A send that timed out is not stopped; senders check their {@link SendProgress}.
+     */
+    public CompletableFuture<Boolean> submit(NotificationChannel channel, int recipients, Supplier<Boolean> send) {
+        long timeoutMs = timeoutFor(channel, recipients);
+        ChannelMeters channelMeters = meters.get(channel);
+        try {
+            return CompletableFuture.supplyAsync(() -> timed(channelMeters, send), executors.get(channel))
+                    .orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                    .whenComplete((sent, e) -> {
+                        if (e instanceof TimeoutException) {
+                            channelMeters.timedOut().increment();
+                        }
+                    });
+        } catch (RejectedExecutionException e) {
+            log.warn("{} bulkhead full, failing send", channel.getValue());
+            channelMeters.rejected().increment();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Deadline for a send to the given number of recipients
+     */
+    public long timeoutFor(NotificationChannel channel, int recipients) {
+        return properties.forChannel(channel.getValue()).timeoutFor(recipients);
+    }
+
+    private static Boolean timed(ChannelMeters channelMeters, Supplier<Boolean> send) {
+        long start = System.nanoTime();
+        Boolean sent = null;
+        try {
+            sent = send.get();
+            return sent;
+        } finally {
+            Timer timer = Boolean.TRUE.equals(sent) ? channelMeters.sent() : channelMeters.failed();
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static Timer sendTimer(MeterRegistry meterRegistry, NotificationChannel channel, String outcome, long timeoutMs) {
+        return Timer.builder("notification.channel.send")
+                .description("Time to send a notification through a channel")
+                .tag("channel", channel.getValue())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(Duration.ofMillis(Math.max(timeoutMs, 1000)))
+                .register(meterRegistry);
+    }
+
+    private static Counter failureCounter(MeterRegistry meterRegistry, NotificationChannel channel, String reason) {
+        return Counter.builder("notification.channel.failures")
+                .description("Channel sends that never completed: bulkhead full or timed out")
+                .tag("channel", channel.getValue())
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void destroy() {
+        executors.values().forEach(ExecutorService::shutdown);
+    }
+
+    private record ChannelMeters(Timer sent, Timer failed, Counter rejected, Counter timedOut) {
+    }
+}
@@ -0,0 +1,62 @@
+package com.pm.notificationservice.service.channel;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-channel bulkhead configuration
+ *
+ * notification.channels.bulkheads.<channel>.* override the defaults per channel.
+ */
+@Data
+@ConfigurationProperties(prefix = "notification.channels")
+public class ChannelProperties {
+
+    /**
+     * Bulkhead for channels without an override
+     */
+    private Bulkhead defaults = new Bulkhead();
+
+    /**
+     * Per-channel overrides keyed by channel value (email, sms)
+     */
+    private Map<String, Bulkhead> bulkheads = new LinkedHashMap<>();
+
+    public Bulkhead forChannel(String channel) {
+        return bulkheads.getOrDefault(channel.toLowerCase(), defaults);
+    }
+
+    @Data
+    public static class Bulkhead {
+
+        /**
+         * Sends of this channel running at the same time
+         */
+        private int threads = 8;
+
+        /**
+         * Sends waiting for a thread; beyond this the channel fails fast for the attempt
+         */
+        private int queueCapacity = 100;
+
+        /**
+         * Time the dispatch worker waits for the channel; recipients not started by then are retried
+         */
+        private long timeoutMs = 30000;
+
+        /**
+         * Added to the timeout for every recipient of the send, so large sends get a longer deadline
+         */
+        private long timeoutPerRecipientMs = 10;
+
+        /**
+         * Deadline for a send to the given number of recipients
+         */
+        public long timeoutFor(int recipients) {
+            return timeoutMs + timeoutPerRecipientMs * Math.max(recipients, 1);
+        }
+    }
+}
@@ -16,6 +16,7 @@ public interface EmailSender {
      * @param htmlContent HTML content
      * @param plainText plain text fallback
      * @return true if email was sent successfully
+     * @throws com.pm.notificationservice.exception.PermanentDeliveryException if the server refused it for good
      */
     boolean send(List<String> recipients, String subject, String htmlContent, String plainText);
 
@@ -26,7 +27,22 @@ public interface EmailSender {
      * @param templateName template name/type
      * @param data template variables
      * @return true if email was sent successfully
+     * @throws com.pm.notificationservice.exception.PermanentDeliveryException if the server refused it for good
      */
     boolean sendWithTemplate(List<String> recipients, String templateName, Map<String, Object> data);
-}
 
+    /**
+     * Send one personalized message per recipient (recipients never see each other)
+     *
+     * @param templateName template name/type
+     * @param sharedData template variables common to every recipient
+     * @param recipientData email address -> template variables for that recipient;
+     *                      they override sharedData
+     * @param progress claims recipients before they are sent; once the send is abandoned,
+     *                 recipients not yet claimed are skipped and reported as failed;
+     *                 recipients refused for good are also recorded on it as rejected
+     * @return addresses the message could not be sent to (empty if all succeeded)
+     */
+    List<String> sendBatch(String templateName, Map<String, Object> sharedData,
+                           Map<String, Map<String, Object>> recipientData, SendProgress progress);
+}
@@ -0,0 +1,77 @@
+package com.pm.notificationservice.service.channel;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Which recipients of one channel send have been handed to the provider
+ *
+ * Senders claim recipients with {@link #begin} right before sending them. When the channel
+ * times out the send is abandoned: no further recipients can be claimed, recipients never
+ * claimed are safe to retry, and claimed ones are in an unknown state and are not retried.
+ *
+ * Senders also record here the recipients the provider refused for good ({@link #reject});
+ * those failures are permanent and are not retried either.
+ */
+public class SendProgress {
+
+    private final Set<String> started = new HashSet<>();
+    private final Set<String> rejected = new HashSet<>();
+    private boolean abandoned;
+
+    /**
+     * Claim recipients before sending them
+     *
+     * @return false if the send was abandoned; the recipients must then not be sent
+     */
+    public synchronized boolean begin(Collection<String> recipients) {
+        if (abandoned) {
+            return false;
+        }
+        started.addAll(recipients);
+        return true;
+    }
+
+    /**
+     * Stop the send: later {@link #begin} calls fail
+     *
+     * @return recipients that were never claimed, in the given order
+     */
+    public synchronized List<String> abandon(List<String> recipients) {
+        abandoned = true;
+        List<String> notStarted = new ArrayList<>();
+        for (String recipient : recipients) {
+            if (!started.contains(recipient)) {
+                notStarted.add(recipient);
+            }
+        }
+        return notStarted;
+    }
+
+    /**
+     * Record recipients the provider refused for good (e.g. an unknown address)
+     */
+    public synchronized void reject(Collection<String> recipients) {
+        rejected.addAll(recipients);
+    }
+
+    /**
+     * Recipients among the given ones that were refused for good, in the given order
+     */
+    public synchronized List<String> rejected(List<String> recipients) {
+        List<String> result = new ArrayList<>();
+        for (String recipient : recipients) {
+            if (rejected.contains(recipient)) {
+                result.add(recipient);
+            }
+        }
+        return result;
+    }
+
+    public synchronized boolean isAbandoned() {
+        return abandoned;
+    }
+}
@@ -17,6 +17,23 @@ public interface SmsSender {
      */
     boolean send(List<String> recipients, String message);
 
+    /**
+     * Send SMS to recipients and report the ones it could not be sent to
+     *
+     * @param recipients list of phone numbers
+     * @param message SMS message content
+     * @param progress claims recipients before they are sent; once the send is abandoned,
+     *                 recipients not yet claimed are skipped and reported as failed;
+     *                 recipients refused for good are also recorded on it as rejected
+     * @return phone numbers that failed (empty if all succeeded)
+     */
+    default List<String> sendEach(List<String> recipients, String message, SendProgress progress) {
+        if (!progress.begin(recipients)) {
+            return recipients;
+        }
+        return send(recipients, message) ? List.of() : recipients;
+    }
+
     /**
      * Check if SMS sender is configured and ready
      *
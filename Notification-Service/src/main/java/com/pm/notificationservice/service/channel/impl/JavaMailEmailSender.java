@@ -1,30 +1,48 @@
 package com.pm.notificationservice.service.channel.impl;
 
+import com.pm.notificationservice.exception.PermanentDeliveryException;
 import com.pm.notificationservice.service.channel.EmailSender;
+import com.pm.notificationservice.service.channel.SendProgress;
 import com.pm.notificationservice.templates.EmailTemplate;
 import com.pm.notificationservice.templates.EmailTemplateFactory;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
-import javax.mail.MessagingException;
-import javax.mail.internet.MimeMessage;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Email sender implementation using JavaMailSender (SMTP)
+ * Messages go out over pooled, already-authenticated connections ({@link SmtpTransportPool})
+ *
+ * Batch sends render one message per recipient and send them in chunks; chunks run in
+ * parallel (bounded by email.batch.parallelism), each pipelined over a single pooled session.
+ *
+ * Recipients the SMTP server refuses for good are reported as permanent failures: single sends
+ * throw {@link PermanentDeliveryException}, batch sends record them on the {@link SendProgress}.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
-public class JavaMailEmailSender implements EmailSender {
+public class JavaMailEmailSender implements EmailSender, DisposableBean {
 
     private final JavaMailSender mailSender;
+    private final SmtpTransportPool transportPool;
     private final EmailTemplateFactory templateFactory;
+    private final ExecutorService batchExecutor;
 
     @Value("${notification.from-email}")
     private String fromEmail;
@@ -32,6 +50,31 @@ public class JavaMailEmailSender implements EmailSender {
     @Value("${notification.reply-to-email:}")
     private String replyToEmail;
 
+    @Value("${notification.email.batch.chunk-size:50}")
+    private int chunkSize;
+
+    public JavaMailEmailSender(JavaMailSender mailSender,
+                               SmtpTransportPool transportPool,
+                               EmailTemplateFactory templateFactory,
+                               @Value("${notification.email.batch.parallelism:4}") int parallelism) {
+        this.mailSender = mailSender;
+        this.transportPool = transportPool;
+        this.templateFactory = templateFactory;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                parallelism, parallelism,
+                60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "email-batch-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        this.batchExecutor = executor;
+    }
+
     @Override
     public boolean send(List<String> recipients, String subject, String htmlContent, String plainText) {
         if (recipients == null || recipients.isEmpty()) {
@@ -40,22 +83,15 @@ public class JavaMailEmailSender implements EmailSender {
         }
 
         try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-
-            helper.setFrom(fromEmail);
-            helper.setTo(recipients.toArray(new String[0]));
-            helper.setSubject(subject);
-            helper.setText(plainText, htmlContent);
-
-            if (replyToEmail != null && !replyToEmail.isEmpty()) {
-                helper.setReplyTo(replyToEmail);
-            }
+            MimeMessage message = buildMessage(recipients.toArray(new String[0]), subject, htmlContent, plainText);
 
-            mailSender.send(message);
+            transportPool.send(message);
             log.info("Email sent successfully to {} recipients for subject: {}", recipients.size(), subject);
             return true;
 
+        } catch (PermanentDeliveryException e) {
+            log.error("Email to {} refused permanently: {}", recipients, e.getMessage());
+            throw e;
         } catch (MessagingException e) {
             log.error("Failed to send email to recipients", e);
             return false;
@@ -75,10 +111,114 @@ public class JavaMailEmailSender implements EmailSender {
 
             return send(recipients, subject, htmlContent, plainText);
 
+        } catch (PermanentDeliveryException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Failed to send templated email", e);
             return false;
         }
     }
-}
 
+    @Override
+    public List<String> sendBatch(String templateName, Map<String, Object> sharedData,
+                                  Map<String, Map<String, Object>> recipientData, SendProgress progress) {
+        if (recipientData == null || recipientData.isEmpty()) {
+            log.warn("No recipients provided for batch email");
+            return List.of();
+        }
+
+        EmailTemplate template = templateFactory.getTemplate(templateName);
+        List<String> recipients = new ArrayList<>(recipientData.keySet());
+
+        List<CompletableFuture<List<String>>> chunks = new ArrayList<>();
+        for (int from = 0; from < recipients.size(); from += chunkSize) {
+            List<String> chunk = recipients.subList(from, Math.min(from + chunkSize, recipients.size()));
+            chunks.add(CompletableFuture.supplyAsync(
+                    () -> progress.begin(chunk) ? sendChunk(template, sharedData, recipientData, chunk, progress) : chunk,
+                    batchExecutor));
+        }
+
+        List<String> failed = new ArrayList<>();
+        for (CompletableFuture<List<String>> chunk : chunks) {
+            failed.addAll(chunk.join());
+        }
+
+        log.info("Batch email '{}' sent to {}/{} recipients", templateName,
+                recipients.size() - failed.size(), recipients.size());
+        return failed;
+    }
+
+    @Override
+    public void destroy() {
+        batchExecutor.shutdown();
+    }
+
+    /**
+     * Render and send one chunk over a single pooled session
+     * Recipients the server refused for good are also recorded as rejected on the progress
+     *
+     * @return recipients of the chunk that failed
+     */
+    private List<String> sendChunk(EmailTemplate template, Map<String, Object> sharedData,
+                                   Map<String, Map<String, Object>> recipientData, List<String> chunk,
+                                   SendProgress progress) {
+        List<String> failed = new ArrayList<>();
+        List<String> rendered = new ArrayList<>(chunk.size());
+        List<MimeMessage> messages = new ArrayList<>(chunk.size());
+
+        for (String recipient : chunk) {
+            try {
+                Map<String, Object> data = new HashMap<>();
+                if (sharedData != null) {
+                    data.putAll(sharedData);
+                }
+                Map<String, Object> own = recipientData.get(recipient);
+                if (own != null) {
+                    data.putAll(own);
+                }
+
+                messages.add(buildMessage(new String[]{recipient}, template.getSubject(),
+                        template.buildContent(data), template.buildPlainText(data)));
+                rendered.add(recipient);
+            } catch (Exception e) {
+                log.error("Failed to build email for {}: {}", recipient, e.getMessage());
+                failed.add(recipient);
+            }
+        }
+
+        try {
+            SmtpTransportPool.BatchResult result = transportPool.sendAll(messages);
+            for (int index : result.failed()) {
+                failed.add(rendered.get(index));
+            }
+            List<String> rejected = new ArrayList<>(result.rejected().size());
+            for (int index : result.rejected()) {
+                rejected.add(rendered.get(index));
+            }
+            if (!rejected.isEmpty()) {
+                log.error("SMTP server refused {} recipients permanently: {}", rejected.size(), rejected);
+                progress.reject(rejected);
+            }
+        } catch (Exception e) {
+            log.error("Failed to send email chunk of {} messages", messages.size(), e);
+            failed.addAll(rendered);
+        }
+        return failed;
+    }
+
+    private MimeMessage buildMessage(String[] to, String subject, String htmlContent, String plainText)
+            throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+
+        helper.setFrom(fromEmail);
+        helper.setTo(to);
+        helper.setSubject(subject);
+        helper.setText(plainText, htmlContent);
+
+        if (replyToEmail != null && !replyToEmail.isEmpty()) {
+            helper.setReplyTo(replyToEmail);
+        }
+        return message;
+    }
+}
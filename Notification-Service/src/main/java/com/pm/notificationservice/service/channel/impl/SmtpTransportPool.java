@@ -0,0 +1,363 @@
+package com.pm.notificationservice.service.channel.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.pm.notificationservice.exception.PermanentDeliveryException;
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of connected, authenticated SMTP transports
+ *
+ * JavaMailSender.send opens a connection, negotiates STARTTLS and authenticates for every
+ * message. This pool keeps sessions open and sends many messages over each one:
+ * - at most max-connections sessions exist at a time; borrowers wait up to borrow-timeout-ms
+ * - a session is retired after max-messages-per-connection messages or max-lifetime-ms
+ * - a session idle longer than validate-after-idle-ms is checked (NOOP) before reuse
+ * - idle sessions are closed after idle-timeout-ms
+ * - a send that fails on a stale session is retried once on a fresh one
+ * - a message the server refuses for good (invalid address, 5xx reply) is reported as rejected
+ * - batches are sent back to back over one session (no handshake between messages)
+ *
+ * Metrics: open, idle, in-use and max sessions, senders waiting, time to acquire a session
+ * and sessions opened (a high rate means connections are not being reused).
+ */
+@Component
+@Slf4j
+public class SmtpTransportPool implements DisposableBean {
+
+    private final JavaMailSenderImpl mailSender;
+    private final LinkedBlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<>();
+    private final Semaphore permits;
+    private final AtomicInteger open = new AtomicInteger();
+    private final Timer acquireTimer;
+    private final Counter acquireTimeoutCounter;
+    private final Counter connectCounter;
+
+    @Value("${notification.smtp-pool.max-messages-per-connection:100}")
+    private int maxMessagesPerConnection;
+
+    @Value("${notification.smtp-pool.max-lifetime-ms:300000}")
+    private long maxLifetimeMs;
+
+    @Value("${notification.smtp-pool.idle-timeout-ms:60000}")
+    private long idleTimeoutMs;
+
+    @Value("${notification.smtp-pool.validate-after-idle-ms:5000}")
+    private long validateAfterIdleMs;
+
+    @Value("${notification.smtp-pool.borrow-timeout-ms:5000}")
+    private long borrowTimeoutMs;
+
+    public SmtpTransportPool(JavaMailSender mailSender,
+                             MeterRegistry meterRegistry,
+                             @Value("${notification.smtp-pool.max-connections:4}") int maxConnections) {
+        if (!(mailSender instanceof JavaMailSenderImpl impl)) {
+            throw new IllegalStateException("SMTP pooling requires JavaMailSenderImpl, found " + mailSender.getClass());
+        }
+        this.mailSender = impl;
+        this.permits = new Semaphore(maxConnections, true);
+
+        Gauge.builder("notification.smtp.pool.open", open, AtomicInteger::get)
+                .description("Open SMTP connections")
+                .register(meterRegistry);
+        Gauge.builder("notification.smtp.pool.idle", idle, LinkedBlockingDeque::size)
+                .description("Idle SMTP connections ready for reuse")
+                .register(meterRegistry);
+        Gauge.builder("notification.smtp.pool.in_use", permits, p -> maxConnections - p.availablePermits())
+                .description("SMTP connections currently sending")
+                .register(meterRegistry);
+        Gauge.builder("notification.smtp.pool.max", permits, p -> maxConnections)
+                .description("Maximum SMTP connections")
+                .register(meterRegistry);
+        Gauge.builder("notification.smtp.pool.pending", permits, Semaphore::getQueueLength)
+                .description("Sends waiting for an SMTP connection")
+                .register(meterRegistry);
+        this.acquireTimer = Timer.builder("notification.smtp.pool.acquire")
+                .description("Time a send waits for an SMTP connection")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.acquireTimeoutCounter = Counter.builder("notification.smtp.pool.acquire.timeouts")
+                .description("Sends that gave up waiting for an SMTP connection")
+                .register(meterRegistry);
+        this.connectCounter = Counter.builder("notification.smtp.pool.connects")
+                .description("SMTP connections opened (handshake and authentication)")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Session used to build messages sent through this pool
+     */
+    public Session getSession() {
+        return mailSender.getSession();
+    }
+
+    /**
+     * Send one message over a pooled connection
+     *
+     * @throws PermanentDeliveryException if the server refused the message for good
+     */
+    public void send(MimeMessage message) throws MessagingException {
+        BatchResult result = sendAll(List.of(message));
+        if (!result.rejected().isEmpty()) {
+            throw new PermanentDeliveryException("SMTP server refused the message permanently");
+        }
+        if (!result.failed().isEmpty()) {
+            throw new MessagingException("SMTP server rejected the message");
+        }
+    }
+
+    /**
+     * Send several messages over a single pooled connection
+     *
+     * A message the server rejects on a healthy session is skipped and reported; the rest
+     * of the batch continues on the same session. If a reconnect fails part-way (connection
+     * rollover or a dropped session), the messages not yet sent are reported as failed and
+     * the ones already sent are not.
+     *
+     * @return indexes of messages that could not be sent, and which of them were refused for good
+     * @throws MessagingException if no connection could be obtained for the first message
+     */
+    public BatchResult sendAll(List<MimeMessage> messages) throws MessagingException {
+        for (MimeMessage message : messages) {
+            message.saveChanges();
+        }
+
+        List<Integer> failed = new ArrayList<>();
+        List<Integer> rejected = new ArrayList<>();
+        acquirePermit();
+        try {
+            PooledTransport transport = borrow();
+            int i = 0;
+            try {
+                for (; i < messages.size(); i++) {
+                    if (transport.messagesSent >= maxMessagesPerConnection) {
+                        close(transport);
+                        transport = null;
+                        transport = connect();
+                    }
+                    MimeMessage message = messages.get(i);
+                    Outcome outcome = trySend(transport, message);
+                    if (outcome == Outcome.FAILED && !transport.transport.isConnected()) {
+                        // The server dropped the session; retry this message once on a fresh one
+                        close(transport);
+                        transport = null;
+                        transport = connect();
+                        outcome = trySend(transport, message);
+                    }
+                    if (outcome != Outcome.SENT) {
+                        failed.add(i);
+                    }
+                    if (outcome == Outcome.REJECTED) {
+                        rejected.add(i);
+                    }
+                }
+                release(transport);
+            } catch (MessagingException | RuntimeException e) {
+                if (transport != null) {
+                    close(transport);
+                }
+                log.warn("SMTP batch stopped after {}/{} messages: {}", i, messages.size(), e.getMessage());
+                for (int unsent = i; unsent < messages.size(); unsent++) {
+                    failed.add(unsent);
+                }
+            }
+        } finally {
+            permits.release();
+        }
+        return new BatchResult(failed, rejected);
+    }
+
+    /**
+     * Close sessions idle for longer than idle-timeout-ms
+     */
+    @Scheduled(fixedDelayString = "${notification.smtp-pool.eviction-interval-ms:30000}")
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        List<PooledTransport> kept = new ArrayList<>();
+        PooledTransport transport;
+        while ((transport = idle.pollLast()) != null) {
+            if (now - transport.lastUsedAt > idleTimeoutMs || isExpired(transport, now)) {
+                close(transport);
+            } else {
+                kept.add(transport);
+            }
+        }
+        // pollLast drained oldest first; offerFirst restores the most recently used at the head
+        for (PooledTransport keep : kept) {
+            idle.offerFirst(keep);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        PooledTransport transport;
+        while ((transport = idle.poll()) != null) {
+            close(transport);
+        }
+    }
+
+    private void acquirePermit() throws MessagingException {
+        long start = System.nanoTime();
+        try {
+            boolean acquired = permits.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS);
+            acquireTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (!acquired) {
+                acquireTimeoutCounter.increment();
+                throw new MessagingException("Timed out waiting for a pooled SMTP connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted waiting for a pooled SMTP connection", e);
+        }
+    }
+
+    /**
+     * Take the most recently used idle session, validating it if it sat idle a while
+     * Caller must hold a permit
+     */
+    private PooledTransport borrow() throws MessagingException {
+        long now = System.currentTimeMillis();
+        PooledTransport transport;
+        while ((transport = idle.pollFirst()) != null) {
+            if (isExpired(transport, now)) {
+                close(transport);
+            } else if (now - transport.lastUsedAt > validateAfterIdleMs && !transport.transport.isConnected()) {
+                close(transport);
+            } else {
+                return transport;
+            }
+        }
+        return connect();
+    }
+
+    private void release(PooledTransport transport) {
+        transport.lastUsedAt = System.currentTimeMillis();
+        if (transport.messagesSent >= maxMessagesPerConnection || isExpired(transport, transport.lastUsedAt)) {
+            close(transport);
+        } else {
+            idle.offerFirst(transport);
+        }
+    }
+
+    private Outcome trySend(PooledTransport transport, MimeMessage message) {
+        try {
+            transport.transport.sendMessage(message, message.getAllRecipients());
+            transport.messagesSent++;
+            return Outcome.SENT;
+        } catch (MessagingException e) {
+            if (isPermanent(e)) {
+                log.warn("SMTP server refused message permanently: {}", e.getMessage());
+                return Outcome.REJECTED;
+            }
+            log.warn("SMTP send failed: {}", e.getMessage());
+            return Outcome.FAILED;
+        }
+    }
+
+    /**
+     * Whether the server refused a message for good: a recipient address was rejected as invalid
+     * (an SMTPAddressFailedException with a 5xx reply) or any reply in the chain is 5xx
+     *
+     * A 4xx reply (e.g. 450 mailbox busy, 421 closing) stays transient. The SMTP provider
+     * exceptions are a runtime-only dependency, so their reply code is read from the message.
+     */
+    static boolean isPermanent(MessagingException e) {
+        Exception cause = e;
+        while (cause != null) {
+            if (cause instanceof SendFailedException sendFailed) {
+                Address[] invalid = sendFailed.getInvalidAddresses();
+                if (invalid != null && invalid.length > 0) {
+                    return true;
+                }
+            }
+            if (replyCode(cause) >= 500) {
+                return true;
+            }
+            cause = cause instanceof MessagingException messaging ? messaging.getNextException() : null;
+        }
+        return false;
+    }
+
+    /**
+     * SMTP reply code the exception message starts with (e.g. "550 5.1.1 User unknown"), or 0
+     */
+    private static int replyCode(Exception e) {
+        String message = e.getMessage();
+        if (message == null || message.length() < 3) {
+            return 0;
+        }
+        for (int i = 0; i < 3; i++) {
+            if (!Character.isDigit(message.charAt(i))) {
+                return 0;
+            }
+        }
+        if (message.length() > 3 && message.charAt(3) != ' ' && message.charAt(3) != '-') {
+            return 0;
+        }
+        return Integer.parseInt(message.substring(0, 3));
+    }
+
+    private PooledTransport connect() throws MessagingException {
+        Transport transport = mailSender.getSession().getTransport(mailSender.getProtocol());
+        transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+        open.incrementAndGet();
+        connectCounter.increment();
+        return new PooledTransport(transport);
+    }
+
+    private boolean isExpired(PooledTransport transport, long now) {
+        return now - transport.createdAt > maxLifetimeMs;
+    }
+
+    private void close(PooledTransport transport) {
+        open.decrementAndGet();
+        try {
+            transport.transport.close();
+        } catch (MessagingException e) {
+            log.debug("Error closing SMTP connection: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Outcome of {@link #sendAll}
+     *
+     * @param failed indexes of messages that could not be sent
+     * @param rejected indexes among them the server refused for good; retrying these cannot succeed
+     */
+    public record BatchResult(List<Integer> failed, List<Integer> rejected) {
+    }
+
+    private enum Outcome { SENT, FAILED, REJECTED }
+
+    private static final class PooledTransport {
+        private final Transport transport;
+        private final long createdAt = System.currentTimeMillis();
+        private long lastUsedAt = createdAt;
+        private int messagesSent;
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+    }
+}
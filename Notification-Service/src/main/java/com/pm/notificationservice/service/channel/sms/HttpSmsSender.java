@@ -0,0 +1,198 @@
+package com.pm.notificationservice.service.channel.sms;
+
+import com.pm.notificationservice.service.channel.SendProgress;
+import com.pm.notificationservice.service.channel.SmsSender;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * SMS sender for an HTTP SMS provider
+ *
+ * - Recipients are sent in batches of batch-size per provider call:
+ *   POST {baseUrl}/messages {"from", "to": [...], "message"} -> {"failed": [...]}
+ * - Calls go through one shared, asynchronous {@link HttpClient} (pooled keep-alive
+ *   connections); the batches of a message are in flight concurrently
+ * - A token bucket holds sends to the provider's throughput
+ * - Failed recipients are reported per recipient, so a retry only sends to them
+ * - A call the provider refuses with a 4xx (other than 408 and 429) is a permanent failure:
+ *   its recipients are recorded as rejected and not retried
+ */
+@Service
+@ConditionalOnProperty(name = "notification.sms.provider", havingValue = "http")
+@EnableConfigurationProperties(SmsProperties.class)
+@Slf4j
+public class HttpSmsSender implements SmsSender {
+
+    private final SmsProperties properties;
+    private final JsonMapper jsonMapper;
+    private final HttpClient httpClient;
+    private final TokenBucket rateLimiter;
+    private final URI messagesUri;
+
+    private final Timer callTimer;
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+
+    public HttpSmsSender(SmsProperties properties, JsonMapper jsonMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.jsonMapper = jsonMapper;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(properties.getConnectTimeoutMs()))
+                .build();
+        this.rateLimiter = new TokenBucket(properties.getRatePerSecond(), properties.getBurst());
+        this.messagesUri = URI.create(properties.getBaseUrl().replaceAll("/+$", "") + "/messages");
+
+        this.callTimer = Timer.builder("notification.sms.provider.call")
+                .description("Time per SMS provider call")
+                .register(meterRegistry);
+        this.sentCounter = Counter.builder("notification.sms.messages")
+                .description("SMS messages by outcome")
+                .tag("result", "sent")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("notification.sms.messages")
+                .description("SMS messages by outcome")
+                .tag("result", "failed")
+                .register(meterRegistry);
+        log.info("HTTP SMS sender using {} ({} msg/s, batches of {})",
+                messagesUri, properties.getRatePerSecond(), properties.getBatchSize());
+    }
+
+    @Override
+    public boolean send(List<String> recipients, String message) {
+        if (recipients == null || recipients.isEmpty()) {
+            log.warn("No recipients provided for SMS");
+            return false;
+        }
+        return sendEach(recipients, message, new SendProgress()).size() < recipients.size();
+    }
+
+    @Override
+    public List<String> sendEach(List<String> recipients, String message, SendProgress progress) {
+        if (recipients == null || recipients.isEmpty()) {
+            log.warn("No recipients provided for SMS");
+            return List.of();
+        }
+
+        List<CompletableFuture<List<String>>> calls = new ArrayList<>();
+        int from = 0;
+        try {
+            for (; from < recipients.size(); from += properties.getBatchSize()) {
+                List<String> batch = recipients.subList(from, Math.min(from + properties.getBatchSize(), recipients.size()));
+                rateLimiter.acquire(batch.size());
+                if (!progress.begin(batch)) {
+                    log.warn("SMS send abandoned after {}/{} recipients", from, recipients.size());
+                    break;
+                }
+                calls.add(sendBatch(batch, message, progress));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while waiting for SMS rate limit");
+        }
+        if (from < recipients.size()) {
+            // Recipients not yet submitted count as failed
+            calls.add(CompletableFuture.completedFuture(recipients.subList(from, recipients.size())));
+        }
+
+        Set<String> failed = new LinkedHashSet<>();
+        for (CompletableFuture<List<String>> call : calls) {
+            failed.addAll(call.join());
+        }
+
+        sentCounter.increment(recipients.size() - failed.size());
+        failedCounter.increment(failed.size());
+        if (!failed.isEmpty()) {
+            log.error("SMS failed for {}/{} recipients", failed.size(), recipients.size());
+        }
+        return new ArrayList<>(failed);
+    }
+
+    @Override
+    public boolean isConfigured() {
+        return true;
+    }
+
+    /**
+     * One provider call; completes with the recipients that failed
+     */
+    private CompletableFuture<List<String>> sendBatch(List<String> batch, String message, SendProgress progress) {
+        HttpRequest request;
+        try {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("from", properties.getSender());
+            body.put("to", batch);
+            body.put("message", message);
+            request = HttpRequest.newBuilder(messagesUri)
+                    .timeout(Duration.ofMillis(properties.getRequestTimeoutMs()))
+                    .header("Content-Type", "application/json")
+                    .header("Authorization", "Bearer " + properties.getApiKey())
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(jsonMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (JacksonException e) {
+            log.error("Could not build SMS provider request: {}", e.getMessage());
+            return CompletableFuture.completedFuture(batch);
+        }
+
+        long start = System.nanoTime();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .handle((response, error) -> {
+                    callTimer.record(Duration.ofNanos(System.nanoTime() - start));
+                    if (error != null) {
+                        log.warn("SMS provider call for {} recipients failed: {}", batch.size(), error.toString());
+                        return batch;
+                    }
+                    if (response.statusCode() / 100 != 2) {
+                        log.warn("SMS provider returned {} for {} recipients", response.statusCode(), batch.size());
+                        if (isPermanent(response.statusCode())) {
+                            progress.reject(batch);
+                        }
+                        return batch;
+                    }
+                    return failedRecipients(response.body());
+                });
+    }
+
+    /**
+     * Client errors other than timeouts and throttling mean the same call would be refused again
+     */
+    private static boolean isPermanent(int statusCode) {
+        return statusCode / 100 == 4 && statusCode != 408 && statusCode != 429;
+    }
+
+    private List<String> failedRecipients(byte[] body) {
+        if (body == null || body.length == 0) {
+            return List.of();
+        }
+        try {
+            JsonNode failed = jsonMapper.readTree(body).path("failed");
+            List<String> result = new ArrayList<>();
+            failed.forEach(node -> result.add(node.asString()));
+            return result;
+        } catch (JacksonException e) {
+            log.warn("Unreadable SMS provider response, assuming the batch was accepted: {}", e.getMessage());
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.pm.notificationservice.service.channel.sms;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Embedded stand-in for the HTTP SMS provider, for local runs, tests and benchmarks
+ *
+ * Speaks the protocol {@link HttpSmsSender} uses (POST /messages), nothing is delivered.
+ * Latency and a recipient failure rate can be configured to exercise batching, rate
+ * limiting and retries. Enabled with notification.sms.local-server.enabled; tests can
+ * also create and start it directly.
+ */
+@Component
+@ConditionalOnProperty(name = "notification.sms.local-server.enabled", havingValue = "true")
+@EnableConfigurationProperties(SmsProperties.class)
+@Slf4j
+public class LocalSmsProviderServer implements SmartLifecycle {
+
+    private final SmsProperties.LocalServer config;
+    private final JsonMapper jsonMapper;
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong messages = new AtomicLong();
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public LocalSmsProviderServer(SmsProperties properties, JsonMapper jsonMapper) {
+        this.config = properties.getLocalServer();
+        this.jsonMapper = jsonMapper;
+    }
+
+    @Override
+    public synchronized void start() {
+        try {
+            server = HttpServer.create(new InetSocketAddress("localhost", config.getPort()), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start local SMS provider on port " + config.getPort(), e);
+        }
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "local-sms-provider");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/messages", this::handleMessages);
+        server.start();
+        log.info("Local SMS provider listening on http://localhost:{}", getPort());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            server = null;
+            log.info("Local SMS provider stopped after {} calls, {} messages", calls.get(), messages.get());
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return server != null;
+    }
+
+    /**
+     * Start before the dispatcher and stop after it
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 8192;
+    }
+
+    /**
+     * Bound port; differs from the configured one when that was 0
+     */
+    public int getPort() {
+        return server != null ? server.getAddress().getPort() : config.getPort();
+    }
+
+    public long getCallCount() {
+        return calls.get();
+    }
+
+    public long getMessageCount() {
+        return messages.get();
+    }
+
+    private void handleMessages(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                respond(exchange, 405, Map.of("error", "POST required"));
+                return;
+            }
+
+            JsonNode body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = jsonMapper.readTree(in);
+            } catch (IOException | JacksonException e) {
+                respond(exchange, 400, Map.of("error", "Malformed JSON"));
+                return;
+            }
+            if (body == null || !body.path("to").isArray() || !body.hasNonNull("message")) {
+                respond(exchange, 400, Map.of("error", "Fields 'to' and 'message' are required"));
+                return;
+            }
+
+            if (config.getLatencyMs() > 0) {
+                try {
+                    Thread.sleep(config.getLatencyMs());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    respond(exchange, 503, Map.of("error", "Shutting down"));
+                    return;
+                }
+            }
+
+            List<String> failed = new ArrayList<>();
+            for (JsonNode recipient : body.path("to")) {
+                if (config.getFailureRate() > 0 && ThreadLocalRandom.current().nextDouble() < config.getFailureRate()) {
+                    failed.add(recipient.asString());
+                }
+            }
+            calls.incrementAndGet();
+            messages.addAndGet(body.path("to").size() - failed.size());
+            respond(exchange, 200, Map.of("accepted", body.path("to").size() - failed.size(), "failed", failed));
+        }
+    }
+
+    private void respond(HttpExchange exchange, int status, Map<String, Object> body) throws IOException {
+        byte[] bytes = jsonMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.pm.notificationservice.service.channel.sms;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * SMS channel configuration
+ *
+ * provider "http" sends through an HTTP SMS provider; notification.sms.local-server.*
+ * starts an embedded stand-in provider for local runs, tests and benchmarks.
+ */
+@Data
+@ConfigurationProperties(prefix = "notification.sms")
+public class SmsProperties {
+
+    /**
+     * none (log only) or http
+     */
+    private String provider = "none";
+
+    /**
+     * Provider endpoint; messages are POSTed to {baseUrl}/messages
+     */
+    private String baseUrl = "http://localhost:8095";
+
+    private String apiKey = "";
+
+    private String sender = "";
+
+    /**
+     * Recipients per provider call
+     */
+    private int batchSize = 100;
+
+    /**
+     * Provider throughput in messages (recipients) per second
+     */
+    private double ratePerSecond = 50;
+
+    /**
+     * Messages that may be sent at once after an idle period
+     */
+    private int burst = 100;
+
+    private long connectTimeoutMs = 2000;
+
+    private long requestTimeoutMs = 10000;
+
+    private LocalServer localServer = new LocalServer();
+
+    @Data
+    public static class LocalServer {
+        private boolean enabled = false;
+        private int port = 8095;
+
+        /**
+         * Added latency per provider call, to simulate a real provider
+         */
+        private long latencyMs = 0;
+
+        /**
+         * Fraction of recipients reported as failed (0.0 - 1.0)
+         */
+        private double failureRate = 0;
+    }
+}
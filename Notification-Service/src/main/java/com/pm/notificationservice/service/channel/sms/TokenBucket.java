@@ -0,0 +1,50 @@
+package com.pm.notificationservice.service.channel.sms;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket limiting sends to the provider's throughput
+ *
+ * Tokens refill continuously at the configured rate up to the burst size; a caller takes
+ * one token per message and waits until enough have accumulated.
+ */
+final class TokenBucket {
+
+    private final double ratePerNano;
+    private final double capacity;
+    private double tokens;
+    private long lastRefillNanos;
+
+    TokenBucket(double ratePerSecond, int burst) {
+        this.ratePerNano = ratePerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.capacity = Math.max(burst, 1);
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Take {@code permits} tokens, waiting as long as needed
+     * Requests larger than the burst size are admitted once the bucket is full, leaving it in debt
+     */
+    void acquire(int permits) throws InterruptedException {
+        long waitNanos;
+        synchronized (this) {
+            refill();
+            double needed = Math.min(permits, capacity);
+            if (tokens >= needed) {
+                tokens -= permits;
+                return;
+            }
+            waitNanos = (long) Math.ceil((needed - tokens) / ratePerNano);
+            // Reserve now so concurrent callers queue up behind this one
+            tokens -= permits;
+        }
+        TimeUnit.NANOSECONDS.sleep(waitNanos);
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * ratePerNano);
+        lastRefillNanos = now;
+    }
+}
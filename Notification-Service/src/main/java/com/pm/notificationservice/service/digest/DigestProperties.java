@@ -0,0 +1,48 @@
+package com.pm.notificationservice.service.digest;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Digest (per-recipient coalescing) configuration
+ *
+ * Email-only notifications of the listed events are held per recipient for up to the window
+ * and sent as one digest email.
+ */
+@Data
+@ConfigurationProperties(prefix = "notification.digest")
+public class DigestProperties {
+
+    /**
+     * Event values that are coalesced into digests, e.g. account_deactivated; empty disables digests
+     */
+    private Set<String> events = new HashSet<>();
+
+    /**
+     * Longest a notification waits for others to the same recipient, from the first one held
+     */
+    private long windowSeconds = 300;
+
+    /**
+     * A recipient's digest is sent as soon as it holds this many notifications
+     */
+    private int maxItems = 20;
+
+    /**
+     * Maximum notifications held in digests by this node; beyond it they are sent on their own
+     */
+    private int maxHeld = 100_000;
+
+    /**
+     * How often digests are checked for an expired window
+     */
+    private long flushIntervalMs = 1000;
+
+    /**
+     * On shutdown, how long to wait for the remaining digests to be sent
+     */
+    private long drainTimeoutMs = 10_000;
+}
@@ -0,0 +1,420 @@
+package com.pm.notificationservice.service.digest;
+
+import com.pm.notificationservice.dto.NotificationRequest;
+import com.pm.notificationservice.entity.NotificationHistory;
+import com.pm.notificationservice.enums.NotificationChannel;
+import com.pm.notificationservice.enums.NotificationPriority;
+import com.pm.notificationservice.exception.PermanentDeliveryException;
+import com.pm.notificationservice.service.audit.AuditJournal;
+import com.pm.notificationservice.service.channel.ChannelExecutors;
+import com.pm.notificationservice.service.channel.EmailSender;
+import com.pm.notificationservice.service.job.NotificationJobStore;
+import com.pm.notificationservice.service.retry.NotificationRetryScheduler;
+import com.pm.notificationservice.service.status.NotificationStatusTracker;
+import com.pm.notificationservice.templates.CompiledTemplate;
+import com.pm.notificationservice.templates.EmailTemplate;
+import com.pm.notificationservice.templates.EmailTemplateFactory;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Coalesces notifications to the same recipient into one digest email
+ *
+ * - Opt-in per event (notification.digest.events); only single-recipient, email-only,
+ *   non-critical notifications are held, everything else is dispatched as usual
+ * - A held notification is a SCHEDULED job leased to this node, due at the end of the
+ *   window; if the node dies the lease expires and it is sent on its own
+ * - Each enterprise + recipient has one buffer: the job ID, request ID and parsed request per
+ *   notification, in a growable array. It is sent once it holds max-items notifications or
+ *   its first notification has waited window-seconds
+ * - Sending takes the jobs (cancelled ones drop out), renders every notification into the
+ *   digest template and sends it on the email bulkhead. A digest of one is sent with the
+ *   event's own template. If it fails, each job goes through the normal retry path on its own;
+ *   if the server refused the recipient for good, each job is dead-lettered without retries
+ */
+@Component
+@EnableConfigurationProperties(DigestProperties.class)
+@Slf4j
+public class NotificationDigester implements SmartLifecycle {
+
+    private static final List<String> EMAIL_ONLY = List.of(NotificationChannel.EMAIL.getValue());
+    private static final CompiledTemplate ITEM_HTML = CompiledTemplate.html(
+            "<div class=\"item\"><h3>{{subject}}</h3><p>{{body}}</p></div>\n");
+    private static final CompiledTemplate ITEM_TEXT = CompiledTemplate.text(
+            "{{subject}}\n\n{{body}}\n\n");
+
+    private final NotificationJobStore jobStore;
+    private final ChannelExecutors channelExecutors;
+    private final EmailSender emailSender;
+    private final EmailTemplateFactory templateFactory;
+    private final NotificationStatusTracker statusTracker;
+    private final AuditJournal auditJournal;
+    private final NotificationRetryScheduler retryScheduler;
+    private final DigestProperties properties;
+    private final Set<String> events;
+
+    private final Map<String, RecipientDigest> digests = new ConcurrentHashMap<>();
+    private final AtomicInteger held = new AtomicInteger();
+    private final DistributionSummary digestSize;
+
+    private volatile boolean running;
+
+    public NotificationDigester(NotificationJobStore jobStore,
+                                ChannelExecutors channelExecutors,
+                                EmailSender emailSender,
+                                EmailTemplateFactory templateFactory,
+                                NotificationStatusTracker statusTracker,
+                                AuditJournal auditJournal,
+                                NotificationRetryScheduler retryScheduler,
+                                DigestProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.jobStore = jobStore;
+        this.channelExecutors = channelExecutors;
+        this.emailSender = emailSender;
+        this.templateFactory = templateFactory;
+        this.statusTracker = statusTracker;
+        this.auditJournal = auditJournal;
+        this.retryScheduler = retryScheduler;
+        this.properties = properties;
+        this.events = properties.getEvents().stream()
+                .map(event -> event.trim().toLowerCase(Locale.ROOT))
+                .filter(event -> !event.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+
+        Gauge.builder("notification.digest.held", held, AtomicInteger::get)
+                .description("Notifications held in digests on this node")
+                .register(meterRegistry);
+        Gauge.builder("notification.digest.recipients", digests, Map::size)
+                .description("Recipients with a digest being collected")
+                .register(meterRegistry);
+        this.digestSize = DistributionSummary.builder("notification.digest.size")
+                .description("Notifications per digest email sent")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether a new notification should be held for a digest
+     */
+    public boolean isEligible(NotificationRequest request) {
+        if (!running || events.isEmpty() || held.get() >= properties.getMaxHeld()
+                || templateFactory.getDigestTemplate().isEmpty()) {
+            return false;
+        }
+        if (request.getEvent() == null || !events.contains(request.getEvent().toLowerCase(Locale.ROOT))) {
+            return false;
+        }
+        if (request.getTo() == null || request.getTo().size() != 1 || request.getRecipientData() != null) {
+            return false;
+        }
+        if (request.getChannels() == null || request.getChannels().size() != 1
+                || !EMAIL_ONLY.get(0).equalsIgnoreCase(request.getChannels().get(0))) {
+            return false;
+        }
+        try {
+            return NotificationPriority.resolve(request.getEvent(), request.getPriority()) != NotificationPriority.CRITICAL;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Send time for a notification held now; its digest goes out no later than this
+     */
+    public LocalDateTime latestSendTime() {
+        return LocalDateTime.now().plusSeconds(properties.getWindowSeconds());
+    }
+
+    /**
+     * Add a stored notification to its recipient's digest
+     *
+     * @param job the notification's SCHEDULED job, leased to this node
+     */
+    public void hold(NotificationHistory job, NotificationRequest request) {
+        String recipient = request.getTo().get(0);
+        String key = tenantOf(request) + '\n' + recipient.toLowerCase(Locale.ROOT);
+        DigestItem item = new DigestItem(job.getId(), job.getRequestId(), request);
+
+        RecipientDigest[] full = new RecipientDigest[1];
+        digests.compute(key, (k, digest) -> {
+            if (digest == null) {
+                digest = new RecipientDigest(key, recipient, System.currentTimeMillis());
+            }
+            digest.add(item);
+            if (digest.size >= properties.getMaxItems()) {
+                full[0] = digest;
+                return null;
+            }
+            return digest;
+        });
+        held.incrementAndGet();
+
+        if (full[0] != null) {
+            flush(full[0]);
+        }
+    }
+
+    /**
+     * Send the digests whose window has passed
+     */
+    @Scheduled(fixedDelayString = "${notification.digest.flush-interval-ms:1000}")
+    public void flushExpired() {
+        if (!running || digests.isEmpty()) {
+            return;
+        }
+        long cutoff = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(properties.getWindowSeconds());
+        digests.forEach((key, digest) -> {
+            if (digest.firstAtMs <= cutoff && digests.remove(key, digest)) {
+                flush(digest);
+            }
+        });
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        if (!events.isEmpty()) {
+            log.info("Notification digests enabled for events {} ({} s window, up to {} per digest)",
+                    events, properties.getWindowSeconds(), properties.getMaxItems());
+        }
+    }
+
+    /**
+     * Send what is held right away instead of waiting for the windows to pass
+     */
+    @Override
+    public void stop() {
+        running = false;
+        List<CompletableFuture<Boolean>> sends = new ArrayList<>();
+        digests.forEach((key, digest) -> {
+            if (digests.remove(key, digest)) {
+                sends.add(flush(digest));
+            }
+        });
+        if (sends.isEmpty()) {
+            return;
+        }
+
+        log.info("Notification digester stopping, sending {} pending digests", sends.size());
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                    .get(properties.getDrainTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Pending digests not sent within {} ms, their jobs are handed back with the scheduled ones",
+                    properties.getDrainTimeoutMs());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.error("Error sending pending digests", e);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stop before the scheduler, which hands back the jobs still held, and before the
+     * dispatch and retry workers that take failed digests
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 2048;
+    }
+
+    /**
+     * Send a digest taken out of the buffer on the email bulkhead
+     *
+     * @return completes with true if the email was sent
+     */
+    private CompletableFuture<Boolean> flush(RecipientDigest digest) {
+        held.addAndGet(-digest.size);
+        return channelExecutors.submit(NotificationChannel.EMAIL, () -> send(digest))
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (cause instanceof RejectedExecutionException && running) {
+                        // Email bulkhead full: keep it, it goes out with the next flush
+                        held.addAndGet(digest.size);
+                        digests.merge(digest.key, digest, (current, returned) -> {
+                            returned.addAll(current);
+                            return returned;
+                        });
+                    } else if (cause instanceof TimeoutException) {
+                        log.warn("Digest to {} is taking longer than the email timeout", digest.recipient);
+                    } else {
+                        log.error("Digest to {} was not sent: {}", digest.recipient, cause.getMessage());
+                    }
+                    return false;
+                });
+    }
+
+    private boolean send(RecipientDigest digest) {
+        // Take the jobs; cancelled ones and ones reclaimed by another node drop out
+        List<BegunItem> items = new ArrayList<>(digest.size);
+        for (int i = 0; i < digest.size; i++) {
+            DigestItem item = digest.items[i];
+            try {
+                jobStore.beginScheduled(item.jobId())
+                        .ifPresent(job -> items.add(new BegunItem(item, job.getAttempts())));
+            } catch (Exception e) {
+                // Still leased; it is sent on its own once the lease expires
+                log.error("Failed to take notification {} for a digest", item.requestId(), e);
+            }
+        }
+        if (items.isEmpty()) {
+            return true;
+        }
+
+        items.forEach(begun -> statusTracker.sending(begun.item().requestId(), begun.item().request(), begun.attempt()));
+        boolean sent;
+        boolean refused = false;
+        String error = null;
+        try {
+            sent = items.size() == 1
+                    ? emailSender.sendWithTemplate(List.of(digest.recipient), items.get(0).item().request().getEvent(),
+                            items.get(0).item().request().getData())
+                    : sendDigest(digest.recipient, items);
+            if (!sent) {
+                error = "Digest email could not be sent";
+            }
+        } catch (PermanentDeliveryException e) {
+            log.error("Digest to {} refused permanently: {}", digest.recipient, e.getMessage());
+            sent = false;
+            refused = true;
+            error = e.getMessage();
+        } catch (Exception e) {
+            log.error("Exception while sending digest to {}", digest.recipient, e);
+            sent = false;
+            error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        }
+        if (sent) {
+            digestSize.record(items.size());
+            log.info("Digest of {} notifications sent to {}", items.size(), digest.recipient);
+        }
+
+        List<String> failedChannels = sent ? List.of() : EMAIL_ONLY;
+        for (BegunItem begun : items) {
+            DigestItem item = begun.item();
+            statusTracker.delivered(item.requestId(), EMAIL_ONLY, failedChannels, error);
+            auditJournal.attempted(item.requestId(), item.request(), begun.attempt(), failedChannels, error);
+            try {
+                if (sent) {
+                    jobStore.complete(item.jobId(), failedChannels, null);
+                } else {
+                    if (refused) {
+                        // Nothing left to retry: onFailure dead-letters the job at once
+                        item.request().setChannelRecipients(Map.of(EMAIL_ONLY.get(0), List.of()));
+                        item.request().setRejectedRecipients(Map.of(EMAIL_ONLY.get(0), List.of(digest.recipient)));
+                    }
+                    retryScheduler.onFailure(item.jobId(), item.requestId(), item.request(),
+                            begun.attempt(), failedChannels, error);
+                }
+            } catch (Exception e) {
+                log.error("Failed to record outcome of notification {}", item.requestId(), e);
+            }
+        }
+        return sent;
+    }
+
+    /**
+     * Render every notification with its own template into the digest template and send it
+     */
+    private boolean sendDigest(String recipient, List<BegunItem> items) {
+        EmailTemplate digestTemplate = templateFactory.getDigestTemplate()
+                .orElseThrow(() -> new IllegalStateException("Digest email template is missing"));
+
+        StringBuilder html = new StringBuilder();
+        StringBuilder text = new StringBuilder();
+        for (BegunItem begun : items) {
+            NotificationRequest request = begun.item().request();
+            EmailTemplate template = templateFactory.getTemplate(request.getEvent());
+            String subject = template.getSubject();
+            String body = template.buildPlainText(request.getData());
+            if (body.startsWith(subject)) {
+                body = body.substring(subject.length()).strip();
+            }
+            Map<String, Object> itemData = Map.of("subject", subject, "body", body);
+            html.append(ITEM_HTML.render(itemData));
+            text.append(ITEM_TEXT.render(itemData));
+        }
+
+        // Recipient variables (userName, platformName) from the latest notification
+        Map<String, Object> latest = items.get(items.size() - 1).item().request().getData();
+        Map<String, Object> data = latest != null ? new HashMap<>(latest) : new HashMap<>();
+        data.put("count", items.size());
+        data.put("items", html.toString());
+        String htmlContent = digestTemplate.buildContent(data);
+        data.put("items", text.toString());
+        String plainText = digestTemplate.buildPlainText(data);
+
+        return emailSender.send(List.of(recipient), digestTemplate.getSubject(), htmlContent, plainText);
+    }
+
+    private static String tenantOf(NotificationRequest request) {
+        return request.getEnterpriseId() != null && !request.getEnterpriseId().isBlank()
+                ? request.getEnterpriseId()
+                : "default";
+    }
+
+    private record DigestItem(String jobId, String requestId, NotificationRequest request) {
+    }
+
+    private record BegunItem(DigestItem item, int attempt) {
+    }
+
+    /**
+     * Notifications held for one enterprise + recipient; only mutated inside the map's
+     * compute/merge, and read once removed from the map
+     */
+    private static final class RecipientDigest {
+
+        private final String key;
+        private final String recipient;
+        private final long firstAtMs;
+        private DigestItem[] items = new DigestItem[4];
+        private int size;
+
+        private RecipientDigest(String key, String recipient, long firstAtMs) {
+            this.key = key;
+            this.recipient = recipient;
+            this.firstAtMs = firstAtMs;
+        }
+
+        private void add(DigestItem item) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = item;
+        }
+
+        private void addAll(RecipientDigest other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.items[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.pm.notificationservice.service.dispatch;
+
+import com.pm.notificationservice.enums.NotificationPriority;
+import com.pm.notificationservice.service.metrics.TenantTags;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One {@link TenantFairQueue} per priority class, served in strict priority order
+ *
+ * A worker always takes CRITICAL work before NORMAL and NORMAL before BULK; lower classes
+ * are only served while no higher-class item is eligible. Workers restricted to a set of
+ * classes (the reserved CRITICAL workers) never pick up anything else.
+ */
+final class DispatchLanes<E> {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final Map<NotificationPriority, TenantFairQueue<E>> lanes = new EnumMap<>(NotificationPriority.class);
+
+    DispatchLanes(DispatchProperties properties, MeterRegistry meterRegistry, TenantTags tenantTags) {
+        for (NotificationPriority priority : NotificationPriority.values()) {
+            lanes.put(priority, new TenantFairQueue<>(priority.getValue(), properties.capacityOf(priority),
+                    properties.getTenants(), lock, available, meterRegistry, tenantTags));
+        }
+    }
+
+    TenantFairQueue<E> lane(NotificationPriority priority) {
+        return lanes.get(priority);
+    }
+
+    boolean offer(NotificationPriority priority, String tenant, int cost, E item) {
+        return lanes.get(priority).offer(tenant, cost, item);
+    }
+
+    boolean hasCapacity(NotificationPriority priority, String tenant) {
+        return lanes.get(priority).hasCapacity(tenant);
+    }
+
+    void release(NotificationPriority priority, String tenant) {
+        lanes.get(priority).release(tenant);
+    }
+
+    /**
+     * Take the highest-priority eligible item, waiting up to the timeout
+     *
+     * @param criticalOnly only serve the CRITICAL lane
+     * @return the item, or null on timeout
+     */
+    E poll(boolean criticalOnly, long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (true) {
+                for (Map.Entry<NotificationPriority, TenantFairQueue<E>> lane : lanes.entrySet()) {
+                    if (criticalOnly && lane.getKey() != NotificationPriority.CRITICAL) {
+                        break;
+                    }
+                    E item = lane.getValue().pollNow();
+                    if (item != null) {
+                        return item;
+                    }
+                }
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = available.awaitNanos(nanos);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (TenantFairQueue<E> lane : lanes.values()) {
+            size += lane.size();
+        }
+        return size;
+    }
+
+    int remainingCapacity() {
+        int remaining = 0;
+        for (TenantFairQueue<E> lane : lanes.values()) {
+            remaining += lane.remainingCapacity();
+        }
+        return remaining;
+    }
+
+    int capacity() {
+        int capacity = 0;
+        for (TenantFairQueue<E> lane : lanes.values()) {
+            capacity += lane.capacity();
+        }
+        return capacity;
+    }
+
+    void drainTo(Collection<? super E> target) {
+        lanes.values().forEach(lane -> lane.drainTo(target));
+    }
+}
@@ -0,0 +1,111 @@
+package com.pm.notificationservice.service.dispatch;
+
+import com.pm.notificationservice.enums.NotificationPriority;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Dispatch configuration
+ *
+ * notification.dispatch.lanes.<priority>.* size the queue of each priority class;
+ * notification.dispatch.tenants.* control how queue space and workers are shared
+ * between enterprises within a class.
+ */
+@Data
+@ConfigurationProperties(prefix = "notification.dispatch")
+public class DispatchProperties {
+
+    /**
+     * Notifications held in memory per priority class, unless the lane sets its own capacity
+     */
+    private int queueCapacity = 1000;
+
+    /**
+     * Dispatch worker threads serving every priority class, highest first
+     */
+    private int workers = 8;
+
+    /**
+     * Additional workers that only serve CRITICAL notifications, so they never wait for a
+     * shared worker to finish bulk mail
+     */
+    private int reservedCriticalWorkers = 2;
+
+    /**
+     * Retry-After sent with a 429 when the queue is full
+     */
+    private long retryAfterSeconds = 5;
+
+    /**
+     * Time allowed on shutdown to deliver what is queued
+     */
+    private long drainTimeoutMs = 30000;
+
+    private Tenants tenants = new Tenants();
+
+    /**
+     * Per-priority lane settings
+     */
+    private Map<NotificationPriority, Lane> lanes = new EnumMap<>(NotificationPriority.class);
+
+    public Lane lane(NotificationPriority priority) {
+        return lanes.getOrDefault(priority, Lane.DEFAULT);
+    }
+
+    public int capacityOf(NotificationPriority priority) {
+        int capacity = lane(priority).getCapacity();
+        return capacity > 0 ? capacity : queueCapacity;
+    }
+
+    @Data
+    public static class Lane {
+        private static final Lane DEFAULT = new Lane();
+
+        /**
+         * Queued notifications of this class; 0 uses queue-capacity
+         */
+        private int capacity;
+
+        /**
+         * Target time from acceptance to a worker picking the notification up
+         */
+        private long sloMs = 60000;
+    }
+
+    @Data
+    public static class Tenants {
+
+        /**
+         * Queued notifications per tenant; keeps one tenant from filling the shared queue
+         */
+        private int maxQueued = 500;
+
+        /**
+         * Notifications of one tenant being delivered at the same time
+         */
+        private int maxConcurrency = 4;
+
+        /**
+         * Recipients a tenant of weight 1 may be served per scheduling round
+         */
+        private int quantum = 10;
+
+        /**
+         * Weight of tenants without an entry in {@link #weights}
+         */
+        private int defaultWeight = 1;
+
+        /**
+         * Per-tenant weights keyed by enterprise ID; a tenant of weight 2 gets twice the share
+         */
+        private Map<String, Integer> weights = new LinkedHashMap<>();
+
+        public int weightOf(String tenant) {
+            return Math.max(1, weights.getOrDefault(tenant, defaultWeight));
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package com.pm.notificationservice.service.dispatch;
+
+import com.pm.notificationservice.dto.NotificationRequest;
+import com.pm.notificationservice.enums.NotificationPriority;
+import com.pm.notificationservice.exception.DispatchQueueFullException;
+import com.pm.notificationservice.service.NotificationDeliveryService;
+import com.pm.notificationservice.service.audit.AuditJournal;
+import com.pm.notificationservice.service.job.NotificationJobStore;
+import com.pm.notificationservice.service.metrics.TenantTags;
+import com.pm.notificationservice.service.retry.NotificationRetryScheduler;
+import com.pm.notificationservice.service.status.NotificationStatusTracker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded dispatch queue between the HTTP layer and channel delivery
+ *
+ * - Accepting a notification is a non-blocking offer onto a fixed-capacity queue
+ * - There is one queue per priority class (critical, normal, bulk; from the event unless
+ *   the caller overrides it). Workers serve higher classes first and a reserved set of
+ *   workers only serves CRITICAL, so an OTP never waits behind a welcome campaign. Each
+ *   class has a queue-wait SLO with its own timer and miss counter
+ * - Each class keeps one sub-queue per enterprise and serves them by weighted deficit
+ *   round-robin with a per-enterprise concurrency cap ({@link TenantFairQueue}), so one
+ *   enterprise's bulk send cannot delay another's OTPs
+ * - A dedicated pool of worker threads (separate from Tomcat) drains the queue
+ * - When the queue, or the enterprise's share of it, is full, admission fails fast with
+ *   {@link DispatchQueueFullException}
+ * - Each queued entry is a persisted job leased to this node; workers record the outcome
+ *   and hand failed channels to the {@link NotificationRetryScheduler}
+ * - On shutdown, intake stops and workers drain what is queued within the drain timeout;
+ *   whatever is left is released back to the job store for another node
+ */
+@Component
+@EnableConfigurationProperties(DispatchProperties.class)
+@Slf4j
+public class NotificationDispatcher implements SmartLifecycle {
+
+    private static final long POLL_INTERVAL_MS = 200;
+
+    private final NotificationDeliveryService deliveryService;
+    private final NotificationJobStore jobStore;
+    private final NotificationRetryScheduler retryScheduler;
+    private final NotificationStatusTracker statusTracker;
+    private final AuditJournal auditJournal;
+    private final DispatchProperties properties;
+    private final DispatchLanes<DispatchTask> queue;
+    private final List<Thread> workers = new ArrayList<>();
+
+    private final Map<NotificationPriority, Timer> queueWaitTimers = new EnumMap<>(NotificationPriority.class);
+    private final Map<NotificationPriority, Counter> sloMissedCounters = new EnumMap<>(NotificationPriority.class);
+    private final Timer deliveryTimer;
+    private final Counter rejectedCounter;
+
+    private volatile boolean running;
+
+    public NotificationDispatcher(NotificationDeliveryService deliveryService,
+                                  NotificationJobStore jobStore,
+                                  NotificationRetryScheduler retryScheduler,
+                                  NotificationStatusTracker statusTracker,
+                                  AuditJournal auditJournal,
+                                  DispatchProperties properties,
+                                  TenantTags tenantTags,
+                                  MeterRegistry meterRegistry) {
+        this.deliveryService = deliveryService;
+        this.jobStore = jobStore;
+        this.retryScheduler = retryScheduler;
+        this.statusTracker = statusTracker;
+        this.auditJournal = auditJournal;
+        this.properties = properties;
+        this.queue = new DispatchLanes<>(properties, meterRegistry, tenantTags);
+
+        Gauge.builder("notification.dispatch.queue.depth", queue, DispatchLanes::size)
+                .description("Notifications waiting for a dispatch worker")
+                .register(meterRegistry);
+        Gauge.builder("notification.dispatch.queue.capacity", queue, DispatchLanes::capacity)
+                .description("Maximum number of queued notifications")
+                .register(meterRegistry);
+        for (NotificationPriority priority : NotificationPriority.values()) {
+            TenantFairQueue<DispatchTask> lane = queue.lane(priority);
+            Duration slo = Duration.ofMillis(properties.lane(priority).getSloMs());
+            Gauge.builder("notification.dispatch.lane.depth", lane, TenantFairQueue::size)
+                    .description("Notifications of a priority class waiting for a dispatch worker")
+                    .tag("priority", priority.getValue())
+                    .register(meterRegistry);
+            queueWaitTimers.put(priority, Timer.builder("notification.dispatch.queue.wait")
+                    .description("Time a notification spends queued before a worker picks it up")
+                    .tag("priority", priority.getValue())
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .serviceLevelObjectives(slo)
+                    .register(meterRegistry));
+            sloMissedCounters.put(priority, Counter.builder("notification.dispatch.slo.missed")
+                    .description("Notifications picked up later than their priority class SLO")
+                    .tag("priority", priority.getValue())
+                    .register(meterRegistry));
+        }
+        this.deliveryTimer = Timer.builder("notification.dispatch.delivery")
+                .description("Time spent delivering a notification through its channels")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("notification.dispatch.rejected")
+                .description("Notifications rejected because the dispatch queue was full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Admission check for new notifications, called before a job is persisted
+     *
+     * @throws DispatchQueueFullException if the queue or the enterprise's share of it is full,
+     *         or the dispatcher is shutting down
+     */
+    public void checkCapacity(NotificationRequest request) {
+        if (!running) {
+            rejectedCounter.increment();
+            throw new DispatchQueueFullException("Notification dispatcher is shutting down", properties.getRetryAfterSeconds());
+        }
+        String tenant = tenantOf(request);
+        NotificationPriority priority = priorityOf(request);
+        if (!queue.hasCapacity(priority, tenant)) {
+            rejectedCounter.increment();
+            log.warn("Dispatch queue full for enterprise {} ({}), rejecting notification", tenant, priority.getValue());
+            throw new DispatchQueueFullException("Notification queue is full", properties.getRetryAfterSeconds());
+        }
+    }
+
+    /**
+     * Queue a leased job for delivery without blocking
+     *
+     * @return false if the queue is full or the dispatcher is stopping; the caller should release the job
+     */
+    public boolean offer(String jobId, String requestId, NotificationRequest request, int attempt) {
+        if (!running) {
+            return false;
+        }
+        String tenant = tenantOf(request);
+        NotificationPriority priority = priorityOf(request);
+        int cost = request.getTo() != null ? request.getTo().size() : 1;
+        return queue.offer(priority, tenant, cost,
+                new DispatchTask(jobId, requestId, request, tenant, priority, attempt, System.nanoTime()));
+    }
+
+    /**
+     * Free slots in the queue
+     */
+    public int remainingCapacity() {
+        return queue.remainingCapacity();
+    }
+
+    /**
+     * Current number of queued notifications
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        for (int i = 1; i <= properties.getWorkers(); i++) {
+            Thread worker = new Thread(() -> runWorker(false), "notification-dispatch-" + i);
+            worker.start();
+            workers.add(worker);
+        }
+        for (int i = 1; i <= properties.getReservedCriticalWorkers(); i++) {
+            Thread worker = new Thread(() -> runWorker(true), "notification-dispatch-critical-" + i);
+            worker.start();
+            workers.add(worker);
+        }
+        log.info("Notification dispatcher started with {} workers and {} reserved for critical notifications",
+                properties.getWorkers(), properties.getReservedCriticalWorkers());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        log.info("Notification dispatcher stopping, draining {} queued notifications", queue.size());
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getDrainTimeoutMs());
+        for (Thread worker : workers) {
+            long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            try {
+                if (remainingMs > 0) {
+                    worker.join(remainingMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        workers.forEach(Thread::interrupt);
+        workers.clear();
+
+        List<DispatchTask> undelivered = new ArrayList<>();
+        queue.drainTo(undelivered);
+        if (!undelivered.isEmpty()) {
+            log.warn("Notification dispatcher drain timed out, releasing {} queued jobs", undelivered.size());
+            for (DispatchTask task : undelivered) {
+                try {
+                    statusTracker.forget(task.requestId());
+                    jobStore.release(task.jobId());
+                } catch (Exception e) {
+                    log.error("Failed to release notification job {}, it will be reclaimed after its lease expires",
+                            task.jobId());
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Start before and stop after the embedded web server, so the queue is
+     * only drained once no new requests can arrive
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void runWorker(boolean criticalOnly) {
+        while (running || (criticalOnly ? queue.lane(NotificationPriority.CRITICAL).size() : queue.size()) > 0) {
+            DispatchTask task;
+            try {
+                task = queue.poll(criticalOnly, POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (task == null) {
+                continue;
+            }
+
+            long waitNanos = System.nanoTime() - task.enqueuedAtNanos();
+            queueWaitTimers.get(task.priority()).record(waitNanos, TimeUnit.NANOSECONDS);
+            if (TimeUnit.NANOSECONDS.toMillis(waitNanos) > properties.lane(task.priority()).getSloMs()) {
+                sloMissedCounters.get(task.priority()).increment();
+            }
+            try {
+                process(task);
+            } finally {
+                queue.release(task.priority(), task.tenant());
+            }
+        }
+    }
+
+    private static NotificationPriority priorityOf(NotificationRequest request) {
+        try {
+            return NotificationPriority.resolve(request.getEvent(), request.getPriority());
+        } catch (IllegalArgumentException e) {
+            return NotificationPriority.NORMAL;
+        }
+    }
+
+    private static String tenantOf(NotificationRequest request) {
+        return request.getEnterpriseId() != null && !request.getEnterpriseId().isBlank()
+                ? request.getEnterpriseId()
+                : "default";
+    }
+
+    private void process(DispatchTask task) {
+        List<String> failedChannels;
+        String error = null;
+        statusTracker.sending(task.requestId(), task.request(), task.attempt());
+        try {
+            long deadlineMs = deliveryService.deadlineFor(task.request());
+            if (jobStore.outlastsLease(deadlineMs)) {
+                jobStore.extendLease(task.jobId(), deadlineMs);
+            }
+            failedChannels = deliveryTimer.record(() -> deliveryService.deliver(task.requestId(), task.request()));
+        } catch (Exception e) {
+            log.error("Unexpected error dispatching notification {}", task.requestId(), e);
+            failedChannels = task.request().getChannels();
+            error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        }
+
+        statusTracker.delivered(task.requestId(), task.request().getChannels(), failedChannels, error);
+        auditJournal.attempted(task.requestId(), task.request(), task.attempt(), failedChannels, error);
+        try {
+            if (failedChannels.isEmpty()) {
+                jobStore.complete(task.jobId(), failedChannels, null);
+            } else {
+                retryScheduler.onFailure(task.jobId(), task.requestId(), task.request(),
+                        task.attempt(), failedChannels, error);
+            }
+        } catch (Exception e) {
+            log.error("Failed to record outcome of notification {}", task.requestId(), e);
+        }
+    }
+
+    private record DispatchTask(String jobId, String requestId, NotificationRequest request,
+                                String tenant, NotificationPriority priority, int attempt, long enqueuedAtNanos) {
+    }
+}
@@ -0,0 +1,281 @@
+package com.pm.notificationservice.service.dispatch;
+
+import com.pm.notificationservice.service.metrics.TenantTags;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToIntFunction;
+
+/**
+ * Bounded queue with one sub-queue per tenant, served by deficit round-robin
+ *
+ * - Each scheduling round credits a tenant quantum x weight; an item is taken when its
+ *   cost (recipient count) fits in the tenant's credit, so a tenant sending to thousands
+ *   of recipients gets the same share per round as one sending single OTPs
+ * - A tenant with max-concurrency items in delivery is skipped until one completes
+ *   ({@link #release(String)})
+ * - Capacity is bounded overall and per tenant
+ * - The lock is shared by all lanes of a {@link DispatchLanes}, so a worker can wait for
+ *   work in any of them
+ * - Per-tenant gauges exist only for tenants that {@link TenantTags} tags individually; the
+ *   rest are summed into one "other" series per lane
+ */
+final class TenantFairQueue<E> {
+
+    private final String lane;
+    private final DispatchProperties.Tenants config;
+    private final int capacity;
+    private final MeterRegistry meterRegistry;
+    private final TenantTags tenantTags;
+
+    private final ReentrantLock lock;
+    private final Condition available;
+    private final Map<String, TenantQueue<E>> tenants = new HashMap<>();
+    private final ArrayDeque<TenantQueue<E>> active = new ArrayDeque<>();
+    private int size;
+    private boolean otherGaugesRegistered;
+
+    TenantFairQueue(String lane, int capacity, DispatchProperties.Tenants config,
+                    ReentrantLock lock, Condition available, MeterRegistry meterRegistry, TenantTags tenantTags) {
+        this.lane = lane;
+        this.capacity = capacity;
+        this.config = config;
+        this.lock = lock;
+        this.available = available;
+        this.meterRegistry = meterRegistry;
+        this.tenantTags = tenantTags;
+    }
+
+    /**
+     * Queue an item without blocking
+     *
+     * @return false if the queue or the tenant's share of it is full
+     */
+    boolean offer(String tenant, int cost, E item) {
+        lock.lock();
+        try {
+            TenantQueue<E> queue = tenant(tenant);
+            if (size >= capacity || queue.items.size() >= config.getMaxQueued()) {
+                return false;
+            }
+            if (queue.items.isEmpty()) {
+                active.addLast(queue);
+            }
+            queue.items.addLast(new Item<>(item, Math.max(cost, 1)));
+            size++;
+            available.signalAll();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Take the next item in fair order without waiting
+     * The caller must {@link #release(String)} the item's tenant once it is delivered
+     *
+     * @return the item, or null if no tenant has an eligible item
+     */
+    E pollNow() {
+        lock.lock();
+        try {
+            return next();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Mark one item of the tenant as delivered, freeing a concurrency slot
+     */
+    void release(String tenant) {
+        lock.lock();
+        try {
+            TenantQueue<E> queue = tenants.get(tenant);
+            if (queue != null && queue.inFlight > 0) {
+                queue.inFlight--;
+                available.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Whether the tenant can queue another item
+     */
+    boolean hasCapacity(String tenant) {
+        lock.lock();
+        try {
+            TenantQueue<E> queue = tenants.get(tenant);
+            return size < capacity && (queue == null || queue.items.size() < config.getMaxQueued());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int remainingCapacity() {
+        return capacity - size();
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Remove every queued item
+     */
+    void drainTo(Collection<? super E> target) {
+        lock.lock();
+        try {
+            for (TenantQueue<E> queue : active) {
+                queue.items.forEach(item -> target.add(item.value()));
+                queue.items.clear();
+                queue.deficit = 0;
+                queue.turnStarted = false;
+            }
+            active.clear();
+            size = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deficit round-robin step; called with the lock held
+     */
+    private E next() {
+        int blocked = 0;
+        while (!active.isEmpty() && blocked < active.size()) {
+            TenantQueue<E> queue = active.peekFirst();
+            if (queue.inFlight >= config.getMaxConcurrency()) {
+                endTurn(queue);
+                blocked++;
+                continue;
+            }
+
+            if (!queue.turnStarted) {
+                queue.deficit += (long) config.getQuantum() * queue.weight;
+                queue.turnStarted = true;
+            }
+
+            Item<E> head = queue.items.peekFirst();
+            if (head.cost() <= queue.deficit) {
+                queue.items.pollFirst();
+                queue.deficit -= head.cost();
+                queue.inFlight++;
+                size--;
+                if (queue.items.isEmpty()) {
+                    active.pollFirst();
+                    queue.deficit = 0;
+                    queue.turnStarted = false;
+                }
+                return head.value();
+            }
+
+            // Credit carries over to the tenant's next turn
+            endTurn(queue);
+            blocked = 0;
+        }
+        return null;
+    }
+
+    private void endTurn(TenantQueue<E> queue) {
+        active.pollFirst();
+        active.addLast(queue);
+        queue.turnStarted = false;
+    }
+
+    /**
+     * Caller must hold the lock
+     */
+    private TenantQueue<E> tenant(String tenant) {
+        return tenants.computeIfAbsent(tenant, t -> {
+            TenantQueue<E> queue = new TenantQueue<>(config.weightOf(t));
+            // Only accepted notifications are queued, so their tenant may take a tag slot
+            String tag = tenantTags.admit(t);
+            if (tag.equals(TenantTags.OTHER)) {
+                queue.untagged = true;
+                registerOtherGauges();
+                return queue;
+            }
+            Gauge.builder("notification.dispatch.tenant.queue.depth", queue, q -> q.items.size())
+                    .description("Notifications of a tenant waiting for a dispatch worker")
+                    .tag("tenant", tag)
+                    .tag("priority", lane)
+                    .register(meterRegistry);
+            Gauge.builder("notification.dispatch.tenant.in_flight", queue, q -> q.inFlight)
+                    .description("Notifications of a tenant being delivered")
+                    .tag("tenant", tag)
+                    .tag("priority", lane)
+                    .register(meterRegistry);
+            return queue;
+        });
+    }
+
+    private void registerOtherGauges() {
+        if (otherGaugesRegistered) {
+            return;
+        }
+        otherGaugesRegistered = true;
+        Gauge.builder("notification.dispatch.tenant.queue.depth", this, q -> q.sumUntagged(t -> t.items.size()))
+                .description("Notifications of a tenant waiting for a dispatch worker")
+                .tag("tenant", TenantTags.OTHER)
+                .tag("priority", lane)
+                .register(meterRegistry);
+        Gauge.builder("notification.dispatch.tenant.in_flight", this, q -> q.sumUntagged(t -> t.inFlight))
+                .description("Notifications of a tenant being delivered")
+                .tag("tenant", TenantTags.OTHER)
+                .tag("priority", lane)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Total over the tenants without their own gauges
+     */
+    private int sumUntagged(ToIntFunction<TenantQueue<E>> value) {
+        lock.lock();
+        try {
+            int total = 0;
+            for (TenantQueue<E> queue : tenants.values()) {
+                if (queue.untagged) {
+                    total += value.applyAsInt(queue);
+                }
+            }
+            return total;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static final class TenantQueue<E> {
+        private final ArrayDeque<Item<E>> items = new ArrayDeque<>();
+        private final int weight;
+        private long deficit;
+        private boolean turnStarted;
+        private int inFlight;
+        private boolean untagged;
+
+        private TenantQueue(int weight) {
+            this.weight = weight;
+        }
+    }
+
+    private record Item<E>(E value, int cost) {
+    }
+}
@@ -0,0 +1,74 @@
+package com.pm.notificationservice.service.job;
+
+import com.pm.notificationservice.dto.NotificationRequest;
+import com.pm.notificationservice.entity.NotificationHistory;
+import com.pm.notificationservice.service.dispatch.NotificationDispatcher;
+import com.pm.notificationservice.service.retry.NotificationRetryScheduler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Claims persisted jobs into the local dispatcher
+ *
+ * Picks up jobs released by other nodes, jobs left behind by a crashed node (expired lease)
+ * and anything that could not be queued locally when it was accepted. Only claims as many
+ * jobs as the local queue can take. Jobs that already failed before (reclaimed retries,
+ * replayed dead letters) go to the retry workers so they do not delay fresh traffic.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationJobPoller {
+
+    private final NotificationJobStore jobStore;
+    private final NotificationDispatcher dispatcher;
+    private final NotificationRetryScheduler retryScheduler;
+
+    @Value("${notification.jobs.batch-size:50}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${notification.jobs.poll-interval-ms:1000}")
+    public void claimJobs() {
+        if (!dispatcher.isRunning()) {
+            return;
+        }
+
+        try {
+            int limit;
+            List<NotificationHistory> claimed;
+            do {
+                limit = Math.min(batchSize, dispatcher.remainingCapacity());
+                if (limit <= 0) {
+                    return;
+                }
+                claimed = jobStore.claimBatch(limit);
+                claimed.forEach(this::dispatch);
+            } while (claimed.size() == limit);
+        } catch (Exception e) {
+            log.error("Failed to claim notification jobs", e);
+        }
+    }
+
+    private void dispatch(NotificationHistory job) {
+        NotificationRequest request;
+        try {
+            request = jobStore.toRequest(job);
+        } catch (Exception e) {
+            log.error("Dropping notification job {}: {}", job.getId(), e.getMessage());
+            jobStore.complete(job.getId(), List.of(), e.getMessage());
+            return;
+        }
+
+        boolean queued = job.getFailedChannels() != null
+                ? retryScheduler.submitNow(job.getId(), job.getRequestId(), request, job.getAttempts())
+                : dispatcher.offer(job.getId(), job.getRequestId(), request, job.getAttempts());
+        if (!queued) {
+            jobStore.release(job.getId());
+        }
+    }
+}
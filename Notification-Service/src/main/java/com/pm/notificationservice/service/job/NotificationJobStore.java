@@ -0,0 +1,454 @@
+package com.pm.notificationservice.service.job;
+
+import com.pm.notificationservice.dto.NotificationRequest;
+import com.pm.notificationservice.entity.NotificationHistory;
+import com.pm.notificationservice.enums.NotificationStatus;
+import com.pm.notificationservice.exception.NotificationException;
+import com.pm.notificationservice.repository.NotificationHistoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Persistent store for notification jobs (notification_history)
+ *
+ * - Jobs are written before the caller gets its 202, so nothing accepted is lost on restart
+ * - A node claims jobs by taking a lease; expired leases are reclaimed by any node
+ * - Outcomes are only recorded while the lease is still held by this node
+ * - Jobs that exhaust their retries are kept as DEAD_LETTER until replayed
+ * - Jobs with a send time are kept as SCHEDULED; a node leases the ones due soon into its
+ *   timing wheel and moves them to PROCESSING when they are released
+ */
+@Service
+@Slf4j
+public class NotificationJobStore {
+
+    private static final TypeReference<Map<String, List<String>>> RECIPIENTS_TYPE = new TypeReference<>() {
+    };
+
+    private final NotificationHistoryRepository repository;
+    private final JsonMapper jsonMapper;
+    private final String nodeId;
+
+    @Value("${notification.jobs.lease-seconds:120}")
+    private long leaseSeconds;
+
+    public NotificationJobStore(NotificationHistoryRepository repository,
+                                JsonMapper jsonMapper,
+                                @Value("${notification.jobs.node-id:}") String nodeId) {
+        this.repository = repository;
+        this.jsonMapper = jsonMapper;
+        this.nodeId = nodeId.isBlank() ? defaultNodeId() : nodeId;
+    }
+
+    /**
+     * Persist a new job already leased to this node, ready for the local dispatcher
+     * The insert is flushed immediately so a duplicate idempotency key fails here
+     *
+     * @param idempotencyKey scoped idempotency key, or null
+     * @throws org.springframework.dao.DataIntegrityViolationException if the key is already taken
+     */
+    @Transactional
+    public NotificationHistory create(String requestId, String idempotencyKey, NotificationRequest request) {
+        NotificationHistory job = NotificationHistory.builder()
+                .requestId(requestId)
+                .idempotencyKey(idempotencyKey)
+                .enterpriseId(request.getEnterpriseId())
+                .event(request.getEvent())
+                .recipientCount(request.getTo().size())
+                .payload(toPayload(request))
+                .status(NotificationStatus.PROCESSING)
+                .attempts(1)
+                .leaseOwner(nodeId)
+                .leaseExpiresAt(leaseExpiry())
+                .build();
+        return repository.saveAndFlush(job);
+    }
+
+    /**
+     * Persist a new job to be sent at {@code sendAt}
+     * The insert is flushed immediately so a duplicate idempotency key fails here
+     *
+     * @param lease true to lease it to this node straight away (it goes into the local timing wheel)
+     * @throws org.springframework.dao.DataIntegrityViolationException if the key is already taken
+     */
+    @Transactional
+    public NotificationHistory createScheduled(String requestId, String idempotencyKey, NotificationRequest request,
+                                               LocalDateTime sendAt, boolean lease) {
+        NotificationHistory job = NotificationHistory.builder()
+                .requestId(requestId)
+                .idempotencyKey(idempotencyKey)
+                .enterpriseId(request.getEnterpriseId())
+                .event(request.getEvent())
+                .recipientCount(request.getTo().size())
+                .payload(toPayload(request))
+                .status(NotificationStatus.SCHEDULED)
+                .nextAttemptAt(sendAt)
+                .leaseOwner(lease ? nodeId : null)
+                .leaseExpiresAt(lease ? sendAt.plusSeconds(leaseSeconds) : null)
+                .build();
+        return repository.saveAndFlush(job);
+    }
+
+    /**
+     * Persist a batch of new jobs as PENDING, or SCHEDULED if they have a send time;
+     * any node's poller or timing wheel may claim them
+     *
+     * @param requests request ID -> request, in submission order
+     * @param idempotencyKeys request ID -> scoped idempotency key, for the requests that have one
+     * @param sendTimes request ID -> send time, for the requests to be sent later
+     */
+    @Transactional
+    public void createPending(Map<String, NotificationRequest> requests, Map<String, String> idempotencyKeys,
+                              Map<String, LocalDateTime> sendTimes) {
+        List<NotificationHistory> jobs = new ArrayList<>(requests.size());
+        requests.forEach((requestId, request) -> {
+            LocalDateTime sendAt = sendTimes.get(requestId);
+            jobs.add(NotificationHistory.builder()
+                    .requestId(requestId)
+                    .idempotencyKey(idempotencyKeys.get(requestId))
+                    .enterpriseId(request.getEnterpriseId())
+                    .event(request.getEvent())
+                    .recipientCount(request.getTo().size())
+                    .payload(toPayload(request))
+                    .status(sendAt != null ? NotificationStatus.SCHEDULED : NotificationStatus.PENDING)
+                    .nextAttemptAt(sendAt)
+                    .build());
+        });
+        repository.saveAll(jobs);
+    }
+
+    /**
+     * Lease up to {@code limit} scheduled jobs due before {@code until} to this node
+     * The lease runs until lease-seconds past the send time, so a node that dies while
+     * holding them only delays them by that much
+     */
+    @Transactional
+    public List<NotificationHistory> claimScheduled(LocalDateTime until, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<NotificationHistory> jobs = repository.lockSchedulable(now, until, limit);
+        for (NotificationHistory job : jobs) {
+            LocalDateTime sendAt = job.getNextAttemptAt().isAfter(now) ? job.getNextAttemptAt() : now;
+            job.setLeaseOwner(nodeId);
+            job.setLeaseExpiresAt(sendAt.plusSeconds(leaseSeconds));
+        }
+        return repository.saveAll(jobs);
+    }
+
+    /**
+     * Take a scheduled job this node holds for delivery
+     *
+     * @return the job, now PROCESSING; empty if it was cancelled or its lease was lost
+     */
+    @Transactional
+    public Optional<NotificationHistory> beginScheduled(String jobId) {
+        if (repository.beginScheduled(jobId, nodeId, leaseExpiry()) == 0) {
+            return Optional.empty();
+        }
+        return repository.findById(jobId);
+    }
+
+    /**
+     * Give back every scheduled job this node holds
+     *
+     * @return number of jobs released
+     */
+    @Transactional
+    public int releaseScheduled() {
+        return repository.releaseScheduled(nodeId);
+    }
+
+    /**
+     * Cancel a job that is still scheduled or waiting to be claimed
+     *
+     * @return the cancelled job; empty if it is unknown or already being delivered
+     */
+    @Transactional
+    public Optional<NotificationHistory> cancel(String requestId) {
+        if (repository.cancel(requestId, LocalDateTime.now()) == 0) {
+            return Optional.empty();
+        }
+        return repository.findByRequestId(requestId);
+    }
+
+    /**
+     * Job of a request
+     */
+    @Transactional(readOnly = true)
+    public Optional<NotificationHistory> findByRequestId(String requestId) {
+        return repository.findByRequestId(requestId);
+    }
+
+    /**
+     * Record per-channel status for a batch of requests in one transaction
+     *
+     * @param channelStatuses request ID -> encoded channel status
+     */
+    @Transactional
+    public void saveChannelStatuses(Map<String, String> channelStatuses) {
+        channelStatuses.forEach(repository::updateChannelStatus);
+    }
+
+    /**
+     * Request ID of the job holding an idempotency key
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> findRequestIdByIdempotencyKey(String idempotencyKey) {
+        return repository.findByIdempotencyKey(idempotencyKey).map(NotificationHistory::getRequestId);
+    }
+
+    /**
+     * Request IDs of the jobs holding any of the given idempotency keys
+     *
+     * @return idempotency key -> request ID, for the keys already taken
+     */
+    @Transactional(readOnly = true)
+    public Map<String, String> findRequestIdsByIdempotencyKeys(Collection<String> idempotencyKeys) {
+        if (idempotencyKeys.isEmpty()) {
+            return Map.of();
+        }
+        return repository.findByIdempotencyKeyIn(idempotencyKeys).stream()
+                .collect(Collectors.toMap(NotificationHistory::getIdempotencyKey, NotificationHistory::getRequestId));
+    }
+
+    /**
+     * Claim up to {@code limit} due jobs for this node
+     */
+    @Transactional
+    public List<NotificationHistory> claimBatch(int limit) {
+        List<NotificationHistory> jobs = repository.lockClaimable(LocalDateTime.now(), limit);
+        for (NotificationHistory job : jobs) {
+            if (job.getStatus() != NotificationStatus.PENDING) {
+                log.warn("Reclaiming notification {} after lease of {} expired", job.getRequestId(), job.getLeaseOwner());
+            }
+            job.setStatus(NotificationStatus.PROCESSING);
+            job.setAttempts(job.getAttempts() + 1);
+            job.setLeaseOwner(nodeId);
+            job.setLeaseExpiresAt(leaseExpiry());
+        }
+        return repository.saveAll(jobs);
+    }
+
+    /**
+     * Record the outcome of a delivery
+     *
+     * @param failedChannels channels that failed; empty means the job was sent
+     * @param error failure description, if any
+     */
+    @Transactional
+    public void complete(String jobId, List<String> failedChannels, String error) {
+        boolean sent = failedChannels.isEmpty() && error == null;
+        int updated = repository.complete(jobId, nodeId,
+                sent ? NotificationStatus.SENT : NotificationStatus.FAILED,
+                failedChannels.isEmpty() ? null : String.join(",", failedChannels),
+                null,
+                truncate(error),
+                LocalDateTime.now());
+        if (updated == 0) {
+            log.warn("Lease lost for notification job {}, outcome not recorded", jobId);
+        }
+    }
+
+    /**
+     * Park a failed job until {@code nextAttemptAt}; the lease is extended past that point
+     *
+     * @param failedRecipients recipients still owed per failed channel, or null if all are
+     * @return false if the lease was lost to another node
+     */
+    @Transactional
+    public boolean scheduleRetry(String jobId, List<String> failedChannels, Map<String, List<String>> failedRecipients,
+                                 String error, LocalDateTime nextAttemptAt) {
+        int updated = repository.scheduleRetry(jobId, nodeId,
+                String.join(",", failedChannels),
+                toRecipientsJson(failedChannels, failedRecipients),
+                truncate(error),
+                nextAttemptAt,
+                nextAttemptAt.plusSeconds(leaseSeconds));
+        return updated > 0;
+    }
+
+    /**
+     * Take a parked job for its next attempt
+     *
+     * @return false if the job is no longer parked under this node's lease
+     */
+    @Transactional
+    public boolean beginRetry(String jobId) {
+        return repository.beginRetry(jobId, nodeId, leaseExpiry()) > 0;
+    }
+
+    /**
+     * Whether a delivery with this deadline may outlast the lease taken when the job was claimed
+     */
+    public boolean outlastsLease(long deliveryMs) {
+        return deliveryMs * 2 > TimeUnit.SECONDS.toMillis(leaseSeconds);
+    }
+
+    /**
+     * Extend this node's lease to cover a long delivery, so no other node reclaims the job
+     * and sends it again while it is still being sent
+     */
+    @Transactional
+    public void extendLease(String jobId, long deliveryMs) {
+        LocalDateTime until = LocalDateTime.now()
+                .plusNanos(TimeUnit.MILLISECONDS.toNanos(deliveryMs))
+                .plusSeconds(leaseSeconds);
+        if (repository.extendLease(jobId, nodeId, until) == 0) {
+            log.warn("Lease lost for notification job {}, not extended", jobId);
+        }
+    }
+
+    /**
+     * Move a job whose retries are exhausted to the dead-letter store
+     * The recipients still owed are kept, so a replay only sends to them
+     */
+    @Transactional
+    public void deadLetter(String jobId, List<String> failedChannels, Map<String, List<String>> failedRecipients,
+                           String error) {
+        int updated = repository.complete(jobId, nodeId, NotificationStatus.DEAD_LETTER,
+                String.join(",", failedChannels), toRecipientsJson(failedChannels, failedRecipients),
+                truncate(error), LocalDateTime.now());
+        if (updated == 0) {
+            log.warn("Lease lost for notification job {}, not dead-lettered", jobId);
+        }
+    }
+
+    /**
+     * Page through dead-lettered jobs, newest first
+     */
+    @Transactional(readOnly = true)
+    public Page<NotificationHistory> findDeadLetters(int page, int size) {
+        return repository.findByStatusOrderByCompletedAtDesc(NotificationStatus.DEAD_LETTER, PageRequest.of(page, size));
+    }
+
+    /**
+     * Return up to {@code limit} dead-lettered jobs to the pool
+     *
+     * Their next attempts are spread {@code 1 / ratePerSecond} apart, so a large replay
+     * trickles back at a controlled rate instead of flooding the workers.
+     * Only the channels that failed are replayed.
+     *
+     * @return number of jobs replayed
+     */
+    @Transactional
+    public int replayDeadLetters(int limit, double ratePerSecond) {
+        List<NotificationHistory> jobs = repository.lockDeadLetters(limit);
+        LocalDateTime start = LocalDateTime.now();
+        long spacingNanos = (long) (1_000_000_000L / ratePerSecond);
+
+        for (int i = 0; i < jobs.size(); i++) {
+            NotificationHistory job = jobs.get(i);
+            job.setStatus(NotificationStatus.PENDING);
+            job.setAttempts(0);
+            job.setNextAttemptAt(start.plusNanos(spacingNanos * i));
+            job.setLeaseOwner(null);
+            job.setLeaseExpiresAt(null);
+            job.setCompletedAt(null);
+        }
+        repository.saveAll(jobs);
+
+        log.info("Replaying {} dead-lettered notifications at {}/s", jobs.size(), ratePerSecond);
+        return jobs.size();
+    }
+
+    /**
+     * Return a claimed job to the pool so any node can pick it up
+     */
+    @Transactional
+    public void release(String jobId) {
+        repository.release(jobId, nodeId);
+    }
+
+    /**
+     * Rebuild the request from a stored job
+     * For a job that already failed, only the failed channels and the recipients they still owe are kept
+     */
+    public NotificationRequest toRequest(NotificationHistory job) {
+        try {
+            NotificationRequest request = jsonMapper.readValue(job.getPayload(), NotificationRequest.class);
+            if (job.getFailedChannels() != null && !job.getFailedChannels().isBlank()) {
+                request.setChannels(Arrays.asList(job.getFailedChannels().split(",")));
+                if (job.getFailedRecipients() != null && !job.getFailedRecipients().isBlank()) {
+                    request.setChannelRecipients(jsonMapper.readValue(job.getFailedRecipients(), RECIPIENTS_TYPE));
+                }
+            }
+            return request;
+        } catch (JacksonException e) {
+            throw new NotificationException("Unreadable payload for notification job " + job.getId(), e);
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Recipients still owed by the given channels, as JSON; null when there are none to record
+     */
+    private String toRecipientsJson(List<String> failedChannels, Map<String, List<String>> failedRecipients) {
+        if (failedRecipients == null || failedRecipients.isEmpty()) {
+            return null;
+        }
+        Map<String, List<String>> owed = new LinkedHashMap<>();
+        for (String channel : failedChannels) {
+            List<String> recipients = failedRecipients.get(channel);
+            if (recipients != null) {
+                owed.put(channel, recipients);
+            }
+        }
+        try {
+            return owed.isEmpty() ? null : jsonMapper.writeValueAsString(owed);
+        } catch (JacksonException e) {
+            throw new NotificationException("Failed recipients are not serializable", e);
+        }
+    }
+
+    private String toPayload(NotificationRequest request) {
+        try {
+            return jsonMapper.writeValueAsString(request);
+        } catch (JacksonException e) {
+            throw new NotificationException("Notification data is not serializable", e);
+        }
+    }
+
+    private LocalDateTime leaseExpiry() {
+        return LocalDateTime.now().plusSeconds(leaseSeconds);
+    }
+
+    private String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "notification";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,78 @@
+package com.pm.notificationservice.service.metrics;
+
+import com.pm.notificationservice.dto.NotificationRequest;
+import com.pm.notificationservice.enums.NotificationEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counts notification requests by event, tenant and outcome (notification.requests)
+ *
+ * - accepted: stored for delivery (sent now, scheduled or held for a digest)
+ * - duplicate: idempotency key already used, not stored again
+ * - invalid: failed validation
+ * - throttled: rejected because the dispatch queue or the tenant's share of it was full
+ *
+ * Unknown events are tagged "unknown" and tenants are bounded by {@link TenantTags}: only accepted
+ * requests admit a tenant, the other outcomes reuse its tag and invalid requests are always "other".
+ */
+@Component
+public class RequestMetrics {
+
+    private static final String UNKNOWN_EVENT = "unknown";
+
+    private final MeterRegistry meterRegistry;
+    private final TenantTags tenantTags;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public RequestMetrics(MeterRegistry meterRegistry, TenantTags tenantTags) {
+        this.meterRegistry = meterRegistry;
+        this.tenantTags = tenantTags;
+    }
+
+    public void accepted(NotificationRequest request) {
+        count(request, tenantTags.admit(enterpriseOf(request)), "accepted");
+    }
+
+    public void duplicate(NotificationRequest request) {
+        count(request, tenantTags.tagFor(enterpriseOf(request)), "duplicate");
+    }
+
+    public void invalid(NotificationRequest request) {
+        count(request, TenantTags.OTHER, "invalid");
+    }
+
+    public void throttled(NotificationRequest request) {
+        count(request, tenantTags.tagFor(enterpriseOf(request)), "throttled");
+    }
+
+    private void count(NotificationRequest request, String tenant, String outcome) {
+        String event = request != null ? eventTag(request.getEvent()) : UNKNOWN_EVENT;
+        counters.computeIfAbsent(event + '|' + tenant + '|' + outcome, key -> Counter.builder("notification.requests")
+                        .description("Notification requests by event, tenant and outcome")
+                        .tag("event", event)
+                        .tag("tenant", tenant)
+                        .tag("outcome", outcome)
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    private static String enterpriseOf(NotificationRequest request) {
+        return request != null ? request.getEnterpriseId() : null;
+    }
+
+    private static String eventTag(String event) {
+        if (event == null || event.isBlank()) {
+            return UNKNOWN_EVENT;
+        }
+        try {
+            return NotificationEvent.fromValue(event.trim()).getValue();
+        } catch (IllegalArgumentException e) {
+            return UNKNOWN_EVENT;
+        }
+    }
+}
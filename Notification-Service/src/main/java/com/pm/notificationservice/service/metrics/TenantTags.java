@@ -0,0 +1,80 @@
+package com.pm.notificationservice.service.metrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tenant tag values for metrics, with bounded cardinality
+ *
+ * Only enterprises admitted through {@link #admit} get their own tag value: the first
+ * max-tenant-tags well-formed enterprise IDs (User Service issues UUIDs) of accepted
+ * notifications. Every other enterprise, including any ID on a rejected request, is reported as
+ * "other", so neither a large tenant base nor junk input can blow up the number of time series.
+ */
+@Component
+public class TenantTags {
+
+    public static final String DEFAULT = "default";
+    public static final String OTHER = "other";
+
+    private final int maxTenants;
+    private final Set<String> tagged = ConcurrentHashMap.newKeySet();
+
+    public TenantTags(@Value("${notification.metrics.max-tenant-tags:50}") int maxTenants) {
+        this.maxTenants = maxTenants;
+    }
+
+    /**
+     * Tag value for an enterprise with accepted notifications, taking a free slot if it has none
+     *
+     * @param enterpriseId enterprise ID; null or blank is the default tenant
+     * @return the enterprise ID itself, or {@link #OTHER} for a malformed ID or once the limit is reached
+     */
+    public String admit(String enterpriseId) {
+        if (enterpriseId == null || enterpriseId.isBlank()) {
+            return DEFAULT;
+        }
+        if (tagged.contains(enterpriseId)) {
+            return enterpriseId;
+        }
+        if (!isEnterpriseId(enterpriseId)) {
+            return OTHER;
+        }
+        synchronized (tagged) {
+            if (tagged.size() < maxTenants) {
+                tagged.add(enterpriseId);
+                return enterpriseId;
+            }
+        }
+        return OTHER;
+    }
+
+    /**
+     * Tag value for an enterprise, never taking a slot
+     *
+     * @param enterpriseId enterprise ID; null or blank is the default tenant
+     * @return the enterprise ID if it was admitted, otherwise {@link #OTHER}
+     */
+    public String tagFor(String enterpriseId) {
+        if (enterpriseId == null || enterpriseId.isBlank()) {
+            return DEFAULT;
+        }
+        return tagged.contains(enterpriseId) ? enterpriseId : OTHER;
+    }
+
+    private static boolean isEnterpriseId(String enterpriseId) {
+        if (enterpriseId.length() != 36) {
+            return false;
+        }
+        try {
+            UUID.fromString(enterpriseId);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
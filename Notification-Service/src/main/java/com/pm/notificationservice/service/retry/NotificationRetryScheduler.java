@@ -0,0 +1,297 @@
+package com.pm.notificationservice.service.retry;
+
+import com.pm.notificationservice.dto.NotificationRequest;
+import com.pm.notificationservice.enums.DeliveryStatus;
+import com.pm.notificationservice.enums.NotificationChannel;
+import com.pm.notificationservice.service.NotificationDeliveryService;
+import com.pm.notificationservice.service.audit.AuditJournal;
+import com.pm.notificationservice.service.job.NotificationJobStore;
+import com.pm.notificationservice.service.status.NotificationStatusTracker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retries failed notification channels with exponential backoff and jitter
+ *
+ * - Failed jobs are parked in the job store (RETRYING) and held in a {@link DelayQueue};
+ *   retry workers block on it, so nothing runs while no retry is due
+ * - Only the failed channels are retried, each channel with its own policy, and only to the
+ *   recipients they still owe (recorded on the request by the delivery and kept on the job)
+ * - Retries run on their own workers and never take dispatch slots from fresh traffic
+ * - A channel whose recipients were all refused for good (permanent failure) is not retried
+ * - When no failed channel can be retried (attempts exhausted or permanent failures) the job
+ *   is dead-lettered at once
+ */
+@Component
+@EnableConfigurationProperties(RetryProperties.class)
+@Slf4j
+public class NotificationRetryScheduler implements SmartLifecycle {
+
+    private final NotificationDeliveryService deliveryService;
+    private final NotificationJobStore jobStore;
+    private final NotificationStatusTracker statusTracker;
+    private final AuditJournal auditJournal;
+    private final RetryProperties properties;
+    private final DelayQueue<RetryTask> delayQueue = new DelayQueue<>();
+    private final List<Thread> workers = new ArrayList<>();
+
+    private final Counter scheduledCounter;
+    private final Counter deadLetterCounter;
+
+    private volatile boolean running;
+
+    public NotificationRetryScheduler(NotificationDeliveryService deliveryService,
+                                      NotificationJobStore jobStore,
+                                      NotificationStatusTracker statusTracker,
+                                      AuditJournal auditJournal,
+                                      RetryProperties properties,
+                                      MeterRegistry meterRegistry) {
+        this.deliveryService = deliveryService;
+        this.jobStore = jobStore;
+        this.statusTracker = statusTracker;
+        this.auditJournal = auditJournal;
+        this.properties = properties;
+
+        Gauge.builder("notification.retry.scheduled", delayQueue, DelayQueue::size)
+                .description("Retries waiting for their backoff to elapse")
+                .register(meterRegistry);
+        this.scheduledCounter = Counter.builder("notification.retry.attempts")
+                .description("Retries scheduled after a failed delivery")
+                .register(meterRegistry);
+        this.deadLetterCounter = Counter.builder("notification.retry.dead_letter")
+                .description("Notifications dead-lettered after exhausting their retries")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Handle a failed delivery attempt
+     *
+     * @param attempt number of attempts made so far, including the failed one
+     * @param failedChannels channels that failed on this attempt
+     */
+    public void onFailure(String jobId, String requestId, NotificationRequest request,
+                          int attempt, List<String> failedChannels, String error) {
+        List<String> retryable = new ArrayList<>();
+        List<String> permanent = new ArrayList<>();
+        long delayMs = Long.MAX_VALUE;
+        for (String channel : failedChannels) {
+            if (!isKnownChannel(channel)) {
+                continue;
+            }
+            if (isPermanentFailure(request, channel)) {
+                permanent.add(channel);
+                continue;
+            }
+            RetryProperties.Policy policy = properties.forChannel(channel);
+            if (attempt < policy.getMaxAttempts()) {
+                retryable.add(channel);
+                delayMs = Math.min(delayMs, policy.backoffMs(attempt));
+            }
+        }
+
+        String reason = error != null ? error : "Failed channels: " + failedChannels;
+        if (!permanent.isEmpty()) {
+            reason = reason + "; refused permanently: " + request.getRejectedRecipients();
+            log.warn("Notification {} channels {} failed permanently, not retried", requestId, permanent);
+        }
+        if (retryable.isEmpty()) {
+            log.error("Notification {} dead-lettered after {} attempts ({})", requestId, attempt, reason);
+            jobStore.deadLetter(jobId, failedChannels, unreached(request), reason);
+            statusTracker.failed(requestId, DeliveryStatus.DEAD_LETTER, reason);
+            auditJournal.deadLettered(requestId, request, attempt, reason);
+            deadLetterCounter.increment();
+            return;
+        }
+
+        LocalDateTime nextAttemptAt = LocalDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(delayMs));
+        if (!jobStore.scheduleRetry(jobId, retryable, request.getChannelRecipients(), reason, nextAttemptAt)) {
+            log.warn("Lease lost for notification {}, retry not scheduled", requestId);
+            statusTracker.forget(requestId);
+            return;
+        }
+        scheduledCounter.increment();
+        auditJournal.retryScheduled(requestId, request, attempt, retryable, delayMs);
+
+        if (delayQueue.size() >= properties.getMaxScheduled()) {
+            // Left parked in the job store; any node reclaims it once the lease expires
+            log.warn("Retry queue full, notification {} will be retried from the job store", requestId);
+            statusTracker.forget(requestId);
+            return;
+        }
+        statusTracker.retrying(requestId, retryable, nextAttemptAt, reason);
+
+        request.setChannels(retryable);
+        delayQueue.put(new RetryTask(jobId, requestId, request, attempt + 1,
+                System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMs)));
+        log.info("Notification {} channels {} retry #{} in {} ms", requestId, retryable, attempt, delayMs);
+    }
+
+    /**
+     * Queue a job claimed from the store that already failed before (lease reclaim or replay)
+     * It runs on the retry workers instead of the dispatch workers
+     */
+    public boolean submitNow(String jobId, String requestId, NotificationRequest request, int attempt) {
+        if (!running || delayQueue.size() >= properties.getMaxScheduled()) {
+            return false;
+        }
+        delayQueue.put(new RetryTask(jobId, requestId, request, attempt, System.nanoTime(), true));
+        return true;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        for (int i = 1; i <= properties.getWorkers(); i++) {
+            Thread worker = new Thread(this::runWorker, "notification-retry-" + i);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+        for (Thread worker : workers) {
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        workers.clear();
+
+        // Hand parked retries back to the store; next_attempt_at keeps their backoff
+        List<RetryTask> parked = new ArrayList<>(delayQueue);
+        delayQueue.clear();
+        for (RetryTask task : parked) {
+            try {
+                statusTracker.forget(task.requestId());
+                jobStore.release(task.jobId());
+            } catch (Exception e) {
+                log.error("Failed to release retry for notification {}", task.requestId());
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void runWorker() {
+        while (running) {
+            RetryTask task;
+            try {
+                task = delayQueue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            try {
+                retry(task);
+            } catch (Exception e) {
+                log.error("Unexpected error retrying notification {}", task.requestId(), e);
+            }
+        }
+    }
+
+    private void retry(RetryTask task) {
+        // Tasks submitted from the poller are already PROCESSING under our lease
+        if (!task.claimed() && !jobStore.beginRetry(task.jobId())) {
+            log.debug("Notification {} no longer parked under this node, skipping retry", task.requestId());
+            statusTracker.forget(task.requestId());
+            return;
+        }
+
+        long deadlineMs = deliveryService.deadlineFor(task.request());
+        if (jobStore.outlastsLease(deadlineMs)) {
+            jobStore.extendLease(task.jobId(), deadlineMs);
+        }
+        statusTracker.sending(task.requestId(), task.request(), task.attempt());
+        List<String> failedChannels = deliveryService.deliver(task.requestId(), task.request());
+        statusTracker.delivered(task.requestId(), task.request().getChannels(), failedChannels, null);
+        auditJournal.attempted(task.requestId(), task.request(), task.attempt(), failedChannels, null);
+        if (failedChannels.isEmpty()) {
+            jobStore.complete(task.jobId(), failedChannels, null);
+        } else {
+            onFailure(task.jobId(), task.requestId(), task.request(), task.attempt(), failedChannels, null);
+        }
+    }
+
+    /**
+     * Whether every recipient a channel failed for was refused for good, leaving none to retry
+     */
+    private static boolean isPermanentFailure(NotificationRequest request, String channel) {
+        Map<String, List<String>> rejected = request.getRejectedRecipients();
+        Map<String, List<String>> owed = request.getChannelRecipients();
+        return rejected != null && rejected.containsKey(channel)
+                && owed != null && owed.containsKey(channel) && owed.get(channel).isEmpty();
+    }
+
+    /**
+     * Recipients not reached per failed channel, owed or refused, as recorded with a dead letter
+     * so a replay sends to all of them
+     */
+    private static Map<String, List<String>> unreached(NotificationRequest request) {
+        Map<String, List<String>> rejected = request.getRejectedRecipients();
+        if (rejected == null || request.getChannelRecipients() == null) {
+            return request.getChannelRecipients();
+        }
+        Map<String, List<String>> unreached = new LinkedHashMap<>();
+        request.getChannelRecipients().forEach((channel, owed) -> {
+            List<String> all = new ArrayList<>(owed);
+            all.addAll(rejected.getOrDefault(channel, List.of()));
+            unreached.put(channel, all);
+        });
+        return unreached;
+    }
+
+    private boolean isKnownChannel(String channel) {
+        try {
+            NotificationChannel.fromValue(channel);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private record RetryTask(String jobId, String requestId, NotificationRequest request,
+                             int attempt, long dueAtNanos, boolean claimed) implements Delayed {
+
+        RetryTask(String jobId, String requestId, NotificationRequest request, int attempt, long dueAtNanos) {
+            this(jobId, requestId, request, attempt, dueAtNanos, false);
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueAtNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueAtNanos, ((RetryTask) other).dueAtNanos);
+        }
+    }
+}
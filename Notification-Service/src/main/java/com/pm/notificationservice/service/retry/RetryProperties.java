@@ -0,0 +1,75 @@
+package com.pm.notificationservice.service.retry;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retry configuration
+ *
+ * notification.retry.channels.<channel>.* override the default policy per channel.
+ */
+@Data
+@ConfigurationProperties(prefix = "notification.retry")
+public class RetryProperties {
+
+    /**
+     * Workers delivering retries, separate from the dispatch workers
+     */
+    private int workers = 2;
+
+    /**
+     * Retries held in memory; beyond this they wait in the job store until their lease expires
+     */
+    private int maxScheduled = 10000;
+
+    /**
+     * Upper bound on jobs returned by one dead-letter replay call
+     */
+    private int maxReplayBatch = 1000;
+
+    /**
+     * Default rate at which replayed dead letters are released back
+     */
+    private double replayRatePerSecond = 10;
+
+    /**
+     * Policy for channels without an override
+     */
+    private Policy defaults = new Policy();
+
+    /**
+     * Per-channel overrides keyed by channel value (email, sms)
+     */
+    private Map<String, Policy> channels = new LinkedHashMap<>();
+
+    public Policy forChannel(String channel) {
+        return channels.getOrDefault(channel.toLowerCase(), defaults);
+    }
+
+    @Data
+    public static class Policy {
+        private int maxAttempts = 5;
+        private long initialBackoffMs = 2000;
+        private double multiplier = 2.0;
+        private long maxBackoffMs = 600000;
+
+        /**
+         * Random spread applied to each backoff, as a fraction (0.2 = +/-20%)
+         */
+        private double jitter = 0.2;
+
+        /**
+         * Backoff before the attempt following {@code attempt} failed attempts
+         */
+        public long backoffMs(int attempt) {
+            double base = initialBackoffMs * Math.pow(multiplier, Math.max(attempt - 1, 0));
+            double capped = Math.min(base, maxBackoffMs);
+            double spread = capped * jitter;
+            return Math.max(0, (long) (capped - spread + ThreadLocalRandom.current().nextDouble() * 2 * spread));
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.pm.notificationservice.service.schedule;
+
+import com.pm.notificationservice.dto.NotificationRequest;
+import com.pm.notificationservice.entity.NotificationHistory;
+import com.pm.notificationservice.service.dispatch.NotificationDispatcher;
+import com.pm.notificationservice.service.job.NotificationJobStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Releases scheduled notifications when their send time comes
+ *
+ * - Scheduled jobs are stored as SCHEDULED; every load interval this node leases the ones
+ *   due within the horizon (SKIP LOCKED, so nodes share them) into a hierarchical
+ *   {@link TimingWheel}; only a job ID, request ID and due time are held per job
+ * - Each job gets a random delay of up to jitter-ms after its send time, and due jobs are
+ *   handed to the dispatcher at no more than release-rate-per-second and only while the
+ *   dispatch queue has room, so a burst scheduled for one instant arrives smoothly
+ * - A job is moved to PROCESSING only at release, under this node's lease; a job cancelled
+ *   or reclaimed in the meantime is skipped
+ * - If a node dies its leases expire shortly after the send times and the job pollers pick
+ *   the jobs up; on shutdown held jobs are handed back right away
+ */
+@Component
+@EnableConfigurationProperties(ScheduleProperties.class)
+@Slf4j
+public class NotificationScheduler implements SmartLifecycle {
+
+    private final NotificationJobStore jobStore;
+    private final NotificationDispatcher dispatcher;
+    private final ScheduleProperties properties;
+
+    private final Object wheelLock = new Object();
+    private final TimingWheel<ScheduledJob> wheel;
+    private final Map<String, ScheduledJob> held = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<ScheduledJob> due = new ConcurrentLinkedQueue<>();
+
+    private final Counter releasedCounter;
+
+    private volatile boolean running;
+    private Thread ticker;
+
+    public NotificationScheduler(NotificationJobStore jobStore,
+                                 NotificationDispatcher dispatcher,
+                                 ScheduleProperties properties,
+                                 MeterRegistry meterRegistry) {
+        this.jobStore = jobStore;
+        this.dispatcher = dispatcher;
+        this.properties = properties;
+        long spanMs = TimeUnit.SECONDS.toMillis(properties.getHorizonSeconds()) * 2 + properties.getJitterMs();
+        this.wheel = new TimingWheel<>(properties.getTickMs(), properties.getWheelSize(), spanMs,
+                System.currentTimeMillis(), ScheduledJob::dueAtMs);
+
+        Gauge.builder("notification.schedule.held", held, Map::size)
+                .description("Scheduled notifications held in this node's timing wheel")
+                .register(meterRegistry);
+        Gauge.builder("notification.schedule.due", due, ConcurrentLinkedQueue::size)
+                .description("Scheduled notifications past their send time, waiting to be released")
+                .register(meterRegistry);
+        this.releasedCounter = Counter.builder("notification.schedule.released")
+                .description("Scheduled notifications handed to the dispatcher")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether a job with this send time would be loaded into the wheel now
+     */
+    public boolean isWithinHorizon(LocalDateTime sendAt) {
+        return !sendAt.isAfter(LocalDateTime.now().plusSeconds(properties.getHorizonSeconds()));
+    }
+
+    public boolean hasRoom() {
+        return running && held.size() < properties.getMaxHeld();
+    }
+
+    /**
+     * Hold a scheduled job leased to this node until its send time
+     */
+    public void hold(NotificationHistory job) {
+        long sendAtMs = job.getNextAttemptAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        long jitter = properties.getJitterMs() > 0 ? ThreadLocalRandom.current().nextLong(properties.getJitterMs() + 1) : 0;
+        ScheduledJob scheduled = new ScheduledJob(job.getId(), job.getRequestId(), sendAtMs + jitter);
+        if (held.putIfAbsent(job.getRequestId(), scheduled) != null) {
+            return;
+        }
+        synchronized (wheelLock) {
+            if (wheel.add(scheduled)) {
+                return;
+            }
+            if (scheduled.dueAtMs() > wheel.horizonMs()) {
+                // Not expected with the loader's horizon; the lease runs out and a poller takes it
+                held.remove(job.getRequestId(), scheduled);
+                log.warn("Scheduled notification {} is beyond the timing wheel, leaving it to the job store",
+                        job.getRequestId());
+                return;
+            }
+        }
+        due.add(scheduled);
+    }
+
+    /**
+     * Forget a job cancelled in the job store; it is skipped when it comes due
+     */
+    public void cancel(String requestId) {
+        held.remove(requestId);
+    }
+
+    /**
+     * Lease scheduled jobs due within the horizon into the wheel
+     */
+    @Scheduled(fixedDelayString = "${notification.schedule.load-interval-ms:5000}")
+    public void load() {
+        if (!running) {
+            return;
+        }
+        try {
+            int limit;
+            List<NotificationHistory> claimed;
+            do {
+                limit = Math.min(properties.getLoadBatchSize(), properties.getMaxHeld() - held.size());
+                if (limit <= 0) {
+                    return;
+                }
+                claimed = jobStore.claimScheduled(LocalDateTime.now().plusSeconds(properties.getHorizonSeconds()), limit);
+                claimed.forEach(this::hold);
+                if (!claimed.isEmpty()) {
+                    log.debug("Loaded {} scheduled notifications", claimed.size());
+                }
+            } while (claimed.size() == limit && running);
+        } catch (Exception e) {
+            log.error("Failed to load scheduled notifications", e);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        ticker = new Thread(this::runTicker, "notification-scheduler");
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (ticker != null) {
+            ticker.interrupt();
+            try {
+                ticker.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            ticker = null;
+        }
+
+        int count = held.size();
+        held.clear();
+        due.clear();
+        try {
+            int released = jobStore.releaseScheduled();
+            log.info("Notification scheduler stopped, handed {} scheduled notifications back ({} held)", released, count);
+        } catch (Exception e) {
+            log.error("Failed to hand back scheduled notifications, they are reclaimed once their leases expire", e);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Start after and stop before the dispatcher it feeds
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 3072;
+    }
+
+    private void runTicker() {
+        double ratePerNano = properties.getReleaseRatePerSecond() / TimeUnit.SECONDS.toNanos(1);
+        double maxBudget = Math.max(1, properties.getReleaseRatePerSecond() * properties.getTickMs() / 1000.0);
+        double budget = 0;
+        long last = System.nanoTime();
+
+        while (running) {
+            synchronized (wheelLock) {
+                wheel.advance(System.currentTimeMillis(), due::add);
+            }
+
+            long now = System.nanoTime();
+            budget = Math.min(maxBudget, budget + (now - last) * ratePerNano);
+            last = now;
+            while (budget >= 1 && running) {
+                ScheduledJob job = due.peek();
+                if (job == null || dispatcher.remainingCapacity() <= 0) {
+                    break;
+                }
+                due.poll();
+                if (!held.remove(job.requestId(), job)) {
+                    continue; // cancelled
+                }
+                budget -= 1;
+                release(job);
+            }
+
+            try {
+                Thread.sleep(properties.getTickMs());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void release(ScheduledJob scheduled) {
+        try {
+            Optional<NotificationHistory> begun = jobStore.beginScheduled(scheduled.jobId());
+            if (begun.isEmpty()) {
+                log.debug("Scheduled notification {} was cancelled or reclaimed, skipping", scheduled.requestId());
+                return;
+            }
+            NotificationHistory job = begun.get();
+            NotificationRequest request;
+            try {
+                request = jobStore.toRequest(job);
+            } catch (Exception e) {
+                log.error("Dropping scheduled notification {}: {}", job.getRequestId(), e.getMessage());
+                jobStore.complete(job.getId(), List.of(), e.getMessage());
+                return;
+            }
+            if (!dispatcher.offer(job.getId(), job.getRequestId(), request, job.getAttempts())) {
+                jobStore.release(job.getId());
+            }
+            releasedCounter.increment();
+        } catch (Exception e) {
+            // Still leased; a poller reclaims it when the lease expires
+            log.error("Failed to release scheduled notification {}", scheduled.requestId(), e);
+        }
+    }
+
+    private record ScheduledJob(String jobId, String requestId, long dueAtMs) {
+    }
+}
@@ -0,0 +1,59 @@
+package com.pm.notificationservice.service.schedule;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Scheduled delivery configuration
+ *
+ * Scheduled notifications live in the job store; each node leases the ones due within the
+ * horizon into an in-memory timing wheel and releases them to the dispatcher when due.
+ */
+@Data
+@ConfigurationProperties(prefix = "notification.schedule")
+public class ScheduleProperties {
+
+    /**
+     * Timing wheel resolution
+     */
+    private long tickMs = 100;
+
+    /**
+     * Buckets per timing wheel level
+     */
+    private int wheelSize = 64;
+
+    /**
+     * Scheduled jobs due within this window are loaded into memory; later ones stay in the job store
+     */
+    private long horizonSeconds = 600;
+
+    private long loadIntervalMs = 5000;
+
+    /**
+     * Jobs leased per load query
+     */
+    private int loadBatchSize = 5000;
+
+    /**
+     * Maximum scheduled jobs held in memory by this node
+     */
+    private int maxHeld = 2_000_000;
+
+    /**
+     * Each job is released up to this much after its send time, at random, so jobs scheduled
+     * for the same instant (e.g. the top of the hour) arrive spread out
+     */
+    private long jitterMs = 2000;
+
+    /**
+     * Upper bound on jobs handed to the dispatcher per second; jobs also wait while the
+     * dispatch queue is full
+     */
+    private double releaseRatePerSecond = 500;
+
+    /**
+     * How far ahead a send time may be
+     */
+    private long maxDelayDays = 365;
+}
@@ -0,0 +1,126 @@
+package com.pm.notificationservice.service.schedule;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * Hierarchical timing wheel
+ *
+ * Level 0 has {@code wheelSize} buckets of one tick each; every level above has buckets
+ * {@code wheelSize} times wider. An item goes into the lowest level whose span covers its
+ * due time and is moved down a level when its bucket comes up, until it expires from
+ * level 0. Adding an item and expiring it are O(1) and memory is one bucket reference per
+ * item, whatever the number of items held.
+ *
+ * Not thread-safe; callers synchronize.
+ */
+final class TimingWheel<E> {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final ToLongFunction<E> dueAtMs;
+    private final List<List<E>[]> levels = new ArrayList<>();
+    private final long[] ticksPerBucket;
+    private final long spanTicks;
+
+    private long currentTick;
+    private int size;
+
+    /**
+     * @param spanMs how far ahead items can be added; decides the number of levels
+     */
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickMs, int wheelSize, long spanMs, long startMs, ToLongFunction<E> dueAtMs) {
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.dueAtMs = dueAtMs;
+
+        List<Long> widths = new ArrayList<>();
+        long width = 1;
+        long requiredTicks = Math.max(spanMs / tickMs, 1);
+        do {
+            widths.add(width);
+            levels.add(new List[wheelSize]);
+            width *= wheelSize;
+        } while (width <= requiredTicks);
+        this.ticksPerBucket = widths.stream().mapToLong(Long::longValue).toArray();
+        this.spanTicks = width;
+        this.currentTick = startMs / tickMs;
+    }
+
+    /**
+     * Add an item
+     *
+     * @return false if it is already due (the caller should handle it now) or beyond the span
+     */
+    boolean add(E item) {
+        long dueTick = dueAtMs.applyAsLong(item) / tickMs;
+        long ticksAhead = dueTick - currentTick;
+        if (ticksAhead <= 0 || ticksAhead >= spanTicks) {
+            return false;
+        }
+        int level = 0;
+        while (ticksAhead >= ticksPerBucket[level] * wheelSize) {
+            level++;
+        }
+        List<E>[] buckets = levels.get(level);
+        int index = (int) ((dueTick / ticksPerBucket[level]) % wheelSize);
+        if (buckets[index] == null) {
+            buckets[index] = new ArrayList<>();
+        }
+        buckets[index].add(item);
+        size++;
+        return true;
+    }
+
+    /**
+     * Advance to {@code nowMs}, handing every item that became due to {@code expired}
+     */
+    void advance(long nowMs, Consumer<E> expired) {
+        long nowTick = nowMs / tickMs;
+        while (currentTick < nowTick) {
+            currentTick++;
+            // Higher levels first, so an item can cascade all the way down in one tick
+            for (int level = levels.size() - 1; level > 0; level--) {
+                if (currentTick % ticksPerBucket[level] == 0) {
+                    int index = (int) ((currentTick / ticksPerBucket[level]) % wheelSize);
+                    List<E> bucket = take(level, index);
+                    if (bucket != null) {
+                        for (E item : bucket) {
+                            if (!add(item)) {
+                                expired.accept(item);
+                            }
+                        }
+                    }
+                }
+            }
+            List<E> due = take(0, (int) (currentTick % wheelSize));
+            if (due != null) {
+                due.forEach(expired);
+            }
+        }
+    }
+
+    /**
+     * Latest due time that can still be added
+     */
+    long horizonMs() {
+        return (currentTick + spanTicks - 1) * tickMs;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private List<E> take(int level, int index) {
+        List<E>[] buckets = levels.get(level);
+        List<E> bucket = buckets[index];
+        if (bucket != null) {
+            buckets[index] = null;
+            size -= bucket.size();
+        }
+        return bucket;
+    }
+}
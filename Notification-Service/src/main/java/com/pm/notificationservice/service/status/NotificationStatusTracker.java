@@ -0,0 +1,409 @@
+package com.pm.notificationservice.service.status;
+
+import com.pm.notificationservice.dto.NotificationRequest;
+import com.pm.notificationservice.dto.NotificationStatusDto;
+import com.pm.notificationservice.entity.NotificationHistory;
+import com.pm.notificationservice.enums.DeliveryStatus;
+import com.pm.notificationservice.service.job.NotificationJobStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delivery status of recent notifications, overall and per channel
+ *
+ * - Requests accepted or delivered by this node are tracked in a bounded map; their status
+ *   lookups are answered from memory without touching the database
+ * - Entries expire after the retention window and the oldest are evicted beyond
+ *   max-entries; anything not in memory is answered from notification_history
+ * - The job status itself is written by the job store as before; the per-channel detail
+ *   collected here is written to notification_history.channel_status in batches, behind
+ *   the send path
+ * - An entry is dropped as soon as its job is handed back to the job store, since another
+ *   node may deliver it from there
+ */
+@Component
+@Slf4j
+public class NotificationStatusTracker implements DisposableBean {
+
+    private final NotificationJobStore jobStore;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Entry> dirty = new ConcurrentLinkedQueue<>();
+    private final long retentionNanos;
+    private final int maxEntries;
+    private final int flushBatchSize;
+
+    private final Counter memoryLookups;
+    private final Counter storeLookups;
+
+    public NotificationStatusTracker(NotificationJobStore jobStore,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${notification.status.retention-seconds:3600}") long retentionSeconds,
+                                     @Value("${notification.status.max-entries:100000}") int maxEntries,
+                                     @Value("${notification.status.flush-batch-size:500}") int flushBatchSize) {
+        this.jobStore = jobStore;
+        this.retentionNanos = TimeUnit.SECONDS.toNanos(retentionSeconds);
+        this.maxEntries = maxEntries;
+        this.flushBatchSize = flushBatchSize;
+
+        Gauge.builder("notification.status.tracked", entries, Map::size)
+                .description("Notifications whose status is held in memory")
+                .register(meterRegistry);
+        Gauge.builder("notification.status.unflushed", dirty, ConcurrentLinkedQueue::size)
+                .description("Status changes waiting to be written to the job store")
+                .register(meterRegistry);
+        this.memoryLookups = Counter.builder("notification.status.lookups")
+                .description("Status lookups by where they were answered from")
+                .tag("source", "memory")
+                .register(meterRegistry);
+        this.storeLookups = Counter.builder("notification.status.lookups")
+                .description("Status lookups by where they were answered from")
+                .tag("source", "store")
+                .register(meterRegistry);
+    }
+
+    /**
+     * A request was stored and leased to this node
+     */
+    public void accepted(String requestId, NotificationRequest request) {
+        entryFor(requestId, request);
+    }
+
+    /**
+     * A worker starts delivering the given attempt
+     */
+    public void sending(String requestId, NotificationRequest request, int attempt) {
+        Entry entry = entryFor(requestId, request);
+        synchronized (entry) {
+            entry.status = DeliveryStatus.SENDING;
+            entry.attempts = attempt;
+            entry.nextAttemptAt = null;
+            for (String channel : request.getChannels()) {
+                entry.channels.put(channel, new NotificationStatusDto.ChannelStatus(DeliveryStatus.SENDING, attempt));
+            }
+            entry.updatedAt = LocalDateTime.now();
+        }
+        markDirty(entry);
+    }
+
+    /**
+     * An attempt finished
+     *
+     * @param channels channels sent on this attempt
+     * @param failedChannels the ones that failed; the request is SENT when there are none and no error
+     */
+    public void delivered(String requestId, List<String> channels, List<String> failedChannels, String error) {
+        Entry entry = entries.get(requestId);
+        if (entry == null) {
+            return;
+        }
+        synchronized (entry) {
+            for (String channel : channels) {
+                NotificationStatusDto.ChannelStatus state = entry.channels.get(channel);
+                if (state != null) {
+                    state.setStatus(failedChannels.contains(channel) ? DeliveryStatus.FAILED : DeliveryStatus.SENT);
+                }
+            }
+            LocalDateTime now = LocalDateTime.now();
+            if (failedChannels.isEmpty() && error == null) {
+                entry.status = DeliveryStatus.SENT;
+                entry.completedAt = now;
+            } else if (error != null) {
+                entry.lastError = error;
+            }
+            entry.updatedAt = now;
+        }
+        markDirty(entry);
+    }
+
+    /**
+     * Failed channels were parked for another attempt
+     */
+    public void retrying(String requestId, List<String> channels, LocalDateTime nextAttemptAt, String error) {
+        Entry entry = entries.get(requestId);
+        if (entry == null) {
+            return;
+        }
+        synchronized (entry) {
+            entry.status = DeliveryStatus.RETRYING;
+            entry.nextAttemptAt = nextAttemptAt;
+            entry.lastError = error;
+            for (String channel : channels) {
+                NotificationStatusDto.ChannelStatus state = entry.channels.get(channel);
+                if (state != null) {
+                    state.setStatus(DeliveryStatus.RETRYING);
+                }
+            }
+            entry.updatedAt = LocalDateTime.now();
+        }
+        markDirty(entry);
+    }
+
+    /**
+     * The request ended without being sent (FAILED or DEAD_LETTER)
+     */
+    public void failed(String requestId, DeliveryStatus status, String error) {
+        Entry entry = entries.get(requestId);
+        if (entry == null) {
+            return;
+        }
+        synchronized (entry) {
+            entry.status = status;
+            entry.lastError = error;
+            entry.nextAttemptAt = null;
+            entry.completedAt = LocalDateTime.now();
+            entry.updatedAt = entry.completedAt;
+        }
+        markDirty(entry);
+    }
+
+    /**
+     * The job went back to the job store; its status is read from there from now on
+     * Pending channel detail is still written
+     */
+    public void forget(String requestId) {
+        entries.remove(requestId);
+    }
+
+    /**
+     * Status of a request, from memory if it is recent, otherwise from the job store
+     */
+    public Optional<NotificationStatusDto> find(String requestId) {
+        Entry entry = entries.get(requestId);
+        if (entry != null && !entry.isExpired(System.nanoTime())) {
+            memoryLookups.increment();
+            return Optional.of(entry.toDto());
+        }
+        storeLookups.increment();
+        return jobStore.findByRequestId(requestId).map(NotificationStatusTracker::toDto);
+    }
+
+    /**
+     * Write pending channel status to the job store, flush-batch-size requests per transaction
+     */
+    @Scheduled(fixedDelayString = "${notification.status.flush-interval-ms:1000}")
+    public void flush() {
+        evictExpired();
+
+        List<Entry> batch = new ArrayList<>(flushBatchSize);
+        Entry entry;
+        while ((entry = dirty.poll()) != null) {
+            batch.add(entry);
+            if (batch.size() >= flushBatchSize) {
+                if (!write(batch)) {
+                    return;
+                }
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public void destroy() {
+        flush();
+    }
+
+    private boolean write(List<Entry> batch) {
+        Map<String, String> channelStatuses = new LinkedHashMap<>();
+        for (Entry entry : batch) {
+            synchronized (entry) {
+                entry.dirty = false;
+                channelStatuses.put(entry.requestId, encode(entry.channels));
+            }
+        }
+        try {
+            jobStore.saveChannelStatuses(channelStatuses);
+            return true;
+        } catch (Exception e) {
+            log.warn("Failed to write channel status for {} notifications, will retry: {}", batch.size(), e.getMessage());
+            // Entries no longer tracked are given up; their job status is already stored
+            batch.stream()
+                    .filter(failed -> entries.get(failed.requestId) == failed)
+                    .forEach(this::markDirty);
+            return false;
+        }
+    }
+
+    private Entry entryFor(String requestId, NotificationRequest request) {
+        Entry existing = entries.get(requestId);
+        if (existing != null) {
+            return existing;
+        }
+        evictExpired();
+
+        Entry fresh = new Entry(requestId, request, System.nanoTime() + retentionNanos);
+        existing = entries.putIfAbsent(requestId, fresh);
+        if (existing != null) {
+            return existing;
+        }
+        insertionOrder.add(fresh);
+        markDirty(fresh);
+        return fresh;
+    }
+
+    private void markDirty(Entry entry) {
+        synchronized (entry) {
+            if (entry.dirty) {
+                return;
+            }
+            entry.dirty = true;
+        }
+        dirty.add(entry);
+    }
+
+    private void evictExpired() {
+        long now = System.nanoTime();
+        Entry head;
+        while ((head = insertionOrder.peek()) != null
+                && (head.isExpired(now) || entries.size() > maxEntries)) {
+            Entry evicted = insertionOrder.poll();
+            if (evicted != null) {
+                entries.remove(evicted.requestId, evicted);
+            }
+        }
+    }
+
+    /**
+     * Status of a stored job
+     */
+    static NotificationStatusDto toDto(NotificationHistory job) {
+        DeliveryStatus status = DeliveryStatus.of(job.getStatus());
+        Map<String, NotificationStatusDto.ChannelStatus> channels = decode(job.getChannelStatus());
+        if (channels.isEmpty() && job.getFailedChannels() != null && !job.getFailedChannels().isBlank()) {
+            for (String channel : job.getFailedChannels().split(",")) {
+                channels.put(channel, new NotificationStatusDto.ChannelStatus(status, job.getAttempts()));
+            }
+        }
+        return NotificationStatusDto.builder()
+                .requestId(job.getRequestId())
+                .enterpriseId(job.getEnterpriseId())
+                .event(job.getEvent())
+                .recipientCount(job.getRecipientCount())
+                .status(status)
+                .attempts(job.getAttempts())
+                .channels(channels)
+                .lastError(job.getLastError())
+                .acceptedAt(job.getCreatedAt())
+                .updatedAt(job.getCompletedAt())
+                .nextAttemptAt(status.isFinal() ? null : job.getNextAttemptAt())
+                .completedAt(job.getCompletedAt())
+                .build();
+    }
+
+    /**
+     * "email=SENT/1,sms=RETRYING/2"
+     */
+    static String encode(Map<String, NotificationStatusDto.ChannelStatus> channels) {
+        StringBuilder encoded = new StringBuilder();
+        channels.forEach((channel, state) -> {
+            if (!encoded.isEmpty()) {
+                encoded.append(',');
+            }
+            encoded.append(channel).append('=').append(state.getStatus()).append('/').append(state.getAttempts());
+        });
+        return encoded.toString();
+    }
+
+    static Map<String, NotificationStatusDto.ChannelStatus> decode(String encoded) {
+        Map<String, NotificationStatusDto.ChannelStatus> channels = new LinkedHashMap<>();
+        if (encoded == null || encoded.isBlank()) {
+            return channels;
+        }
+        for (String part : encoded.split(",")) {
+            String[] channelAndState = part.split("=", 2);
+            if (channelAndState.length != 2) {
+                continue;
+            }
+            String[] statusAndAttempts = channelAndState[1].split("/", 2);
+            try {
+                channels.put(channelAndState[0], new NotificationStatusDto.ChannelStatus(
+                        DeliveryStatus.valueOf(statusAndAttempts[0]),
+                        statusAndAttempts.length > 1 ? Integer.parseInt(statusAndAttempts[1]) : 0));
+            } catch (IllegalArgumentException e) {
+                log.debug("Ignoring unreadable channel status '{}'", part);
+            }
+        }
+        return channels;
+    }
+
+    /**
+     * Status of one request; fields are guarded by the entry's monitor
+     */
+    private static final class Entry {
+        private final String requestId;
+        private final String enterpriseId;
+        private final String event;
+        private final int recipientCount;
+        private final LocalDateTime acceptedAt = LocalDateTime.now();
+        private final long expiresAtNanos;
+        private final Map<String, NotificationStatusDto.ChannelStatus> channels = new LinkedHashMap<>();
+
+        private DeliveryStatus status = DeliveryStatus.ACCEPTED;
+        private int attempts;
+        private String lastError;
+        private LocalDateTime updatedAt = acceptedAt;
+        private LocalDateTime nextAttemptAt;
+        private LocalDateTime completedAt;
+        private boolean dirty;
+
+        private Entry(String requestId, NotificationRequest request, long expiresAtNanos) {
+            this.requestId = requestId;
+            this.enterpriseId = request.getEnterpriseId();
+            this.event = request.getEvent();
+            this.recipientCount = request.getTo() != null ? request.getTo().size() : 0;
+            this.expiresAtNanos = expiresAtNanos;
+            if (request.getChannels() != null) {
+                for (String channel : request.getChannels()) {
+                    channels.put(channel, new NotificationStatusDto.ChannelStatus(DeliveryStatus.ACCEPTED, 0));
+                }
+            }
+        }
+
+        private boolean isExpired(long nowNanos) {
+            return expiresAtNanos - nowNanos <= 0;
+        }
+
+        private synchronized NotificationStatusDto toDto() {
+            Map<String, NotificationStatusDto.ChannelStatus> channelCopy = new LinkedHashMap<>();
+            channels.forEach((channel, state) ->
+                    channelCopy.put(channel, new NotificationStatusDto.ChannelStatus(state.getStatus(), state.getAttempts())));
+            return NotificationStatusDto.builder()
+                    .requestId(requestId)
+                    .enterpriseId(enterpriseId)
+                    .event(event)
+                    .recipientCount(recipientCount)
+                    .status(status)
+                    .attempts(attempts)
+                    .channels(channelCopy)
+                    .lastError(lastError)
+                    .acceptedAt(acceptedAt)
+                    .updatedAt(updatedAt)
+                    .nextAttemptAt(nextAttemptAt)
+                    .completedAt(completedAt)
+                    .build();
+        }
+    }
+}
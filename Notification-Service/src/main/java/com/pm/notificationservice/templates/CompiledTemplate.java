@@ -0,0 +1,153 @@
+package com.pm.notificationservice.templates;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Template compiled once into literal segments and placeholder slots
+ *
+ * Placeholders are written {{name}} or {{name:default}}. Rendering walks the segment list
+ * and appends straight into a per-thread buffer presized from the previous output, so no
+ * format string is parsed and no intermediate strings are built per value.
+ * HTML templates escape every value (&, <, >, ", ') except in {{{name}}} placeholders,
+ * which insert a value that is already HTML as-is.
+ */
+public final class CompiledTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+    private static final String RAW_OPEN = "{{{";
+    private static final String RAW_CLOSE = "}}}";
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+
+    /**
+     * Buffers above this size are not kept between renders
+     */
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+    private final Segment[] segments;
+    private final boolean escapeHtml;
+    private volatile int lastLength;
+
+    private CompiledTemplate(Segment[] segments, boolean escapeHtml, int initialLength) {
+        this.segments = segments;
+        this.escapeHtml = escapeHtml;
+        this.lastLength = initialLength;
+    }
+
+    /**
+     * Compile an HTML template; placeholder values are HTML-escaped
+     */
+    public static CompiledTemplate html(String source) {
+        return compile(source, true);
+    }
+
+    /**
+     * Compile a plain text template; placeholder values are inserted as-is
+     */
+    public static CompiledTemplate text(String source) {
+        return compile(source, false);
+    }
+
+    private static CompiledTemplate compile(String source, boolean escapeHtml) {
+        List<Segment> segments = new ArrayList<>();
+        int literalLength = 0;
+        int position = 0;
+
+        while (position < source.length()) {
+            int open = source.indexOf(OPEN, position);
+            if (open < 0) {
+                break;
+            }
+            boolean raw = source.startsWith(RAW_OPEN, open);
+            String openToken = raw ? RAW_OPEN : OPEN;
+            String closeToken = raw ? RAW_CLOSE : CLOSE;
+            int close = source.indexOf(closeToken, open + openToken.length());
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder at offset " + open);
+            }
+
+            if (open > position) {
+                String literal = source.substring(position, open);
+                segments.add(new Literal(literal));
+                literalLength += literal.length();
+            }
+
+            String expression = source.substring(open + openToken.length(), close).trim();
+            int separator = expression.indexOf(':');
+            String name = separator < 0 ? expression : expression.substring(0, separator).trim();
+            String defaultValue = separator < 0 ? "" : expression.substring(separator + 1);
+            if (name.isEmpty()) {
+                throw new IllegalArgumentException("Empty placeholder at offset " + open);
+            }
+            segments.add(new Slot(name, defaultValue, raw));
+
+            position = close + closeToken.length();
+        }
+
+        if (position < source.length()) {
+            String literal = source.substring(position);
+            segments.add(new Literal(literal));
+            literalLength += literal.length();
+        }
+
+        return new CompiledTemplate(segments.toArray(new Segment[0]), escapeHtml, literalLength + 64);
+    }
+
+    /**
+     * Render with the given variables; missing or null values fall back to the slot default
+     */
+    public String render(Map<String, Object> data) {
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        buffer.ensureCapacity(lastLength);
+
+        for (Segment segment : segments) {
+            if (segment instanceof Literal literal) {
+                buffer.append(literal.text());
+            } else {
+                Slot slot = (Slot) segment;
+                Object value = data != null ? data.get(slot.name()) : null;
+                CharSequence text = value instanceof CharSequence chars ? chars
+                        : value != null ? value.toString() : slot.defaultValue();
+                if (escapeHtml && !slot.raw()) {
+                    appendEscaped(buffer, text);
+                } else {
+                    buffer.append(text);
+                }
+            }
+        }
+
+        String result = buffer.toString();
+        lastLength = result.length();
+        if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+            BUFFER.remove();
+        }
+        return result;
+    }
+
+    private static void appendEscaped(StringBuilder buffer, CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&' -> buffer.append("&amp;");
+                case '<' -> buffer.append("&lt;");
+                case '>' -> buffer.append("&gt;");
+                case '"' -> buffer.append("&quot;");
+                case '\'' -> buffer.append("&#39;");
+                default -> buffer.append(c);
+            }
+        }
+    }
+
+    private sealed interface Segment permits Literal, Slot {
+    }
+
+    private record Literal(String text) implements Segment {
+    }
+
+    private record Slot(String name, String defaultValue, boolean raw) implements Segment {
+    }
+}
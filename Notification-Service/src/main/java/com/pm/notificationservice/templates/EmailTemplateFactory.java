@@ -1,30 +1,222 @@
 package com.pm.notificationservice.templates;
 
 import com.pm.notificationservice.enums.NotificationEvent;
-import com.pm.notificationservice.templates.impl.MagicLinkEmailTemplate;
-import com.pm.notificationservice.templates.impl.OtpEmailTemplate;
-import com.pm.notificationservice.templates.impl.WelcomeEmailTemplate;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 /**
- * Factory for creating email templates based on event type
+ * Registry of email templates keyed by event type
+ *
+ * - Each event has a template file pair: {event}-email.html and optional {event}-email.txt
+ *   (event value with dashes, e.g. magic-link-email.html)
+ * - Files in notification.templates.directory override the packaged classpath:templates/email/
+ * - The subject is taken from the HTML &lt;title&gt;, else the event's default subject
+ * - Templates are compiled once; {@link #reload(NotificationEvent)} recompiles one and swaps
+ *   it in atomically, so renders never see a half-loaded template
+ * - Render time is recorded per template and format (notification.template.render)
+ * - The digest template (digest-email.html / .txt) wraps several notifications for one
+ *   recipient; its {{{items}}} placeholder receives the pre-rendered items
  */
 @Component
+@Slf4j
 public class EmailTemplateFactory {
 
+    private static final String CLASSPATH_LOCATION = "templates/email/";
+    private static final String DIGEST_BASE_NAME = "digest-email";
+    private static final String DIGEST_DEFAULT_SUBJECT = "Your Notification Digest";
+    private static final Pattern TITLE = Pattern.compile("<title>(.*?)</title>", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern STYLE = Pattern.compile("<style.*?</style>", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern HEAD = Pattern.compile("<head.*?</head>", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern TAG = Pattern.compile("<[^>]+>");
+
+    private final Path directory;
+    private final MeterRegistry meterRegistry;
+    private volatile Map<NotificationEvent, EmailTemplate> templates = new EnumMap<>(NotificationEvent.class);
+    private volatile EmailTemplate digestTemplate;
+
+    public EmailTemplateFactory(@Value("${notification.templates.directory:}") String directory,
+                                MeterRegistry meterRegistry) {
+        this.directory = directory.isBlank() ? null : Path.of(directory);
+        this.meterRegistry = meterRegistry;
+        for (NotificationEvent event : NotificationEvent.values()) {
+            reload(event);
+        }
+        if (!templates.containsKey(NotificationEvent.OTP)) {
+            throw new IllegalStateException("OTP email template is missing");
+        }
+        reloadDigest();
+        log.info("Loaded {} email templates{}", templates.size(),
+                this.directory != null ? " (overrides from " + this.directory + ")" : "");
+    }
+
+    public EmailTemplate getTemplate(NotificationEvent event) {
+        Map<NotificationEvent, EmailTemplate> current = templates;
+        EmailTemplate template = current.get(event);
+        return template != null ? template : current.get(NotificationEvent.OTP);
+    }
+
     public EmailTemplate getTemplate(String eventType) {
         try {
-            NotificationEvent event = NotificationEvent.fromValue(eventType);
-            return switch (event) {
-                case OTP -> new OtpEmailTemplate();
-                case MAGIC_LINK -> new MagicLinkEmailTemplate();
-                case WELCOME -> new WelcomeEmailTemplate();
-                default -> new OtpEmailTemplate(); // fallback
-            };
+            return getTemplate(NotificationEvent.fromValue(eventType));
         } catch (IllegalArgumentException e) {
             // Return a default template for unknown events
-            return new OtpEmailTemplate();
+            return templates.get(NotificationEvent.OTP);
         }
     }
-}
 
+    /**
+     * Template that wraps several notifications into one digest email
+     *
+     * @return the digest template, or empty if none could be loaded
+     */
+    public Optional<EmailTemplate> getDigestTemplate() {
+        return Optional.ofNullable(digestTemplate);
+    }
+
+    /**
+     * Override directory being used, if any
+     */
+    public Optional<Path> getDirectory() {
+        return Optional.ofNullable(directory);
+    }
+
+    /**
+     * Map a template file name back to its event
+     */
+    public Optional<NotificationEvent> eventForFile(String fileName) {
+        for (NotificationEvent event : NotificationEvent.values()) {
+            String base = baseName(event);
+            if (fileName.equals(base + ".html") || fileName.equals(base + ".txt")) {
+                return Optional.of(event);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Whether a file name is one of the digest template files
+     */
+    public boolean isDigestFile(String fileName) {
+        return fileName.equals(DIGEST_BASE_NAME + ".html") || fileName.equals(DIGEST_BASE_NAME + ".txt");
+    }
+
+    /**
+     * Recompile the template for an event and swap it in
+     * On any error the previous version stays active
+     *
+     * @return true if a new version was installed
+     */
+    public synchronized boolean reload(NotificationEvent event) {
+        Optional<EmailTemplate> template = compile(baseName(event), event.getDefaultSubject());
+        if (template.isEmpty()) {
+            return false;
+        }
+        Map<NotificationEvent, EmailTemplate> updated = new EnumMap<>(NotificationEvent.class);
+        updated.putAll(templates);
+        updated.put(event, template.get());
+        templates = updated;
+        return true;
+    }
+
+    /**
+     * Recompile the digest template and swap it in
+     *
+     * @return true if a new version was installed
+     */
+    public synchronized boolean reloadDigest() {
+        Optional<EmailTemplate> template = compile(DIGEST_BASE_NAME, DIGEST_DEFAULT_SUBJECT);
+        template.ifPresent(compiled -> digestTemplate = compiled);
+        return template.isPresent();
+    }
+
+    private Optional<EmailTemplate> compile(String base, String defaultSubject) {
+        try {
+            Optional<String> html = read(base + ".html");
+            if (html.isEmpty()) {
+                log.warn("No email template found for {}", base);
+                return Optional.empty();
+            }
+
+            String plainText = read(base + ".txt").orElseGet(() -> toPlainText(html.get()));
+            Matcher title = TITLE.matcher(html.get());
+            String subject = title.find() ? title.group(1).trim() : defaultSubject;
+
+            EmailTemplate template = new FileEmailTemplate(subject,
+                    CompiledTemplate.html(html.get()),
+                    CompiledTemplate.text(plainText),
+                    renderTimer(base, "html"),
+                    renderTimer(base, "text"));
+            log.debug("Compiled email template {}", base);
+            return Optional.of(template);
+        } catch (IOException | IllegalArgumentException e) {
+            log.error("Failed to load email template {}, keeping previous version: {}", base, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private Timer renderTimer(String template, String format) {
+        return Timer.builder("notification.template.render")
+                .description("Time to render an email template")
+                .tag("template", template)
+                .tag("format", format)
+                .register(meterRegistry);
+    }
+
+    private String baseName(NotificationEvent event) {
+        return event.getValue().replace('_', '-') + "-email";
+    }
+
+    /**
+     * Read a template file, preferring the override directory; empty files count as missing
+     */
+    private Optional<String> read(String fileName) throws IOException {
+        if (directory != null) {
+            Path file = directory.resolve(fileName);
+            if (Files.isRegularFile(file)) {
+                String content = Files.readString(file, StandardCharsets.UTF_8);
+                if (!content.isBlank()) {
+                    return Optional.of(content);
+                }
+                log.warn("Ignoring empty template file {}", file);
+            }
+        }
+
+        ClassPathResource resource = new ClassPathResource(CLASSPATH_LOCATION + fileName);
+        if (!resource.exists()) {
+            return Optional.empty();
+        }
+        try (InputStream in = resource.getInputStream()) {
+            String content = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            return content.isBlank() ? Optional.empty() : Optional.of(content);
+        }
+    }
+
+    /**
+     * Fallback plain text when no .txt file exists: the HTML body with tags removed
+     */
+    private String toPlainText(String html) {
+        String text = STYLE.matcher(html).replaceAll("");
+        text = HEAD.matcher(text).replaceAll("");
+        text = TAG.matcher(text).replaceAll("");
+        return text.lines()
+                .map(String::strip)
+                .filter(line -> !line.isEmpty())
+                .reduce((a, b) -> a + "\n\n" + b)
+                .orElse("");
+    }
+}
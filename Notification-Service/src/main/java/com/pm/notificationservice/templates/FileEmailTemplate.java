@@ -0,0 +1,53 @@
+package com.pm.notificationservice.templates;
+
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Email template loaded from template files and compiled once
+ * Immutable; a changed file produces a new instance that replaces this one
+ * Every render is timed
+ */
+public class FileEmailTemplate implements EmailTemplate {
+
+    private final String subject;
+    private final CompiledTemplate html;
+    private final CompiledTemplate plainText;
+    private final Timer htmlTimer;
+    private final Timer plainTextTimer;
+
+    public FileEmailTemplate(String subject, CompiledTemplate html, CompiledTemplate plainText,
+                             Timer htmlTimer, Timer plainTextTimer) {
+        this.subject = subject;
+        this.html = html;
+        this.plainText = plainText;
+        this.htmlTimer = htmlTimer;
+        this.plainTextTimer = plainTextTimer;
+    }
+
+    @Override
+    public String getSubject() {
+        return subject;
+    }
+
+    @Override
+    public String buildContent(Map<String, Object> data) {
+        return render(html, htmlTimer, data);
+    }
+
+    @Override
+    public String buildPlainText(Map<String, Object> data) {
+        return render(plainText, plainTextTimer, data);
+    }
+
+    private static String render(CompiledTemplate template, Timer timer, Map<String, Object> data) {
+        long start = System.nanoTime();
+        try {
+            return template.render(data);
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.pm.notificationservice.templates;
+
+import com.pm.notificationservice.enums.NotificationEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the template override directory and recompiles templates when their files change
+ *
+ * Events are debounced briefly so an editor's save (truncate + write, or temp file + rename)
+ * triggers a single reload of the finished file.
+ */
+@Component
+@Slf4j
+public class TemplateWatcher implements SmartLifecycle {
+
+    private static final long DEBOUNCE_MS = 250;
+
+    private final EmailTemplateFactory templateFactory;
+    private final boolean enabled;
+
+    private WatchService watchService;
+    private Thread thread;
+    private volatile boolean running;
+
+    public TemplateWatcher(EmailTemplateFactory templateFactory,
+                           @Value("${notification.templates.watch:true}") boolean enabled) {
+        this.templateFactory = templateFactory;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void start() {
+        Path directory = templateFactory.getDirectory().orElse(null);
+        if (!enabled || directory == null) {
+            return;
+        }
+        if (!Files.isDirectory(directory)) {
+            log.warn("Template directory {} does not exist, hot reload disabled", directory);
+            return;
+        }
+
+        try {
+            watchService = directory.getFileSystem().newWatchService();
+            directory.register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            log.error("Could not watch template directory {}, hot reload disabled", directory, e);
+            return;
+        }
+
+        running = true;
+        thread = new Thread(this::watch, "template-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("Watching {} for template changes", directory);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                log.debug("Error closing template watcher: {}", e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void watch() {
+        while (running) {
+            try {
+                WatchKey key = watchService.take();
+                Set<NotificationEvent> changed = EnumSet.noneOf(NotificationEvent.class);
+                boolean digestChanged = collect(key, changed);
+
+                // Let the write finish and fold follow-up events into the same reload
+                WatchKey next;
+                while ((next = watchService.poll(DEBOUNCE_MS, TimeUnit.MILLISECONDS)) != null) {
+                    digestChanged |= collect(next, changed);
+                }
+
+                for (NotificationEvent event : changed) {
+                    if (templateFactory.reload(event)) {
+                        log.info("Reloaded email template for event {}", event.getValue());
+                    }
+                }
+                if (digestChanged && templateFactory.reloadDigest()) {
+                    log.info("Reloaded digest email template");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ClosedWatchServiceException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return true if a digest template file changed
+     */
+    private boolean collect(WatchKey key, Set<NotificationEvent> changed) {
+        boolean digestChanged = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.context() instanceof Path file) {
+                String fileName = file.getFileName().toString();
+                templateFactory.eventForFile(fileName).ifPresent(changed::add);
+                digestChanged |= templateFactory.isDigestFile(fileName);
+            }
+        }
+        key.reset();
+        return digestChanged;
+    }
+}
@@ -0,0 +1,140 @@
+package com.pm.notificationservice.client;
+
+import com.pm.notificationservice.dto.UserContactDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives {@link UserLookupBatcher} with a stubbed client that records each batch call
+ */
+class UserLookupBatcherTest {
+
+    private final UserServiceAsyncClient client = mock(UserServiceAsyncClient.class);
+    private final List<List<String>> calls = new ArrayList<>();
+    private final List<CompletableFuture<List<UserContactDto>>> responses = new ArrayList<>();
+    private UserLookupBatcher batcher;
+
+    @AfterEach
+    void tearDown() {
+        if (batcher != null) {
+            batcher.destroy();
+        }
+    }
+
+    @Test
+    void fullBatchIsSentAtOnceWithoutWaitingForTheWindow() {
+        stubClient();
+        batcher = batcher(60_000, 3);
+
+        batcher.lookup("u1");
+        batcher.lookup("u2");
+        assertThat(calls).isEmpty();
+        batcher.lookup("u3");
+
+        assertThat(calls).containsExactly(List.of("u1", "u2", "u3"));
+    }
+
+    @Test
+    void eachCallerGetsItsOwnUserFromOneBatch() {
+        stubClient();
+        batcher = batcher(60_000, 3);
+
+        CompletableFuture<UserContactDto> first = batcher.lookup("u1");
+        CompletableFuture<UserContactDto> unknown = batcher.lookup("u2");
+        CompletableFuture<UserContactDto> third = batcher.lookup("u3");
+        responses.get(0).complete(List.of(user("u3"), user("u1")));
+
+        assertThat(first.join().getId()).isEqualTo("u1");
+        assertThat(unknown.join()).isNull();
+        assertThat(third.join().getId()).isEqualTo("u3");
+    }
+
+    @Test
+    void repeatedIdInOneWindowSharesItsLookup() {
+        stubClient();
+        batcher = batcher(60_000, 2);
+
+        CompletableFuture<UserContactDto> first = batcher.lookup("u1");
+        CompletableFuture<UserContactDto> second = batcher.lookup("u1");
+        batcher.lookup("u2");
+
+        assertThat(second).isSameAs(first);
+        assertThat(calls).containsExactly(List.of("u1", "u2"));
+    }
+
+    @Test
+    void partialBatchIsSentWhenTheWindowCloses() {
+        stubClient();
+        batcher = batcher(20, 100);
+
+        CompletableFuture<UserContactDto> lookup = batcher.lookup("u1");
+        batcher.lookup("u2");
+
+        // The flush runs on the batcher's timer; completing the response there answers the caller
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (responses.isEmpty() && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        synchronized (calls) {
+            assertThat(calls).containsExactly(List.of("u1", "u2"));
+        }
+        responses.get(0).complete(List.of(user("u1")));
+        assertThat(lookup.join().getId()).isEqualTo("u1");
+    }
+
+    @Test
+    void failedBatchFailsEveryCaller() {
+        stubClient();
+        batcher = batcher(60_000, 2);
+
+        CompletableFuture<UserContactDto> first = batcher.lookup("u1");
+        CompletableFuture<UserContactDto> second = batcher.lookup("u2");
+        responses.get(0).completeExceptionally(new IllegalStateException("User Service down"));
+
+        assertThatThrownBy(first::join).hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(second::join).hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void pendingLookupsAreSentOnShutdown() {
+        stubClient();
+        batcher = batcher(60_000, 100);
+
+        batcher.lookup("u1");
+        batcher.destroy();
+        batcher = null;
+
+        assertThat(calls).containsExactly(List.of("u1"));
+    }
+
+    private void stubClient() {
+        when(client.getUserContacts(anyList())).thenAnswer(invocation -> {
+            CompletableFuture<List<UserContactDto>> response = new CompletableFuture<>();
+            synchronized (calls) {
+                calls.add(List.copyOf(invocation.<List<String>>getArgument(0)));
+            }
+            responses.add(response);
+            return response;
+        });
+    }
+
+    private UserLookupBatcher batcher(long windowMs, int maxSize) {
+        return new UserLookupBatcher(client, new SimpleMeterRegistry(), windowMs, maxSize);
+    }
+
+    private static UserContactDto user(String id) {
+        return UserContactDto.builder().id(id).email(id + "@x.com").build();
+    }
+}
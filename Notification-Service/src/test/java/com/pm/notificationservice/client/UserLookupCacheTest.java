@@ -0,0 +1,151 @@
+package com.pm.notificationservice.client;
+
+import com.pm.notificationservice.dto.UserContactDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives {@link UserLookupCache} with a stubbed batcher whose lookups complete only when the test says so
+ */
+class UserLookupCacheTest {
+
+    private final UserLookupBatcher batcher = mock(UserLookupBatcher.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void concurrentMissesForOneUserMakeOneRemoteCall() throws Exception {
+        CompletableFuture<UserContactDto> remote = new CompletableFuture<>();
+        when(batcher.lookup("u1")).thenReturn(remote);
+        UserLookupCache cache = cache(60, 10, 100);
+
+        int callers = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        List<Future<CompletableFuture<Optional<UserContactDto>>>> lookups = new ArrayList<>();
+        try {
+            for (int i = 0; i < callers; i++) {
+                lookups.add(executor.submit(() -> {
+                    start.await();
+                    return cache.getUserById("u1");
+                }));
+            }
+            start.countDown();
+            List<CompletableFuture<Optional<UserContactDto>>> results = new ArrayList<>();
+            for (Future<CompletableFuture<Optional<UserContactDto>>> lookup : lookups) {
+                results.add(lookup.get());
+            }
+
+            remote.complete(user("u1"));
+
+            for (CompletableFuture<Optional<UserContactDto>> result : results) {
+                assertThat(result.join()).map(UserContactDto::getId).contains("u1");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(batcher, times(1)).lookup("u1");
+        assertThat(counter("miss") + counter("coalesced")).isEqualTo(callers);
+    }
+
+    @Test
+    void foundUserIsServedFromCacheUntilItExpires() {
+        when(batcher.lookup("u1")).thenReturn(CompletableFuture.completedFuture(user("u1")));
+
+        UserLookupCache cache = cache(60, 10, 100);
+        cache.getUserById("u1").join();
+        assertThat(cache.getUserById("u1").join()).isPresent();
+        verify(batcher, times(1)).lookup("u1");
+        assertThat(counter("hit")).isEqualTo(1);
+
+        UserLookupCache expiring = cache(0, 0, 100);
+        expiring.getUserById("u1").join();
+        expiring.getUserById("u1").join();
+        verify(batcher, times(3)).lookup("u1");
+    }
+
+    @Test
+    void unknownUserIsCachedForTheNegativeTtl() {
+        when(batcher.lookup("gone")).thenReturn(CompletableFuture.completedFuture(null));
+
+        UserLookupCache cache = cache(60, 60, 100);
+        assertThat(cache.getUserById("gone").join()).isEmpty();
+        assertThat(cache.getUserById("gone").join()).isEmpty();
+        verify(batcher, times(1)).lookup("gone");
+        assertThat(counter("negative_hit")).isEqualTo(1);
+
+        UserLookupCache noNegativeCaching = cache(60, 0, 100);
+        noNegativeCaching.getUserById("gone").join();
+        noNegativeCaching.getUserById("gone").join();
+        verify(batcher, times(3)).lookup("gone");
+    }
+
+    @Test
+    void failedLookupIsNotCached() {
+        when(batcher.lookup("u1"))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("User Service down")))
+                .thenReturn(CompletableFuture.completedFuture(user("u1")));
+        UserLookupCache cache = cache(60, 10, 100);
+
+        assertThatThrownBy(() -> cache.getUserById("u1").join()).hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(cache.getUserById("u1").join()).isPresent();
+
+        verify(batcher, times(2)).lookup("u1");
+    }
+
+    @Test
+    void invalidatedUserIsLookedUpAgain() {
+        when(batcher.lookup("u1")).thenReturn(CompletableFuture.completedFuture(user("u1")));
+        UserLookupCache cache = cache(60, 10, 100);
+
+        cache.getUserById("u1").join();
+        cache.invalidate("u1");
+        cache.getUserById("u1").join();
+
+        verify(batcher, times(2)).lookup("u1");
+    }
+
+    @Test
+    void oldestEntriesAreEvictedBeyondMaxEntries() {
+        for (String id : List.of("u1", "u2", "u3")) {
+            when(batcher.lookup(id)).thenReturn(CompletableFuture.completedFuture(user(id)));
+        }
+        UserLookupCache cache = cache(60, 10, 2);
+
+        cache.getUserById("u1").join();
+        cache.getUserById("u2").join();
+        cache.getUserById("u3").join();
+        cache.getUserById("u3").join();
+        cache.getUserById("u1").join();
+
+        verify(batcher, times(1)).lookup("u3");
+        verify(batcher, times(2)).lookup("u1");
+    }
+
+    private UserLookupCache cache(long ttlSeconds, long negativeTtlSeconds, int maxEntries) {
+        return new UserLookupCache(batcher, meterRegistry, ttlSeconds, negativeTtlSeconds, maxEntries);
+    }
+
+    private double counter(String result) {
+        return meterRegistry.get("user-service.cache.lookups").tag("result", result).counter().count();
+    }
+
+    private static UserContactDto user(String id) {
+        return UserContactDto.builder().id(id).email(id + "@x.com").build();
+    }
+}
@@ -0,0 +1,100 @@
+package com.pm.notificationservice.service;
+
+import com.pm.notificationservice.dto.NotificationRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyCacheTest {
+
+    @Test
+    void keyIsScopedByEnterpriseAndTrimmed() {
+        assertThat(IdempotencyCache.keyFor(request("e1", " k1 "))).isEqualTo("e1:k1");
+        assertThat(IdempotencyCache.keyFor(request(null, "k1"))).isEqualTo("default:k1");
+        assertThat(IdempotencyCache.keyFor(request("e1", null))).isNull();
+        assertThat(IdempotencyCache.keyFor(request("e1", "  "))).isNull();
+    }
+
+    @Test
+    void firstRequestHoldsTheKeyAndRepeatsGetItsId() {
+        IdempotencyCache cache = new IdempotencyCache(600, 100);
+
+        assertThat(cache.putIfAbsent("e1:k1", "r1")).isNull();
+        assertThat(cache.putIfAbsent("e1:k1", "r2")).isEqualTo("r1");
+        assertThat(cache.putIfAbsent("e2:k1", "r3")).isNull();
+    }
+
+    @Test
+    void removeOnlyReleasesTheHoldersReservation() {
+        IdempotencyCache cache = new IdempotencyCache(600, 100);
+        cache.putIfAbsent("e1:k1", "r1");
+
+        cache.remove("e1:k1", "r2");
+        assertThat(cache.putIfAbsent("e1:k1", "r3")).isEqualTo("r1");
+
+        cache.remove("e1:k1", "r1");
+        assertThat(cache.putIfAbsent("e1:k1", "r3")).isNull();
+    }
+
+    @Test
+    void expiredKeyIsTakenOver() {
+        IdempotencyCache cache = new IdempotencyCache(0, 100);
+
+        assertThat(cache.putIfAbsent("e1:k1", "r1")).isNull();
+        assertThat(cache.putIfAbsent("e1:k1", "r2")).isNull();
+        assertThat(cache.putIfAbsent("e1:k1", "r3")).isNull();
+        assertThat(cache.size()).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    void oldestKeysAreEvictedBeyondMaxEntries() {
+        IdempotencyCache cache = new IdempotencyCache(600, 3);
+        for (int i = 0; i < 10; i++) {
+            cache.putIfAbsent("k" + i, "r" + i);
+        }
+
+        assertThat(cache.size()).isEqualTo(3);
+        assertThat(cache.putIfAbsent("k9", "again")).isEqualTo("r9");
+        assertThat(cache.putIfAbsent("k0", "again")).isNull();
+    }
+
+    @Test
+    void concurrentReservationsOfOneKeyHaveASingleWinner() throws Exception {
+        IdempotencyCache cache = new IdempotencyCache(600, 1000);
+        int threads = 16;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                String requestId = "r" + i;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return cache.putIfAbsent("e1:k1", requestId);
+                }));
+            }
+            start.countDown();
+
+            List<String> answers = new ArrayList<>();
+            for (Future<String> result : results) {
+                answers.add(result.get());
+            }
+            assertThat(answers).containsOnlyOnce((String) null);
+            String winner = answers.stream().filter(answer -> answer != null).findFirst().orElseThrow();
+            assertThat(answers).filteredOn(answer -> answer != null).containsOnly(winner);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static NotificationRequest request(String enterpriseId, String idempotencyKey) {
+        return NotificationRequest.builder().enterpriseId(enterpriseId).idempotencyKey(idempotencyKey).build();
+    }
+}
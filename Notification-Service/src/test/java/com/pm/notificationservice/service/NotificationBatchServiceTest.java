@@ -0,0 +1,173 @@
+package com.pm.notificationservice.service;
+
+import com.pm.notificationservice.dto.BatchItemResult;
+import com.pm.notificationservice.dto.BatchNotificationResponse;
+import com.pm.notificationservice.dto.NotificationRequest;
+import com.pm.notificationservice.service.audit.AuditJournal;
+import com.pm.notificationservice.service.job.NotificationJobStore;
+import com.pm.notificationservice.service.metrics.RequestMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationBatchServiceTest {
+
+    private static final String OTP = "{\"event\":\"otp\",\"channels\":[\"email\"],\"to\":[\"%s\"]%s}";
+
+    private final NotificationService notificationService = mock(NotificationService.class);
+    private final NotificationJobStore jobStore = mock(NotificationJobStore.class);
+    private final IdempotencyCache idempotencyCache = new IdempotencyCache(600, 1000);
+    private final List<List<String>> storedChunks = new ArrayList<>();
+
+    private NotificationBatchService batchService;
+
+    @BeforeEach
+    void setUp() {
+        when(notificationService.validate(any())).thenAnswer(invocation -> {
+            NotificationRequest request = invocation.getArgument(0);
+            return request.getEvent() == null ? "Event type is required" : null;
+        });
+        doAnswer(invocation -> {
+            Map<String, NotificationRequest> requests = invocation.getArgument(0);
+            storedChunks.add(requests.values().stream().map(request -> request.getTo().get(0)).toList());
+            return null;
+        }).when(jobStore).createPending(anyMap(), anyMap(), anyMap());
+
+        batchService = new NotificationBatchService(notificationService, jobStore, idempotencyCache,
+                mock(AuditJournal.class), mock(RequestMetrics.class), JsonMapper.builder().build());
+        ReflectionTestUtils.setField(batchService, "maxItems", 100);
+        ReflectionTestUtils.setField(batchService, "flushSize", 2);
+    }
+
+    @Test
+    void ingestsNdjsonLineByLine() {
+        BatchNotificationResponse response = ingest(otp("a@x.com") + "\n"
+                + "{\"channels\":[\"email\"],\"to\":[\"b@x.com\"]}\n"
+                + "\n"
+                + otp("c@x.com") + "\n");
+
+        assertThat(response.getReceived()).isEqualTo(3);
+        assertThat(response.getAccepted()).isEqualTo(2);
+        assertThat(response.getRejected()).isEqualTo(1);
+        assertThat(response.getError()).isNull();
+        assertThat(response.getItems().get(1).getError()).isEqualTo("Event type is required");
+        assertThat(response.getItems().get(0).getRequestId()).isNotNull();
+        assertThat(storedChunks).containsExactly(List.of("a@x.com", "c@x.com"));
+    }
+
+    @Test
+    void ingestsAJsonArrayAndRejectsItemsThatAreNotObjects() {
+        BatchNotificationResponse response = ingest("[" + otp("a@x.com") + ", 42, [\"nested\"], " + otp("b@x.com") + "]");
+
+        assertThat(response.getItems()).extracting(BatchItemResult::isAccepted).containsExactly(true, false, false, true);
+        assertThat(response.getItems().get(1).getError()).isEqualTo("Item is not a JSON object");
+        assertThat(response.getItems().get(2).getIndex()).isEqualTo(2);
+        assertThat(storedChunks).containsExactly(List.of("a@x.com", "b@x.com"));
+    }
+
+    @Test
+    void storesInChunksOfTheFlushSize() {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 5; i++) {
+            body.append(otp("user" + i + "@x.com")).append('\n');
+        }
+
+        BatchNotificationResponse response = ingest(body.toString());
+
+        assertThat(response.getAccepted()).isEqualTo(5);
+        assertThat(storedChunks).extracting(List::size).containsExactly(2, 2, 1);
+    }
+
+    @Test
+    void repeatedIdempotencyKeyIsReportedAsDuplicateOfTheFirstItem() {
+        BatchNotificationResponse response = ingest(otp("a@x.com", "k1") + "\n" + otp("b@x.com", "k1") + "\n");
+
+        BatchItemResult first = response.getItems().get(0);
+        BatchItemResult second = response.getItems().get(1);
+        assertThat(second.isDuplicate()).isTrue();
+        assertThat(second.getRequestId()).isEqualTo(first.getRequestId());
+        assertThat(storedChunks).containsExactly(List.of("a@x.com"));
+    }
+
+    @Test
+    void keyAlreadyStoredByAnEarlierRequestIsReportedAsDuplicateAtFlush() {
+        when(jobStore.findRequestIdsByIdempotencyKeys(any())).thenReturn(Map.of("default:k1", "original-id"));
+
+        BatchNotificationResponse response = ingest(otp("a@x.com", "k1") + "\n" + otp("b@x.com") + "\n");
+
+        assertThat(response.getItems().get(0).isDuplicate()).isTrue();
+        assertThat(response.getItems().get(0).getRequestId()).isEqualTo("original-id");
+        assertThat(storedChunks).containsExactly(List.of("b@x.com"));
+        assertThat(idempotencyCache.putIfAbsent("default:k1", "another-id")).isEqualTo("original-id");
+    }
+
+    @Test
+    void malformedLineStopsIngestionAndKeepsEarlierItems() {
+        BatchNotificationResponse response = ingest(otp("a@x.com") + "\n{\"event\": \n" + otp("b@x.com") + "\n");
+
+        assertThat(response.getError()).startsWith("Malformed batch at item 1");
+        assertThat(response.getAccepted()).isEqualTo(1);
+        assertThat(storedChunks).containsExactly(List.of("a@x.com"));
+    }
+
+    @Test
+    void stopsAtTheMaximumNumberOfItems() {
+        ReflectionTestUtils.setField(batchService, "maxItems", 2);
+
+        BatchNotificationResponse response = ingest(otp("a@x.com") + "\n" + otp("b@x.com") + "\n" + otp("c@x.com") + "\n");
+
+        assertThat(response.getReceived()).isEqualTo(2);
+        assertThat(response.getError()).contains("maximum of 2");
+        assertThat(storedChunks).containsExactly(List.of("a@x.com", "b@x.com"));
+    }
+
+    @Test
+    void failedStoreRejectsTheChunkAndReleasesItsKeys() {
+        doThrow(new IllegalStateException("database down")).when(jobStore).createPending(anyMap(), anyMap(), anyMap());
+
+        BatchNotificationResponse response = ingest(otp("a@x.com", "k1") + "\n");
+
+        assertThat(response.getAccepted()).isZero();
+        assertThat(response.getItems().get(0).getError()).isEqualTo("Failed to store notification");
+        assertThat(response.getError()).isEqualTo("Failed to store notifications");
+        assertThat(idempotencyCache.putIfAbsent("default:k1", "retry-id")).isNull();
+    }
+
+    @Test
+    void emptyBodyIsAnEmptyBatch() {
+        BatchNotificationResponse response = ingest("");
+
+        assertThat(response.getReceived()).isZero();
+        assertThat(response.getError()).isNull();
+        verify(jobStore, never()).createPending(anyMap(), anyMap(), anyMap());
+    }
+
+    private BatchNotificationResponse ingest(String body) {
+        return batchService.ingest(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String otp(String to) {
+        return String.format(OTP, to, "");
+    }
+
+    private static String otp(String to, String idempotencyKey) {
+        return String.format(OTP, to, ",\"idempotencyKey\":\"" + idempotencyKey + "\"");
+    }
+}
@@ -0,0 +1,82 @@
+package com.pm.notificationservice.service;
+
+import com.pm.notificationservice.dto.NotificationRequest;
+import com.pm.notificationservice.exception.PermanentDeliveryException;
+import com.pm.notificationservice.service.channel.ChannelExecutors;
+import com.pm.notificationservice.service.channel.ChannelProperties;
+import com.pm.notificationservice.service.channel.EmailSender;
+import com.pm.notificationservice.service.channel.SendProgress;
+import com.pm.notificationservice.service.channel.SmsSender;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class NotificationDeliveryServiceTest {
+
+    private final EmailSender emailSender = mock(EmailSender.class);
+    private final ChannelExecutors channelExecutors = new ChannelExecutors(new ChannelProperties(), new SimpleMeterRegistry());
+    private final NotificationDeliveryService deliveryService =
+            new NotificationDeliveryService(emailSender, mock(SmsSender.class), channelExecutors);
+
+    @AfterEach
+    void tearDown() {
+        channelExecutors.destroy();
+    }
+
+    @Test
+    void recipientsRefusedForGoodAreNotOwedForARetry() {
+        when(emailSender.sendBatch(anyString(), any(), anyMap(), any())).thenAnswer(invocation -> {
+            SendProgress progress = invocation.getArgument(3);
+            progress.begin(List.of("a@x.com", "bad@x.com", "busy@x.com"));
+            progress.reject(List.of("bad@x.com"));
+            return List.of("bad@x.com", "busy@x.com");
+        });
+        NotificationRequest request = request("a@x.com", "bad@x.com", "busy@x.com");
+
+        assertThat(deliveryService.deliver("r1", request)).containsExactly("email");
+        assertThat(request.getChannelRecipients()).isEqualTo(Map.of("email", List.of("busy@x.com")));
+        assertThat(request.getRejectedRecipients()).isEqualTo(Map.of("email", List.of("bad@x.com")));
+    }
+
+    @Test
+    void singleSendRefusedForGoodLeavesNothingOwed() {
+        when(emailSender.sendWithTemplate(anyList(), anyString(), any()))
+                .thenThrow(new PermanentDeliveryException("550 Mailbox unavailable"));
+        NotificationRequest request = request("bad@x.com");
+
+        assertThat(deliveryService.deliver("r1", request)).containsExactly("email");
+        assertThat(request.getChannelRecipients()).isEqualTo(Map.of("email", List.of()));
+        assertThat(request.getRejectedRecipients()).isEqualTo(Map.of("email", List.of("bad@x.com")));
+    }
+
+    @Test
+    void transientFailureIsOwedAndNothingIsRejected() {
+        when(emailSender.sendWithTemplate(anyList(), anyString(), any())).thenReturn(false);
+        NotificationRequest request = request("a@x.com");
+
+        assertThat(deliveryService.deliver("r1", request)).containsExactly("email");
+        assertThat(request.getChannelRecipients()).isEqualTo(Map.of("email", List.of("a@x.com")));
+        assertThat(request.getRejectedRecipients()).isNull();
+    }
+
+    private static NotificationRequest request(String... to) {
+        return NotificationRequest.builder()
+                .event("otp")
+                .channels(new ArrayList<>(List.of("email")))
+                .to(List.of(to))
+                .data(Map.of("otp", "123456"))
+                .build();
+    }
+}
@@ -0,0 +1,55 @@
+package com.pm.notificationservice.service;
+
+import com.pm.notificationservice.dto.NotificationRequest;
+import com.pm.notificationservice.entity.NotificationHistory;
+import com.pm.notificationservice.service.audit.AuditJournal;
+import com.pm.notificationservice.service.digest.NotificationDigester;
+import com.pm.notificationservice.service.dispatch.NotificationDispatcher;
+import com.pm.notificationservice.service.job.NotificationJobStore;
+import com.pm.notificationservice.service.metrics.RequestMetrics;
+import com.pm.notificationservice.service.schedule.NotificationScheduler;
+import com.pm.notificationservice.service.schedule.ScheduleProperties;
+import com.pm.notificationservice.service.status.NotificationStatusTracker;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class NotificationServiceTest {
+
+    private final NotificationService notificationService = new NotificationService(
+            mock(NotificationDispatcher.class), mock(NotificationJobStore.class), new IdempotencyCache(600, 100),
+            mock(NotificationStatusTracker.class), mock(AuditJournal.class), mock(NotificationScheduler.class),
+            new ScheduleProperties(), mock(NotificationDigester.class), mock(RequestMetrics.class));
+
+    @Test
+    void longestAcceptedScopedIdempotencyKeyFitsItsColumn() {
+        NotificationRequest request = request("e".repeat(NotificationService.MAX_ENTERPRISE_ID_LENGTH),
+                "k".repeat(NotificationService.MAX_IDEMPOTENCY_KEY_LENGTH));
+
+        assertThat(notificationService.validate(request)).isNull();
+        assertThat(IdempotencyCache.keyFor(request)).hasSize(NotificationHistory.IDEMPOTENCY_KEY_LENGTH);
+    }
+
+    @Test
+    void enterpriseIdTooLongToScopeAnIdempotencyKeyIsRejected() {
+        String enterpriseId = "e".repeat(NotificationService.MAX_ENTERPRISE_ID_LENGTH + 1);
+
+        assertThat(notificationService.validate(request(enterpriseId, "k1")))
+                .startsWith("Enterprise ID must be at most " + NotificationService.MAX_ENTERPRISE_ID_LENGTH);
+        assertThat(notificationService.validate(request(enterpriseId, null))).isNull();
+        assertThat(notificationService.validate(request(enterpriseId, "  "))).isNull();
+    }
+
+    private static NotificationRequest request(String enterpriseId, String idempotencyKey) {
+        return NotificationRequest.builder()
+                .enterpriseId(enterpriseId)
+                .event("otp")
+                .channels(List.of("email"))
+                .to(List.of("a@x.com"))
+                .idempotencyKey(idempotencyKey)
+                .build();
+    }
+}
@@ -0,0 +1,97 @@
+package com.pm.notificationservice.service.audit;
+
+import com.pm.notificationservice.enums.AuditOutcome;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditRingBufferTest {
+
+    @Test
+    void capacityIsRoundedUpToAPowerOfTwo() {
+        assertThat(new AuditRingBuffer(1000).capacity()).isEqualTo(1024);
+        assertThat(new AuditRingBuffer(1024).capacity()).isEqualTo(1024);
+        assertThat(new AuditRingBuffer(1).capacity()).isEqualTo(2);
+    }
+
+    @Test
+    void recordsAreDrainedInOrderAndSlotsCleared() {
+        AuditRingBuffer ring = new AuditRingBuffer(8);
+        for (int i = 0; i < 5; i++) {
+            assertThat(offer(ring, "r" + i)).isTrue();
+        }
+
+        List<String> drained = new ArrayList<>();
+        List<AuditRecord> slots = new ArrayList<>();
+        assertThat(ring.drain(record -> {
+            drained.add(record.requestId);
+            slots.add(record);
+        }, 3)).isEqualTo(3);
+        assertThat(ring.drain(record -> drained.add(record.requestId), 10)).isEqualTo(2);
+
+        assertThat(drained).containsExactly("r0", "r1", "r2", "r3", "r4");
+        assertThat(slots).allSatisfy(slot -> assertThat(slot.requestId).isNull());
+        assertThat(ring.size()).isZero();
+    }
+
+    @Test
+    void fullRingRefusesUntilDrained() {
+        AuditRingBuffer ring = new AuditRingBuffer(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(offer(ring, "r" + i)).isTrue();
+        }
+        assertThat(offer(ring, "overflow")).isFalse();
+
+        ring.drain(record -> { }, 1);
+        assertThat(offer(ring, "r4")).isTrue();
+
+        List<String> drained = new ArrayList<>();
+        ring.drain(record -> drained.add(record.requestId), 10);
+        assertThat(drained).containsExactly("r1", "r2", "r3", "r4");
+    }
+
+    @Test
+    void everyRecordOfConcurrentProducersIsDrainedExactlyOnce() throws Exception {
+        AuditRingBuffer ring = new AuditRingBuffer(256);
+        int producers = 4;
+        int perProducer = 20_000;
+        CountDownLatch done = new CountDownLatch(producers);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        Set<String> drained = new HashSet<>();
+        try {
+            for (int p = 0; p < producers; p++) {
+                String prefix = "p" + p + "-";
+                executor.execute(() -> {
+                    for (int i = 0; i < perProducer; i++) {
+                        while (!offer(ring, prefix + i)) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                    done.countDown();
+                });
+            }
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+            while ((done.getCount() > 0 || ring.size() > 0) && System.nanoTime() < deadline) {
+                ring.drain(record -> assertThat(drained.add(record.requestId)).isTrue(), 512);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(drained).hasSize(producers * perProducer);
+    }
+
+    private static boolean offer(AuditRingBuffer ring, String requestId) {
+        return ring.offer(1L, AuditOutcome.ACCEPTED, 0, requestId, "e1", "otp", null, null);
+    }
+}
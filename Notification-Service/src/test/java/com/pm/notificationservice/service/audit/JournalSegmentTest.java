@@ -0,0 +1,161 @@
+package com.pm.notificationservice.service.audit;
+
+import com.pm.notificationservice.enums.AuditOutcome;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JournalSegmentTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recordsRoundTrip() throws IOException {
+        try (JournalSegment segment = JournalSegment.create(directory, 7, 4096)) {
+            assertThat(segment.isEmpty()).isTrue();
+            assertThat(segment.append(record("r1", "e1", "sms", "détail ✓"))).isTrue();
+            assertThat(segment.append(record("r2", null, null, null))).isTrue();
+        }
+
+        List<AuditRecord> records = JournalSegment.open(JournalSegment.pathOf(directory, 7)).next(10);
+
+        assertThat(records).hasSize(2);
+        AuditRecord first = records.get(0);
+        assertThat(first.timestampMillis).isEqualTo(1_700_000_000_000L);
+        assertThat(first.outcome).isEqualTo(AuditOutcome.FAILED);
+        assertThat(first.attempt).isEqualTo(3);
+        assertThat(first.requestId).isEqualTo("r1");
+        assertThat(first.enterpriseId).isEqualTo("e1");
+        assertThat(first.event).isEqualTo("otp");
+        assertThat(first.channel).isEqualTo("sms");
+        assertThat(first.detail).isEqualTo("détail ✓");
+        assertThat(first.offset).isEqualTo(JournalSegment.HEADER_BYTES);
+        assertThat(records.get(1).enterpriseId).isNull();
+        assertThat(records.get(1).detail).isNull();
+    }
+
+    @Test
+    void readerStopsAtARecordWithABadCrc() throws IOException {
+        try (JournalSegment segment = JournalSegment.create(directory, 1, 4096)) {
+            segment.append(record("r1", "e1", "email", null));
+            segment.append(record("r2", "e1", "email", null));
+            segment.append(record("r3", "e1", "email", null));
+        }
+        Path path = JournalSegment.pathOf(directory, 1);
+        JournalSegment.Reader reader = JournalSegment.open(path);
+        reader.next(1);
+        int secondOffset = reader.position();
+
+        // Flip a byte in the body of the second record, as a torn write would leave it
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(secondOffset + 20);
+            int value = file.read();
+            file.seek(secondOffset + 20);
+            file.write(value ^ 0xFF);
+        }
+
+        JournalSegment.Reader recovered = JournalSegment.open(path);
+        List<AuditRecord> records = recovered.next(10);
+
+        assertThat(records).extracting(record -> record.requestId).containsExactly("r1");
+        assertThat(recovered.isExhausted()).isTrue();
+        assertThat(recovered.position()).isEqualTo(secondOffset);
+    }
+
+    @Test
+    void readerStopsAtALengthRunningPastTheFile() throws IOException {
+        try (JournalSegment segment = JournalSegment.create(directory, 2, 4096)) {
+            segment.append(record("r1", "e1", "email", null));
+        }
+        Path path = JournalSegment.pathOf(directory, 2);
+        int firstLength = lengthAt(path, JournalSegment.HEADER_BYTES);
+
+        // A length where the segment's zero end marker should be
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(JournalSegment.HEADER_BYTES + firstLength);
+            file.writeInt(1_000_000);
+        }
+
+        assertThat(JournalSegment.open(path).next(10)).extracting(record -> record.requestId).containsExactly("r1");
+    }
+
+    @Test
+    void readerResumesFromASavedPosition() throws IOException {
+        try (JournalSegment segment = JournalSegment.create(directory, 3, 4096)) {
+            for (int i = 0; i < 5; i++) {
+                segment.append(record("r" + i, "e1", "email", null));
+            }
+        }
+        Path path = JournalSegment.pathOf(directory, 3);
+        JournalSegment.Reader reader = JournalSegment.open(path);
+        reader.next(2);
+        int position = reader.position();
+
+        JournalSegment.Reader resumed = JournalSegment.open(path);
+        resumed.seek(position);
+
+        assertThat(resumed.next(10)).extracting(record -> record.requestId).containsExactly("r2", "r3", "r4");
+    }
+
+    @Test
+    void appendRefusesRecordsThatDoNotFit() throws IOException {
+        int appended = 0;
+        try (JournalSegment segment = JournalSegment.create(directory, 4, 128)) {
+            while (segment.append(record("r" + appended, "e1", "email", null))) {
+                appended++;
+            }
+        }
+
+        assertThat(appended).isPositive();
+        assertThat(JournalSegment.open(JournalSegment.pathOf(directory, 4)).next(100)).hasSize(appended);
+    }
+
+    @Test
+    void longValuesAreTruncated() throws IOException {
+        try (JournalSegment segment = JournalSegment.create(directory, 5, 4096)) {
+            segment.append(record("r1", "e1", "email", "x".repeat(1000)));
+        }
+
+        AuditRecord record = JournalSegment.open(JournalSegment.pathOf(directory, 5)).next(1).get(0);
+        assertThat(record.detail).hasSize(255);
+    }
+
+    @Test
+    void segmentFileNamesCarryTheSequence() {
+        Path path = JournalSegment.pathOf(directory, 42);
+
+        assertThat(JournalSegment.sequenceOf(path)).isEqualTo(42);
+        assertThat(JournalSegment.sequenceOf(directory.resolve("audit-x.journal"))).isEqualTo(-1);
+        assertThat(JournalSegment.sequenceOf(directory.resolve("other.txt"))).isEqualTo(-1);
+    }
+
+    @Test
+    void openRejectsFilesThatAreNotSegments() throws IOException {
+        Path path = directory.resolve("audit-0000000000000009.journal");
+        Files.write(path, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9});
+
+        assertThatThrownBy(() -> JournalSegment.open(path)).isInstanceOf(IOException.class);
+    }
+
+    private static int lengthAt(Path path, int offset) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "r")) {
+            file.seek(offset);
+            return file.readInt();
+        }
+    }
+
+    private static AuditRecord record(String requestId, String enterpriseId, String channel, String detail) {
+        AuditRecord record = new AuditRecord();
+        record.set(1_700_000_000_000L, AuditOutcome.FAILED, 3, requestId, enterpriseId, "otp", channel, detail);
+        return record;
+    }
+}
@@ -0,0 +1,162 @@
+package com.pm.notificationservice.service.channel.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal SMTP stand-in for tests and benchmarks
+ *
+ * Accepts HELO/EHLO, MAIL, RCPT, DATA, RSET, NOOP and QUIT on a free local port; nothing is
+ * delivered. A connect latency stands in for the TCP, STARTTLS and AUTH round trips of a real
+ * server. Recipients containing "reject" are refused with 550 and ones containing "busy" with
+ * 450, a connection can be dropped after a number of messages to simulate a server closing
+ * stale sessions, and connections beyond a number can be refused with 421 to simulate a
+ * server going away.
+ */
+final class LocalSmtpServer implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "local-smtp");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicInteger messages = new AtomicInteger();
+
+    private volatile long connectLatencyMs;
+    private volatile int dropAfterMessages;
+    private volatile int refuseAfterConnections;
+
+    LocalSmtpServer() {
+        try {
+            serverSocket = new ServerSocket(0, 200, InetAddress.getLoopbackAddress());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        executor.execute(this::acceptLoop);
+    }
+
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Delay before the greeting of every new connection
+     */
+    LocalSmtpServer connectLatencyMs(long connectLatencyMs) {
+        this.connectLatencyMs = connectLatencyMs;
+        return this;
+    }
+
+    /**
+     * Close each connection after this many messages; 0 never drops
+     */
+    LocalSmtpServer dropAfterMessages(int dropAfterMessages) {
+        this.dropAfterMessages = dropAfterMessages;
+        return this;
+    }
+
+    /**
+     * Answer every connection after the first this many with 421 and close it; 0 never refuses
+     */
+    LocalSmtpServer refuseAfterConnections(int refuseAfterConnections) {
+        this.refuseAfterConnections = refuseAfterConnections;
+        return this;
+    }
+
+    int getConnectionCount() {
+        return connections.get();
+    }
+
+    int getMessageCount() {
+        return messages.get();
+    }
+
+    @Override
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            // Closing anyway
+        }
+        executor.shutdownNow();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                int number = connections.incrementAndGet();
+                executor.execute(() -> serve(socket, number));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket, int number) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             OutputStream out = socket.getOutputStream()) {
+            if (connectLatencyMs > 0) {
+                Thread.sleep(connectLatencyMs);
+            }
+            if (refuseAfterConnections > 0 && number > refuseAfterConnections) {
+                reply(out, "421 Service not available");
+                return;
+            }
+            reply(out, "220 localhost ESMTP stand-in");
+
+            int sent = 0;
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                switch (command) {
+                    case "EHLO" -> reply(out, "250-localhost\r\n250 8BITMIME");
+                    case "HELO", "MAIL", "RSET", "NOOP" -> reply(out, "250 OK");
+                    case "RCPT" -> reply(out, line.contains("reject") ? "550 Mailbox unavailable"
+                            : line.contains("busy") ? "450 Mailbox busy, try again later" : "250 OK");
+                    case "DATA" -> {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            // Discard the message body
+                        }
+                        messages.incrementAndGet();
+                        reply(out, "250 OK queued");
+                        if (dropAfterMessages > 0 && ++sent >= dropAfterMessages) {
+                            return;
+                        }
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "502 Command not implemented");
+                }
+            }
+        } catch (SocketException e) {
+            // Client went away
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void reply(OutputStream out, String response) throws IOException {
+        out.write((response + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+}
@@ -0,0 +1,103 @@
+package com.pm.notificationservice.service.channel.impl;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Before/after benchmark of pooled SMTP sessions against a {@link LocalSmtpServer}
+ *
+ * "before" sends every message through JavaMailSenderImpl.send, which connects (and in
+ * production negotiates STARTTLS and authenticates) once per message; "after" sends the same
+ * messages through {@link SmtpTransportPool} in chunks, as JavaMailEmailSender does. The
+ * stand-in's connect latency plays the part of the handshake round trips.
+ *
+ * Run the main method from the IDE or, after mvn test-compile, with the test classpath:
+ * SmtpPoolBenchmark [messages=1000] [threads=4] [connectLatencyMs=20] [chunkSize=50]
+ */
+public final class SmtpPoolBenchmark {
+
+    private SmtpPoolBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int messages = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        long connectLatencyMs = args.length > 2 ? Long.parseLong(args[2]) : 20;
+        int chunkSize = args.length > 3 ? Integer.parseInt(args[3]) : 50;
+
+        System.out.printf("%d messages, %d threads, %d ms connect latency, chunks of %d%n",
+                messages, threads, connectLatencyMs, chunkSize);
+
+        try (LocalSmtpServer server = new LocalSmtpServer().connectLatencyMs(connectLatencyMs)) {
+            JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+            mailSender.setProtocol("smtp");
+            mailSender.setHost("localhost");
+            mailSender.setPort(server.getPort());
+
+            run("before: connection per message", server, messages, threads, 1,
+                    chunk -> mailSender.send(chunk.toArray(new MimeMessage[0])), mailSender.getSession());
+
+            SmtpTransportPool pool = SmtpTransportPoolTest.pool(server.getPort(), threads, 100);
+            try {
+                run("after: pooled sessions", server, messages, threads, chunkSize, pool::sendAll, pool.getSession());
+            } finally {
+                pool.destroy();
+            }
+        }
+    }
+
+    private static void run(String name, LocalSmtpServer server, int messages, int threads, int chunkSize,
+                            ChunkSender sender, Session session) throws Exception {
+        int connectionsBefore = server.getConnectionCount();
+        int messagesBefore = server.getMessageCount();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> sends = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int from = 0; from < messages; from += chunkSize) {
+                List<MimeMessage> chunk = new ArrayList<>();
+                for (int i = from; i < Math.min(from + chunkSize, messages); i++) {
+                    chunk.add(message(session, i));
+                }
+                sends.add(executor.submit(() -> {
+                    sender.send(chunk);
+                    return null;
+                }));
+            }
+            for (Future<?> send : sends) {
+                send.get();
+            }
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            int sent = server.getMessageCount() - messagesBefore;
+            System.out.printf("%-32s %6d ms  %8.1f msg/s  %5d connections  %d sent%n", name, elapsedMs,
+                    sent * 1000.0 / Math.max(elapsedMs, 1), server.getConnectionCount() - connectionsBefore, sent);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static MimeMessage message(Session session, int index) throws MessagingException {
+        MimeMessage message = new MimeMessage(session);
+        message.setFrom(new InternetAddress("noreply@example.com"));
+        message.setRecipient(MimeMessage.RecipientType.TO, new InternetAddress("user" + index + "@example.com"));
+        message.setSubject("Your code");
+        message.setText("Your OTP is " + (100000 + index));
+        return message;
+    }
+
+    @FunctionalInterface
+    private interface ChunkSender {
+        void send(List<MimeMessage> chunk) throws Exception;
+    }
+}
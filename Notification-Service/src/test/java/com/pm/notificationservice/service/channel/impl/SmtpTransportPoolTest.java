@@ -0,0 +1,166 @@
+package com.pm.notificationservice.service.channel.impl;
+
+import com.pm.notificationservice.exception.PermanentDeliveryException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Drives {@link SmtpTransportPool} against a {@link LocalSmtpServer}
+ */
+class SmtpTransportPoolTest {
+
+    private final LocalSmtpServer server = new LocalSmtpServer();
+    private SmtpTransportPool pool;
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.destroy();
+        }
+        server.close();
+    }
+
+    @Test
+    void batchesReuseOneConnection() throws MessagingException {
+        pool = pool(server.getPort(), 4, 100);
+
+        assertThat(pool.sendAll(messages(10)).failed()).isEmpty();
+        assertThat(pool.sendAll(messages(10)).failed()).isEmpty();
+        pool.send(messages(1).get(0));
+
+        assertThat(server.getMessageCount()).isEqualTo(21);
+        assertThat(server.getConnectionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void connectionIsRetiredAfterMaxMessages() throws MessagingException {
+        pool = pool(server.getPort(), 4, 3);
+
+        assertThat(pool.sendAll(messages(10)).failed()).isEmpty();
+
+        assertThat(server.getMessageCount()).isEqualTo(10);
+        assertThat(server.getConnectionCount()).isEqualTo(4);
+    }
+
+    @Test
+    void rejectedMessageIsReportedAndTheBatchContinues() throws MessagingException {
+        pool = pool(server.getPort(), 4, 100);
+        List<MimeMessage> messages = messages(5);
+        messages.set(2, message("reject@example.com"));
+
+        SmtpTransportPool.BatchResult result = pool.sendAll(messages);
+        assertThat(result.failed()).containsExactly(2);
+        assertThat(result.rejected()).containsExactly(2);
+        assertThat(server.getMessageCount()).isEqualTo(4);
+        assertThat(server.getConnectionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void temporarilyRefusedRecipientIsNotRejectedForGood() throws MessagingException {
+        pool = pool(server.getPort(), 4, 100);
+        List<MimeMessage> messages = messages(3);
+        messages.set(1, message("busy@example.com"));
+
+        SmtpTransportPool.BatchResult result = pool.sendAll(messages);
+        assertThat(result.failed()).containsExactly(1);
+        assertThat(result.rejected()).isEmpty();
+        assertThat(server.getMessageCount()).isEqualTo(2);
+    }
+
+    @Test
+    void singleSendRefusedForGoodThrowsPermanentDeliveryException() {
+        pool = pool(server.getPort(), 4, 100);
+
+        assertThatThrownBy(() -> pool.send(message("reject@example.com")))
+                .isInstanceOf(PermanentDeliveryException.class);
+        assertThatThrownBy(() -> pool.send(message("busy@example.com")))
+                .isInstanceOf(MessagingException.class);
+    }
+
+    @Test
+    void messageOnADroppedSessionIsRetriedOnAFreshOne() throws MessagingException {
+        server.dropAfterMessages(3);
+        pool = pool(server.getPort(), 4, 100);
+
+        assertThat(pool.sendAll(messages(5)).failed()).isEmpty();
+
+        assertThat(server.getMessageCount()).isEqualTo(5);
+        assertThat(server.getConnectionCount()).isEqualTo(2);
+    }
+
+    @Test
+    void failedRolloverReconnectReportsOnlyTheUnsentMessages() throws MessagingException {
+        server.refuseAfterConnections(1);
+        pool = pool(server.getPort(), 4, 3);
+
+        assertThat(pool.sendAll(messages(5)).failed()).containsExactly(3, 4);
+        assertThat(server.getMessageCount()).isEqualTo(3);
+    }
+
+    @Test
+    void failedReconnectAfterADroppedSessionReportsOnlyTheUnsentMessages() throws MessagingException {
+        server.dropAfterMessages(2).refuseAfterConnections(1);
+        pool = pool(server.getPort(), 4, 100);
+
+        assertThat(pool.sendAll(messages(5)).failed()).containsExactly(2, 3, 4);
+        assertThat(server.getMessageCount()).isEqualTo(2);
+    }
+
+    @Test
+    void noConnectionForTheFirstMessageFailsTheBatch() {
+        pool = pool(server.getPort(), 4, 100);
+        server.close();
+
+        assertThatThrownBy(() -> pool.sendAll(messages(2))).isInstanceOf(MessagingException.class);
+    }
+
+    /**
+     * Pool against a local server, with the defaults of application.yaml
+     * The protocol is set as Spring Boot's mail auto-configuration sets it
+     */
+    static SmtpTransportPool pool(int port, int maxConnections, int maxMessagesPerConnection) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setProtocol("smtp");
+        mailSender.setHost("localhost");
+        mailSender.setPort(port);
+        mailSender.getJavaMailProperties().put("mail.smtp.connectiontimeout", "5000");
+        mailSender.getJavaMailProperties().put("mail.smtp.timeout", "5000");
+
+        SmtpTransportPool pool = new SmtpTransportPool(mailSender, new SimpleMeterRegistry(), maxConnections);
+        ReflectionTestUtils.setField(pool, "maxMessagesPerConnection", maxMessagesPerConnection);
+        ReflectionTestUtils.setField(pool, "maxLifetimeMs", 300_000L);
+        ReflectionTestUtils.setField(pool, "idleTimeoutMs", 60_000L);
+        ReflectionTestUtils.setField(pool, "validateAfterIdleMs", 5_000L);
+        ReflectionTestUtils.setField(pool, "borrowTimeoutMs", 5_000L);
+        return pool;
+    }
+
+    private List<MimeMessage> messages(int count) throws MessagingException {
+        List<MimeMessage> messages = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            messages.add(message("user" + i + "@example.com"));
+        }
+        return messages;
+    }
+
+    private MimeMessage message(String to) throws MessagingException {
+        MimeMessage message = new MimeMessage(pool.getSession());
+        message.setFrom(new InternetAddress("noreply@example.com"));
+        message.setRecipient(MimeMessage.RecipientType.TO, new InternetAddress(to));
+        message.setSubject("Your code");
+        message.setText("Your OTP is 123456");
+        return message;
+    }
+}
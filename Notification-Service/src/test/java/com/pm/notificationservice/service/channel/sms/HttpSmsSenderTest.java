@@ -0,0 +1,141 @@
+package com.pm.notificationservice.service.channel.sms;
+
+import com.pm.notificationservice.service.channel.SendProgress;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives {@link HttpSmsSender} against a {@link LocalSmsProviderServer} on a free port
+ */
+class HttpSmsSenderTest {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private LocalSmsProviderServer provider;
+
+    @AfterEach
+    void stopProvider() {
+        if (provider != null) {
+            provider.stop();
+        }
+    }
+
+    @Test
+    void recipientsAreSentInBatches() {
+        HttpSmsSender sender = sender(properties(100, 1000, 1000, 0));
+
+        List<String> failed = sender.sendEach(phones(250), "Your OTP is 123456", new SendProgress());
+
+        assertThat(failed).isEmpty();
+        assertThat(provider.getCallCount()).isEqualTo(3);
+        assertThat(provider.getMessageCount()).isEqualTo(250);
+        assertThat(meterRegistry.get("notification.sms.messages").tag("result", "sent").counter().count()).isEqualTo(250);
+    }
+
+    @Test
+    void failedRecipientsReportedByTheProviderAreReturned() {
+        HttpSmsSender sender = sender(properties(20, 1000, 1000, 0.3));
+        List<String> recipients = phones(200);
+
+        List<String> failed = sender.sendEach(recipients, "hello", new SendProgress());
+
+        assertThat(failed).isNotEmpty().doesNotHaveDuplicates();
+        assertThat(recipients).containsAll(failed);
+        assertThat(provider.getMessageCount()).isEqualTo(200 - failed.size());
+        assertThat(meterRegistry.get("notification.sms.messages").tag("result", "failed").counter().count())
+                .isEqualTo(failed.size());
+    }
+
+    @Test
+    void sendFailsOnlyWhenNoRecipientWasReached() {
+        HttpSmsSender sender = sender(properties(10, 1000, 1000, 1.0));
+
+        assertThat(sender.send(phones(5), "hello")).isFalse();
+        assertThat(sender.sendEach(phones(5), "hello", new SendProgress())).containsExactlyElementsOf(phones(5));
+    }
+
+    @Test
+    void sendsAreHeldToTheProviderRate() {
+        HttpSmsSender sender = sender(properties(10, 100, 10, 0));
+
+        long start = System.nanoTime();
+        List<String> failed = sender.sendEach(phones(50), "hello", new SendProgress());
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // A burst of 10, then 40 more at 100 per second
+        assertThat(failed).isEmpty();
+        assertThat(elapsedMs).isGreaterThanOrEqualTo(350);
+        assertThat(provider.getCallCount()).isEqualTo(5);
+    }
+
+    @Test
+    void abandonedSendSubmitsNothingAndReportsEveryRecipient() {
+        HttpSmsSender sender = sender(properties(10, 1000, 1000, 0));
+        SendProgress progress = new SendProgress();
+        progress.abandon(List.of());
+
+        List<String> failed = sender.sendEach(phones(25), "hello", progress);
+
+        assertThat(failed).containsExactlyElementsOf(phones(25));
+        assertThat(provider.getCallCount()).isZero();
+    }
+
+    @Test
+    void unreachableProviderFailsTheWholeBatch() {
+        HttpSmsSender sender = sender(properties(10, 1000, 1000, 0));
+        SendProgress progress = new SendProgress();
+        provider.stop();
+
+        assertThat(sender.sendEach(phones(15), "hello", progress)).containsExactlyElementsOf(phones(15));
+        assertThat(progress.rejected(phones(15))).isEmpty();
+    }
+
+    @Test
+    void callRefusedWithAClientErrorIsRejectedForGood() {
+        HttpSmsSender sender = sender(properties(10, 1000, 1000, 0));
+        SendProgress progress = new SendProgress();
+
+        // No message: the provider answers 400
+        assertThat(sender.sendEach(phones(15), null, progress)).containsExactlyElementsOf(phones(15));
+        assertThat(progress.rejected(phones(15))).containsExactlyElementsOf(phones(15));
+    }
+
+    /**
+     * Start a provider on a free port and point a sender at it
+     */
+    private HttpSmsSender sender(SmsProperties properties) {
+        provider = new LocalSmsProviderServer(properties, jsonMapper);
+        provider.start();
+        properties.setBaseUrl("http://localhost:" + provider.getPort() + "/");
+        return new HttpSmsSender(properties, jsonMapper, meterRegistry);
+    }
+
+    private static SmsProperties properties(int batchSize, double ratePerSecond, int burst, double failureRate) {
+        SmsProperties properties = new SmsProperties();
+        properties.setProvider("http");
+        properties.setBatchSize(batchSize);
+        properties.setRatePerSecond(ratePerSecond);
+        properties.setBurst(burst);
+        properties.setSender("TEST");
+        properties.setRequestTimeoutMs(5000);
+        properties.getLocalServer().setPort(0);
+        properties.getLocalServer().setFailureRate(failureRate);
+        return properties;
+    }
+
+    private static List<String> phones(int count) {
+        List<String> phones = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            phones.add(String.format("+1555%07d", i));
+        }
+        return phones;
+    }
+}
@@ -0,0 +1,78 @@
+package com.pm.notificationservice.service.channel.sms;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    @Test
+    void burstIsAvailableImmediately() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(10, 20);
+
+        long elapsedMs = timeMs(() -> {
+            for (int i = 0; i < 20; i++) {
+                bucket.acquire(1);
+            }
+        });
+
+        assertThat(elapsedMs).isLessThan(50);
+    }
+
+    @Test
+    void emptyBucketWaitsForTheRefillRate() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(100, 10);
+        bucket.acquire(10);
+
+        long elapsedMs = timeMs(() -> bucket.acquire(10));
+
+        // 10 tokens at 100 per second
+        assertThat(elapsedMs).isBetween(80L, 400L);
+    }
+
+    @Test
+    void concurrentCallersQueueBehindEachOther() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(100, 5);
+        bucket.acquire(5);
+
+        long elapsedMs = timeMs(() -> {
+            Thread other = new Thread(() -> {
+                try {
+                    bucket.acquire(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            other.start();
+            bucket.acquire(5);
+            other.join();
+        });
+
+        // The second caller waits for the tokens the first one reserved: 10 tokens in total
+        assertThat(elapsedMs).isBetween(80L, 400L);
+    }
+
+    @Test
+    void requestLargerThanTheBurstIsAdmittedOnceFullAndLeavesDebt() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(100, 5);
+
+        long firstMs = timeMs(() -> bucket.acquire(15));
+        long debtMs = timeMs(() -> bucket.acquire(1));
+
+        assertThat(firstMs).isLessThan(50);
+        // 10 tokens of debt plus one more
+        assertThat(debtMs).isBetween(90L, 500L);
+    }
+
+    private static long timeMs(Action action) throws InterruptedException {
+        long start = System.nanoTime();
+        action.run();
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private interface Action {
+        void run() throws InterruptedException;
+    }
+}
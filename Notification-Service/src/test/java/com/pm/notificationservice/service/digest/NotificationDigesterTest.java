@@ -0,0 +1,199 @@
+package com.pm.notificationservice.service.digest;
+
+import com.pm.notificationservice.dto.NotificationRequest;
+import com.pm.notificationservice.entity.NotificationHistory;
+import com.pm.notificationservice.enums.NotificationChannel;
+import com.pm.notificationservice.service.audit.AuditJournal;
+import com.pm.notificationservice.service.channel.ChannelExecutors;
+import com.pm.notificationservice.service.channel.EmailSender;
+import com.pm.notificationservice.service.job.NotificationJobStore;
+import com.pm.notificationservice.service.retry.NotificationRetryScheduler;
+import com.pm.notificationservice.service.status.NotificationStatusTracker;
+import com.pm.notificationservice.templates.EmailTemplate;
+import com.pm.notificationservice.templates.EmailTemplateFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the digester with the email bulkhead executing sends inline
+ */
+class NotificationDigesterTest {
+
+    private static final String EVENT = "account_deactivated";
+
+    private final NotificationJobStore jobStore = mock(NotificationJobStore.class);
+    private final ChannelExecutors channelExecutors = mock(ChannelExecutors.class);
+    private final EmailSender emailSender = mock(EmailSender.class);
+    private final EmailTemplateFactory templateFactory = mock(EmailTemplateFactory.class);
+    private final NotificationRetryScheduler retryScheduler = mock(NotificationRetryScheduler.class);
+    private final EmailTemplate digestTemplate = mock(EmailTemplate.class);
+    private final EmailTemplate eventTemplate = mock(EmailTemplate.class);
+    private final DigestProperties properties = new DigestProperties();
+
+    private NotificationDigester digester;
+
+    @BeforeEach
+    void setUp() {
+        properties.setEvents(Set.of(EVENT));
+        properties.setMaxItems(3);
+        properties.setWindowSeconds(300);
+
+        when(templateFactory.getDigestTemplate()).thenReturn(Optional.of(digestTemplate));
+        when(templateFactory.getTemplate(anyString())).thenReturn(eventTemplate);
+        when(digestTemplate.getSubject()).thenReturn("Your updates");
+        when(digestTemplate.buildContent(anyMap())).thenAnswer(invocation -> "<html>" + invocation.<Map<?, ?>>getArgument(0).get("count"));
+        when(digestTemplate.buildPlainText(anyMap())).thenReturn("text");
+        when(eventTemplate.getSubject()).thenReturn("Deactivated");
+        when(eventTemplate.buildPlainText(any())).thenReturn("Deactivated\n\nYour account was deactivated");
+        when(jobStore.beginScheduled(anyString())).thenAnswer(invocation ->
+                Optional.of(NotificationHistory.builder().id(invocation.getArgument(0)).attempts(1).build()));
+        when(emailSender.send(anyList(), anyString(), anyString(), anyString())).thenReturn(true);
+        when(emailSender.sendWithTemplate(anyList(), anyString(), any())).thenReturn(true);
+        runSendsInline();
+
+        digester = new NotificationDigester(jobStore, channelExecutors, emailSender, templateFactory,
+                mock(NotificationStatusTracker.class), mock(AuditJournal.class), retryScheduler, properties,
+                new SimpleMeterRegistry());
+        digester.start();
+    }
+
+    @Test
+    void onlySingleRecipientNonCriticalEmailsOfListedEventsAreEligible() {
+        assertThat(digester.isEligible(request("a@x.com"))).isTrue();
+
+        NotificationRequest twoRecipients = request("a@x.com");
+        twoRecipients.setTo(List.of("a@x.com", "b@x.com"));
+        NotificationRequest sms = request("a@x.com");
+        sms.setChannels(List.of("sms"));
+        NotificationRequest critical = request("a@x.com");
+        critical.setPriority("critical");
+        NotificationRequest otherEvent = request("a@x.com");
+        otherEvent.setEvent("welcome");
+        NotificationRequest personalised = request("a@x.com");
+        personalised.setRecipientData(Map.of("a@x.com", Map.of()));
+
+        assertThat(List.of(twoRecipients, sms, critical, otherEvent, personalised))
+                .noneMatch(digester::isEligible);
+    }
+
+    @Test
+    void nothingIsEligibleWithoutADigestTemplateOrOnceStopped() {
+        when(templateFactory.getDigestTemplate()).thenReturn(Optional.empty());
+        assertThat(digester.isEligible(request("a@x.com"))).isFalse();
+
+        when(templateFactory.getDigestTemplate()).thenReturn(Optional.of(digestTemplate));
+        digester.stop();
+        assertThat(digester.isEligible(request("a@x.com"))).isFalse();
+    }
+
+    @Test
+    void fullDigestIsSentAsOneEmailWithoutWaitingForTheWindow() {
+        hold("j1", "a@x.com");
+        hold("j2", "A@x.com");
+        hold("j3", "b@x.com");
+        verify(emailSender, never()).send(anyList(), anyString(), anyString(), anyString());
+
+        hold("j4", "a@x.com");
+
+        verify(emailSender).send(List.of("a@x.com"), "Your updates", "<html>3", "text");
+        verify(jobStore).complete(eq("j1"), eq(List.of()), any());
+        verify(jobStore).complete(eq("j4"), eq(List.of()), any());
+        verify(jobStore, never()).complete(eq("j3"), anyList(), any());
+    }
+
+    @Test
+    void digestIsSentOnceItsWindowHasPassed() {
+        properties.setWindowSeconds(0);
+        hold("j1", "a@x.com");
+        hold("j2", "a@x.com");
+
+        digester.flushExpired();
+
+        verify(emailSender).send(eq(List.of("a@x.com")), eq("Your updates"), contains("2"), anyString());
+        verify(jobStore, times(2)).complete(anyString(), eq(List.of()), any());
+    }
+
+    @Test
+    void digestOfOneIsSentWithTheEventTemplate() {
+        properties.setWindowSeconds(0);
+        NotificationRequest request = hold("j1", "a@x.com");
+
+        digester.flushExpired();
+
+        verify(emailSender).sendWithTemplate(List.of("a@x.com"), EVENT, request.getData());
+        verify(emailSender, never()).send(anyList(), anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void failedDigestSendsEachJobThroughTheRetryPath() {
+        when(emailSender.send(anyList(), anyString(), anyString(), anyString())).thenReturn(false);
+
+        hold("j1", "a@x.com");
+        hold("j2", "a@x.com");
+        hold("j3", "a@x.com");
+
+        verify(retryScheduler, times(3)).onFailure(anyString(), anyString(), any(), eq(1),
+                eq(List.of(NotificationChannel.EMAIL.getValue())), eq("Digest email could not be sent"));
+        verify(jobStore, never()).complete(anyString(), anyList(), any());
+    }
+
+    @Test
+    void digestRejectedByAFullBulkheadIsKeptForTheNextFlush() {
+        when(channelExecutors.submit(eq(NotificationChannel.EMAIL), any()))
+                .thenReturn(CompletableFuture.failedFuture(new RejectedExecutionException("full")))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(invocation.<Supplier<Boolean>>getArgument(1).get()));
+        hold("j1", "a@x.com");
+        hold("j2", "a@x.com");
+        hold("j3", "a@x.com");
+        verify(emailSender, never()).send(anyList(), anyString(), anyString(), anyString());
+
+        properties.setWindowSeconds(0);
+        digester.flushExpired();
+
+        verify(emailSender).send(List.of("a@x.com"), "Your updates", "<html>3", "text");
+        verify(jobStore, times(3)).complete(anyString(), eq(List.of()), any());
+    }
+
+    private void runSendsInline() {
+        when(channelExecutors.submit(eq(NotificationChannel.EMAIL), any())).thenAnswer(invocation ->
+                CompletableFuture.completedFuture(invocation.<Supplier<Boolean>>getArgument(1).get()));
+    }
+
+    private NotificationRequest hold(String jobId, String recipient) {
+        NotificationRequest request = request(recipient);
+        digester.hold(NotificationHistory.builder().id(jobId).requestId("req-" + jobId).build(), request);
+        return request;
+    }
+
+    private static NotificationRequest request(String recipient) {
+        return NotificationRequest.builder()
+                .enterpriseId("e1")
+                .event(EVENT)
+                .channels(List.of("email"))
+                .to(List.of(recipient))
+                .data(Map.of("userName", "Ada"))
+                .build();
+    }
+}
@@ -0,0 +1,93 @@
+package com.pm.notificationservice.service.dispatch;
+
+import com.pm.notificationservice.enums.NotificationPriority;
+import com.pm.notificationservice.service.metrics.TenantTags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DispatchLanesTest {
+
+    private final DispatchLanes<String> lanes = lanes(10);
+
+    @Test
+    void higherClassesAreServedFirst() throws InterruptedException {
+        lanes.offer(NotificationPriority.BULK, "a", 1, "bulk");
+        lanes.offer(NotificationPriority.NORMAL, "a", 1, "normal");
+        lanes.offer(NotificationPriority.CRITICAL, "b", 1, "critical");
+
+        assertThat(lanes.poll(false, 0, TimeUnit.MILLISECONDS)).isEqualTo("critical");
+        assertThat(lanes.poll(false, 0, TimeUnit.MILLISECONDS)).isEqualTo("normal");
+        assertThat(lanes.poll(false, 0, TimeUnit.MILLISECONDS)).isEqualTo("bulk");
+        assertThat(lanes.poll(false, 0, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void reservedWorkersOnlyTakeCriticalWork() throws InterruptedException {
+        lanes.offer(NotificationPriority.NORMAL, "a", 1, "normal");
+
+        assertThat(lanes.poll(true, 10, TimeUnit.MILLISECONDS)).isNull();
+
+        lanes.offer(NotificationPriority.CRITICAL, "a", 1, "critical");
+        assertThat(lanes.poll(true, 0, TimeUnit.MILLISECONDS)).isEqualTo("critical");
+        assertThat(lanes.poll(false, 0, TimeUnit.MILLISECONDS)).isEqualTo("normal");
+    }
+
+    @Test
+    void lowerClassIsServedWhileTheHigherOneHasNothingEligible() throws InterruptedException {
+        DispatchProperties properties = new DispatchProperties();
+        properties.getTenants().setMaxConcurrency(1);
+        DispatchLanes<String> lanes = new DispatchLanes<>(properties, new SimpleMeterRegistry(), new TenantTags(50));
+        lanes.offer(NotificationPriority.CRITICAL, "a", 1, "critical-1");
+        lanes.offer(NotificationPriority.CRITICAL, "a", 1, "critical-2");
+        lanes.offer(NotificationPriority.BULK, "b", 1, "bulk");
+
+        assertThat(lanes.poll(false, 0, TimeUnit.MILLISECONDS)).isEqualTo("critical-1");
+        // Tenant a is at its concurrency limit in the critical lane
+        assertThat(lanes.poll(false, 0, TimeUnit.MILLISECONDS)).isEqualTo("bulk");
+
+        lanes.release(NotificationPriority.CRITICAL, "a");
+        assertThat(lanes.poll(false, 0, TimeUnit.MILLISECONDS)).isEqualTo("critical-2");
+    }
+
+    @Test
+    void eachClassHasItsOwnCapacity() {
+        assertThat(lanes.capacity()).isEqualTo(30);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(lanes.offer(NotificationPriority.BULK, "t" + i, 1, "bulk" + i)).isTrue();
+        }
+        assertThat(lanes.offer(NotificationPriority.BULK, "x", 1, "overflow")).isFalse();
+        assertThat(lanes.hasCapacity(NotificationPriority.CRITICAL, "x")).isTrue();
+        assertThat(lanes.offer(NotificationPriority.CRITICAL, "x", 1, "critical")).isTrue();
+        assertThat(lanes.size()).isEqualTo(11);
+        assertThat(lanes.remainingCapacity()).isEqualTo(19);
+    }
+
+    @Test
+    void waitingWorkerWakesUpWhenWorkArrives() throws Exception {
+        CompletableFuture<String> worker = CompletableFuture.supplyAsync(() -> {
+            try {
+                return lanes.poll(true, 5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        });
+        Thread.sleep(50);
+
+        lanes.offer(NotificationPriority.CRITICAL, "a", 1, "otp");
+
+        assertThat(worker.get(2, TimeUnit.SECONDS)).isEqualTo("otp");
+    }
+
+    private static DispatchLanes<String> lanes(int capacityPerLane) {
+        DispatchProperties properties = new DispatchProperties();
+        properties.setQueueCapacity(capacityPerLane);
+        return new DispatchLanes<>(properties, new SimpleMeterRegistry(), new TenantTags(50));
+    }
+}
@@ -0,0 +1,168 @@
+package com.pm.notificationservice.service.dispatch;
+
+import com.pm.notificationservice.service.metrics.TenantTags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TenantFairQueueTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void tenantsTakeTurnsWhateverTheirBacklog() {
+        TenantFairQueue<String> queue = queue(100, config(1, 100, 100));
+        for (int i = 0; i < 6; i++) {
+            queue.offer("a", 1, "a" + i);
+        }
+        queue.offer("b", 1, "b0");
+        queue.offer("b", 1, "b1");
+
+        assertThat(pollAll(queue)).containsExactly("a0", "b0", "a1", "b1", "a2", "a3", "a4", "a5");
+    }
+
+    @Test
+    void shareIsMeasuredInRecipientsNotNotifications() {
+        TenantFairQueue<String> queue = queue(100, config(10, 100, 100));
+        for (int i = 0; i < 3; i++) {
+            queue.offer("bulk", 10, "bulk" + i);
+        }
+        for (int i = 0; i < 20; i++) {
+            queue.offer("otp", 1, "otp" + i);
+        }
+
+        List<String> order = pollAll(queue);
+
+        // Every round serves one 10-recipient item of bulk against ten single OTPs
+        assertThat(order.subList(0, 11)).filteredOn(item -> item.startsWith("bulk")).hasSize(1);
+        assertThat(order.subList(11, 22)).filteredOn(item -> item.startsWith("bulk")).hasSize(1);
+        assertThat(order).hasSize(23);
+    }
+
+    @Test
+    void weightMultipliesATenantsShare() {
+        DispatchProperties.Tenants config = config(1, 100, 100);
+        config.setWeights(Map.of("gold", 2));
+        TenantFairQueue<String> queue = queue(100, config);
+        for (int i = 0; i < 4; i++) {
+            queue.offer("gold", 1, "g" + i);
+            queue.offer("free", 1, "f" + i);
+        }
+
+        assertThat(pollAll(queue)).containsExactly("g0", "g1", "f0", "g2", "g3", "f1", "f2", "f3");
+    }
+
+    @Test
+    void creditCarriesOverUntilALargeItemFits() {
+        TenantFairQueue<String> queue = queue(100, config(10, 100, 100));
+        queue.offer("big", 15, "big");
+        for (int i = 0; i < 12; i++) {
+            queue.offer("small", 1, "s" + i);
+        }
+
+        List<String> order = pollAll(queue);
+
+        // 10 credits are not enough for 15 recipients; the second turn brings it to 20
+        assertThat(order.indexOf("big")).isEqualTo(10);
+        assertThat(order).hasSize(13);
+    }
+
+    @Test
+    void tenantAtMaxConcurrencyIsSkippedUntilReleased() {
+        TenantFairQueue<String> queue = queue(100, config(10, 100, 2));
+        for (int i = 0; i < 4; i++) {
+            queue.offer("a", 1, "a" + i);
+        }
+        queue.offer("b", 1, "b0");
+
+        assertThat(queue.pollNow()).isEqualTo("a0");
+        assertThat(queue.pollNow()).isEqualTo("a1");
+        assertThat(queue.pollNow()).isEqualTo("b0");
+        assertThat(queue.pollNow()).isNull();
+
+        queue.release("a");
+        assertThat(queue.pollNow()).isEqualTo("a2");
+        assertThat(queue.pollNow()).isNull();
+        assertThat(queue.size()).isEqualTo(1);
+    }
+
+    @Test
+    void capacityIsBoundedOverallAndPerTenant() {
+        TenantFairQueue<String> queue = queue(3, config(10, 2, 10));
+
+        assertThat(queue.offer("a", 1, "a0")).isTrue();
+        assertThat(queue.offer("a", 1, "a1")).isTrue();
+        assertThat(queue.hasCapacity("a")).isFalse();
+        assertThat(queue.offer("a", 1, "a2")).isFalse();
+
+        assertThat(queue.offer("b", 1, "b0")).isTrue();
+        assertThat(queue.hasCapacity("c")).isFalse();
+        assertThat(queue.offer("c", 1, "c0")).isFalse();
+        assertThat(queue.remainingCapacity()).isZero();
+    }
+
+    @Test
+    void drainToEmptiesEveryTenant() {
+        TenantFairQueue<String> queue = queue(100, config(10, 100, 100));
+        queue.offer("a", 1, "a0");
+        queue.offer("b", 5, "b0");
+        queue.offer("a", 1, "a1");
+
+        List<String> drained = new ArrayList<>();
+        queue.drainTo(drained);
+
+        assertThat(drained).containsExactlyInAnyOrder("a0", "a1", "b0");
+        assertThat(queue.size()).isZero();
+        assertThat(queue.pollNow()).isNull();
+    }
+
+    @Test
+    void tenantsBeyondTheTagLimitShareTheOtherGauge() {
+        TenantFairQueue<String> queue = queue(100, config(10, 100, 100), new TenantTags(1));
+        String first = UUID.randomUUID().toString();
+        queue.offer(first, 1, "x");
+        queue.offer(UUID.randomUUID().toString(), 1, "y");
+        queue.offer(UUID.randomUUID().toString(), 1, "z");
+
+        assertThat(meterRegistry.get("notification.dispatch.tenant.queue.depth").tag("tenant", first).gauge().value())
+                .isEqualTo(1.0);
+        assertThat(meterRegistry.get("notification.dispatch.tenant.queue.depth").tag("tenant", TenantTags.OTHER).gauge().value())
+                .isEqualTo(2.0);
+    }
+
+    private TenantFairQueue<String> queue(int capacity, DispatchProperties.Tenants config) {
+        return queue(capacity, config, new TenantTags(50));
+    }
+
+    private TenantFairQueue<String> queue(int capacity, DispatchProperties.Tenants config, TenantTags tenantTags) {
+        ReentrantLock lock = new ReentrantLock();
+        return new TenantFairQueue<>("normal", capacity, config, lock, lock.newCondition(), meterRegistry, tenantTags);
+    }
+
+    private static DispatchProperties.Tenants config(int quantum, int maxQueued, int maxConcurrency) {
+        DispatchProperties.Tenants config = new DispatchProperties.Tenants();
+        config.setQuantum(quantum);
+        config.setMaxQueued(maxQueued);
+        config.setMaxConcurrency(maxConcurrency);
+        return config;
+    }
+
+    /**
+     * Poll until no item is eligible; tests set max-concurrency high enough that none is held back
+     */
+    private static List<String> pollAll(TenantFairQueue<String> queue) {
+        List<String> order = new ArrayList<>();
+        String item;
+        while ((item = queue.pollNow()) != null) {
+            order.add(item);
+        }
+        return order;
+    }
+}
@@ -0,0 +1,81 @@
+package com.pm.notificationservice.service.retry;
+
+import com.pm.notificationservice.dto.NotificationRequest;
+import com.pm.notificationservice.enums.DeliveryStatus;
+import com.pm.notificationservice.service.NotificationDeliveryService;
+import com.pm.notificationservice.service.audit.AuditJournal;
+import com.pm.notificationservice.service.job.NotificationJobStore;
+import com.pm.notificationservice.service.status.NotificationStatusTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationRetrySchedulerTest {
+
+    private final NotificationJobStore jobStore = mock(NotificationJobStore.class);
+    private final NotificationStatusTracker statusTracker = mock(NotificationStatusTracker.class);
+    private final NotificationRetryScheduler scheduler = new NotificationRetryScheduler(
+            mock(NotificationDeliveryService.class), jobStore, statusTracker, mock(AuditJournal.class),
+            new RetryProperties(), new SimpleMeterRegistry());
+
+    @Test
+    void transientFailureIsRetried() {
+        when(jobStore.scheduleRetry(anyString(), anyList(), any(), anyString(), any())).thenReturn(true);
+        NotificationRequest request = request(Map.of("email", List.of("busy@x.com")), null);
+
+        scheduler.onFailure("j1", "r1", request, 1, List.of("email"), null);
+
+        verify(jobStore).scheduleRetry(eq("j1"), eq(List.of("email")), any(), anyString(), any());
+        verify(jobStore, never()).deadLetter(anyString(), anyList(), any(), anyString());
+    }
+
+    @Test
+    void channelRefusedForGoodIsDeadLetteredOnTheFirstAttempt() {
+        NotificationRequest request = request(Map.of("email", List.of()), Map.of("email", List.of("bad@x.com")));
+
+        scheduler.onFailure("j1", "r1", request, 1, List.of("email"), null);
+
+        verify(jobStore).deadLetter(eq("j1"), eq(List.of("email")), eq(Map.of("email", List.of("bad@x.com"))),
+                contains("refused permanently"));
+        verify(statusTracker).failed(eq("r1"), eq(DeliveryStatus.DEAD_LETTER), anyString());
+        verify(jobStore, never()).scheduleRetry(anyString(), anyList(), any(), anyString(), any());
+    }
+
+    @Test
+    void onlyTheTransientChannelIsRetriedWhenAnotherFailedForGood() {
+        when(jobStore.scheduleRetry(anyString(), anyList(), any(), anyString(), any())).thenReturn(true);
+        Map<String, List<String>> owed = new HashMap<>();
+        owed.put("email", List.of());
+        owed.put("sms", List.of("+15550000001"));
+        NotificationRequest request = request(owed, Map.of("email", List.of("bad@x.com")));
+
+        scheduler.onFailure("j1", "r1", request, 1, List.of("email", "sms"), null);
+
+        verify(jobStore).scheduleRetry(eq("j1"), eq(List.of("sms")), any(), anyString(), any());
+        verify(jobStore, never()).deadLetter(anyString(), anyList(), any(), anyString());
+    }
+
+    private static NotificationRequest request(Map<String, List<String>> owed, Map<String, List<String>> rejected) {
+        return NotificationRequest.builder()
+                .event("otp")
+                .channels(new ArrayList<>(List.of("email")))
+                .to(List.of("a@x.com"))
+                .channelRecipients(owed)
+                .rejectedRecipients(rejected)
+                .build();
+    }
+}
@@ -0,0 +1,140 @@
+package com.pm.notificationservice.service.schedule;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    /**
+     * 1 ms ticks, 4 buckets per level, 100 ms span: levels of 1, 4, 16 and 64 ticks per bucket,
+     * so items can be added up to 255 ticks ahead
+     */
+    private static TimingWheel<Long> wheel(long startMs) {
+        return new TimingWheel<>(1, 4, 100, startMs, Long::longValue);
+    }
+
+    @Test
+    void itemOnLevelZeroExpiresOnItsDueTick() {
+        TimingWheel<Long> wheel = wheel(0);
+        List<Long> expired = new ArrayList<>();
+
+        assertThat(wheel.add(3L)).isTrue();
+
+        wheel.advance(2, expired::add);
+        assertThat(expired).isEmpty();
+        wheel.advance(3, expired::add);
+        assertThat(expired).containsExactly(3L);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void itemsCascadeDownAndExpireExactlyOnTheirDueTick() {
+        for (long start : new long[]{0, 7, 63, 1000}) {
+            TimingWheel<Long> wheel = wheel(start);
+            List<Long> dueTimes = new ArrayList<>();
+            for (long ahead : new long[]{1, 3, 4, 5, 15, 16, 17, 63, 64, 65, 127, 200, 255}) {
+                assertThat(wheel.add(start + ahead)).as("add %d ahead of %d", ahead, start).isTrue();
+                dueTimes.add(start + ahead);
+            }
+
+            Map<Long, Long> expiredAt = new HashMap<>();
+            for (long now = start + 1; now <= start + 300; now++) {
+                long tick = now;
+                wheel.advance(now, item -> expiredAt.put(item, tick));
+            }
+
+            for (long due : dueTimes) {
+                assertThat(expiredAt.get(due)).as("expiry of %d (start %d)", due, start).isEqualTo(due);
+            }
+            assertThat(wheel.size()).isZero();
+        }
+    }
+
+    @Test
+    void rejectsItemsAlreadyDueOrBeyondTheSpan() {
+        TimingWheel<Long> wheel = wheel(0);
+
+        assertThat(wheel.horizonMs()).isEqualTo(255);
+        assertThat(wheel.add(-5L)).isFalse();
+        assertThat(wheel.add(0L)).isFalse();
+        assertThat(wheel.add(255L)).isTrue();
+        assertThat(wheel.add(256L)).isFalse();
+        assertThat(wheel.size()).isEqualTo(1);
+    }
+
+    @Test
+    void horizonMovesWithTheWheel() {
+        TimingWheel<Long> wheel = wheel(0);
+        wheel.advance(100, item -> { });
+
+        assertThat(wheel.horizonMs()).isEqualTo(355);
+        assertThat(wheel.add(355L)).isTrue();
+        assertThat(wheel.add(356L)).isFalse();
+
+        List<Long> expired = new ArrayList<>();
+        wheel.advance(354, expired::add);
+        assertThat(expired).isEmpty();
+        wheel.advance(355, expired::add);
+        assertThat(expired).containsExactly(355L);
+    }
+
+    @Test
+    void advanceAcrossALargeGapExpiresEverythingInDueOrder() {
+        TimingWheel<Long> wheel = wheel(0);
+        for (long due : new long[]{250, 10, 100, 64, 1}) {
+            wheel.add(due);
+        }
+
+        List<Long> expired = new ArrayList<>();
+        wheel.advance(10_000, expired::add);
+
+        assertThat(expired).containsExactly(1L, 10L, 64L, 100L, 250L);
+        assertThat(wheel.size()).isZero();
+
+        // The wheel keeps working from where the gap left it
+        assertThat(wheel.add(10_050L)).isTrue();
+        wheel.advance(10_049, expired::add);
+        assertThat(expired).hasSize(5);
+        wheel.advance(10_050, expired::add);
+        assertThat(expired).endsWith(10_050L);
+    }
+
+    @Test
+    void randomItemsExpireInTheAdvanceThatReachesThem() {
+        Random random = new Random(42);
+        TimingWheel<Long> wheel = new TimingWheel<>(10, 8, 60_000, 5, Long::longValue);
+        List<Long> expired = new ArrayList<>();
+        long now = 5;
+        int added = 0;
+
+        for (int round = 0; round < 200; round++) {
+            for (int i = 0; i < 20; i++) {
+                long due = now + 10 + random.nextInt(60_000);
+                if (wheel.add(due)) {
+                    added++;
+                }
+            }
+            long previous = now;
+            now += random.nextInt(round % 10 == 0 ? 20_000 : 500);
+            int before = expired.size();
+            wheel.advance(now, expired::add);
+
+            long nowTick = now / 10;
+            long previousTick = previous / 10;
+            for (long due : expired.subList(before, expired.size())) {
+                assertThat(due / 10).isGreaterThan(previousTick).isLessThanOrEqualTo(nowTick);
+            }
+        }
+
+        wheel.advance(now + 120_000, expired::add);
+        assertThat(expired).hasSize(added);
+        assertThat(wheel.size()).isZero();
+    }
+}
@@ -0,0 +1,181 @@
+package com.pm.notificationservice.service.status;
+
+import com.pm.notificationservice.dto.NotificationRequest;
+import com.pm.notificationservice.dto.NotificationStatusDto;
+import com.pm.notificationservice.entity.NotificationHistory;
+import com.pm.notificationservice.enums.DeliveryStatus;
+import com.pm.notificationservice.enums.NotificationStatus;
+import com.pm.notificationservice.service.job.NotificationJobStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationStatusTrackerTest {
+
+    private final NotificationJobStore jobStore = mock(NotificationJobStore.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void trackedRequestIsAnsweredFromMemory() {
+        NotificationStatusTracker tracker = tracker(3600, 100, 10);
+
+        tracker.accepted("r1", request("email", "sms"));
+        tracker.sending("r1", request("email", "sms"), 1);
+        tracker.delivered("r1", List.of("email", "sms"), List.of("sms"), null);
+
+        NotificationStatusDto status = tracker.find("r1").orElseThrow();
+        assertThat(status.getStatus()).isEqualTo(DeliveryStatus.SENDING);
+        assertThat(status.getAttempts()).isEqualTo(1);
+        assertThat(status.getChannels().get("email").getStatus()).isEqualTo(DeliveryStatus.SENT);
+        assertThat(status.getChannels().get("sms").getStatus()).isEqualTo(DeliveryStatus.FAILED);
+        verify(jobStore, never()).findByRequestId(anyString());
+        assertThat(lookups("memory")).isEqualTo(1);
+    }
+
+    @Test
+    void untrackedForgottenOrExpiredRequestsAreAnsweredFromTheStore() {
+        when(jobStore.findByRequestId(anyString())).thenAnswer(invocation -> Optional.of(job(invocation.getArgument(0))));
+
+        NotificationStatusTracker tracker = tracker(3600, 100, 10);
+        tracker.accepted("r1", request("email"));
+        tracker.forget("r1");
+        assertThat(tracker.find("r1").orElseThrow().getStatus()).isEqualTo(DeliveryStatus.SENT);
+        assertThat(tracker.find("unknown")).isPresent();
+
+        NotificationStatusTracker expiring = tracker(0, 100, 10);
+        expiring.accepted("r2", request("email"));
+        assertThat(expiring.find("r2").orElseThrow().getChannels().get("email").getAttempts()).isEqualTo(2);
+
+        verify(jobStore).findByRequestId("r1");
+        verify(jobStore).findByRequestId("r2");
+        assertThat(lookups("store")).isEqualTo(3);
+    }
+
+    @Test
+    void oldestEntriesAreEvictedBeyondMaxEntries() {
+        NotificationStatusTracker tracker = tracker(3600, 2, 10);
+        tracker.accepted("r1", request("email"));
+        tracker.accepted("r2", request("email"));
+        tracker.accepted("r3", request("email"));
+
+        tracker.flush();
+
+        assertThat(tracker.size()).isEqualTo(2);
+        tracker.find("r1");
+        verify(jobStore).findByRequestId("r1");
+    }
+
+    @Test
+    void flushWritesChannelStatusInBatchesOfTheFlushSize() {
+        List<Map<String, String>> writes = recordWrites();
+        NotificationStatusTracker tracker = tracker(3600, 100, 2);
+        for (String requestId : List.of("r1", "r2", "r3")) {
+            tracker.sending(requestId, request("email"), 1);
+        }
+
+        tracker.flush();
+
+        assertThat(writes).extracting(Map::size).containsExactly(2, 1);
+        assertThat(writes.get(0)).containsEntry("r1", "email=SENDING/1");
+
+        tracker.flush();
+        assertThat(writes).hasSize(2);
+    }
+
+    @Test
+    void failedFlushIsRetriedOnTheNextOneForEntriesStillTracked() {
+        List<Map<String, String>> writes = new ArrayList<>();
+        doThrow(new IllegalStateException("database down"))
+                .doAnswer(invocation -> writes.add(new LinkedHashMap<>(invocation.<Map<String, String>>getArgument(0))))
+                .when(jobStore).saveChannelStatuses(anyMap());
+        NotificationStatusTracker tracker = tracker(3600, 100, 10);
+        tracker.sending("r1", request("email"), 1);
+        tracker.sending("r2", request("email"), 1);
+
+        tracker.forget("r2");
+        tracker.flush();
+        tracker.delivered("r1", List.of("email"), List.of(), null);
+        tracker.flush();
+
+        assertThat(writes).containsExactly(Map.of("r1", "email=SENT/1"));
+    }
+
+    @Test
+    void channelStatusRoundTripsThroughItsEncoding() {
+        Map<String, NotificationStatusDto.ChannelStatus> channels = new LinkedHashMap<>();
+        channels.put("email", new NotificationStatusDto.ChannelStatus(DeliveryStatus.SENT, 1));
+        channels.put("sms", new NotificationStatusDto.ChannelStatus(DeliveryStatus.RETRYING, 2));
+
+        String encoded = NotificationStatusTracker.encode(channels);
+
+        assertThat(encoded).isEqualTo("email=SENT/1,sms=RETRYING/2");
+        assertThat(NotificationStatusTracker.decode(encoded)).isEqualTo(channels);
+        assertThat(NotificationStatusTracker.decode("email=SENT/1,garbage,sms=NOPE/2,push=FAILED"))
+                .containsOnlyKeys("email", "push");
+        assertThat(NotificationStatusTracker.decode(null)).isEmpty();
+    }
+
+    @Test
+    void storedJobWithoutChannelStatusFallsBackToItsFailedChannels() {
+        NotificationHistory job = job("r1");
+        job.setChannelStatus(null);
+        job.setStatus(NotificationStatus.RETRYING);
+        job.setFailedChannels("email,sms");
+
+        NotificationStatusDto status = NotificationStatusTracker.toDto(job);
+
+        assertThat(status.getStatus()).isEqualTo(DeliveryStatus.RETRYING);
+        assertThat(status.getChannels()).containsOnlyKeys("email", "sms");
+        assertThat(status.getChannels().get("sms").getStatus()).isEqualTo(DeliveryStatus.RETRYING);
+    }
+
+    private List<Map<String, String>> recordWrites() {
+        List<Map<String, String>> writes = new ArrayList<>();
+        doAnswer(invocation -> writes.add(new LinkedHashMap<>(invocation.<Map<String, String>>getArgument(0))))
+                .when(jobStore).saveChannelStatuses(any());
+        return writes;
+    }
+
+    private NotificationStatusTracker tracker(long retentionSeconds, int maxEntries, int flushBatchSize) {
+        return new NotificationStatusTracker(jobStore, meterRegistry, retentionSeconds, maxEntries, flushBatchSize);
+    }
+
+    private double lookups(String source) {
+        return meterRegistry.get("notification.status.lookups").tag("source", source).counter().count();
+    }
+
+    private static NotificationRequest request(String... channels) {
+        return NotificationRequest.builder()
+                .event("otp")
+                .channels(List.of(channels))
+                .to(List.of("a@x.com"))
+                .build();
+    }
+
+    private static NotificationHistory job(String requestId) {
+        return NotificationHistory.builder()
+                .requestId(requestId)
+                .event("otp")
+                .recipientCount(1)
+                .status(NotificationStatus.SENT)
+                .attempts(2)
+                .channelStatus("email=SENT/2")
+                .build();
+    }
+}
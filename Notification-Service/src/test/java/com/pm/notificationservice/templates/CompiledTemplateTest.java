@@ -0,0 +1,85 @@
+package com.pm.notificationservice.templates;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompiledTemplateTest {
+
+    @Test
+    void htmlTemplateEscapesEveryValue() {
+        CompiledTemplate template = CompiledTemplate.html("<p>Hello {{name}}</p>");
+
+        String html = template.render(Map.of("name", "<script>alert('x') & \"y\"</script>"));
+
+        assertThat(html).isEqualTo("<p>Hello &lt;script&gt;alert(&#39;x&#39;) &amp; &quot;y&quot;&lt;/script&gt;</p>");
+    }
+
+    @Test
+    void triplePlaceholderInsertsHtmlAsIs() {
+        CompiledTemplate template = CompiledTemplate.html("<div>{{{body}}}</div><p>{{note}}</p>");
+
+        String html = template.render(Map.of("body", "<b>bold</b>", "note", "<i>"));
+
+        assertThat(html).isEqualTo("<div><b>bold</b></div><p>&lt;i&gt;</p>");
+    }
+
+    @Test
+    void textTemplateInsertsValuesUnescaped() {
+        CompiledTemplate template = CompiledTemplate.text("Code: {{otp}} & more");
+
+        assertThat(template.render(Map.of("otp", "<123>"))).isEqualTo("Code: <123> & more");
+    }
+
+    @Test
+    void defaultsApplyToMissingAndNullValues() {
+        CompiledTemplate template = CompiledTemplate.html("Hi {{name:there}}, {{ team :the team }}{{missing}}!");
+        Map<String, Object> data = new HashMap<>();
+        data.put("name", null);
+
+        assertThat(template.render(data)).isEqualTo("Hi there, the team!");
+        assertThat(template.render(null)).isEqualTo("Hi there, the team!");
+    }
+
+    @Test
+    void defaultValuesAreEscapedInHtmlToo() {
+        CompiledTemplate template = CompiledTemplate.html("{{name:<anonymous>}}");
+
+        assertThat(template.render(Map.of())).isEqualTo("&lt;anonymous&gt;");
+    }
+
+    @Test
+    void nonStringValuesUseToString() {
+        CompiledTemplate template = CompiledTemplate.text("{{count}} items, valid {{valid}}");
+
+        assertThat(template.render(Map.of("count", 3, "valid", true))).isEqualTo("3 items, valid true");
+    }
+
+    @Test
+    void repeatedRendersReuseTheBufferWithoutLeakingOutput() {
+        CompiledTemplate template = CompiledTemplate.text("[{{value}}]");
+
+        assertThat(template.render(Map.of("value", "x".repeat(100_000)))).hasSize(100_002);
+        assertThat(template.render(Map.of("value", "short"))).isEqualTo("[short]");
+        assertThat(template.render(Map.of("value", "a"))).isEqualTo("[a]");
+    }
+
+    @Test
+    void literalWithoutPlaceholdersRendersUnchanged() {
+        assertThat(CompiledTemplate.html("plain <b>text</b>").render(Map.of())).isEqualTo("plain <b>text</b>");
+    }
+
+    @Test
+    void rejectsMalformedPlaceholders() {
+        assertThatThrownBy(() -> CompiledTemplate.html("Hello {{name"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unclosed");
+        assertThatThrownBy(() -> CompiledTemplate.html("Hello {{ }}"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Empty");
+    }
+}
@@ -0,0 +1,28 @@
+package com.pm.userservice.client;
+
+import com.pm.userservice.dto.NotificationRequest;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+
+import java.util.Map;
+
+/**
+ * Feign Client for Notification Service integration.
+ * Only called from the outbox relay, never on the request path.
+ */
+@FeignClient(name = "notification-service", url = "${notification-service.url:http://localhost:8084}")
+public interface NotificationServiceClient {
+
+    /**
+     * Submit a notification to Notification Service
+     *
+     * @param idempotencyKey key identifying retries of the same notification (the outbox event ID)
+     * @param request notification request
+     * @return notification response as Map
+     */
+    @PostMapping("/api/notifications/send")
+    Map<String, Object> sendNotification(@RequestHeader("Idempotency-Key") String idempotencyKey,
+                                         @RequestBody NotificationRequest request);
+}
@@ -0,0 +1,77 @@
+package com.pm.userservice.config;
+
+import com.pm.userservice.tenant.TenantRoutingDataSource;
+import com.pm.userservice.tenant.TenantShardDirectory;
+import com.pm.userservice.tenant.TenantShardProperties;
+import com.pm.userservice.tenant.TenantShards;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Tenant-per-shard datasource configuration
+ *
+ * The default shard is built from spring.datasource.*; additional shards come from
+ * tenant.sharding.shards.*. JPA uses the routing datasource, so repository calls are
+ * sent to the shard owning the tenant in {@link com.pm.userservice.tenant.TenantContext}.
+ */
+@Configuration
+@EnableConfigurationProperties(TenantShardProperties.class)
+public class TenantDataSourceConfig {
+
+    @Value("${spring.datasource.url}")
+    private String defaultUrl;
+
+    @Value("${spring.datasource.username}")
+    private String defaultUsername;
+
+    @Value("${spring.datasource.password}")
+    private String defaultPassword;
+
+    @Value("${spring.datasource.driver-class-name}")
+    private String defaultDriverClassName;
+
+    @Bean
+    public TenantShards tenantShards(TenantShardProperties properties) {
+        Map<String, DataSource> dataSources = new LinkedHashMap<>();
+        dataSources.put(properties.getDefaultShard(), DataSourceBuilder.create()
+                .url(defaultUrl)
+                .username(defaultUsername)
+                .password(defaultPassword)
+                .driverClassName(defaultDriverClassName)
+                .build());
+
+        properties.getShards().forEach((key, shard) -> dataSources.put(key, DataSourceBuilder.create()
+                .url(shard.getUrl())
+                .username(shard.getUsername())
+                .password(shard.getPassword())
+                .driverClassName(shard.getDriverClassName())
+                .build()));
+
+        return new TenantShards(properties.getDefaultShard(), dataSources);
+    }
+
+    @Bean
+    public TenantShardDirectory tenantShardDirectory(TenantShards shards, TenantShardProperties properties) {
+        TenantShardDirectory directory = new TenantShardDirectory(
+                new JdbcTemplate(shards.getDefaultDataSource()), shards,
+                Duration.ofSeconds(properties.getUnassignedCacheSeconds()));
+        directory.initialize();
+        return directory;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(TenantShards shards, TenantShardDirectory directory) {
+        return new TenantRoutingDataSource(shards, directory);
+    }
+}
@@ -2,14 +2,15 @@ package com.pm.userservice.controller;
 
 import com.pm.userservice.dto.*;
 import com.pm.userservice.entity.User;
-import com.pm.userservice.repository.UserRepository;
+import com.pm.userservice.security.CurrentActor;
+import com.pm.userservice.security.EmailVerificationTokens;
 import com.pm.userservice.service.UserService;
+import com.pm.userservice.tenant.TenantContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
@@ -26,7 +27,8 @@ import jakarta.validation.Valid;
 public class AuthController {
 
     private final UserService userService;
-    private final UserRepository userRepository;
+    private final CurrentActor currentActor;
+    private final EmailVerificationTokens emailVerificationTokens;
 
     /**
      * User Login
@@ -36,7 +38,8 @@ public class AuthController {
     public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest loginRequest) {
         log.info("Login request for user: {}", loginRequest.getEmail());
         try {
-            AuthResponse response = userService.login(loginRequest);
+            AuthResponse response = TenantContext.callInTenant(loginRequest.getEnterpriseId(),
+                    () -> userService.login(loginRequest));
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             log.error("Login failed: {}", e.getMessage());
@@ -58,19 +61,17 @@ public class AuthController {
     @PostMapping("/users")
     @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'CEO', 'ADMIN_HR', 'HR')")
     public ResponseEntity<?> createUser(
-            @Valid @RequestBody UserCreateRequest request,
-            Authentication authentication) {
+            @Valid @RequestBody UserCreateRequest request) {
 
         log.info("Creating new user: {} with role: {}", request.getEmail(), request.getRole().getCode());
 
         try {
-            // Get creator user from authentication
-            String creatorEmail = authentication.getName();
-            User creator = userRepository.findByEmail(creatorEmail)
-                    .orElseThrow(() -> new IllegalArgumentException("Creator not found"));
+            // Get creator user from the authenticated principal
+            User creator = currentActor.require("Creator not found");
 
-            // Create user with permission check
-            UserDto user = userService.createUser(request, creator);
+            // Create user with permission check, on the shard of the target enterprise
+            UserDto user = TenantContext.callInTenant(request.getEnterpriseId(),
+                    () -> userService.createUser(request, creator));
 
             return ResponseEntity.status(HttpStatus.CREATED).body(
                     ApiResponse.success("User created successfully", user));
@@ -99,13 +100,29 @@ public class AuthController {
 
     /**
      * Verify email
+     * Either through the signed link from the account verification email (token parameter),
+     * which is routed to the enterprise named in the token, or by an authenticated caller
      *
-     * POST /api/auth/verify-email/{userId}
+     * GET|POST /api/auth/verify-email/{userId}?token=...
      */
-    @PostMapping("/verify-email/{userId}")
-    public ResponseEntity<Void> verifyEmail(@PathVariable String userId) {
+    @RequestMapping(value = "/verify-email/{userId}", method = {RequestMethod.GET, RequestMethod.POST})
+    public ResponseEntity<Void> verifyEmail(@PathVariable String userId,
+                                            @RequestParam(required = false) String token) {
         log.info("Verifying email for user: {}", userId);
-        userService.verifyUserEmail(userId);
+        if (token != null) {
+            String enterpriseId = emailVerificationTokens.verify(token, userId).orElse(null);
+            if (enterpriseId == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+            }
+            TenantContext.callInTenant(enterpriseId, () -> {
+                userService.verifyUserEmail(userId);
+                return null;
+            });
+        } else if (TenantContext.getCurrentTenant() != null) {
+            userService.verifyUserEmail(userId);
+        } else {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
         return ResponseEntity.noContent().build();
     }
 
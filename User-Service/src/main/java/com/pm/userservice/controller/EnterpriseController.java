@@ -2,6 +2,10 @@ package com.pm.userservice.controller;
 
 import com.pm.userservice.entity.Enterprise;
 import com.pm.userservice.repository.EnterpriseRepository;
+import com.pm.userservice.tenant.TenantContext;
+import com.pm.userservice.tenant.TenantShardDirectory;
+import com.pm.userservice.tenant.TenantShardFanOut;
+import com.pm.userservice.tenant.TenantShardProperties;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -23,6 +27,9 @@ import java.util.List;
 public class EnterpriseController {
 
     private final EnterpriseRepository enterpriseRepository;
+    private final TenantShardDirectory shardDirectory;
+    private final TenantShardFanOut shardFanOut;
+    private final TenantShardProperties shardProperties;
 
     /**
      * Create new enterprise
@@ -32,7 +39,12 @@ public class EnterpriseController {
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Enterprise> createEnterprise(@Valid @RequestBody Enterprise enterprise) {
         log.info("Creating new enterprise: {}", enterprise.getCode());
-        Enterprise saved = enterpriseRepository.save(enterprise);
+
+        // New tenants are placed on the configured shard and recorded in the directory
+        String shardKey = shardProperties.getNewTenantShard();
+        Enterprise saved = TenantContext.callInShard(shardKey, () -> enterpriseRepository.save(enterprise));
+        shardDirectory.assign(saved.getId(), shardKey);
+
         return ResponseEntity.status(HttpStatus.CREATED).body(saved);
     }
 
@@ -57,20 +69,22 @@ public class EnterpriseController {
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<Enterprise> getEnterpriseByCode(@PathVariable String code) {
         log.info("Fetching enterprise by code: {}", code);
-        Enterprise enterprise = enterpriseRepository.findByCode(code)
+        Enterprise enterprise = shardFanOut.collect(() -> enterpriseRepository.findByCode(code).stream().toList())
+                .stream()
+                .findFirst()
                 .orElseThrow(() -> new IllegalArgumentException("Enterprise not found with code: " + code));
         return ResponseEntity.ok(enterprise);
     }
 
     /**
-     * Get all enterprises
+     * Get all enterprises (across all shards)
      * GET /api/enterprises
      */
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<Enterprise>> getAllEnterprises() {
         log.info("Fetching all enterprises");
-        List<Enterprise> enterprises = enterpriseRepository.findAll();
+        List<Enterprise> enterprises = shardFanOut.collect(enterpriseRepository::findAll);
         return ResponseEntity.ok(enterprises);
     }
 
@@ -4,14 +4,16 @@ import com.pm.userservice.dto.PageAccessDto;
 import com.pm.userservice.dto.ApiResponse;
 import com.pm.userservice.enums.PageAccessLevel;
 import com.pm.userservice.enums.UserRole;
-import com.pm.userservice.repository.UserRepository;
+import com.pm.userservice.security.CurrentActor;
 import com.pm.userservice.service.PermissionService;
+import com.pm.userservice.service.ResourceVersionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Set;
@@ -28,37 +30,45 @@ import java.util.stream.Collectors;
 public class PageAccessController {
 
     private final PermissionService permissionService;
-    private final UserRepository userRepository;
+    private final CurrentActor currentActor;
+    private final ResourceVersionService resourceVersionService;
+
+    /**
+     * The page catalog is static, so its DTO form is built once
+     */
+    private static final List<PageAccessDto> ALL_PAGES = java.util.Arrays.stream(PageAccessLevel.values())
+            .map(PageAccessController::toDto)
+            .toList();
 
     /**
      * Get all pages accessible by the current user
      * GET /api/pages/accessible
+     *
+     * Supports If-None-Match: the page list depends only on the caller's role and the catalog
      */
     @GetMapping("/accessible")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<List<PageAccessDto>> getAccessiblePages(Authentication authentication) {
-        String email = authentication.getName();
-
-        var userOptional = userRepository.findByEmail(email);
+    public ResponseEntity<List<PageAccessDto>> getAccessiblePages(WebRequest webRequest) {
+        var userOptional = currentActor.find();
         if (userOptional.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
 
         var user = userOptional.get();
+        String eTag = resourceVersionService.accessiblePagesETag(user.getRole());
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+
+        String email = user.getEmail();
         Set<PageAccessLevel> accessiblePages = permissionService.getAccessiblePages(user);
 
         List<PageAccessDto> pages = accessiblePages.stream()
-                .map(page -> PageAccessDto.builder()
-                        .pageId(page.getPageId())
-                        .displayName(page.getDisplayName())
-                        .allowedRoles(page.getAllowedRoles().stream()
-                                .map(UserRole::getCode)
-                                .collect(Collectors.toSet()))
-                        .build())
+                .map(PageAccessController::toDto)
                 .collect(Collectors.toList());
 
         log.info("User {} retrieved {} accessible pages", email, pages.size());
-        return ResponseEntity.ok(pages);
+        return ResponseEntity.ok().eTag(eTag).body(pages);
     }
 
     /**
@@ -68,18 +78,17 @@ public class PageAccessController {
     @GetMapping("/check/{pageId}")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<ApiResponse<Boolean>> checkPageAccess(
-            @PathVariable String pageId,
-            Authentication authentication) {
+            @PathVariable String pageId) {
 
         try {
-            String email = authentication.getName();
-            var userOptional = userRepository.findByEmail(email);
+            var userOptional = currentActor.find();
 
             if (userOptional.isEmpty()) {
                 return ResponseEntity.ok(ApiResponse.error("User not found", "USER_NOT_FOUND"));
             }
 
             var user = userOptional.get();
+            String email = user.getEmail();
             PageAccessLevel page = PageAccessLevel.fromPageId(pageId);
             boolean hasAccess = permissionService.canAccessPage(user, page);
 
@@ -99,23 +108,18 @@ public class PageAccessController {
     /**
      * Get all pages with their access levels
      * GET /api/pages/all (Admin only)
+     *
+     * Supports If-None-Match against the static catalog hash
      */
     @GetMapping("/all")
     @PreAuthorize("hasRole('SUPER_ADMIN')")
-    public ResponseEntity<List<PageAccessDto>> getAllPages() {
-        List<PageAccessDto> pages = new java.util.ArrayList<>();
-
-        for (PageAccessLevel page : PageAccessLevel.values()) {
-            pages.add(PageAccessDto.builder()
-                    .pageId(page.getPageId())
-                    .displayName(page.getDisplayName())
-                    .allowedRoles(page.getAllowedRoles().stream()
-                            .map(UserRole::getCode)
-                            .collect(Collectors.toSet()))
-                    .build());
+    public ResponseEntity<List<PageAccessDto>> getAllPages(WebRequest webRequest) {
+        String eTag = resourceVersionService.pageCatalogETag();
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
         }
 
-        return ResponseEntity.ok(pages);
+        return ResponseEntity.ok().eTag(eTag).body(ALL_PAGES);
     }
 
     /**
@@ -182,6 +186,19 @@ public class PageAccessController {
         }
     }
 
+    /**
+     * Map a catalog page to its DTO
+     */
+    private static PageAccessDto toDto(PageAccessLevel page) {
+        return PageAccessDto.builder()
+                .pageId(page.getPageId())
+                .displayName(page.getDisplayName())
+                .allowedRoles(page.getAllowedRoles().stream()
+                        .map(UserRole::getCode)
+                        .collect(Collectors.toSet()))
+                .build();
+    }
+
     /**
      * DTO for role information
      */
@@ -6,13 +6,13 @@ import com.pm.userservice.dto.UserPageAccessDto;
 import com.pm.userservice.entity.User;
 import com.pm.userservice.enums.PageAccessLevel;
 import com.pm.userservice.repository.UserRepository;
+import com.pm.userservice.security.CurrentActor;
 import com.pm.userservice.service.PageAccessManagementService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
@@ -32,6 +32,7 @@ public class PageAccessManagementController {
 
     private final PageAccessManagementService pageAccessManagementService;
     private final UserRepository userRepository;
+    private final CurrentActor currentActor;
 
     /**
      * Grant page access to a user
@@ -42,16 +43,13 @@ public class PageAccessManagementController {
     @PostMapping("/grant")
     @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'CEO', 'ADMIN_HR')")
     public ResponseEntity<?> grantPageAccess(
-            @Valid @RequestBody PageAccessGrantRequest request,
-            Authentication authentication) {
+            @Valid @RequestBody PageAccessGrantRequest request) {
 
         try {
             log.info("Grant page access request: user={}, page={}", request.getUserId(), request.getPageId());
 
-            // Get admin from token
-            String adminEmail = authentication.getName();
-            User admin = userRepository.findByEmail(adminEmail)
-                    .orElseThrow(() -> new IllegalArgumentException("Admin not found"));
+            // Get admin from the authenticated principal
+            User admin = currentActor.require("Admin not found");
 
             // Get page access level
             PageAccessLevel page = PageAccessLevel.fromPageId(request.getPageId());
@@ -82,16 +80,13 @@ public class PageAccessManagementController {
     @PostMapping("/revoke")
     @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'CEO', 'ADMIN_HR')")
     public ResponseEntity<?> revokePageAccess(
-            @Valid @RequestBody PageAccessGrantRequest request,
-            Authentication authentication) {
+            @Valid @RequestBody PageAccessGrantRequest request) {
 
         try {
             log.info("Revoke page access request: user={}, page={}", request.getUserId(), request.getPageId());
 
-            // Get admin from token
-            String adminEmail = authentication.getName();
-            User admin = userRepository.findByEmail(adminEmail)
-                    .orElseThrow(() -> new IllegalArgumentException("Admin not found"));
+            // Get admin from the authenticated principal
+            User admin = currentActor.require("Admin not found");
 
             // Get page access level
             PageAccessLevel page = PageAccessLevel.fromPageId(request.getPageId());
@@ -122,14 +117,11 @@ public class PageAccessManagementController {
     @GetMapping("/user/{userId}/pages")
     @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'CEO', 'ADMIN_HR')")
     public ResponseEntity<?> getUserAccessiblePages(
-            @PathVariable String userId,
-            Authentication authentication) {
+            @PathVariable String userId) {
 
         try {
-            // Get admin from token
-            String adminEmail = authentication.getName();
-            User admin = userRepository.findByEmail(adminEmail)
-                    .orElseThrow(() -> new IllegalArgumentException("Admin not found"));
+            // Get admin from the authenticated principal
+            User admin = currentActor.require("Admin not found");
 
             // Get target user
             User targetUser = userRepository.findById(userId)
@@ -165,14 +157,11 @@ public class PageAccessManagementController {
     @GetMapping("/user/{userId}/custom")
     @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'CEO', 'ADMIN_HR')")
     public ResponseEntity<?> getUserCustomAccess(
-            @PathVariable String userId,
-            Authentication authentication) {
+            @PathVariable String userId) {
 
         try {
-            // Get admin from token
-            String adminEmail = authentication.getName();
-            User admin = userRepository.findByEmail(adminEmail)
-                    .orElseThrow(() -> new IllegalArgumentException("Admin not found"));
+            // Get admin from the authenticated principal
+            User admin = currentActor.require("Admin not found");
 
             // Get target user
             User targetUser = userRepository.findById(userId)
@@ -206,14 +195,11 @@ public class PageAccessManagementController {
     @GetMapping("/user/{userId}/all-pages")
     @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'CEO', 'ADMIN_HR')")
     public ResponseEntity<?> getUserAllPagesWithStatus(
-            @PathVariable String userId,
-            Authentication authentication) {
+            @PathVariable String userId) {
 
         try {
-            // Get admin from token
-            String adminEmail = authentication.getName();
-            User admin = userRepository.findByEmail(adminEmail)
-                    .orElseThrow(() -> new IllegalArgumentException("Admin not found"));
+            // Get admin from the authenticated principal
+            User admin = currentActor.require("Admin not found");
 
             // Get target user
             User targetUser = userRepository.findById(userId)
@@ -253,8 +239,7 @@ public class PageAccessManagementController {
     @PostMapping("/grant-batch")
     @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'CEO', 'ADMIN_HR')")
     public ResponseEntity<?> grantPagesBatch(
-            @RequestBody Map<String, Object> request,
-            Authentication authentication) {
+            @RequestBody Map<String, Object> request) {
 
         try {
             String userId = (String) request.get("userId");
@@ -264,9 +249,7 @@ public class PageAccessManagementController {
             log.info("Batch grant pages: user={}, pages={}", userId, pageIds.size());
 
             // Get admin
-            String adminEmail = authentication.getName();
-            User admin = userRepository.findByEmail(adminEmail)
-                    .orElseThrow(() -> new IllegalArgumentException("Admin not found"));
+            User admin = currentActor.require("Admin not found");
 
             List<UserPageAccessDto> results = pageIds.stream()
                     .map(pageId -> {
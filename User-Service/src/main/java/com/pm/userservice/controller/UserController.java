@@ -1,10 +1,16 @@
 package com.pm.userservice.controller;
 
 import com.pm.userservice.dto.ApiResponse;
+import com.pm.userservice.dto.UserBatchLookupRequest;
+import com.pm.userservice.dto.UserContactDto;
 import com.pm.userservice.dto.UserDto;
 import com.pm.userservice.enums.UserRole;
-import com.pm.userservice.repository.UserRepository;
+import com.pm.userservice.security.CurrentActor;
+import com.pm.userservice.security.ServiceTokenAuthenticationFilter;
+import com.pm.userservice.service.ResourceVersionService;
 import com.pm.userservice.service.UserService;
+import com.pm.userservice.tenant.TenantContext;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -12,6 +18,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -26,17 +33,51 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final CurrentActor currentActor;
+    private final ResourceVersionService resourceVersionService;
 
     /**
      * Get user by ID
      * GET /api/users/{userId}
+     *
+     * Supports If-None-Match: returns 304 when the user is unchanged
      */
     @GetMapping("/{userId}")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<UserDto> getUserById(@PathVariable String userId) {
+    public ResponseEntity<UserDto> getUserById(@PathVariable String userId, WebRequest webRequest) {
+        String eTag = resourceVersionService.userETag(userId).orElse(null);
+        if (eTag != null && webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+
         log.info("Fetching user: {}", userId);
         UserDto user = userService.getUserById(userId);
-        return ResponseEntity.ok(user);
+        return ResponseEntity.ok().eTag(eTag).body(user);
+    }
+
+    /**
+     * Look up contact details of many users at once
+     * POST /api/users/batch-lookup
+     *
+     * Body: { "ids": ["u1", "u2", ...] } with at most users.batch-lookup.max-ids IDs.
+     * Returns id, email, phone, name, enterprise and active flag for each known ID;
+     * unknown IDs are omitted.
+     * Internal services (X-Service-Token) see every enterprise; admins and HR only see users
+     * of the enterprise in their token.
+     */
+    @PostMapping("/batch-lookup")
+    @PreAuthorize("hasRole('SERVICE') or hasAnyRole('SUPER_ADMIN', 'CEO', 'ADMIN_HR', 'HR')")
+    public ResponseEntity<List<UserContactDto>> batchLookup(@Valid @RequestBody UserBatchLookupRequest request,
+                                                            Authentication authentication) {
+        log.info("Batch lookup of {} users", request.getIds().size());
+        if (ServiceTokenAuthenticationFilter.isService(authentication)) {
+            return ResponseEntity.ok(userService.getUserContacts(request.getIds(), null));
+        }
+        String enterpriseId = TenantContext.getCurrentTenant();
+        if (enterpriseId == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(userService.getUserContacts(request.getIds(), enterpriseId));
     }
 
     /**
@@ -126,16 +167,13 @@ public class UserController {
      */
     @DeleteMapping("/{userId}")
     @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'CEO', 'ADMIN_HR')")
-    public ResponseEntity<?> deactivateUser(
-            @PathVariable String userId,
-            Authentication authentication) {
+    public ResponseEntity<?> deactivateUser(@PathVariable String userId) {
 
         log.info("Deactivating user: {}", userId);
 
         try {
-            // Get actor from authentication
-            String actorEmail = authentication.getName();
-            var actorOptional = userRepository.findByEmail(actorEmail);
+            // Get actor from the authenticated principal
+            var actorOptional = currentActor.find();
 
             if (actorOptional.isEmpty()) {
                 return ResponseEntity.status(403)
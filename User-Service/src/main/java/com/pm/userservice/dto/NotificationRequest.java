@@ -0,0 +1,24 @@
+package com.pm.userservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Notification request sent to Notification-Service
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationRequest {
+    private String enterpriseId;
+    private String event;              // "welcome", "account_verification", ...
+    private List<String> channels;    // ["email"]
+    private List<String> to;          // list of email addresses
+    private Map<String, Object> data; // template variables
+}
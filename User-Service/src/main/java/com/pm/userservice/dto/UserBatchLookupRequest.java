@@ -0,0 +1,22 @@
+package com.pm.userservice.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request DTO for looking up many users at once
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserBatchLookupRequest {
+
+    @NotEmpty(message = "At least one user ID is required")
+    private List<String> ids;
+}
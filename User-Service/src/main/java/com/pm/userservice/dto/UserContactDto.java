@@ -0,0 +1,22 @@
+package com.pm.userservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Minimal user projection for delivering notifications
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserContactDto {
+    private String id;
+    private String email;
+    private String phoneNumber;
+    private String name;
+    private String enterpriseId;
+    private Boolean active;
+}
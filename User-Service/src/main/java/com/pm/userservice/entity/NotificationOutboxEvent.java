@@ -0,0 +1,78 @@
+package com.pm.userservice.entity;
+
+import com.pm.userservice.enums.OutboxEventType;
+import com.pm.userservice.enums.OutboxStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Transactional outbox entry
+ * Written in the same transaction as the user change, delivered to Notification-Service by the relay
+ */
+@Entity
+@Table(name = "notification_outbox", indexes = {
+        @Index(name = "idx_outbox_status_next_attempt", columnList = "status, next_attempt_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @Column(nullable = false, length = 50)
+    @Enumerated(EnumType.STRING)
+    private OutboxEventType eventType;
+
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    @Column(name = "enterprise_id", nullable = false)
+    private String enterpriseId;
+
+    @Column(nullable = false)
+    private String recipientEmail;
+
+    @Column
+    private String recipientName;
+
+    @Column
+    private String enterpriseName;
+
+    @Column(nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    @Builder.Default
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column
+    private LocalDateTime sentAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+    }
+}
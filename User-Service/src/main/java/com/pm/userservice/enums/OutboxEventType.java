@@ -0,0 +1,21 @@
+package com.pm.userservice.enums;
+
+/**
+ * User lifecycle events relayed to Notification-Service through the outbox
+ * Each maps to the Notification-Service event (template) that is sent
+ */
+public enum OutboxEventType {
+    USER_CREATED("account_verification"),
+    USER_EMAIL_VERIFIED("welcome"),
+    USER_DEACTIVATED("account_deactivated");
+
+    private final String notificationEvent;
+
+    OutboxEventType(String notificationEvent) {
+        this.notificationEvent = notificationEvent;
+    }
+
+    public String getNotificationEvent() {
+        return notificationEvent;
+    }
+}
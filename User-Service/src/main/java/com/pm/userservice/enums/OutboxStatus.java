@@ -0,0 +1,10 @@
+package com.pm.userservice.enums;
+
+/**
+ * Delivery status of an outbox event
+ */
+public enum OutboxStatus {
+    PENDING,  // waiting for (re)delivery
+    SENT,     // accepted by Notification-Service
+    FAILED    // retries exhausted
+}
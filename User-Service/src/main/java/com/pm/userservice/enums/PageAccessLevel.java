@@ -1,8 +1,12 @@
 package com.pm.userservice.enums;
 
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * Web page/resource access levels
@@ -42,6 +46,11 @@ public enum PageAccessLevel {
     private final String displayName;
     private final Set<UserRole> allowedRoles;
 
+    /**
+     * Hash of the whole page catalog; changes only when pages or their roles change (i.e. on deploy)
+     */
+    private static final String CATALOG_VERSION = computeCatalogVersion();
+
     PageAccessLevel(String pageId, String displayName, UserRole[] roles) {
         this.pageId = pageId;
         this.displayName = displayName;
@@ -80,6 +89,25 @@ public enum PageAccessLevel {
         return pages;
     }
 
+    /**
+     * Version hash of the page catalog, usable as an ETag component
+     */
+    public static String catalogVersion() {
+        return CATALOG_VERSION;
+    }
+
+    private static String computeCatalogVersion() {
+        StringBuilder catalog = new StringBuilder();
+        for (PageAccessLevel page : values()) {
+            Set<String> roles = new TreeSet<>();
+            page.allowedRoles.forEach(role -> roles.add(role.getCode()));
+            catalog.append(page.pageId).append('|')
+                    .append(page.displayName).append('|')
+                    .append(roles).append('\n');
+        }
+        return DigestUtils.md5DigestAsHex(catalog.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
     /**
      * Get page access level by ID
      */
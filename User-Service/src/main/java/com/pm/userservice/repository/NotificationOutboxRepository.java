@@ -0,0 +1,27 @@
+package com.pm.userservice.repository;
+
+import com.pm.userservice.entity.NotificationOutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for NotificationOutboxEvent entity
+ */
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutboxEvent, String> {
+
+    /**
+     * Lock a batch of due pending events
+     * SKIP LOCKED lets several relay instances drain the outbox without delivering an event twice
+     */
+    @Query(value = "SELECT * FROM notification_outbox " +
+                   "WHERE status = 'PENDING' AND next_attempt_at <= :now " +
+                   "ORDER BY created_at LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<NotificationOutboxEvent> lockDueBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
@@ -7,6 +7,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -61,5 +63,57 @@ public interface UserRepository extends JpaRepository<User, String> {
      * Check if employee ID exists in enterprise
      */
     boolean existsByEmployeeIdAndEnterpriseId(String employeeId, String enterpriseId);
+
+    /**
+     * Version stamps of a user and its enterprise, without loading either entity
+     */
+    @Query("SELECT u.updatedAt AS updatedAt, e.updatedAt AS enterpriseUpdatedAt " +
+           "FROM User u JOIN u.enterprise e WHERE u.id = :userId")
+    Optional<UserVersion> findVersionById(@Param("userId") String userId);
+
+    /**
+     * Contact details of many users in one IN query, without loading the entities
+     */
+    @Query("SELECT u.id AS id, u.email AS email, u.phoneNumber AS phoneNumber, " +
+           "u.firstName AS firstName, u.lastName AS lastName, u.enterprise.id AS enterpriseId, u.active AS active " +
+           "FROM User u WHERE u.id IN :ids")
+    List<UserContact> findContactsByIdIn(@Param("ids") Collection<String> ids);
+
+    /**
+     * Contact details of many users of one enterprise in one IN query
+     */
+    @Query("SELECT u.id AS id, u.email AS email, u.phoneNumber AS phoneNumber, " +
+           "u.firstName AS firstName, u.lastName AS lastName, u.enterprise.id AS enterpriseId, u.active AS active " +
+           "FROM User u WHERE u.id IN :ids AND u.enterprise.id = :enterpriseId")
+    List<UserContact> findContactsByIdInAndEnterpriseId(@Param("ids") Collection<String> ids,
+                                                        @Param("enterpriseId") String enterpriseId);
+
+    /**
+     * Projection used to deliver notifications to users
+     */
+    interface UserContact {
+        String getId();
+
+        String getEmail();
+
+        String getPhoneNumber();
+
+        String getFirstName();
+
+        String getLastName();
+
+        String getEnterpriseId();
+
+        Boolean getActive();
+    }
+
+    /**
+     * Projection used to build ETags for user resources
+     */
+    interface UserVersion {
+        LocalDateTime getUpdatedAt();
+
+        LocalDateTime getEnterpriseUpdatedAt();
+    }
 }
 
@@ -0,0 +1,72 @@
+package com.pm.userservice.security;
+
+import com.pm.userservice.entity.User;
+import com.pm.userservice.repository.UserRepository;
+import com.pm.userservice.tenant.TenantContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+import java.util.Optional;
+
+/**
+ * Request-scoped access to the authenticated caller
+ *
+ * Reuses the User already loaded by {@link JwtAuthenticationFilter} as the security principal.
+ * Only when the principal is not a User (e.g. a claims-only authentication) is the caller looked
+ * up, once per request, through the (email, enterprise) index, using the enterprise claim of the
+ * verified token. The request's bound tenant is never used: a SUPER_ADMIN may have routed the
+ * request to another enterprise.
+ */
+@Component
+@RequestScope
+@RequiredArgsConstructor
+@Slf4j
+public class CurrentActor {
+
+    private final UserRepository userRepository;
+
+    private Optional<User> actor;
+
+    /**
+     * Get the authenticated caller, if one can be resolved
+     */
+    public Optional<User> find() {
+        if (actor == null) {
+            actor = resolve();
+        }
+        return actor;
+    }
+
+    /**
+     * Get the authenticated caller or fail with the given message
+     */
+    public User require(String notFoundMessage) {
+        return find().orElseThrow(() -> new IllegalArgumentException(notFoundMessage));
+    }
+
+    private Optional<User> resolve() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return Optional.empty();
+        }
+
+        if (authentication.getPrincipal() instanceof User user) {
+            return Optional.of(user);
+        }
+
+        String email = authentication.getName();
+        if (!(authentication.getDetails() instanceof JwtAuthenticationDetails details) || details.getEnterpriseId() == null) {
+            log.warn("No enterprise claim while resolving actor: {}", email);
+            return Optional.empty();
+        }
+
+        String enterpriseId = details.getEnterpriseId();
+        log.debug("Resolving actor {} in enterprise {} from repository", email, enterpriseId);
+        return TenantContext.callInTenant(enterpriseId,
+                () -> userRepository.findByEmailAndEnterpriseId(email, enterpriseId));
+    }
+}
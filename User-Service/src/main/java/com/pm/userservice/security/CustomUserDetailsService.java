@@ -1,6 +1,7 @@
 package com.pm.userservice.security;
 
 import com.pm.userservice.repository.UserRepository;
+import com.pm.userservice.tenant.TenantContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -35,11 +36,11 @@ public class CustomUserDetailsService implements UserDetailsService {
     }
 
     /**
-     * Extract enterprise ID from email context (can be enhanced with ThreadLocal)
+     * Extract enterprise ID from the tenant bound to the current request
      */
     private String extractEnterpriseId(String email) {
-        // This is a placeholder - in production, use ThreadLocal or Security Context
-        return "default-enterprise";
+        String enterpriseId = TenantContext.getCurrentTenant();
+        return enterpriseId != null ? enterpriseId : "default-enterprise";
     }
 }
 
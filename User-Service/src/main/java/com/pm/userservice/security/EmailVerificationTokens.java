@@ -0,0 +1,105 @@
+package com.pm.userservice.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Signed tokens for the email verification link
+ *
+ * A token is "enterpriseId.expiresAt.signature", where the signature is an HMAC-SHA256 over the
+ * user ID, enterprise ID and expiry. It proves the link was issued by this service for that user,
+ * and carries the enterprise so the unauthenticated verify request can be routed to its tenant.
+ */
+@Component
+@Slf4j
+public class EmailVerificationTokens {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+    private final Duration ttl;
+    private final Clock clock;
+
+    public EmailVerificationTokens(@Value("${email-verification.secret-key:${jwt.secret-key}}") String secretKey,
+                                   @Value("${email-verification.token-ttl-hours:72}") long ttlHours) {
+        this(secretKey, Duration.ofHours(ttlHours), Clock.systemUTC());
+    }
+
+    EmailVerificationTokens(String secretKey, Duration ttl, Clock clock) {
+        this.key = new SecretKeySpec(secretKey.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    /**
+     * How long an issued token stays valid
+     */
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    /**
+     * Issue a token verifying the email of the given user
+     */
+    public String issue(String userId, String enterpriseId) {
+        long expiresAt = clock.instant().plus(ttl).getEpochSecond();
+        return enterpriseId + "." + expiresAt + "." + sign(userId, enterpriseId, expiresAt);
+    }
+
+    /**
+     * Check a token against the user it was presented for
+     *
+     * @return the enterprise of the user, or empty if the token is malformed, forged or expired
+     */
+    public Optional<String> verify(String token, String userId) {
+        if (!StringUtils.hasText(token)) {
+            return Optional.empty();
+        }
+        String[] parts = token.split("\\.");
+        if (parts.length != 3) {
+            return Optional.empty();
+        }
+
+        long expiresAt;
+        try {
+            expiresAt = Long.parseLong(parts[1]);
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+
+        byte[] expected = sign(userId, parts[0], expiresAt).getBytes(StandardCharsets.US_ASCII);
+        if (!MessageDigest.isEqual(expected, parts[2].getBytes(StandardCharsets.US_ASCII))) {
+            log.warn("Invalid email verification token for user {}", userId);
+            return Optional.empty();
+        }
+        if (clock.instant().getEpochSecond() > expiresAt) {
+            log.info("Expired email verification token for user {}", userId);
+            return Optional.empty();
+        }
+        return Optional.of(parts[0]);
+    }
+
+    private String sign(String userId, String enterpriseId, long expiresAt) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            byte[] signature = mac.doFinal((userId + "\n" + enterpriseId + "\n" + expiresAt)
+                    .getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot sign email verification token", e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.pm.userservice.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.Getter;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+/**
+ * Authentication details for a JWT-authenticated request
+ * Carries the enterprise claim of the verified token, which is the caller's home tenant
+ */
+@Getter
+public class JwtAuthenticationDetails extends WebAuthenticationDetails {
+
+    private final String enterpriseId;
+
+    public JwtAuthenticationDetails(HttpServletRequest request, String enterpriseId) {
+        super(request);
+        this.enterpriseId = enterpriseId;
+    }
+}
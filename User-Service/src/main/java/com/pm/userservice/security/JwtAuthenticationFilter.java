@@ -1,12 +1,11 @@
 package com.pm.userservice.security;
 
+import com.pm.userservice.tenant.TenantContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -27,7 +26,7 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
-    private final UserDetailsService userDetailsService;
+    private final CustomUserDetailsService userDetailsService;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
@@ -37,15 +36,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
             if (StringUtils.hasText(jwt) && tokenProvider.isTokenValid(jwt)) {
                 String username = tokenProvider.extractUsername(jwt);
+                String enterpriseId = tokenProvider.extractEnterpriseId(jwt);
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                // The principal always lives on the shard of the enterprise in its token
+                UserDetails userDetails = enterpriseId != null
+                        ? TenantContext.callInTenant(enterpriseId,
+                                () -> userDetailsService.loadUserByEmailAndEnterprise(username, enterpriseId))
+                        : userDetailsService.loadUserByUsername(username);
 
                 if (tokenProvider.validateToken(jwt, userDetails)) {
                     UsernamePasswordAuthenticationToken authentication =
                             new UsernamePasswordAuthenticationToken(
                                     userDetails, null, userDetails.getAuthorities());
-                    authentication.setDetails(
-                            new WebAuthenticationDetailsSource().buildDetails(request));
+                    // The verified claim is what TenantContextFilter binds as the request's tenant
+                    authentication.setDetails(new JwtAuthenticationDetails(request, enterpriseId));
 
                     SecurityContextHolder.getContext().setAuthentication(authentication);
                     log.debug("JWT token validated for user: {}", username);
@@ -0,0 +1,69 @@
+package com.pm.userservice.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+/**
+ * Authenticates calls from other internal services (e.g. Notification-Service)
+ *
+ * A request carrying the shared internal.service-token in the X-Service-Token header is
+ * authenticated as an internal service with ROLE_SERVICE. Such a caller belongs to no
+ * enterprise, so no tenant is bound for it. Disabled when no token is configured.
+ */
+@Component
+@Slf4j
+public class ServiceTokenAuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Service-Token";
+    public static final String SERVICE_AUTHORITY = "ROLE_SERVICE";
+
+    private final byte[] serviceToken;
+
+    public ServiceTokenAuthenticationFilter(@Value("${internal.service-token:}") String serviceToken) {
+        this.serviceToken = serviceToken.getBytes(StandardCharsets.UTF_8);
+        if (this.serviceToken.length == 0) {
+            log.warn("internal.service-token is not set; internal service calls will not be authenticated");
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String token = request.getHeader(HEADER);
+        if (StringUtils.hasText(token) && serviceToken.length > 0) {
+            if (MessageDigest.isEqual(serviceToken, token.getBytes(StandardCharsets.UTF_8))) {
+                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                        "internal-service", null, List.of(new SimpleGrantedAuthority(SERVICE_AUTHORITY)));
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+                log.debug("Internal service call authenticated: {} {}", request.getMethod(), request.getRequestURI());
+            } else {
+                log.warn("Invalid service token on {} {}", request.getMethod(), request.getRequestURI());
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Whether the caller is an internal service rather than a user
+     */
+    public static boolean isService(Authentication authentication) {
+        return authentication != null && authentication.getAuthorities().stream()
+                .anyMatch(authority -> SERVICE_AUTHORITY.equals(authority.getAuthority()));
+    }
+}
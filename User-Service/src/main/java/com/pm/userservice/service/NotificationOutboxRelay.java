@@ -0,0 +1,203 @@
+package com.pm.userservice.service;
+
+import com.pm.userservice.client.NotificationServiceClient;
+import com.pm.userservice.dto.NotificationRequest;
+import com.pm.userservice.entity.NotificationOutboxEvent;
+import com.pm.userservice.enums.OutboxEventType;
+import com.pm.userservice.enums.OutboxStatus;
+import com.pm.userservice.repository.NotificationOutboxRepository;
+import com.pm.userservice.security.EmailVerificationTokens;
+import com.pm.userservice.tenant.TenantContext;
+import com.pm.userservice.tenant.TenantShards;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Background relay delivering outbox events to Notification-Service
+ *
+ * - Polls every shard for due PENDING events in batches
+ * - A batch is claimed in a short transaction: rows are locked with SKIP LOCKED and leased by
+ *   pushing next_attempt_at out by lease-seconds, so several User-Service instances can relay
+ *   in parallel and no row lock is held while Notification-Service is called
+ * - Delivery happens outside any transaction; the event ID is sent as the Idempotency-Key, so
+ *   an event re-delivered after an expired lease is not sent twice
+ * - Each outcome is recorded in its own short transaction, only if the lease is still ours
+ * - Failed deliveries are retried with exponential backoff until max-attempts, then marked FAILED
+ * - Account verification emails get a signed verification link, issued at delivery time
+ */
+@Component
+@Slf4j
+public class NotificationOutboxRelay {
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final NotificationServiceClient notificationServiceClient;
+    private final TenantShards shards;
+    private final EmailVerificationTokens emailVerificationTokens;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${notification-outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${notification-outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${notification-outbox.initial-backoff-ms:1000}")
+    private long initialBackoffMs;
+
+    @Value("${notification-outbox.max-backoff-ms:300000}")
+    private long maxBackoffMs;
+
+    @Value("${notification-outbox.lease-seconds:60}")
+    private long leaseSeconds;
+
+    @Value("${email-verification.base-url:http://localhost:8081}")
+    private String verificationBaseUrl;
+
+    public NotificationOutboxRelay(NotificationOutboxRepository outboxRepository,
+                                   NotificationServiceClient notificationServiceClient,
+                                   TenantShards shards,
+                                   EmailVerificationTokens emailVerificationTokens,
+                                   PlatformTransactionManager transactionManager) {
+        this.outboxRepository = outboxRepository;
+        this.notificationServiceClient = notificationServiceClient;
+        this.shards = shards;
+        this.emailVerificationTokens = emailVerificationTokens;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${notification-outbox.poll-interval-ms:1000}")
+    public void relayPendingEvents() {
+        for (String shardKey : shards.getShardKeys()) {
+            try {
+                int relayed;
+                do {
+                    relayed = TenantContext.callInShard(shardKey, this::relayBatch);
+                } while (relayed == batchSize);
+            } catch (Exception e) {
+                log.error("Outbox relay failed for shard {}", shardKey, e);
+            }
+        }
+    }
+
+    /**
+     * Claim, deliver and record one batch; returns the number of events processed
+     */
+    private int relayBatch() {
+        List<NotificationOutboxEvent> batch = claimBatch();
+        for (NotificationOutboxEvent event : batch) {
+            LocalDateTime leasedUntil = event.getNextAttemptAt();
+            deliver(event);
+            recordOutcome(event, leasedUntil);
+        }
+        return batch.size();
+    }
+
+    /**
+     * Lock due events and lease them to this relay; the locks are released on commit
+     */
+    private List<NotificationOutboxEvent> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leasedUntil = now.plusSeconds(leaseSeconds).truncatedTo(ChronoUnit.SECONDS);
+        List<NotificationOutboxEvent> batch = transactionTemplate.execute(status -> {
+            List<NotificationOutboxEvent> due = outboxRepository.lockDueBatch(now, batchSize);
+            for (NotificationOutboxEvent event : due) {
+                event.setAttempts(event.getAttempts() + 1);
+                event.setNextAttemptAt(leasedUntil);
+            }
+            return outboxRepository.saveAll(due);
+        });
+        return batch != null ? batch : List.of();
+    }
+
+    /**
+     * Store a delivery outcome, unless the lease expired and another relay took the event over
+     */
+    private void recordOutcome(NotificationOutboxEvent event, LocalDateTime leasedUntil) {
+        transactionTemplate.executeWithoutResult(status -> outboxRepository.findById(event.getId())
+                .filter(current -> current.getStatus() == OutboxStatus.PENDING
+                        && leasedUntil.equals(current.getNextAttemptAt()))
+                .ifPresentOrElse(current -> {
+                    current.setStatus(event.getStatus());
+                    current.setSentAt(event.getSentAt());
+                    current.setLastError(event.getLastError());
+                    current.setNextAttemptAt(event.getNextAttemptAt());
+                    outboxRepository.save(current);
+                }, () -> log.warn("Lease on outbox event {} expired before its outcome was recorded", event.getId())));
+    }
+
+    /**
+     * Call Notification-Service and apply the outcome to the (detached) event
+     */
+    private void deliver(NotificationOutboxEvent event) {
+        try {
+            Map<String, Object> response = notificationServiceClient.sendNotification(event.getId(), toRequest(event));
+            if (response == null || !Boolean.TRUE.equals(response.get("success"))) {
+                throw new IllegalStateException("Notification rejected: " +
+                        (response != null ? response.get("message") : "empty response"));
+            }
+
+            event.setStatus(OutboxStatus.SENT);
+            event.setSentAt(LocalDateTime.now());
+            event.setLastError(null);
+            log.debug("Outbox event {} delivered ({})", event.getId(), event.getEventType());
+
+        } catch (Exception e) {
+            event.setLastError(truncate(e.getMessage()));
+            if (event.getAttempts() >= maxAttempts) {
+                event.setStatus(OutboxStatus.FAILED);
+                log.error("Outbox event {} failed permanently after {} attempts: {}",
+                        event.getId(), event.getAttempts(), e.getMessage());
+            } else {
+                event.setNextAttemptAt(LocalDateTime.now().plusNanos(backoffMs(event.getAttempts()) * 1_000_000L));
+                log.warn("Outbox event {} delivery failed (attempt {}), retrying later: {}",
+                        event.getId(), event.getAttempts(), e.getMessage());
+            }
+        }
+    }
+
+    private NotificationRequest toRequest(NotificationOutboxEvent event) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("userId", event.getUserId());
+        data.put("userName", event.getRecipientName() != null ? event.getRecipientName() : "User");
+        data.put("platformName", event.getEnterpriseName() != null ? event.getEnterpriseName() : "Our Platform");
+        if (event.getEventType() == OutboxEventType.USER_CREATED) {
+            data.put("verificationUrl", verificationUrl(event));
+            data.put("expiryHours", emailVerificationTokens.getTtl().toHours());
+        }
+
+        return NotificationRequest.builder()
+                .enterpriseId(event.getEnterpriseId())
+                .event(event.getEventType().getNotificationEvent())
+                .channels(List.of("email"))
+                .to(List.of(event.getRecipientEmail()))
+                .data(data)
+                .build();
+    }
+
+    private String verificationUrl(NotificationOutboxEvent event) {
+        String token = emailVerificationTokens.issue(event.getUserId(), event.getEnterpriseId());
+        return verificationBaseUrl + "/api/auth/verify-email/" + event.getUserId() + "?token=" + token;
+    }
+
+    private long backoffMs(int attempts) {
+        long backoff = initialBackoffMs << Math.min(attempts - 1, 20);
+        return Math.min(backoff, maxBackoffMs);
+    }
+
+    private String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+}
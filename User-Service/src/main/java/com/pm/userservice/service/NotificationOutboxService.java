@@ -0,0 +1,38 @@
+package com.pm.userservice.service;
+
+import com.pm.userservice.entity.NotificationOutboxEvent;
+import com.pm.userservice.entity.User;
+import com.pm.userservice.enums.OutboxEventType;
+import com.pm.userservice.repository.NotificationOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Records user lifecycle events in the transactional outbox
+ * Must be called inside the transaction that changes the user, so both commit or roll back together
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationOutboxService {
+
+    private final NotificationOutboxRepository outboxRepository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(OutboxEventType eventType, User user) {
+        NotificationOutboxEvent event = NotificationOutboxEvent.builder()
+                .eventType(eventType)
+                .userId(user.getId())
+                .enterpriseId(user.getEnterprise().getId())
+                .recipientEmail(user.getEmail())
+                .recipientName(user.getFullName())
+                .enterpriseName(user.getEnterprise().getName())
+                .build();
+
+        outboxRepository.save(event);
+        log.debug("Outbox event {} recorded for user {}", eventType, user.getEmail());
+    }
+}
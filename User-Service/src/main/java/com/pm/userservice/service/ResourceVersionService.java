@@ -0,0 +1,61 @@
+package com.pm.userservice.service;
+
+import com.pm.userservice.enums.PageAccessLevel;
+import com.pm.userservice.enums.UserRole;
+import com.pm.userservice.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Builds ETags for frequently polled read endpoints
+ *
+ * Versions come from timestamps (a single indexed projection query) or from the static
+ * page catalog hash, so a conditional GET can be answered with 304 without loading
+ * entities or serializing a body.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ResourceVersionService {
+
+    private final UserRepository userRepository;
+
+    /**
+     * ETag for GET /api/users/{userId}; empty if the user does not exist
+     */
+    public Optional<String> userETag(String userId) {
+        return userRepository.findVersionById(userId)
+                .map(version -> weakETag("user", userId,
+                        toVersion(version.getUpdatedAt()),
+                        toVersion(version.getEnterpriseUpdatedAt())));
+    }
+
+    /**
+     * ETag for GET /api/pages/accessible (role-based page list)
+     */
+    public String accessiblePagesETag(UserRole role) {
+        return weakETag("pages", role.getCode(), PageAccessLevel.catalogVersion());
+    }
+
+    /**
+     * ETag for GET /api/pages/all (static page catalog)
+     */
+    public String pageCatalogETag() {
+        return weakETag("catalog", PageAccessLevel.catalogVersion());
+    }
+
+    private String toVersion(LocalDateTime timestamp) {
+        return timestamp != null ? timestamp.toString() : "-";
+    }
+
+    private String weakETag(String... parts) {
+        String version = String.join("|", parts);
+        return "W/\"" + DigestUtils.md5DigestAsHex(version.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
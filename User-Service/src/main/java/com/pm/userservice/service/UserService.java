@@ -3,21 +3,30 @@ package com.pm.userservice.service;
 import com.pm.userservice.dto.*;
 import com.pm.userservice.entity.Enterprise;
 import com.pm.userservice.entity.User;
+import com.pm.userservice.enums.OutboxEventType;
 import com.pm.userservice.enums.UserRole;
 import com.pm.userservice.repository.EnterpriseRepository;
 import com.pm.userservice.repository.UserRepository;
 import com.pm.userservice.security.JwtTokenProvider;
+import com.pm.userservice.tenant.TenantContext;
+import com.pm.userservice.tenant.TenantShardFanOut;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * User Service - Production level with multi-tenancy and authentication
@@ -34,6 +43,11 @@ public class UserService {
     private final JwtTokenProvider jwtTokenProvider;
     private final AuthenticationManager authenticationManager;
     private final PermissionService permissionService;
+    private final NotificationOutboxService notificationOutboxService;
+    private final TenantShardFanOut shardFanOut;
+
+    @Value("${users.batch-lookup.max-ids:500}")
+    private int maxBatchLookupIds;
 
     /**
      * User login with manual authentication
@@ -149,6 +163,7 @@ public class UserService {
         }
 
         User savedUser = userRepository.save(user);
+        notificationOutboxService.record(OutboxEventType.USER_CREATED, savedUser);
         log.info("User created successfully: {} with role: {}", savedUser.getEmail(), savedUser.getRole().getCode());
 
         return mapToUserDto(savedUser);
@@ -171,6 +186,41 @@ public class UserService {
         return mapToUserDto(user);
     }
 
+    /**
+     * Get contact details of many users in one query
+     * With an enterprise, only that enterprise's users are returned, from its shard. Without
+     * one (internal service callers only) every shard is queried in parallel.
+     * Unknown IDs are left out of the result. Runs outside a transaction so no connection is
+     * held while the shards are queried.
+     *
+     * @param enterpriseId enterprise the caller may see, or null for all enterprises
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<UserContactDto> getUserContacts(List<String> userIds, String enterpriseId) {
+        Set<String> ids = new LinkedHashSet<>(userIds);
+        ids.remove(null);
+        if (ids.size() > maxBatchLookupIds) {
+            throw new IllegalArgumentException("At most " + maxBatchLookupIds + " user IDs can be looked up at once");
+        }
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        List<UserRepository.UserContact> contacts = enterpriseId != null
+                ? TenantContext.callInTenant(enterpriseId, () -> userRepository.findContactsByIdInAndEnterpriseId(ids, enterpriseId))
+                : shardFanOut.collect(() -> userRepository.findContactsByIdIn(ids));
+        return contacts.stream()
+                .map(contact -> UserContactDto.builder()
+                        .id(contact.getId())
+                        .email(contact.getEmail())
+                        .phoneNumber(contact.getPhoneNumber())
+                        .name(fullName(contact.getFirstName(), contact.getLastName()))
+                        .enterpriseId(contact.getEnterpriseId())
+                        .active(contact.getActive())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
     /**
      * Get user by email in enterprise
      */
@@ -265,6 +315,7 @@ public class UserService {
 
         user.setActive(false);
         userRepository.save(user);
+        notificationOutboxService.record(OutboxEventType.USER_DEACTIVATED, user);
         log.info("User deactivated: {} by {}", user.getEmail(), actor.getEmail());
     }
 
@@ -277,13 +328,19 @@ public class UserService {
 
     /**
      * Verify user email
+     * A repeated verification (e.g. the link clicked twice) is a no-op and sends no second welcome email
      */
     public void verifyUserEmail(String userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        if (Boolean.TRUE.equals(user.getEmailVerified())) {
+            log.debug("Email already verified for user: {}", user.getEmail());
+            return;
+        }
         user.setEmailVerified(true);
         user.setEmailVerificationDate(LocalDateTime.now());
         userRepository.save(user);
+        notificationOutboxService.record(OutboxEventType.USER_EMAIL_VERIFIED, user);
         log.info("Email verified for user: {}", user.getEmail());
     }
 
@@ -304,6 +361,17 @@ public class UserService {
         log.info("Password changed for user: {}", user.getEmail());
     }
 
+    /**
+     * Helper: Join first and last name, skipping missing parts (null when both are missing)
+     */
+    private static String fullName(String firstName, String lastName) {
+        String name = Stream.of(firstName, lastName)
+                .filter(StringUtils::hasText)
+                .map(String::trim)
+                .collect(Collectors.joining(" "));
+        return name.isEmpty() ? null : name;
+    }
+
     /**
      * Helper: Map User entity to UserDto
      */
@@ -0,0 +1,73 @@
+package com.pm.userservice.tenant;
+
+import java.util.function.Supplier;
+
+/**
+ * Thread-bound tenant (enterprise) context
+ * Drives datasource routing for every repository call made on the current thread
+ */
+public final class TenantContext {
+
+    private static final ThreadLocal<String> CURRENT_TENANT = new ThreadLocal<>();
+    private static final ThreadLocal<String> SHARD_OVERRIDE = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    /**
+     * Enterprise ID bound to the current thread, or null if none
+     */
+    public static String getCurrentTenant() {
+        return CURRENT_TENANT.get();
+    }
+
+    public static void setCurrentTenant(String enterpriseId) {
+        if (enterpriseId == null || enterpriseId.isBlank()) {
+            CURRENT_TENANT.remove();
+        } else {
+            CURRENT_TENANT.set(enterpriseId);
+        }
+    }
+
+    /**
+     * Shard explicitly pinned for the current thread (used by cross-tenant fan-out)
+     */
+    public static String getShardOverride() {
+        return SHARD_OVERRIDE.get();
+    }
+
+    /**
+     * Run an action routed to the given tenant, restoring the previous tenant afterwards
+     */
+    public static <T> T callInTenant(String enterpriseId, Supplier<T> action) {
+        String previous = CURRENT_TENANT.get();
+        setCurrentTenant(enterpriseId);
+        try {
+            return action.get();
+        } finally {
+            setCurrentTenant(previous);
+        }
+    }
+
+    /**
+     * Run an action pinned to a specific shard, regardless of the bound tenant
+     */
+    public static <T> T callInShard(String shardKey, Supplier<T> action) {
+        String previous = SHARD_OVERRIDE.get();
+        SHARD_OVERRIDE.set(shardKey);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                SHARD_OVERRIDE.remove();
+            } else {
+                SHARD_OVERRIDE.set(previous);
+            }
+        }
+    }
+
+    public static void clear() {
+        CURRENT_TENANT.remove();
+        SHARD_OVERRIDE.remove();
+    }
+}
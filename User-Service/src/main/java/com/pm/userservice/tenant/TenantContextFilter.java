@@ -0,0 +1,92 @@
+package com.pm.userservice.tenant;
+
+import com.pm.userservice.security.JwtAuthenticationDetails;
+import com.pm.userservice.security.ServiceTokenAuthenticationFilter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Binds the caller's tenant to the request thread
+ *
+ * Runs after JWT authentication. The tenant is the enterpriseId claim of the verified token.
+ * An enterprise named in the request path (or enterpriseId parameter) may only differ from it
+ * for SUPER_ADMIN callers, who are then routed to that enterprise; anyone else gets a 403.
+ * Internal service callers (X-Service-Token) carry no enterprise and are bound to the one the request names.
+ * Unauthenticated requests are left unbound. The context is always cleared when the request completes.
+ */
+@Component
+@Slf4j
+public class TenantContextFilter extends OncePerRequestFilter {
+
+    private static final Pattern ENTERPRISE_PATH = Pattern.compile("/enterprises?/([^/]+)");
+    private static final Set<String> RESERVED_SEGMENTS = Set.of("code", "health");
+    private static final String SUPER_ADMIN_AUTHORITY = "ROLE_SUPER_ADMIN";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        try {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.isAuthenticated()
+                    && authentication.getDetails() instanceof JwtAuthenticationDetails details) {
+                String tokenTenant = details.getEnterpriseId();
+                String requestedTenant = resolveFromRequest(request);
+
+                if (requestedTenant != null && !requestedTenant.equals(tokenTenant)) {
+                    if (!isSuperAdmin(authentication)) {
+                        log.warn("User {} of enterprise {} denied access to enterprise {}",
+                                authentication.getName(), tokenTenant, requestedTenant);
+                        response.sendError(HttpServletResponse.SC_FORBIDDEN, "Access to another enterprise is not allowed");
+                        return;
+                    }
+                    TenantContext.setCurrentTenant(requestedTenant);
+                    log.debug("Tenant {} resolved from request path for super admin {}", requestedTenant, authentication.getName());
+                } else {
+                    TenantContext.setCurrentTenant(tokenTenant);
+                }
+            } else if (ServiceTokenAuthenticationFilter.isService(authentication)) {
+                // Internal services act on whichever enterprise the request names
+                String requestedTenant = resolveFromRequest(request);
+                if (requestedTenant != null) {
+                    TenantContext.setCurrentTenant(requestedTenant);
+                }
+            }
+            filterChain.doFilter(request, response);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    private String resolveFromRequest(HttpServletRequest request) {
+        Matcher matcher = ENTERPRISE_PATH.matcher(request.getRequestURI());
+        if (matcher.find() && !RESERVED_SEGMENTS.contains(matcher.group(1))) {
+            return matcher.group(1);
+        }
+
+        String enterpriseId = request.getParameter("enterpriseId");
+        return StringUtils.hasText(enterpriseId) ? enterpriseId : null;
+    }
+
+    private boolean isSuperAdmin(Authentication authentication) {
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if (SUPER_ADMIN_AUTHORITY.equals(authority.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,37 @@
+package com.pm.userservice.tenant;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.HashMap;
+
+/**
+ * Routes every connection request to the shard owning the tenant bound to the current thread
+ */
+public class TenantRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final TenantShards shards;
+    private final TenantShardDirectory directory;
+
+    public TenantRoutingDataSource(TenantShards shards, TenantShardDirectory directory) {
+        this.shards = shards;
+        this.directory = directory;
+        setTargetDataSources(new HashMap<>(shards.getDataSources()));
+        setDefaultTargetDataSource(shards.getDefaultDataSource());
+        // Unknown shard keys must fail loudly instead of silently hitting the default shard
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String shardOverride = TenantContext.getShardOverride();
+        if (shardOverride != null) {
+            return shardOverride;
+        }
+
+        String tenant = TenantContext.getCurrentTenant();
+        if (tenant == null) {
+            return shards.getDefaultShard();
+        }
+        return directory.resolveShard(tenant);
+    }
+}
@@ -0,0 +1,100 @@
+package com.pm.userservice.tenant;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Directory mapping each enterprise to the shard holding its users and page access records
+ *
+ * The directory table always lives on the default shard and is read through plain JDBC,
+ * bypassing the routing datasource. Assignments are cached; unknown tenants map to the default
+ * shard, but only for a short time, so an assignment made by another node is picked up.
+ */
+@Slf4j
+public class TenantShardDirectory {
+
+    private static final String CREATE_TABLE_SQL =
+            "CREATE TABLE IF NOT EXISTS tenant_shard_directory (" +
+            "enterprise_id VARCHAR(255) NOT NULL PRIMARY KEY, " +
+            "shard_key VARCHAR(64) NOT NULL, " +
+            "assigned_at DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TenantShards shards;
+    private final long unassignedTtlNanos;
+    private final Map<String, String> cache = new ConcurrentHashMap<>();
+    private final Map<String, Long> unassignedUntil = new ConcurrentHashMap<>();
+
+    public TenantShardDirectory(JdbcTemplate jdbcTemplate, TenantShards shards, Duration unassignedTtl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shards = shards;
+        this.unassignedTtlNanos = unassignedTtl.toNanos();
+    }
+
+    /**
+     * Create the directory table if needed and warm the cache
+     */
+    public void initialize() {
+        jdbcTemplate.execute(CREATE_TABLE_SQL);
+        jdbcTemplate.query("SELECT enterprise_id, shard_key FROM tenant_shard_directory",
+                rs -> {
+                    cache.put(rs.getString("enterprise_id"), rs.getString("shard_key"));
+                });
+        log.info("Tenant shard directory loaded: {} tenants across shards {}", cache.size(), shards.getShardKeys());
+    }
+
+    /**
+     * Resolve the shard for an enterprise
+     */
+    public String resolveShard(String enterpriseId) {
+        String shardKey = cache.get(enterpriseId);
+        if (shardKey != null) {
+            return shardKey;
+        }
+
+        Long until = unassignedUntil.get(enterpriseId);
+        if (until != null && System.nanoTime() - until < 0) {
+            return shards.getDefaultShard();
+        }
+
+        shardKey = lookupShard(enterpriseId);
+        if (shardKey == null) {
+            unassignedUntil.put(enterpriseId, System.nanoTime() + unassignedTtlNanos);
+            return shards.getDefaultShard();
+        }
+        unassignedUntil.remove(enterpriseId);
+        cache.put(enterpriseId, shardKey);
+        return shardKey;
+    }
+
+    /**
+     * Assign (or move) an enterprise to a shard
+     */
+    public void assign(String enterpriseId, String shardKey) {
+        if (!shards.contains(shardKey)) {
+            throw new IllegalArgumentException("Unknown shard: " + shardKey);
+        }
+        jdbcTemplate.update(
+                "INSERT INTO tenant_shard_directory (enterprise_id, shard_key) VALUES (?, ?) " +
+                "ON DUPLICATE KEY UPDATE shard_key = VALUES(shard_key)",
+                enterpriseId, shardKey);
+        cache.put(enterpriseId, shardKey);
+        unassignedUntil.remove(enterpriseId);
+        log.info("Enterprise {} assigned to shard {}", enterpriseId, shardKey);
+    }
+
+    /**
+     * Shard assigned in the directory table, or null if the enterprise has none
+     */
+    private String lookupShard(String enterpriseId) {
+        List<String> result = jdbcTemplate.queryForList(
+                "SELECT shard_key FROM tenant_shard_directory WHERE enterprise_id = ?",
+                String.class, enterpriseId);
+        return result.isEmpty() ? null : result.get(0);
+    }
+}
@@ -0,0 +1,62 @@
+package com.pm.userservice.tenant;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs cross-tenant queries (SUPER_ADMIN views) against every shard in parallel
+ * and merges the results
+ */
+@Component
+@Slf4j
+public class TenantShardFanOut implements DisposableBean {
+
+    private final TenantShards shards;
+    private final ExecutorService executor;
+
+    public TenantShardFanOut(TenantShards shards) {
+        this.shards = shards;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, shards.getShardKeys().size()), runnable -> {
+            Thread thread = new Thread(runnable, "shard-fanout-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Execute the query on each shard and concatenate the results
+     */
+    public <T> List<T> collect(Supplier<List<T>> query) {
+        if (shards.getShardKeys().size() == 1) {
+            return TenantContext.callInShard(shards.getDefaultShard(), query);
+        }
+
+        List<CompletableFuture<List<T>>> futures = new ArrayList<>();
+        for (String shardKey : shards.getShardKeys()) {
+            futures.add(CompletableFuture.supplyAsync(
+                    () -> TenantContext.callInShard(shardKey, query), executor));
+        }
+
+        List<T> merged = new ArrayList<>();
+        for (CompletableFuture<List<T>> future : futures) {
+            merged.addAll(future.join());
+        }
+        log.debug("Fan-out query merged {} rows from {} shards", merged.size(), futures.size());
+        return merged;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,47 @@
+package com.pm.userservice.tenant;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Tenant sharding configuration
+ *
+ * tenant.sharding.shards.<key>.url/username/password declare additional shards.
+ * The "default" shard always exists and is built from spring.datasource.*
+ */
+@Data
+@ConfigurationProperties(prefix = "tenant.sharding")
+public class TenantShardProperties {
+
+    /**
+     * Shard used when no tenant is bound and for the shard directory itself
+     */
+    private String defaultShard = "default";
+
+    /**
+     * Shard that newly created enterprises are assigned to
+     */
+    private String newTenantShard = "default";
+
+    /**
+     * How long an enterprise missing from the shard directory keeps routing to the default shard
+     * before the directory is checked again
+     */
+    private long unassignedCacheSeconds = 30;
+
+    /**
+     * Additional shards keyed by shard name
+     */
+    private Map<String, Shard> shards = new LinkedHashMap<>();
+
+    @Data
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName = "com.mysql.cj.jdbc.Driver";
+    }
+}
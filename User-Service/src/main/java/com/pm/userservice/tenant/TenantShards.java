@@ -0,0 +1,61 @@
+package com.pm.userservice.tenant;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Physical datasources backing each shard, keyed by shard name
+ */
+@Slf4j
+public class TenantShards implements DisposableBean {
+
+    private final String defaultShard;
+    private final Map<String, DataSource> dataSources;
+
+    public TenantShards(String defaultShard, Map<String, DataSource> dataSources) {
+        if (!dataSources.containsKey(defaultShard)) {
+            throw new IllegalArgumentException("Default shard not configured: " + defaultShard);
+        }
+        this.defaultShard = defaultShard;
+        this.dataSources = Collections.unmodifiableMap(new LinkedHashMap<>(dataSources));
+    }
+
+    public String getDefaultShard() {
+        return defaultShard;
+    }
+
+    public DataSource getDefaultDataSource() {
+        return dataSources.get(defaultShard);
+    }
+
+    public Set<String> getShardKeys() {
+        return dataSources.keySet();
+    }
+
+    public Map<String, DataSource> getDataSources() {
+        return dataSources;
+    }
+
+    public boolean contains(String shardKey) {
+        return dataSources.containsKey(shardKey);
+    }
+
+    @Override
+    public void destroy() {
+        dataSources.forEach((key, dataSource) -> {
+            if (dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Error closing datasource for shard {}: {}", key, e.getMessage());
+                }
+            }
+        });
+    }
+}
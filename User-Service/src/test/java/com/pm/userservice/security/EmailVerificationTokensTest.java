@@ -0,0 +1,50 @@
+package com.pm.userservice.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmailVerificationTokensTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Test
+    void issuedTokenVerifiesForItsUserAndNamesTheEnterprise() {
+        EmailVerificationTokens tokens = tokens("secret", NOW);
+        String token = tokens.issue("u1", "e1");
+
+        assertThat(tokens.verify(token, "u1")).contains("e1");
+        assertThat(tokens.verify(token, "u2")).isEmpty();
+    }
+
+    @Test
+    void tamperedOrForeignTokensAreRejected() {
+        EmailVerificationTokens tokens = tokens("secret", NOW);
+        String token = tokens.issue("u1", "e1");
+        String[] parts = token.split("\\.");
+
+        assertThat(tokens.verify("e2." + parts[1] + "." + parts[2], "u1")).isEmpty();
+        assertThat(tokens.verify(parts[0] + "." + (Long.parseLong(parts[1]) + 1) + "." + parts[2], "u1")).isEmpty();
+        assertThat(tokens("other", NOW).verify(token, "u1")).isEmpty();
+        assertThat(tokens.verify("garbage", "u1")).isEmpty();
+        assertThat(tokens.verify("e1.x.sig", "u1")).isEmpty();
+        assertThat(tokens.verify(null, "u1")).isEmpty();
+    }
+
+    @Test
+    void tokenExpiresAfterTheTtl() {
+        String token = tokens("secret", NOW).issue("u1", "e1");
+
+        assertThat(tokens("secret", NOW.plus(Duration.ofHours(72))).verify(token, "u1")).contains("e1");
+        assertThat(tokens("secret", NOW.plus(Duration.ofHours(72)).plusSeconds(1)).verify(token, "u1")).isEmpty();
+    }
+
+    private static EmailVerificationTokens tokens(String secret, Instant now) {
+        return new EmailVerificationTokens(secret, Duration.ofHours(72), Clock.fixed(now, ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,232 @@
+package com.pm.userservice.service;
+
+import com.pm.userservice.client.NotificationServiceClient;
+import com.pm.userservice.dto.NotificationRequest;
+import com.pm.userservice.entity.NotificationOutboxEvent;
+import com.pm.userservice.enums.OutboxEventType;
+import com.pm.userservice.enums.OutboxStatus;
+import com.pm.userservice.repository.NotificationOutboxRepository;
+import com.pm.userservice.security.EmailVerificationTokens;
+import com.pm.userservice.tenant.TenantShards;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives {@link NotificationOutboxRelay} against an in-memory outbox table and a stubbed client
+ */
+class NotificationOutboxRelayTest {
+
+    private final Map<String, NotificationOutboxEvent> rows = new LinkedHashMap<>();
+    private final NotificationOutboxRepository repository = mock(NotificationOutboxRepository.class);
+    private final NotificationServiceClient client = mock(NotificationServiceClient.class);
+    private final EmailVerificationTokens tokens = new EmailVerificationTokens("secret", 72);
+    private NotificationOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        when(repository.lockDueBatch(any(), anyInt())).thenAnswer(invocation -> {
+            LocalDateTime now = invocation.getArgument(0);
+            int limit = invocation.getArgument(1);
+            return rows.values().stream()
+                    .filter(row -> row.getStatus() == OutboxStatus.PENDING && !row.getNextAttemptAt().isAfter(now))
+                    .sorted(Comparator.comparing(NotificationOutboxEvent::getCreatedAt))
+                    .limit(limit)
+                    .map(NotificationOutboxRelayTest::copy)
+                    .toList();
+        });
+        when(repository.saveAll(any())).thenAnswer(invocation -> {
+            List<NotificationOutboxEvent> events = new ArrayList<>(invocation.getArgument(0));
+            events.forEach(event -> rows.put(event.getId(), copy(event)));
+            return events;
+        });
+        when(repository.save(any())).thenAnswer(invocation -> {
+            NotificationOutboxEvent event = invocation.getArgument(0);
+            rows.put(event.getId(), copy(event));
+            return event;
+        });
+        when(repository.findById(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(rows.get(invocation.<String>getArgument(0)))
+                        .map(NotificationOutboxRelayTest::copy));
+
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        TenantShards shards = new TenantShards("default", Map.of("default", mock(DataSource.class)));
+
+        relay = new NotificationOutboxRelay(repository, client, shards, tokens, transactionManager);
+        ReflectionTestUtils.setField(relay, "batchSize", 2);
+        ReflectionTestUtils.setField(relay, "maxAttempts", 3);
+        ReflectionTestUtils.setField(relay, "initialBackoffMs", 1000L);
+        ReflectionTestUtils.setField(relay, "maxBackoffMs", 300000L);
+        ReflectionTestUtils.setField(relay, "leaseSeconds", 60L);
+        ReflectionTestUtils.setField(relay, "verificationBaseUrl", "https://users.example.com");
+    }
+
+    @Test
+    void deliveredEventIsMarkedSentAndKeyedByItsId() {
+        insert("ev1", OutboxEventType.USER_EMAIL_VERIFIED, 0);
+        when(client.sendNotification(anyString(), any())).thenReturn(Map.of("success", true));
+
+        relay.relayPendingEvents();
+
+        verify(client).sendNotification(eq("ev1"), any());
+        NotificationOutboxEvent row = rows.get("ev1");
+        assertThat(row.getStatus()).isEqualTo(OutboxStatus.SENT);
+        assertThat(row.getSentAt()).isNotNull();
+        assertThat(row.getAttempts()).isEqualTo(1);
+        assertThat(row.getLastError()).isNull();
+    }
+
+    @Test
+    void accountVerificationCarriesASignedLink() {
+        insert("ev1", OutboxEventType.USER_CREATED, 0);
+        List<NotificationRequest> sent = new ArrayList<>();
+        when(client.sendNotification(anyString(), any())).thenAnswer(invocation -> {
+            sent.add(invocation.getArgument(1));
+            return Map.of("success", true);
+        });
+
+        relay.relayPendingEvents();
+
+        assertThat(sent).hasSize(1);
+        String url = (String) sent.get(0).getData().get("verificationUrl");
+        assertThat(url).startsWith("https://users.example.com/api/auth/verify-email/u-ev1?token=");
+        assertThat(tokens.verify(url.substring(url.indexOf("token=") + 6), "u-ev1")).contains("e1");
+        assertThat(sent.get(0).getData()).containsEntry("expiryHours", 72L);
+    }
+
+    @Test
+    void failedDeliveryIsRetriedWithExponentialBackoff() {
+        insert("ev1", OutboxEventType.USER_EMAIL_VERIFIED, 1);
+        when(client.sendNotification(anyString(), any())).thenThrow(new IllegalStateException("connection refused"));
+
+        LocalDateTime before = LocalDateTime.now();
+        relay.relayPendingEvents();
+
+        NotificationOutboxEvent row = rows.get("ev1");
+        assertThat(row.getStatus()).isEqualTo(OutboxStatus.PENDING);
+        assertThat(row.getAttempts()).isEqualTo(2);
+        assertThat(row.getLastError()).isEqualTo("connection refused");
+        // Second attempt: 1000 ms << 1
+        assertThat(row.getNextAttemptAt()).isAfterOrEqualTo(before.plusSeconds(2))
+                .isBefore(LocalDateTime.now().plusSeconds(3));
+    }
+
+    @Test
+    void rejectedResponseCountsAsAFailure() {
+        insert("ev1", OutboxEventType.USER_EMAIL_VERIFIED, 0);
+        when(client.sendNotification(anyString(), any())).thenReturn(Map.of("success", false, "message", "queue full"));
+
+        relay.relayPendingEvents();
+
+        NotificationOutboxEvent row = rows.get("ev1");
+        assertThat(row.getStatus()).isEqualTo(OutboxStatus.PENDING);
+        assertThat(row.getLastError()).contains("queue full");
+    }
+
+    @Test
+    void eventIsGivenUpAfterMaxAttempts() {
+        insert("ev1", OutboxEventType.USER_EMAIL_VERIFIED, 2);
+        when(client.sendNotification(anyString(), any())).thenThrow(new IllegalStateException("boom"));
+
+        relay.relayPendingEvents();
+
+        assertThat(rows.get("ev1").getStatus()).isEqualTo(OutboxStatus.FAILED);
+        assertThat(rows.get("ev1").getAttempts()).isEqualTo(3);
+    }
+
+    @Test
+    void outcomeIsDroppedWhenTheLeaseWasTakenOver() {
+        insert("ev1", OutboxEventType.USER_EMAIL_VERIFIED, 0);
+        LocalDateTime otherLease = LocalDateTime.now().plusHours(1);
+        when(client.sendNotification(anyString(), any())).thenAnswer(invocation -> {
+            // Lease expired mid-call and another relay claimed the event
+            rows.get("ev1").setNextAttemptAt(otherLease);
+            return Map.of("success", true);
+        });
+
+        relay.relayPendingEvents();
+
+        NotificationOutboxEvent row = rows.get("ev1");
+        assertThat(row.getStatus()).isEqualTo(OutboxStatus.PENDING);
+        assertThat(row.getNextAttemptAt()).isEqualTo(otherLease);
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void claimedEventsAreLeasedAndFullBatchesAreFollowedByAnother() {
+        for (int i = 1; i <= 3; i++) {
+            insert("ev" + i, OutboxEventType.USER_EMAIL_VERIFIED, 0);
+        }
+        List<LocalDateTime> leases = new ArrayList<>();
+        when(client.sendNotification(anyString(), any())).thenAnswer(invocation -> {
+            leases.add(rows.get(invocation.<String>getArgument(0)).getNextAttemptAt());
+            return Map.of("success", true);
+        });
+
+        LocalDateTime before = LocalDateTime.now();
+        relay.relayPendingEvents();
+
+        // A full batch of 2, then the remaining 1
+        verify(repository, times(2)).lockDueBatch(any(), anyInt());
+        assertThat(rows.values()).allMatch(row -> row.getStatus() == OutboxStatus.SENT);
+        assertThat(leases).hasSize(3)
+                .allMatch(lease -> !lease.isBefore(before.plusSeconds(59)) && lease.getNano() == 0);
+    }
+
+    private void insert(String id, OutboxEventType type, int attempts) {
+        LocalDateTime createdAt = LocalDateTime.now().minusMinutes(10).plusSeconds(rows.size());
+        rows.put(id, NotificationOutboxEvent.builder()
+                .id(id)
+                .eventType(type)
+                .userId("u-" + id)
+                .enterpriseId("e1")
+                .recipientEmail(id + "@x.com")
+                .recipientName("User " + id)
+                .enterpriseName("Acme")
+                .attempts(attempts)
+                .nextAttemptAt(createdAt)
+                .createdAt(createdAt)
+                .build());
+    }
+
+    private static NotificationOutboxEvent copy(NotificationOutboxEvent event) {
+        return NotificationOutboxEvent.builder()
+                .id(event.getId())
+                .eventType(event.getEventType())
+                .userId(event.getUserId())
+                .enterpriseId(event.getEnterpriseId())
+                .recipientEmail(event.getRecipientEmail())
+                .recipientName(event.getRecipientName())
+                .enterpriseName(event.getEnterpriseName())
+                .status(event.getStatus())
+                .attempts(event.getAttempts())
+                .nextAttemptAt(event.getNextAttemptAt())
+                .lastError(event.getLastError())
+                .createdAt(event.getCreatedAt())
+                .sentAt(event.getSentAt())
+                .build();
+    }
+}
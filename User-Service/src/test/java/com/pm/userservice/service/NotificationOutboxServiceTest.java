@@ -0,0 +1,115 @@
+package com.pm.userservice.service;
+
+import com.pm.userservice.entity.Enterprise;
+import com.pm.userservice.entity.NotificationOutboxEvent;
+import com.pm.userservice.entity.User;
+import com.pm.userservice.enums.OutboxEventType;
+import com.pm.userservice.enums.OutboxStatus;
+import com.pm.userservice.repository.NotificationOutboxRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Checks the transactional contract of {@link NotificationOutboxService#record} through a
+ * transaction proxy, as Spring applies it
+ */
+class NotificationOutboxServiceTest {
+
+    private final NotificationOutboxRepository repository = mock(NotificationOutboxRepository.class);
+    private final ThreadLocalTransactionManager transactionManager = new ThreadLocalTransactionManager();
+    private final NotificationOutboxService service = proxy(new NotificationOutboxService(repository));
+
+    @Test
+    void recordOutsideATransactionIsRefused() {
+        assertThatThrownBy(() -> service.record(OutboxEventType.USER_CREATED, user()))
+                .isInstanceOf(IllegalTransactionStateException.class);
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void recordJoinsTheCallersTransaction() {
+        new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> service.record(OutboxEventType.USER_CREATED, user()));
+
+        ArgumentCaptor<NotificationOutboxEvent> event = ArgumentCaptor.forClass(NotificationOutboxEvent.class);
+        verify(repository).save(event.capture());
+        assertThat(event.getValue().getEventType()).isEqualTo(OutboxEventType.USER_CREATED);
+        assertThat(event.getValue().getUserId()).isEqualTo("u1");
+        assertThat(event.getValue().getEnterpriseId()).isEqualTo("e1");
+        assertThat(event.getValue().getRecipientEmail()).isEqualTo("jane@acme.com");
+        assertThat(event.getValue().getRecipientName()).isEqualTo("Jane Doe");
+        assertThat(event.getValue().getEnterpriseName()).isEqualTo("Acme");
+        assertThat(event.getValue().getStatus()).isEqualTo(OutboxStatus.PENDING);
+        assertThat(transactionManager.begun).isEqualTo(1);
+    }
+
+    private NotificationOutboxService proxy(NotificationOutboxService target) {
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAdvice(new TransactionInterceptor(transactionManager, new AnnotationTransactionAttributeSource()));
+        return (NotificationOutboxService) factory.getProxy();
+    }
+
+    private static User user() {
+        return User.builder()
+                .id("u1")
+                .email("jane@acme.com")
+                .firstName("Jane")
+                .lastName("Doe")
+                .enterprise(Enterprise.builder().id("e1").name("Acme").build())
+                .build();
+    }
+
+    /**
+     * Minimal transaction manager: a transaction is a flag on the current thread
+     */
+    private static final class ThreadLocalTransactionManager extends AbstractPlatformTransactionManager {
+
+        private final ThreadLocal<Boolean> active = new ThreadLocal<>();
+        private int begun;
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object[]{active.get()};
+        }
+
+        @Override
+        protected boolean isExistingTransaction(Object transaction) {
+            return ((Object[]) transaction)[0] != null;
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+            active.set(Boolean.TRUE);
+            begun++;
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doCleanupAfterCompletion(Object transaction) {
+            active.remove();
+        }
+    }
+}
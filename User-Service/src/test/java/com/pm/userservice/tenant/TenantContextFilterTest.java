@@ -0,0 +1,135 @@
+package com.pm.userservice.tenant;
+
+import com.pm.userservice.security.JwtAuthenticationDetails;
+import com.pm.userservice.security.ServiceTokenAuthenticationFilter;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TenantContextFilterTest {
+
+    private final TenantContextFilter filter = new TenantContextFilter();
+    private final List<String> boundTenants = new ArrayList<>();
+    private final FilterChain chain = (request, response) -> boundTenants.add(TenantContext.getCurrentTenant());
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        TenantContext.clear();
+    }
+
+    @Test
+    void tenantIsTheEnterpriseClaimOfTheToken() throws Exception {
+        MockHttpServletRequest request = request("/api/users/me");
+        authenticate(request, "e1", "ROLE_HR");
+
+        MockHttpServletResponse response = filter(request);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(boundTenants).containsExactly("e1");
+        assertThat(TenantContext.getCurrentTenant()).isNull();
+    }
+
+    @Test
+    void ownEnterpriseInThePathIsAllowed() throws Exception {
+        MockHttpServletRequest request = request("/api/enterprises/e1/users");
+        authenticate(request, "e1", "ROLE_CEO");
+
+        filter(request);
+
+        assertThat(boundTenants).containsExactly("e1");
+    }
+
+    @Test
+    void anotherEnterpriseInThePathIsForbiddenForNonSuperAdmins() throws Exception {
+        MockHttpServletRequest request = request("/api/enterprises/e2/users");
+        authenticate(request, "e1", "ROLE_CEO");
+
+        MockHttpServletResponse response = filter(request);
+
+        assertThat(response.getStatus()).isEqualTo(403);
+        assertThat(boundTenants).isEmpty();
+    }
+
+    @Test
+    void anotherEnterpriseInTheParameterIsForbiddenForNonSuperAdmins() throws Exception {
+        MockHttpServletRequest request = request("/api/users");
+        request.setParameter("enterpriseId", "e2");
+        authenticate(request, "e1", "ROLE_HR");
+
+        assertThat(filter(request).getStatus()).isEqualTo(403);
+        assertThat(boundTenants).isEmpty();
+    }
+
+    @Test
+    void superAdminIsRoutedToTheRequestedEnterprise() throws Exception {
+        MockHttpServletRequest request = request("/api/enterprises/e2/users");
+        authenticate(request, "e1", "ROLE_SUPER_ADMIN");
+
+        MockHttpServletResponse response = filter(request);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(boundTenants).containsExactly("e2");
+    }
+
+    @Test
+    void reservedPathSegmentsAreNotEnterprises() throws Exception {
+        MockHttpServletRequest request = request("/api/enterprises/code/ACME");
+        authenticate(request, "e1", "ROLE_HR");
+
+        filter(request);
+
+        assertThat(boundTenants).containsExactly("e1");
+    }
+
+    @Test
+    void unauthenticatedRequestIsLeftUnbound() throws Exception {
+        MockHttpServletRequest request = request("/api/enterprises/e2/users");
+
+        MockHttpServletResponse response = filter(request);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(boundTenants).containsExactly((String) null);
+    }
+
+    @Test
+    void serviceCallerIsBoundToTheEnterpriseTheRequestNames() throws Exception {
+        MockHttpServletRequest request = request("/api/users/batch-lookup");
+        request.setParameter("enterpriseId", "e2");
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "internal-service", null,
+                List.of(new SimpleGrantedAuthority(ServiceTokenAuthenticationFilter.SERVICE_AUTHORITY))));
+
+        filter(request);
+
+        assertThat(boundTenants).containsExactly("e2");
+        assertThat(TenantContext.getCurrentTenant()).isNull();
+    }
+
+    private MockHttpServletResponse filter(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String uri) {
+        return new MockHttpServletRequest("GET", uri);
+    }
+
+    private static void authenticate(MockHttpServletRequest request, String enterpriseId, String authority) {
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                "user@x.com", null, List.of(new SimpleGrantedAuthority(authority)));
+        authentication.setDetails(new JwtAuthenticationDetails(request, enterpriseId));
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+}
@@ -0,0 +1,52 @@
+package com.pm.userservice.tenant;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TenantRoutingDataSourceTest {
+
+    private final TenantShards shards = new TenantShards("default",
+            Map.of("default", mock(DataSource.class), "shard-1", mock(DataSource.class)));
+    private final TenantShardDirectory directory = mock(TenantShardDirectory.class);
+    private final TenantRoutingDataSource dataSource = new TenantRoutingDataSource(shards, directory);
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void unboundThreadUsesTheDefaultShard() {
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo("default");
+        verify(directory, never()).resolveShard(anyString());
+    }
+
+    @Test
+    void boundTenantIsRoutedThroughTheDirectory() {
+        when(directory.resolveShard("e1")).thenReturn("shard-1");
+
+        Object shard = TenantContext.callInTenant("e1", dataSource::determineCurrentLookupKey);
+
+        assertThat(shard).isEqualTo("shard-1");
+    }
+
+    @Test
+    void shardOverrideWinsOverTheBoundTenant() {
+        Object shard = TenantContext.callInTenant("e1",
+                () -> TenantContext.callInShard("shard-1", dataSource::determineCurrentLookupKey));
+
+        assertThat(shard).isEqualTo("shard-1");
+        verify(directory, never()).resolveShard(anyString());
+        assertThat(TenantContext.getShardOverride()).isNull();
+    }
+}
@@ -0,0 +1,111 @@
+package com.pm.userservice.tenant;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TenantShardDirectoryTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final TenantShards shards = new TenantShards("default",
+            Map.of("default", mock(DataSource.class), "shard-1", mock(DataSource.class)));
+
+    @Test
+    void assignedTenantIsLookedUpOnceAndCached() {
+        stubLookup("e1", List.of("shard-1"));
+        TenantShardDirectory directory = directory(Duration.ofMinutes(1));
+
+        assertThat(directory.resolveShard("e1")).isEqualTo("shard-1");
+        assertThat(directory.resolveShard("e1")).isEqualTo("shard-1");
+
+        verify(jdbcTemplate, times(1)).queryForList(anyString(), eq(String.class), eq("e1"));
+    }
+
+    @Test
+    void unassignedTenantUsesTheDefaultShardWithoutLookupsUntilTheTtlExpires() {
+        stubLookup("e1", List.of());
+        TenantShardDirectory directory = directory(Duration.ofMinutes(1));
+
+        assertThat(directory.resolveShard("e1")).isEqualTo("default");
+        assertThat(directory.resolveShard("e1")).isEqualTo("default");
+
+        verify(jdbcTemplate, times(1)).queryForList(anyString(), eq(String.class), eq("e1"));
+    }
+
+    @Test
+    void assignmentByAnotherNodeIsPickedUpOnceTheFallbackExpires() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("e1")))
+                .thenReturn(List.of())
+                .thenReturn(List.of("shard-1"));
+        TenantShardDirectory directory = directory(Duration.ZERO);
+
+        assertThat(directory.resolveShard("e1")).isEqualTo("default");
+        assertThat(directory.resolveShard("e1")).isEqualTo("shard-1");
+        assertThat(directory.resolveShard("e1")).isEqualTo("shard-1");
+
+        verify(jdbcTemplate, times(2)).queryForList(anyString(), eq(String.class), eq("e1"));
+    }
+
+    @Test
+    void assignOverridesTheCachedFallback() {
+        stubLookup("e1", List.of());
+        TenantShardDirectory directory = directory(Duration.ofMinutes(1));
+        assertThat(directory.resolveShard("e1")).isEqualTo("default");
+
+        directory.assign("e1", "shard-1");
+
+        assertThat(directory.resolveShard("e1")).isEqualTo("shard-1");
+        verify(jdbcTemplate).update(anyString(), eq("e1"), eq("shard-1"));
+    }
+
+    @Test
+    void assignRejectsAnUnknownShard() {
+        TenantShardDirectory directory = directory(Duration.ofMinutes(1));
+
+        assertThatThrownBy(() -> directory.assign("e1", "shard-9")).isInstanceOf(IllegalArgumentException.class);
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    void initializeWarmsTheCacheFromTheTable() throws Exception {
+        ResultSet row = mock(ResultSet.class);
+        when(row.getString("enterprise_id")).thenReturn("e1");
+        when(row.getString("shard_key")).thenReturn("shard-1");
+        doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(1).processRow(row);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+        TenantShardDirectory directory = directory(Duration.ofMinutes(1));
+
+        directory.initialize();
+
+        assertThat(directory.resolveShard("e1")).isEqualTo("shard-1");
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(String.class), any());
+    }
+
+    private TenantShardDirectory directory(Duration unassignedTtl) {
+        return new TenantShardDirectory(jdbcTemplate, shards, unassignedTtl);
+    }
+
+    private void stubLookup(String enterpriseId, List<String> shardKeys) {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq(enterpriseId))).thenReturn(shardKeys);
+    }
+}
@@ -0,0 +1,49 @@
+package com.pm.userservice.tenant;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class TenantShardFanOutTest {
+
+    @Test
+    void queryRunsOncePerShardAndResultsAreMerged() {
+        Map<String, DataSource> dataSources = new LinkedHashMap<>();
+        dataSources.put("default", mock(DataSource.class));
+        dataSources.put("shard-1", mock(DataSource.class));
+        dataSources.put("shard-2", mock(DataSource.class));
+        TenantShardFanOut fanOut = new TenantShardFanOut(new TenantShards("default", dataSources));
+        try {
+            List<String> merged = fanOut.collect(() -> List.of(TenantContext.getShardOverride() + ":a",
+                    TenantContext.getShardOverride() + ":b"));
+
+            assertThat(merged).containsExactly("default:a", "default:b", "shard-1:a", "shard-1:b",
+                    "shard-2:a", "shard-2:b");
+        } finally {
+            fanOut.destroy();
+        }
+    }
+
+    @Test
+    void singleShardRunsOnTheCallingThread() {
+        TenantShardFanOut fanOut = new TenantShardFanOut(
+                new TenantShards("default", Map.of("default", mock(DataSource.class))));
+        try {
+            Thread caller = Thread.currentThread();
+
+            List<Boolean> result = fanOut.collect(() -> List.of(Thread.currentThread() == caller
+                    && "default".equals(TenantContext.getShardOverride())));
+
+            assertThat(result).containsExactly(true);
+            assertThat(TenantContext.getShardOverride()).isNull();
+        } finally {
+            fanOut.destroy();
+        }
+    }
+}